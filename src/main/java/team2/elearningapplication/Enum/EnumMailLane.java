@@ -0,0 +1,8 @@
+package team2.elearningapplication.Enum;
+
+// declaration order is the dispatch priority, the first lane goes out first
+public enum EnumMailLane {
+    OTP,
+    PAYMENT,
+    CERTIFICATE
+}
@@ -0,0 +1,7 @@
+package team2.elearningapplication.Enum;
+
+// what an uploaded file becomes, the target id is a course id or a lesson id
+public enum EnumMediaTarget {
+    COURSE_THUMBNAIL,
+    LESSON_CONTENT
+}
@@ -0,0 +1,8 @@
+package team2.elearningapplication.Enum;
+
+public enum EnumOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
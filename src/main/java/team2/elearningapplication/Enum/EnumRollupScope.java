@@ -0,0 +1,6 @@
+package team2.elearningapplication.Enum;
+
+public enum EnumRollupScope {
+    COURSE,
+    CATEGORY
+}
@@ -0,0 +1,8 @@
+package team2.elearningapplication.Enum;
+
+public enum EnumUploadStatus {
+    PENDING,
+    UPLOADING,
+    COMPLETED,
+    FAILED
+}
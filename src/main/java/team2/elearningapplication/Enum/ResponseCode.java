@@ -45,7 +45,14 @@ public enum ResponseCode {
     ORDER_ALREADY_CONFIRM(4400, "ORDER ALREADY CONFIRM"),
     USER_CANCEL_BILL(4500, "USER CANCEL BILL"),
     BLOG_NOT_EXIST(4600, "BLOG NOT EXIST"),
-    BLOG_LIST_IS_EMPTY(4700, "BLOG_LIST_IS_EMPTY");
+    BLOG_LIST_IS_EMPTY(4700, "BLOG_LIST_IS_EMPTY"),
+    QUIZ_SESSION_NOT_EXIST(4800, "QUIZ SESSION NOT EXIST"),
+    QUIZ_TIME_UP(4900, "QUIZ TIME UP"),
+    LIVE_QUIZ_NOT_EXIST(5000, "LIVE QUIZ NOT EXIST"),
+    NOT_LIVE_QUIZ_HOST(5100, "NOT LIVE QUIZ HOST"),
+    UPLOAD_NOT_EXIST(5200, "UPLOAD NOT EXIST"),
+    UPLOAD_BUSY(5300, "UPLOAD BUSY"),
+    UPLOAD_FAIL(5400, "UPLOAD FAIL");
 
 
     private int code;
@@ -10,12 +10,16 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import team2.elearningapplication.security.CustomAuthorizationFilter;
+import team2.elearningapplication.security.jwt.JWTKeyRing;
+import team2.elearningapplication.security.jwt.VerifiedTokenCache;
 
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(jsr250Enabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
+    private final JWTKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -69,6 +73,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 "/api/v1/lesson/add-lesson",
                 "/api/v1/lesson/update-lesson",
                 "/api/v1/lesson/delete-lesson",
+                "/api/v1/lesson/move-lesson",
                 "/api/v1/lesson/find-all-lesson",
                 "/api/v1/lesson/get-lesson-by-id",
                 "/api/v1/lesson/page-lesson",
@@ -76,6 +81,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 "/api/v1/lesson/find-all-lesson-by-deleted",
                 "/api/v1/lesson/complete-lesson",
                 "/api/v1/lesson/get-tracking-course",
+                "/api/v1/lesson/get-tracking-courses",
 
 
                 "/api/v1/answer/add-answer",
@@ -108,6 +114,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 "/api/v1/quiz/get-quiz-by-id",
                 "/api/v1/quiz/start-quiz",
                 "/api/v1/quiz/next-question",
+                "/api/v1/quiz/submit-answer",
                 "/api/v1/quiz/finish-quiz",
                 "/api/v1/quiz/reset-quiz",
                 "/api/v1/quiz/find-all-quiz-by-deleted",
@@ -118,10 +125,25 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 "/api/v1/payment/get-all-payment",
                 "/api/v1/payment/add-payment",
                 "api/v1/payment/payment-info",
+
+                "/api/v1/live-quiz/open",
+                "/api/v1/live-quiz/next-question",
+                "/api/v1/live-quiz/close",
+                "/api/v1/live-quiz/stats",
+                "/ws/live-quiz/**",
+
+                "/api/v1/media/create-upload",
+                "/api/v1/media/upload",
+                "/api/v1/media/upload-progress",
+
+                "/api/v1/dashboard/snapshot",
+                "/api/v1/dashboard/revenue-series",
+                "/api/v1/dashboard/email-lanes",
+                "/api/v1/dashboard/quiz-stats",
                 "/swagger-ui/**").permitAll();
         http.authorizeRequests().anyRequest().authenticated();
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
-        http.addFilterBefore(new CustomAuthorizationFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new CustomAuthorizationFilter(keyRing, tokenCache), UsernamePasswordAuthenticationFilter.class);
 
     }
 }
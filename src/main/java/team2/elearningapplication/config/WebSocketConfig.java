@@ -0,0 +1,55 @@
+package team2.elearningapplication.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+import team2.elearningapplication.service.live.LiveQuizEndpoint;
+import team2.elearningapplication.service.live.LiveQuizRegistry;
+
+import javax.servlet.ServletContext;
+import javax.websocket.DeploymentException;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+
+/**
+ * Registers the websocket endpoints with the container of the embedded Tomcat through the
+ * standard {@code javax.websocket} API, each connection getting an endpoint bound to the
+ * Spring beans it needs.
+ */
+@Configuration
+@Slf4j
+public class WebSocketConfig implements ServletContextAware, SmartInitializingSingleton {
+    private final LiveQuizRegistry liveQuizRegistry;
+    private ServerContainer serverContainer;
+
+    public WebSocketConfig(LiveQuizRegistry liveQuizRegistry) {
+        this.liveQuizRegistry = liveQuizRegistry;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        serverContainer = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (serverContainer == null) {
+            log.warn("No websocket container, live quiz sockets are disabled");
+            return;
+        }
+        try {
+            serverContainer.addEndpoint(ServerEndpointConfig.Builder.create(LiveQuizEndpoint.class, LiveQuizEndpoint.PATH)
+                    .configurator(new ServerEndpointConfig.Configurator() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public <T> T getEndpointInstance(Class<T> endpointClass) {
+                            return (T) new LiveQuizEndpoint(liveQuizRegistry);
+                        }
+                    })
+                    .build());
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Cannot register live quiz endpoint", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package team2.elearningapplication.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.dashboard.GetQuizStatsRequest;
+import team2.elearningapplication.dto.request.admin.dashboard.GetRevenueSeriesRequest;
+import team2.elearningapplication.dto.response.admin.dashboard.DashboardSnapshotResponse;
+import team2.elearningapplication.dto.response.admin.dashboard.EmailLaneMetricsResponse;
+import team2.elearningapplication.dto.response.admin.dashboard.QuizStatsResponse;
+import team2.elearningapplication.dto.response.admin.dashboard.RevenueSeriesResponse;
+import team2.elearningapplication.service.IDashboardService;
+import team2.elearningapplication.service.IQuizService;
+import team2.elearningapplication.service.IRevenueRollupService;
+import team2.elearningapplication.service.email.EmailService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@AllArgsConstructor
+public class DashboardController {
+    private final IDashboardService dashboardService;
+    private final IRevenueRollupService revenueRollupService;
+    private final EmailService emailService;
+    private final IQuizService quizService;
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<ResponseCommon<DashboardSnapshotResponse>> getSnapshot() {
+        return ResponseEntity.ok(dashboardService.getSnapshot());
+    }
+
+    @GetMapping("/revenue-series")
+    public ResponseEntity<ResponseCommon<RevenueSeriesResponse>> getRevenueSeries(GetRevenueSeriesRequest request) {
+        ResponseCommon<RevenueSeriesResponse> response = revenueRollupService.getSeries(request);
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @GetMapping("/email-lanes")
+    public ResponseEntity<ResponseCommon<List<EmailLaneMetricsResponse>>> getEmailLanes() {
+        return ResponseEntity.ok(emailService.getLaneMetrics());
+    }
+
+    @GetMapping("/quiz-stats")
+    public ResponseEntity<ResponseCommon<QuizStatsResponse>> getQuizStats(GetQuizStatsRequest request) {
+        ResponseCommon<QuizStatsResponse> response = quizService.getQuizStats(request);
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+}
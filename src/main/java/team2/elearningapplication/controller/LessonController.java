@@ -2,7 +2,6 @@ package team2.elearningapplication.controller;
 
 import lombok.AllArgsConstructor;
 import org.springdoc.api.annotations.ParameterObject;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import team2.elearningapplication.Enum.ResponseCode;
@@ -11,6 +10,7 @@ import team2.elearningapplication.dto.common.ResponseCommon;
 import team2.elearningapplication.dto.request.admin.lesson.*;
 import team2.elearningapplication.dto.request.user.lesson.GetLessonByCourseIdRequest;
 import team2.elearningapplication.dto.request.user.lesson.GetTrackingCourseRequest;
+import team2.elearningapplication.dto.request.user.lesson.GetTrackingCoursesRequest;
 import team2.elearningapplication.dto.request.user.lesson.LessonCompletedRequest;
 import team2.elearningapplication.dto.response.admin.lesson.*;
 import team2.elearningapplication.dto.response.user.lesson.GetLessonByCourseIdResponse;
@@ -20,6 +20,7 @@ import team2.elearningapplication.dto.response.user.lesson.LessonCompletedRespon
 import team2.elearningapplication.service.ILessonService;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/lesson")
@@ -32,8 +33,8 @@ public class LessonController {
         ResponseCommon<AddLessonResponse> response = lessonService.addLesson(addLessonRequest);
         if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
             return ResponseEntity.ok(response);
-        } else if (response.getCode() == ResponseCode.LESSON_EXIST.getCode()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ResponseCommon<>(response.getCode(), "Lesson already exists", null));
+        } else if (response.getCode() == ResponseCode.COURSE_NOT_EXIST.getCode()) {
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), "Course not exist", null));
         } else {
             return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Add lesson failed", null));
         }
@@ -63,6 +64,18 @@ public class LessonController {
         }
     }
 
+    @PutMapping("/move-lesson")
+    public ResponseEntity<ResponseCommon<MoveLessonResponse>> moveLesson(@Valid @RequestBody MoveLessonRequest moveLessonRequest) {
+        ResponseCommon<MoveLessonResponse> response = lessonService.moveLesson(moveLessonRequest);
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            return ResponseEntity.ok(response);
+        } else if (response.getCode() == ResponseCode.LESSON_NOT_EXIST.getCode()) {
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), "Lesson does not exist", null));
+        } else {
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Move lesson failed", null));
+        }
+    }
+
     @GetMapping("/find-all-lesson")
     public ResponseEntity<ResponseCommon<FindAllLessonResponse>> findAllLesson() {
         ResponseCommon<FindAllLessonResponse> response = lessonService.findAllLesson();
@@ -161,4 +174,20 @@ public class LessonController {
             return ResponseEntity.badRequest().body(new GetTrackingCourse());
         }
     }
+
+    @GetMapping("/get-tracking-courses")
+    public ResponseEntity<List<GetTrackingCourse>> getTrackingCourses(@ParameterObject GetTrackingCoursesRequest getTrackingCoursesRequest) {
+        try {
+            ResponseCommon<List<GetTrackingCourse>> response = lessonService.trackingCourses(getTrackingCoursesRequest);
+
+            if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+                return ResponseEntity.ok(response.getData());
+            } else {
+                return ResponseEntity.badRequest().body(List.of());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.badRequest().body(List.of());
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package team2.elearningapplication.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.user.live.GetLiveQuizStatsRequest;
+import team2.elearningapplication.dto.request.user.live.LiveQuizActionRequest;
+import team2.elearningapplication.dto.request.user.live.OpenLiveQuizRequest;
+import team2.elearningapplication.dto.response.user.live.LiveQuizRoomResponse;
+import team2.elearningapplication.dto.response.user.live.LiveQuizStatsResponse;
+import team2.elearningapplication.service.ILiveQuizService;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/live-quiz")
+@AllArgsConstructor
+public class LiveQuizController {
+    private final ILiveQuizService liveQuizService;
+
+    @PostMapping("/open")
+    public ResponseEntity<ResponseCommon<LiveQuizRoomResponse>> openRoom(@Valid @RequestBody OpenLiveQuizRequest request) {
+        return toEntity(liveQuizService.openRoom(request));
+    }
+
+    @PostMapping("/next-question")
+    public ResponseEntity<ResponseCommon<LiveQuizRoomResponse>> nextQuestion(@Valid @RequestBody LiveQuizActionRequest request) {
+        return toEntity(liveQuizService.nextQuestion(request));
+    }
+
+    @PostMapping("/close")
+    public ResponseEntity<ResponseCommon<LiveQuizStatsResponse>> closeRoom(@Valid @RequestBody LiveQuizActionRequest request) {
+        return toEntity(liveQuizService.closeRoom(request));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ResponseCommon<LiveQuizStatsResponse>> getStats(@Valid GetLiveQuizStatsRequest request) {
+        return toEntity(liveQuizService.getStats(request));
+    }
+
+    private static <T> ResponseEntity<ResponseCommon<T>> toEntity(ResponseCommon<T> response) {
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+}
@@ -0,0 +1,48 @@
+package team2.elearningapplication.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.media.CreateUploadRequest;
+import team2.elearningapplication.dto.request.admin.media.GetUploadProgressRequest;
+import team2.elearningapplication.dto.response.admin.media.UploadProgressResponse;
+import team2.elearningapplication.service.IMediaService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/media")
+@AllArgsConstructor
+public class MediaController {
+    private final IMediaService mediaService;
+
+    @PostMapping("/create-upload")
+    public ResponseEntity<ResponseCommon<UploadProgressResponse>> createUpload(@Valid @RequestBody CreateUploadRequest request) {
+        return toEntity(mediaService.createUpload(request));
+    }
+
+    // multipart/form-data with one file part, streamed through as it arrives
+    @PostMapping("/upload")
+    public ResponseEntity<ResponseCommon<UploadProgressResponse>> upload(@RequestParam String uploadId, HttpServletRequest request) {
+        return toEntity(mediaService.upload(uploadId, request));
+    }
+
+    @GetMapping("/upload-progress")
+    public ResponseEntity<ResponseCommon<UploadProgressResponse>> getUploadProgress(@Valid GetUploadProgressRequest request) {
+        return toEntity(mediaService.getUploadProgress(request));
+    }
+
+    private static <T> ResponseEntity<ResponseCommon<T>> toEntity(ResponseCommon<T> response) {
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            return ResponseEntity.ok(response);
+        }
+        if (response.getCode() == ResponseCode.UPLOAD_BUSY.getCode()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+}
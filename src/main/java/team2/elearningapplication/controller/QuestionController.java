@@ -3,6 +3,7 @@ package team2.elearningapplication.controller;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import team2.elearningapplication.Enum.ResponseCode;
@@ -14,14 +15,12 @@ import team2.elearningapplication.dto.response.admin.question.AddQuestionRespons
 import team2.elearningapplication.dto.response.admin.question.DeleteQuestionResponse;
 import team2.elearningapplication.dto.response.admin.question.GetQuestionByIdResponse;
 import team2.elearningapplication.dto.response.admin.question.UpdateQuestionResponse;
-import team2.elearningapplication.dto.response.user.question.GetQuestionByQuizIdResponse;
 import team2.elearningapplication.dto.response.user.question.GetQuestionPageResponse;
 import team2.elearningapplication.entity.Question;
 import team2.elearningapplication.service.IQuestionService;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v1/question")
@@ -134,14 +133,15 @@ public class QuestionController {
     }
 
     @GetMapping("/get-questions-by-quiz-id")
-    public ResponseEntity<ResponseCommon<GetQuestionByQuizIdResponse>> getQuestionsByQuizId(GetQuestionByQuizIDRequest getQuestionByQuizIDRequest) {
+    public ResponseEntity<?> getQuestionsByQuizId(GetQuestionByQuizIDRequest getQuestionByQuizIDRequest) {
         try {
-            ResponseCommon<GetQuestionByQuizIdResponse> response = questionService.getQuestionByQuizId(getQuestionByQuizIDRequest);
+            ResponseCommon<byte[]> response = questionService.getQuestionByQuizIdJson(getQuestionByQuizIDRequest);
 
-            if (Objects.isNull(response)) {
-                return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.QUESTION_LIST_IS_EMPTY.getCode(), "Question list is empty", null));
+            if (response.getCode() != ResponseCode.SUCCESS.getCode()) {
+                return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Get questions by quiz ID failed", null));
             }
-            return ResponseEntity.ok().body(new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Get questions by quiz ID success", response.getData()));
+            // a ResponseCommon<GetQuestionByQuizIdResponse> serialized once per quiz version
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response.getData());
         } catch (Exception e) {
             e.printStackTrace();
             log.error("An error occurred while getting questions by quiz ID - " + e.getMessage(), e);
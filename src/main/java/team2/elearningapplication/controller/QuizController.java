@@ -116,7 +116,7 @@ public class QuizController {
     }
 
     @GetMapping("/start-quiz")
-    public ResponseEntity<ResponseCommon<StartQuizResponse>> startQuiz(@ParameterObject StartQuizRequest startQuizRequest) {
+    public ResponseEntity<ResponseCommon<StartQuizResponse>> startQuiz(@Valid @ParameterObject StartQuizRequest startQuizRequest) {
         ResponseCommon<StartQuizResponse> response = quizService.startQuiz(startQuizRequest);
 
         if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
@@ -125,27 +125,50 @@ public class QuizController {
         } else if (response.getCode() == ResponseCode.QUIZ_NOT_EXIST.getCode()) {
             log.debug("Quiz not exist.");
             return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), "Quiz not exist", null));
+        } else if (response.getCode() == ResponseCode.INVALID_DATA.getCode()) {
+            log.debug("Start quiz rejected: {}", response.getMessage());
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), response.getMessage(), null));
         } else {
             log.error("Start quiz by ID failed");
             return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Start quiz by ID failed", null));
         }
     }
 
-//    @PostMapping("/next-question")
-//    public ResponseEntity<ResponseCommon<NextQuestionResponse>> nextQuestion(@Valid @RequestBody NextQuestionRequest nextQuestionRequest) {
-//        ResponseCommon<NextQuestionResponse> response = quizService.nextQuestion(nextQuestionRequest);
-//
-//        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
-//            log.debug("Next question retrieved successfully.");
-//            return ResponseEntity.ok(response);
-//        } else if (response.getCode() == ResponseCode.FAIL.getCode()) {
-//            log.error("Next question retrieval failed");
-//            return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), "Next question retrieval failed", null));
-//        } else {
-//            log.error("Next question retrieval failed");
-//            return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Next question retrieval failed", null));
-//        }
-//    }
+    @PostMapping("/next-question")
+    public ResponseEntity<ResponseCommon<NextQuestionResponse>> nextQuestion(@Valid @RequestBody NextQuestionRequest nextQuestionRequest) {
+        ResponseCommon<NextQuestionResponse> response = quizService.nextQuestion(nextQuestionRequest);
+
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            log.debug("Next question retrieved successfully.");
+            return ResponseEntity.ok(response);
+        } else if (response.getCode() == ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode()
+                || response.getCode() == ResponseCode.INVALID_DATA.getCode()
+                || response.getCode() == ResponseCode.QUIZ_TIME_UP.getCode()) {
+            log.debug("Next question rejected: {}", response.getMessage());
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), response.getMessage(), null));
+        } else {
+            log.error("Next question retrieval failed");
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Next question retrieval failed", null));
+        }
+    }
+
+    @PostMapping("/submit-answer")
+    public ResponseEntity<ResponseCommon<SubmitAnswerResponse>> submitAnswer(@Valid @RequestBody SubmitAnswerRequest submitAnswerRequest) {
+        ResponseCommon<SubmitAnswerResponse> response = quizService.submitAnswer(submitAnswerRequest);
+
+        if (response.getCode() == ResponseCode.SUCCESS.getCode()) {
+            log.debug("Answer submitted successfully.");
+            return ResponseEntity.ok(response);
+        } else if (response.getCode() == ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode()
+                || response.getCode() == ResponseCode.INVALID_DATA.getCode()
+                || response.getCode() == ResponseCode.QUIZ_TIME_UP.getCode()) {
+            log.debug("Answer rejected: {}", response.getMessage());
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(response.getCode(), response.getMessage(), null));
+        } else {
+            log.error("Submit answer failed");
+            return ResponseEntity.badRequest().body(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Submit answer failed", null));
+        }
+    }
 
     @PostMapping("/finish-quiz")
     public ResponseEntity<ResponseCommon<FinishQuizResponse>> finishQuiz(@Valid @RequestBody FinishQuizRequest finishQuizRequest) {
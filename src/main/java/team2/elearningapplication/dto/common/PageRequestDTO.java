@@ -21,4 +21,21 @@ public class PageRequestDTO {
     private String sortBy;
     @NotBlank
     private String sortDir;
+    // keyset mode: pageNo is ignored and pages follow nextCursor instead of an offset
+    private boolean keyset;
+    // nextCursor of the previous keyset page, empty for the first page
+    private String cursor;
+    // keyset mode only: also return the (cached) total count
+    private boolean withTotal;
+
+    public PageRequestDTO(int pageNo, int pageSize, String sortBy, String sortDir) {
+        this.pageNo = pageNo;
+        this.pageSize = pageSize;
+        this.sortBy = sortBy;
+        this.sortDir = sortDir;
+    }
+
+    public boolean useKeyset() {
+        return keyset || (cursor != null && !cursor.isBlank());
+    }
 }
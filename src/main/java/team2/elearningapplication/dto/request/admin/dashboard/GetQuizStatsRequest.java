@@ -0,0 +1,15 @@
+package team2.elearningapplication.dto.request.admin.dashboard;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class GetQuizStatsRequest {
+    @NotNull
+    private int quizId;
+}
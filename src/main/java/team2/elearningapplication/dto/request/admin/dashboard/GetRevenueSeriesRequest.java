@@ -0,0 +1,28 @@
+package team2.elearningapplication.dto.request.admin.dashboard;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import team2.elearningapplication.Enum.EnumRollupGranularity;
+import team2.elearningapplication.Enum.EnumRollupScope;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class GetRevenueSeriesRequest {
+    @NotNull
+    private EnumRollupGranularity granularity;
+    @NotNull
+    private EnumRollupScope scope;
+    private int scopeId;
+    @NotNull
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @NotNull
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
@@ -0,0 +1,23 @@
+package team2.elearningapplication.dto.request.admin.lesson;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class MoveLessonRequest {
+    @NotBlank
+    private String username;
+    @NotNull
+    private int lessonID;
+    // position to move to, from 1; past the last lesson moves it to the end
+    @NotNull
+    private int ordNumber;
+}
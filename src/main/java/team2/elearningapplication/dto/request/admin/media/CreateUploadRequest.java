@@ -0,0 +1,24 @@
+package team2.elearningapplication.dto.request.admin.media;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CreateUploadRequest {
+    @NotBlank
+    private String username;
+    @NotNull
+    private EnumMediaTarget target;
+    // course id for a thumbnail, lesson id for lesson content
+    @NotNull
+    private int targetId;
+}
@@ -0,0 +1,11 @@
+package team2.elearningapplication.dto.request.admin.media;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+public class GetUploadProgressRequest {
+    @NotBlank
+    private String uploadId;
+}
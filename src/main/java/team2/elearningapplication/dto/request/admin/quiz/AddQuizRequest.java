@@ -19,4 +19,6 @@ public class AddQuizRequest {
     private int lessonID;
     @NotBlank
     private String quizName;
+    // leave empty for a quiz without time limit
+    private Integer timeLimitSeconds;
 }
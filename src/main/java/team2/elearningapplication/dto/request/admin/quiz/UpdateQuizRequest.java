@@ -25,5 +25,7 @@ public class UpdateQuizRequest {
     private String lessonName;
     @NotNull
     private boolean deleted;
+    // empty keeps the current limit, 0 removes it
+    private Integer timeLimitSeconds;
 
 }
@@ -0,0 +1,11 @@
+package team2.elearningapplication.dto.request.user.lesson;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+public class GetTrackingCoursesRequest {
+    @NotBlank
+    private String username;
+}
@@ -0,0 +1,11 @@
+package team2.elearningapplication.dto.request.user.live;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+public class GetLiveQuizStatsRequest {
+    @NotBlank
+    private String roomCode;
+}
@@ -0,0 +1,14 @@
+package team2.elearningapplication.dto.request.user.live;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Text frame a participant sends over the live quiz socket to answer the current question.
+ */
+@Data
+public class LiveAnswerMessage {
+    private int questionId;
+    private List<Integer> answerIds;
+}
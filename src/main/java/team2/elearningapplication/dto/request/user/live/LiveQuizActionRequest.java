@@ -0,0 +1,13 @@
+package team2.elearningapplication.dto.request.user.live;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+public class LiveQuizActionRequest {
+    @NotBlank
+    private String username;
+    @NotBlank
+    private String roomCode;
+}
@@ -0,0 +1,15 @@
+package team2.elearningapplication.dto.request.user.live;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@Data
+public class OpenLiveQuizRequest {
+    // the host, only they can move the room to the next question or close it
+    @NotBlank
+    private String username;
+    @NotNull
+    private int quizId;
+}
@@ -3,7 +3,6 @@ package team2.elearningapplication.dto.request.user.quiz;
 import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import java.util.List;
 
@@ -17,6 +16,6 @@ public class FinishQuizRequest {
     private int quizId;
     @NotNull
     private int sessionId;
-    @NotEmpty
+    // leave empty to finish with the answers submitted to the session
     private List<Integer> answerIdList;
 }
@@ -2,11 +2,17 @@ package team2.elearningapplication.dto.request.user.quiz;
 
 import lombok.Data;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 
 @Data
 public class GetAllSessionQuizByUserRequest {
     @NotBlank
     private String username;
-
+    // nextCursor of the previous page, empty for the first page
+    private String cursor;
+    @Min(1)
+    @Max(100)
+    private int pageSize = 20;
 }
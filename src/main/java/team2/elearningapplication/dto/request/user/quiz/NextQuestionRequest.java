@@ -4,6 +4,7 @@ import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 
 @Data
 public class NextQuestionRequest {
@@ -18,4 +19,6 @@ public class NextQuestionRequest {
     @NotNull
     private int quizId;
     private int answerId;
+    // options picked for preQuestionId, for multiple choice questions; answerId is used when empty
+    private List<Integer> answerIdList;
 }
@@ -2,10 +2,14 @@ package team2.elearningapplication.dto.request.user.quiz;
 
 import lombok.Data;
 
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 @Data
 public class StartQuizRequest {
     @NotNull
     private int quizId;
+    // owner of the session, later calls with another username are refused
+    @NotBlank
+    private String username;
 }
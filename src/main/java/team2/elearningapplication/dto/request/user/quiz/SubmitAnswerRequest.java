@@ -0,0 +1,20 @@
+package team2.elearningapplication.dto.request.user.quiz;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+public class SubmitAnswerRequest {
+    @NotBlank
+    private String username;
+    @NotNull
+    private int sessionId;
+    @NotNull
+    private int questionId;
+    // an empty list clears the answer
+    @NotNull
+    private List<Integer> answerIdList;
+}
@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import team2.elearningapplication.entity.Course;
+import team2.elearningapplication.dto.response.user.course.CourseCard;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
@@ -18,5 +18,5 @@ public class FindAllCourseResponse {
     @NotBlank
     private String message;
     @NotEmpty
-    private List<Course> listCourse;
+    private List<CourseCard> listCourse;
 }
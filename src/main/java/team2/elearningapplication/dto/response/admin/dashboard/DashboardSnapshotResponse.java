@@ -0,0 +1,20 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class DashboardSnapshotResponse {
+    private long totalUser;
+    private long totalCourse;
+    private long totalEnrollment;
+    private double totalRevenue;
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,21 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import team2.elearningapplication.Enum.EnumMailLane;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class EmailLaneMetricsResponse {
+    private EnumMailLane lane;
+    private int queued;
+    private long submitted;
+    private long sent;
+    private long retried;
+    private long failed;
+    private long rejected;
+}
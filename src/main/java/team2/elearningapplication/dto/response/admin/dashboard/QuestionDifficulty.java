@@ -0,0 +1,19 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class QuestionDifficulty {
+    private int questionId;
+    private String questionName;
+    private long hitCount;
+    private long missCount;
+    // share of graded attempts that did not get the question right
+    private double missRate;
+}
@@ -0,0 +1,20 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class QuizStatsResponse {
+    private int quizId;
+    private long attemptCount;
+    private List<ScoreBucket> scoreDistribution;
+    // most missed first
+    private List<QuestionDifficulty> questions;
+}
@@ -0,0 +1,18 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevenueBucket {
+    private LocalDate bucketStart;
+    private double revenue;
+    private long enrollmentCount;
+}
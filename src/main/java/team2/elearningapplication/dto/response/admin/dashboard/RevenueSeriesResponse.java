@@ -0,0 +1,21 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import team2.elearningapplication.Enum.EnumRollupGranularity;
+import team2.elearningapplication.Enum.EnumRollupScope;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevenueSeriesResponse {
+    private EnumRollupGranularity granularity;
+    private EnumRollupScope scope;
+    private int scopeId;
+    private List<RevenueBucket> buckets;
+}
@@ -0,0 +1,17 @@
+package team2.elearningapplication.dto.response.admin.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ScoreBucket {
+    // percent range, the last bucket includes a full score
+    private int fromPercent;
+    private int toPercent;
+    private long attemptCount;
+}
@@ -29,4 +29,7 @@ public class GetLessonByIdResponse {
     private LocalDateTime createdAt;
     @NotNull
     private boolean isDeleted;
+    // neighbours in the course outline, null at either end
+    private Integer previousLessonId;
+    private Integer nextLessonId;
 }
@@ -0,0 +1,21 @@
+package team2.elearningapplication.dto.response.admin.lesson;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class MoveLessonResponse {
+    @NotNull
+    private int lessonID;
+    @NotNull
+    private int courseID;
+    @NotNull
+    private int ordNumber;
+}
@@ -0,0 +1,24 @@
+package team2.elearningapplication.dto.response.admin.media;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+import team2.elearningapplication.Enum.EnumUploadStatus;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class UploadProgressResponse {
+    private String uploadId;
+    private EnumMediaTarget target;
+    private int targetId;
+    private EnumUploadStatus status;
+    private long bytesReceived;
+    // length of the request body, a little over the file size; -1 when not sent
+    private long totalBytes;
+    private String url;
+    private String error;
+}
@@ -23,4 +23,5 @@ public class GetQuizByIdResponse {
     private Question question;
     @NotNull
     private boolean isDeleted;
+    private Integer timeLimitSeconds;
 }
@@ -0,0 +1,23 @@
+package team2.elearningapplication.dto.response.user.answer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One option of an answered question with the question's text, read in a single join when a
+ * finished session is reviewed.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AnswerReviewRow {
+    private int answerId;
+    private String answerContent;
+    private boolean correct;
+    private boolean deleted;
+    private int questionId;
+    private String questionName;
+}
@@ -0,0 +1,22 @@
+package team2.elearningapplication.dto.response.user.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The fields a course list shows, selected straight from {@code course} joined with its category
+ * instead of loading the entity with its category and creator/updater users.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CourseCard {
+    private int id;
+    private String name;
+    private double price;
+    private String thumbnail;
+    private String categoryName;
+}
@@ -4,7 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import team2.elearningapplication.entity.Course;
 
 import javax.validation.constraints.NotEmpty;
 import java.util.List;
@@ -15,5 +14,5 @@ import java.util.List;
 @Getter
 public class GetTopCourseResponse {
     @NotEmpty
-    private List<Course> listCourse;
+    private List<CourseCard> listCourse;
 }
@@ -28,4 +28,6 @@ public class PageCourseResponse {
     private int totalPages;
     @NotNull
     private boolean last;
+    // keyset mode only, null on the last page
+    private String nextCursor;
 }
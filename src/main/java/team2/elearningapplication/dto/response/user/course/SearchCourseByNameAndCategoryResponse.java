@@ -3,7 +3,6 @@ package team2.elearningapplication.dto.response.user.course;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
-import team2.elearningapplication.entity.Course;
 
 import javax.validation.constraints.NotEmpty;
 import java.util.List;
@@ -13,5 +12,5 @@ import java.util.List;
 @Setter
 public class SearchCourseByNameAndCategoryResponse {
     @NotEmpty
-    List<Course> courseList;
+    List<CourseCard> courseList;
 }
@@ -21,4 +21,6 @@ public class GetLessonPageResponse {
     private int totalPages;
     @NotNull
     private boolean last;
+    // keyset mode only, null on the last page
+    private String nextCursor;
 }
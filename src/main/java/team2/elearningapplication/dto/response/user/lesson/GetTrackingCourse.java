@@ -7,8 +7,11 @@ import javax.validation.constraints.NotNull;
 
 @Data
 public class GetTrackingCourse {
+    private int courseId;
     @NotNull
     private int lessonCompleted;
     @NotBlank
     private int totalLesson;
+    // ord number of the last lesson completed, 0 before the first
+    private int lessonCurrent;
 }
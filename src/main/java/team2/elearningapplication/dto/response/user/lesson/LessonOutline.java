@@ -0,0 +1,15 @@
+package team2.elearningapplication.dto.response.user.lesson;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A lesson as listed in its course outline, same JSON field names as the {@code Lesson} entity.
+ */
+@AllArgsConstructor
+@Getter
+public class LessonOutline {
+    private final int id;
+    private final String name;
+    private final int ordNumber;
+}
@@ -0,0 +1,15 @@
+package team2.elearningapplication.dto.response.user.lesson;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One lesson of a course outline as read from the database, in rank order.
+ */
+@AllArgsConstructor
+@Getter
+public class LessonOutlineRow {
+    private final int id;
+    private final String name;
+    private final Long rank;
+}
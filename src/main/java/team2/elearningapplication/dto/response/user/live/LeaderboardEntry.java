@@ -0,0 +1,17 @@
+package team2.elearningapplication.dto.response.user.live;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class LeaderboardEntry {
+    private int rank;
+    private String username;
+    private long score;
+    private int correct;
+}
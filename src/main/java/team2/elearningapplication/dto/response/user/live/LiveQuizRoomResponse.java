@@ -0,0 +1,19 @@
+package team2.elearningapplication.dto.response.user.live;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class LiveQuizRoomResponse {
+    private String roomCode;
+    private int quizId;
+    // 1-based position of the question on screen, 0 before the first
+    private int position;
+    private int totalQuestion;
+    private int connections;
+}
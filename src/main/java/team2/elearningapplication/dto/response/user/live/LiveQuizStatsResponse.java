@@ -0,0 +1,33 @@
+package team2.elearningapplication.dto.response.user.live;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+
+import java.util.List;
+
+/**
+ * Live state of a room. Also the body of every frame pushed over the socket, {@code type} tells
+ * which: {@code question} carries the question just opened, {@code leaderboard} the counts so
+ * far and {@code end} the final standings. Fields a frame does not use are left out.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveQuizStatsResponse {
+    private String type;
+    private String roomCode;
+    private Integer position;
+    private Integer totalQuestion;
+    private QuestionContent question;
+    // participants that answered the current question, out of those connected
+    private Integer answered;
+    private Integer participants;
+    private List<OptionCount> optionCounts;
+    private List<LeaderboardEntry> leaderboard;
+}
@@ -0,0 +1,15 @@
+package team2.elearningapplication.dto.response.user.live;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class OptionCount {
+    private int answerId;
+    private long count;
+}
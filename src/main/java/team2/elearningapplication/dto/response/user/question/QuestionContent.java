@@ -0,0 +1,30 @@
+package team2.elearningapplication.dto.response.user.question;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import team2.elearningapplication.Enum.EnumQuestionType;
+
+import java.util.List;
+
+/**
+ * A question as shown to someone taking the quiz. Same JSON field names as the {@code Question}
+ * entity, without which options are correct.
+ */
+@AllArgsConstructor
+@Getter
+public class QuestionContent {
+    private final int id;
+    private final String questionName;
+    private final EnumQuestionType questionType;
+    private final int ordQuestion;
+    private final int quizID;
+    private final List<AnswerContent> answerList;
+
+    @AllArgsConstructor
+    @Getter
+    public static class AnswerContent {
+        private final int id;
+        private final String answerContent;
+        private final int questionId;
+    }
+}
@@ -0,0 +1,23 @@
+package team2.elearningapplication.dto.response.user.question;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import team2.elearningapplication.Enum.EnumQuestionType;
+
+/**
+ * One question joined with one of its options, null option fields for a question without any.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class QuizContentRow {
+    private int questionId;
+    private String questionName;
+    private EnumQuestionType questionType;
+    private int ordQuestion;
+    private Integer answerId;
+    private String answerContent;
+}
@@ -10,5 +10,7 @@ import java.util.List;
 public class GetAllSessionQuizByUserResponse {
     @NotEmpty
     List<HistoryQuizUser> listQuiz;
+    // null when this is the last page
+    String nextCursor;
 
 }
@@ -12,4 +12,6 @@ import java.util.List;
 @NoArgsConstructor
 public class GetCorrectAnswerBySessionId {
     List<AnswerCorrectDTO> answerList;
+    // every answered question with the picked and the correct options
+    List<QuestionReviewDTO> questionList;
 }
@@ -1,13 +1,16 @@
 package team2.elearningapplication.dto.response.user.quiz;
 
 import lombok.Data;
-import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
 
 import javax.validation.constraints.NotNull;
 
 @Data
 public class NextQuestionResponse {
+    // null after the last question
+    private QuestionContent question;
     @NotNull
-    private Question question;
-
+    private int answeredQuestion;
+    @NotNull
+    private int totalQuestion;
 }
@@ -0,0 +1,19 @@
+package team2.elearningapplication.dto.response.user.quiz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import team2.elearningapplication.dto.response.user.answer.AnswerCorrectDTO;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionReviewDTO {
+    private int questionId;
+    private String questionName;
+    // what the user picked, right or wrong
+    private List<AnswerCorrectDTO> pickedAnswers;
+    private List<AnswerCorrectDTO> correctAnswers;
+}
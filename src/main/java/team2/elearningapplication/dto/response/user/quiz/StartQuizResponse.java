@@ -1,16 +1,19 @@
 package team2.elearningapplication.dto.response.user.quiz;
 
 import lombok.Data;
-import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @Data
 public class StartQuizResponse {
     @NotNull
     private int sessionId;
     @NotNull
-    private Question question;
+    private QuestionContent question;
     @NotNull
     private int totalQuestion;
+    // null when the quiz is not timed, the attempt is finished automatically at that time
+    private LocalDateTime deadlineAt;
 }
@@ -0,0 +1,15 @@
+package team2.elearningapplication.dto.response.user.quiz;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+public class SubmitAnswerResponse {
+    @NotNull
+    private int questionId;
+    @NotNull
+    private int answeredQuestion;
+    @NotNull
+    private int totalQuestion;
+}
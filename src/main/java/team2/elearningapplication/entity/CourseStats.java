@@ -0,0 +1,21 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "course_stats")
+@Accessors(chain = true)
+@Data
+public class CourseStats {
+    @Id
+    @Column(name = "course_id")
+    private int courseId;
+    @Column(name = "enrollment_count")
+    private long enrollmentCount;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
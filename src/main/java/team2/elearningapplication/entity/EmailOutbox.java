@@ -0,0 +1,54 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import team2.elearningapplication.Enum.EnumMailLane;
+import team2.elearningapplication.Enum.EnumOutboxStatus;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_claim", columnList = "status, next_attempt_at, priority, id"))
+@Accessors(chain = true)
+@Data
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "lane", length = 16)
+    private EnumMailLane lane;
+    // lane ordinal, claimed in ascending order
+    @Column(name = "priority")
+    private int priority;
+    @Column(name = "mail_from")
+    private String from;
+    @Column(name = "mail_to")
+    private String to;
+    @Column(name = "subject")
+    private String subject;
+    @Column(name = "template")
+    private String template;
+    // template variables as a JSON object of strings
+    @Column(name = "props", columnDefinition = "TEXT")
+    private String props;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16)
+    private EnumOutboxStatus status;
+    @Column(name = "attempts")
+    private int attempts;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -27,8 +27,12 @@ public class HistoryRegisterCourse {
     @ManyToOne
     @JoinColumn(name = "course_id", referencedColumnName = "id")
     private Course course;
+    // ord number of the resume lesson before lesson_current_id existed, only read to backfill it
     @Column(name = "stt_lession_current")
     private int sttLessonCurrent;
+    // resume pointer: the furthest lesson completed in course order, null before the first one
+    @Column(name = "lesson_current_id")
+    private Integer lessonCurrentId;
     @Enumerated(EnumType.STRING)
     @Column(name = "process")
     private EnumTypeProcessAccount process;
@@ -22,8 +22,13 @@ public class Lesson {
     private int id;
     @Column(name = "lesson_name")
     private String name;
+    // position saved before lesson ranks existed, only read to backfill rank; the ord number of
+    // a lesson is its position in the course outline
     @Column(name = "stt")
     private int ordNumber;
+    // sort key inside the course, spaced so a move fits between two neighbours; null until backfilled
+    @Column(name = "lesson_rank")
+    private Long rank;
     @ManyToOne
     @JoinColumn
     private Course course;
@@ -3,6 +3,7 @@ package team2.elearningapplication.entity;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import team2.elearningapplication.Enum.EnumMailLane;
 
 import java.util.Map;
 
@@ -15,4 +16,5 @@ public class Mail {
     private String subject;
     private Map<String, Object> pros;
     private String template;
+    private EnumMailLane lane;
 }
@@ -0,0 +1,26 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "question_stats", indexes = @Index(name = "idx_question_stats_quiz", columnList = "quiz_id"))
+@Accessors(chain = true)
+@Data
+public class QuestionStats {
+    @Id
+    @Column(name = "question_id")
+    private int questionId;
+    @Column(name = "quiz_id")
+    private int quizId;
+    // graded attempts that got the question right / wrong or left it out
+    @Column(name = "hit_count")
+    private long hitCount;
+    @Column(name = "miss_count")
+    private long missCount;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -27,6 +27,9 @@ public class Quiz {
     private String name;
     @Column(name = "deleted")
     private boolean isDeleted;
+    // null for a quiz without time limit
+    @Column(name = "time_limit_seconds")
+    private Integer timeLimitSeconds;
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     @ManyToOne
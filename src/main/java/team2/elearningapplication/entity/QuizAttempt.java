@@ -0,0 +1,38 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "quiz_attempt",
+        uniqueConstraints = @UniqueConstraint(name = "uk_quiz_attempt_user_session", columnNames = {"user_id", "session_id"}),
+        indexes = @Index(name = "idx_quiz_attempt_user_finished", columnList = "user_id, finished_at, id"))
+@Accessors(chain = true)
+@Data
+public class QuizAttempt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @ManyToOne
+    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    private User user;
+    @Column(name = "session_id")
+    private int sessionId;
+    @Column(name = "quiz_id")
+    private Integer quizId;
+    @Column(name = "total_correct")
+    private int totalCorrect;
+    @Column(name = "total_incorrect")
+    private int totalIncorrect;
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    // graded by QuizDeadlineScheduler when time was up, a late submit never replaces it
+    @Column(name = "auto_submitted", columnDefinition = "boolean default false")
+    private boolean autoSubmitted;
+    // see PackedAnswers, null until the attempt's history_quiz rows are migrated
+    @Column(name = "answers", columnDefinition = "BLOB")
+    private byte[] answers;
+}
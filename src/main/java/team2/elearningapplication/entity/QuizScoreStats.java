@@ -0,0 +1,27 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "quiz_score_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_quiz_score_stats_bucket", columnNames = {"quiz_id", "bucket"}))
+@Accessors(chain = true)
+@Data
+public class QuizScoreStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @Column(name = "quiz_id")
+    private int quizId;
+    // score percent / 10, a full score falls in the last bucket
+    @Column(name = "bucket")
+    private int bucket;
+    @Column(name = "attempt_count")
+    private long attemptCount;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "quiz_session_snapshot",
+        indexes = @Index(name = "idx_quiz_session_snapshot_last_access", columnList = "last_access"))
+@Accessors(chain = true)
+@Data
+public class QuizSessionSnapshot {
+    @Id
+    @Column(name = "session_id")
+    private int sessionId;
+    @Column(name = "username")
+    private String username;
+    @Column(name = "quiz_id")
+    private int quizId;
+    @Column(name = "course_id")
+    private int courseId;
+    // questionId:answerId,answerId;... in question order
+    @Column(name = "answers", columnDefinition = "TEXT")
+    private String answers;
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    @Column(name = "last_access")
+    private LocalDateTime lastAccess;
+    // null when the attempt is not timed
+    @Column(name = "deadline_at")
+    private LocalDateTime deadlineAt;
+}
@@ -0,0 +1,35 @@
+package team2.elearningapplication.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import team2.elearningapplication.Enum.EnumRollupGranularity;
+import team2.elearningapplication.Enum.EnumRollupScope;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "revenue_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_revenue_rollup_bucket",
+                columnNames = {"granularity", "scope", "scope_id", "bucket_start"}))
+@Accessors(chain = true)
+@Data
+public class RevenueRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 8)
+    private EnumRollupGranularity granularity;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", length = 16)
+    private EnumRollupScope scope;
+    @Column(name = "scope_id")
+    private int scopeId;
+    @Column(name = "bucket_start")
+    private LocalDate bucketStart;
+    @Column(name = "revenue")
+    private double revenue;
+    @Column(name = "enrollment_count")
+    private long enrollmentCount;
+}
@@ -3,8 +3,10 @@ package team2.elearningapplication.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import team2.elearningapplication.dto.response.user.answer.AnswerReviewRow;
 import team2.elearningapplication.entity.Answer;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +19,14 @@ public interface IAnswerRepository extends JpaRepository<Answer, Integer> {
 
     List<Answer> findAnswerByIsDeleted(boolean deleted);
 
+    List<Answer> findAnswerByQuestionIdIn(Collection<Integer> questionIDs);
+
+    // every option of the questions the given answers belong to, with the question text
+    @Query("SELECT new team2.elearningapplication.dto.response.user.answer.AnswerReviewRow(a.id, a.answerContent, a.isCorrect, a.isDeleted, q.id, q.questionName) " +
+            "FROM Answer a, Question q WHERE q.id = a.questionId AND q.id IN " +
+            "(SELECT picked.questionId FROM Answer picked WHERE picked.id IN :answerIds) ORDER BY q.ordQuestion, q.id, a.id")
+    List<AnswerReviewRow> findReviewRowsByAnsweredIds(@Param("answerIds") Collection<Integer> answerIds);
+
     @Query(value = "SELECT * FROM Answer WHERE question_id = :preQuestionId AND is_correct = true", nativeQuery = true)
     Answer findCorrectAnswer(@Param("preQuestionId") int preQuestionId);
 
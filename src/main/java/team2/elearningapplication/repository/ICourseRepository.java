@@ -3,10 +3,15 @@ package team2.elearningapplication.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.dto.response.user.course.CourseCard;
 import team2.elearningapplication.entity.Course;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,14 +24,16 @@ public interface ICourseRepository extends JpaRepository<Course, Integer> {
 
     Page<Course> findAllByIsDeleted(boolean isDeleted, Pageable pageable);
 
+    List<Course> findAllByCategoryIdAndIsDeleted(int categoryId, boolean isDeleted);
+
+    @Query("SELECT new team2.elearningapplication.dto.response.user.course.CourseCard(c.id, c.name, c.price, c.linkThumnail, cat.name) " +
+            "FROM Course c LEFT JOIN c.category cat WHERE c.isDeleted = :isDeleted")
+    List<CourseCard> findCardsByIsDeleted(@Param("isDeleted") boolean isDeleted);
+
+    @Query("SELECT new team2.elearningapplication.dto.response.user.course.CourseCard(c.id, c.name, c.price, c.linkThumnail, cat.name) " +
+            "FROM Course c LEFT JOIN c.category cat WHERE c.id IN :ids")
+    List<CourseCard> findCardsByIdIn(@Param("ids") Collection<Integer> ids);
 
-    @Query(value = "SELECT c.id, c.name, c.description, c.category_id, c.created_at, c.price, c.link_thumnail " +
-            "FROM course c " +
-            "JOIN history_register_course hrc ON c.id = hrc.course_id " +
-            "GROUP BY c.id " +
-            "ORDER BY COUNT(hrc.user_id) DESC " +
-            "LIMIT :number", nativeQuery = true)
-    List<Course> getTopCourses(@Param("number") int number);
 
     @Query(value = "SELECT * FROM Course ORDER BY created_at DESC LIMIT :number", nativeQuery = true)
     List<Course> getTopNewCourse(@Param("number") int number);
@@ -44,6 +51,11 @@ public interface ICourseRepository extends JpaRepository<Course, Integer> {
             "OR LOWER(c.category.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Course> searchCoursesByNameOrCategory(@Param("keyword") String keyword);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE Course c SET c.linkThumnail = :linkThumnail, c.updatedAt = :updatedAt WHERE c.id = :courseId")
+    int updateLinkThumnail(@Param("courseId") int courseId, @Param("linkThumnail") String linkThumnail, @Param("updatedAt") LocalDateTime updatedAt);
+
 
 }
 
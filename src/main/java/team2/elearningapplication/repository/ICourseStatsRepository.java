@@ -0,0 +1,33 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.entity.CourseStats;
+
+import java.util.List;
+
+public interface ICourseStatsRepository extends JpaRepository<CourseStats, Integer> {
+    // recounted rather than incremented, so a reseed on another node is never added to twice
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO course_stats (course_id, enrollment_count, updated_at) " +
+            "SELECT :courseId, COUNT(hrc.id), NOW() FROM history_register_course hrc WHERE hrc.course_id = :courseId " +
+            "ON DUPLICATE KEY UPDATE enrollment_count = VALUES(enrollment_count), updated_at = NOW()", nativeQuery = true)
+    void recountEnrollments(@Param("courseId") int courseId);
+
+    @Query("SELECT cs.courseId FROM CourseStats cs ORDER BY cs.enrollmentCount DESC, cs.courseId ASC")
+    List<Integer> findTopCourseIds(Pageable pageable);
+
+    // history_register_course stays the source of truth, this realigns the counters with it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO course_stats (course_id, enrollment_count, updated_at) " +
+            "SELECT hrc.course_id, COUNT(hrc.id), NOW() FROM history_register_course hrc " +
+            "WHERE hrc.course_id IS NOT NULL GROUP BY hrc.course_id " +
+            "ON DUPLICATE KEY UPDATE enrollment_count = VALUES(enrollment_count), updated_at = NOW()", nativeQuery = true)
+    int reseedFromHistory();
+}
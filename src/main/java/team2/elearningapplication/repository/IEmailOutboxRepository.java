@@ -0,0 +1,50 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import team2.elearningapplication.entity.EmailOutbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface IEmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    // rows locked by another node's open claim are skipped instead of waited on
+    @Query(value = "SELECT id FROM email_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY priority, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Number> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = team2.elearningapplication.Enum.EnumOutboxStatus.SENDING, " +
+            "o.claimedBy = :node, o.claimedAt = :now, o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = team2.elearningapplication.Enum.EnumOutboxStatus.SENT, " +
+            "o.sentAt = :now, o.lastError = NULL WHERE o.id = :id")
+    int markSent(@Param("id") long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = team2.elearningapplication.Enum.EnumOutboxStatus.PENDING, " +
+            "o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int reschedule(@Param("id") long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = team2.elearningapplication.Enum.EnumOutboxStatus.FAILED, " +
+            "o.lastError = :error WHERE o.id = :id")
+    int markFailed(@Param("id") long id, @Param("error") String error);
+
+    // claims of a node that died mid-send go back to the queue
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = team2.elearningapplication.Enum.EnumOutboxStatus.PENDING " +
+            "WHERE o.status = team2.elearningapplication.Enum.EnumOutboxStatus.SENDING AND o.claimedAt < :before")
+    int releaseStaleClaims(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = team2.elearningapplication.Enum.EnumOutboxStatus.SENT " +
+            "AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
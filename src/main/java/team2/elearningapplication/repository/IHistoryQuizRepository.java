@@ -1,12 +1,15 @@
 package team2.elearningapplication.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import team2.elearningapplication.entity.HistoryQuiz;
 import team2.elearningapplication.entity.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface IHistoryQuizRepository extends JpaRepository<HistoryQuiz, Integer> {
@@ -24,4 +27,12 @@ public interface IHistoryQuizRepository extends JpaRepository<HistoryQuiz, Integ
 
     @Query("SELECT hq.answerId FROM HistoryQuiz hq WHERE hq.sessionId = :sessionId AND hq.isCorrect = TRUE")
     List<Integer> findAnswerIdsBySessionIdAndCorrect(@Param("sessionId") int sessionId);
+
+    @Query("SELECT hq FROM HistoryQuiz hq WHERE hq.sessionId IN :sessionIds ORDER BY hq.id")
+    List<HistoryQuiz> findBySessionIdIn(@Param("sessionIds") Collection<Integer> sessionIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM HistoryQuiz hq WHERE hq.user = :user AND hq.sessionId = :sessionId")
+    int deleteByUserAndSessionId(@Param("user") User user, @Param("sessionId") int sessionId);
 }
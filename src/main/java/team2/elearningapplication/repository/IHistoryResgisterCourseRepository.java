@@ -1,16 +1,51 @@
 package team2.elearningapplication.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import team2.elearningapplication.entity.Course;
 import team2.elearningapplication.entity.HistoryRegisterCourse;
 import team2.elearningapplication.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface IHistoryResgisterCourseRepository extends JpaRepository<HistoryRegisterCourse, Integer> {
     @Query("SELECT hrc FROM HistoryRegisterCourse hrc WHERE hrc.course = :course AND hrc.user = :user")
     Optional<HistoryRegisterCourse> findHistoryRegisterCourseByCourseIdAndUser(@Param("course") Course course, @Param("user") User user);
 
+    @Query("SELECT hrc.course.id FROM HistoryRegisterCourse hrc WHERE hrc.user.username = :username")
+    List<Integer> findCourseIdsByUsername(@Param("username") String username);
+
+    // course id, resume lesson id (null before the first completion), one row per enrollment
+    @Query("SELECT hrc.course.id, hrc.lessonCurrentId FROM HistoryRegisterCourse hrc " +
+            "WHERE hrc.user.username = :username AND hrc.course.id IN :courseIds")
+    List<Object[]> findLessonCurrents(@Param("username") String username, @Param("courseIds") Collection<Integer> courseIds);
+
+    // the pointer only moves forward in rank order, completing an earlier lesson again keeps it;
+    // a pointer at a lesson deleted or moved to another course since is replaced
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE history_register_course hrc JOIN users u ON u.id = hrc.user_id " +
+            "JOIN lesson done ON done.id = :lessonId " +
+            "LEFT JOIN lesson resume ON resume.id = hrc.lesson_current_id " +
+            "SET hrc.lesson_current_id = done.id " +
+            "WHERE u.username = :username AND hrc.course_id = :courseId AND (resume.id IS NULL " +
+            "OR resume.deleted = true OR resume.course_id <> hrc.course_id OR resume.lesson_rank < done.lesson_rank)", nativeQuery = true)
+    int advanceLessonCurrent(@Param("username") String username, @Param("courseId") int courseId, @Param("lessonId") int lessonId);
+
+    // turns the ord numbers saved before lesson_current_id existed into the lesson at that
+    // position; 1 was the value of an enrollment without progress and stays without a lesson
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE history_register_course hrc JOIN (SELECT id, course_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY course_id ORDER BY lesson_rank, id) AS pos " +
+            "FROM lesson WHERE deleted = false) ranked ON ranked.course_id = hrc.course_id AND ranked.pos = hrc.stt_lession_current " +
+            "SET hrc.lesson_current_id = ranked.id " +
+            "WHERE hrc.lesson_current_id IS NULL AND hrc.stt_lession_current > 1", nativeQuery = true)
+    int backfillLessonCurrentIds();
+
 }
@@ -7,10 +7,11 @@ import team2.elearningapplication.entity.Lesson;
 import team2.elearningapplication.entity.LessonCompleted;
 import team2.elearningapplication.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ILessonCompletedRepository extends JpaRepository<LessonCompleted, Integer> {
+public interface ILessonCompletedRepository extends JpaRepository<LessonCompleted, Integer>, ILessonCompletedRepositoryCustom {
 
     Optional<LessonCompleted> findLessonsByUserAndLesson(User user, Lesson lesson);
 
@@ -21,4 +22,12 @@ public interface ILessonCompletedRepository extends JpaRepository<LessonComplete
             @Param("username") String username,
             @Param("courseId") int courseId
     );
+
+    // course id, lesson id
+    @Query("SELECT lc.lesson.course.id, lc.lesson.id FROM LessonCompleted lc " +
+            "WHERE lc.user.username = :username AND lc.lesson.course.id IN :courseIds")
+    List<Object[]> findCompletedLessonIds(@Param("username") String username, @Param("courseIds") Collection<Integer> courseIds);
+
+    @Query("SELECT COUNT(lc) > 0 FROM LessonCompleted lc WHERE lc.user.username = :username AND lc.lesson.id = :lessonId")
+    boolean existsByUsernameAndLessonId(@Param("username") String username, @Param("lessonId") int lessonId);
 }
@@ -0,0 +1,16 @@
+package team2.elearningapplication.repository;
+
+import java.util.List;
+
+public interface ILessonCompletedRepositoryCustom {
+
+    /**
+     * Inserts the completions with one multi-row statement, the course of each row is the one of
+     * its lesson. A row is skipped when its user does not exist or already completed the lesson;
+     * returns the number of rows inserted.
+     */
+    int insertAllIfAbsent(List<CompletionRow> rows);
+
+    record CompletionRow(String username, int lessonId) {
+    }
+}
@@ -0,0 +1,43 @@
+package team2.elearningapplication.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+public class ILessonCompletedRepositoryCustomImpl implements ILessonCompletedRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // lesson_complete has no unique key to make INSERT IGNORE skip a duplicate, NOT EXISTS does
+    @Override
+    public int insertAllIfAbsent(List<CompletionRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        StringJoiner pairs = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < rows.size(); i++) {
+            pairs.add("(:username" + i + ", :lessonId" + i + ")");
+        }
+        // the IN lists on each table let MySQL use their indexes, the pairs alone span both tables
+        Query query = entityManager.createNativeQuery("INSERT INTO lesson_complete (user_id, lesson_id, course_id, is_done) " +
+                "SELECT u.id, l.id, l.course_id, TRUE FROM users u JOIN lesson l ON (u.username, l.id) IN " + pairs + " " +
+                "WHERE u.username IN (:usernames) AND l.id IN (:lessonIds) " +
+                "AND NOT EXISTS (SELECT 1 FROM lesson_complete lc WHERE lc.user_id = u.id AND lc.lesson_id = l.id)");
+        Set<String> usernames = new HashSet<>();
+        Set<Integer> lessonIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            CompletionRow row = rows.get(i);
+            query.setParameter("username" + i, row.username());
+            query.setParameter("lessonId" + i, row.lessonId());
+            usernames.add(row.username());
+            lessonIds.add(row.lessonId());
+        }
+        query.setParameter("usernames", usernames);
+        query.setParameter("lessonIds", lessonIds);
+        return query.executeUpdate();
+    }
+}
@@ -3,20 +3,22 @@ package team2.elearningapplication.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutlineRow;
 import team2.elearningapplication.entity.Course;
 import team2.elearningapplication.entity.Lesson;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ILessonRespository extends JpaRepository<Lesson, Integer> {
     Optional<Lesson> findLessonById(int id);
 
-    @Query("SELECT l FROM Lesson l WHERE l.ordNumber = :ordNumber AND l.course.id = :courseId AND l.isDeleted = false")
-    Optional<Lesson> findLessonByOrdNumberAndCourse(@Param("ordNumber") int ordNumber, @Param("courseId") int courseId);
-
     List<Lesson> findAllByIsDeleted(boolean isDeleted);
 
     Page<Lesson> findAllByIsDeleted(boolean isDeleted, Pageable pageable);
@@ -25,4 +27,45 @@ public interface ILessonRespository extends JpaRepository<Lesson, Integer> {
 
     @Query("SELECT COUNT(l) FROM Lesson l WHERE l.course.id = :courseId")
     int countLessonsByCourseId(@Param("courseId") int courseId);
+
+    @Query("SELECT new team2.elearningapplication.dto.response.user.lesson.LessonOutlineRow(l.id, l.name, l.rank) " +
+            "FROM Lesson l WHERE l.course.id = :courseId AND l.isDeleted = false ORDER BY l.rank, l.id")
+    List<LessonOutlineRow> findOutlineByCourseId(@Param("courseId") int courseId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Lesson l SET l.rank = :rank, l.updatedAt = :updatedAt WHERE l.id = :lessonId")
+    int updateRank(@Param("lessonId") int lessonId, @Param("rank") long rank, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Lesson l SET l.linkContent = :linkContent, l.updatedAt = :updatedAt WHERE l.id = :lessonId")
+    int updateLinkContent(@Param("lessonId") int lessonId, @Param("linkContent") String linkContent, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // respaces the ranks of the course in one statement, keeping their order
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE lesson l JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY lesson_rank, id) AS pos " +
+            "FROM lesson WHERE course_id = :courseId AND deleted = false) ranked ON ranked.id = l.id " +
+            "SET l.lesson_rank = ranked.pos * :gap", nativeQuery = true)
+    int rebalance(@Param("courseId") int courseId, @Param("gap") long gap);
+
+    // ranks of the other lessons of the course in order, locking them until the caller's transaction ends
+    @Query(value = "SELECT COALESCE(lesson_rank, 0) FROM lesson WHERE course_id = :courseId AND deleted = false " +
+            "AND id <> :lessonId ORDER BY lesson_rank, id FOR UPDATE", nativeQuery = true)
+    List<Number> lockRanksByCourseId(@Param("courseId") int courseId, @Param("lessonId") int lessonId);
+
+    // gives lessons without a rank one from their stt, after the lessons of their course that have one
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE lesson l JOIN (SELECT n.id, COALESCE(m.max_rank, 0) + " +
+            "ROW_NUMBER() OVER (PARTITION BY n.course_id ORDER BY n.stt, n.id) * :gap AS new_rank FROM lesson n " +
+            "LEFT JOIN (SELECT course_id, MAX(lesson_rank) AS max_rank FROM lesson WHERE lesson_rank IS NOT NULL " +
+            "GROUP BY course_id) m ON m.course_id = n.course_id WHERE n.lesson_rank IS NULL) ranked ON ranked.id = l.id " +
+            "SET l.lesson_rank = ranked.new_rank", nativeQuery = true)
+    int backfillRanks(@Param("gap") long gap);
+
+    // course id, lesson id, deleted
+    @Query("SELECT l.course.id, l.id, l.isDeleted FROM Lesson l WHERE l.course.id IN :courseIds")
+    List<Object[]> findLessonStatesByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
 }
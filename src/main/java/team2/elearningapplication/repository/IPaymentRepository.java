@@ -1,6 +1,7 @@
 package team2.elearningapplication.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import team2.elearningapplication.entity.Payment;
 import team2.elearningapplication.entity.User;
 
@@ -8,4 +9,7 @@ import java.util.List;
 
 public interface IPaymentRepository extends JpaRepository<Payment, Integer> {
     List<Payment> findPaymentByUser(User user);
+
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p")
+    double getTotalRevenue();
 }
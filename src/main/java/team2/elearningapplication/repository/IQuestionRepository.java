@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import team2.elearningapplication.dto.response.user.question.QuizContentRow;
 import team2.elearningapplication.entity.Question;
 
 import java.util.List;
@@ -24,4 +25,10 @@ public interface IQuestionRepository extends JpaRepository<Question, Integer> {
 
     List<Question> getQuestionByQuizID(int quizId);
 
+    // the whole quiz in one round trip, question by question with their options
+    @Query("SELECT new team2.elearningapplication.dto.response.user.question.QuizContentRow(q.id, q.questionName, q.questionType, q.ordQuestion, a.id, a.answerContent) " +
+            "FROM Question q LEFT JOIN Answer a ON a.questionId = q.id AND a.isDeleted = false " +
+            "WHERE q.quizID = :quizId AND q.deleted = false ORDER BY q.ordQuestion, q.id, a.id")
+    List<QuizContentRow> findContentRowsByQuizId(@Param("quizId") int quizId);
+
 }
@@ -0,0 +1,23 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.entity.QuestionStats;
+
+import java.util.List;
+
+public interface IQuestionStatsRepository extends JpaRepository<QuestionStats, Integer> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO question_stats (question_id, quiz_id, hit_count, miss_count, updated_at) " +
+            "VALUES (:questionId, :quizId, :hits, :misses, NOW()) " +
+            "ON DUPLICATE KEY UPDATE hit_count = hit_count + :hits, miss_count = miss_count + :misses, " +
+            "quiz_id = :quizId, updated_at = NOW()", nativeQuery = true)
+    void addCounts(@Param("questionId") int questionId, @Param("quizId") int quizId,
+                   @Param("hits") long hits, @Param("misses") long misses);
+
+    List<QuestionStats> findByQuizId(int quizId);
+}
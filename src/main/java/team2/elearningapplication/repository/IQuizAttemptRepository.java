@@ -0,0 +1,59 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.entity.QuizAttempt;
+import team2.elearningapplication.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IQuizAttemptRepository extends JpaRepository<QuizAttempt, Integer> {
+    Optional<QuizAttempt> findByUserAndSessionId(User user, int sessionId);
+
+    List<QuizAttempt> findBySessionId(int sessionId);
+
+    List<QuizAttempt> findAllBySessionIdIn(Collection<Integer> sessionIds);
+
+    // attempts whose answers still live in history_quiz, in id order
+    @Query("SELECT qa FROM QuizAttempt qa WHERE qa.answers IS NULL AND qa.id > :afterId ORDER BY qa.id")
+    List<QuizAttempt> findUnpackedAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    @Query("SELECT qa FROM QuizAttempt qa WHERE qa.user = :user ORDER BY qa.finishedAt DESC, qa.id DESC")
+    List<QuizAttempt> findFirstPageByUser(@Param("user") User user, Pageable pageable);
+
+    // keyset page: attempts strictly older than the last row of the previous page
+    @Query("SELECT qa FROM QuizAttempt qa WHERE qa.user = :user " +
+            "AND (qa.finishedAt < :finishedAt OR (qa.finishedAt = :finishedAt AND qa.id < :id)) " +
+            "ORDER BY qa.finishedAt DESC, qa.id DESC")
+    List<QuizAttempt> findPageByUserAfter(@Param("user") User user, @Param("finishedAt") LocalDateTime finishedAt,
+                                          @Param("id") int id, Pageable pageable);
+
+    // builds one attempt per session found in history_quiz that has no attempt row yet. Counts are
+    // per question like finishQuiz: a question is correct when every correct option and nothing
+    // else was picked, and every other question of the quiz, answered or not, is incorrect
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO quiz_attempt (user_id, session_id, quiz_id, total_correct, total_incorrect, finished_at) " +
+            "SELECT picked.user_id, picked.session_id, MAX(picked.quiz_id), SUM(picked.correct), " +
+            "GREATEST(COALESCE(MAX(qc.question_count), 0) - SUM(picked.correct), 0), COALESCE(MAX(picked.finished_at), NOW()) " +
+            "FROM (SELECT hq.user_id, hq.session_id, q.quiz_id, MAX(hq.created_at) AS finished_at, " +
+            "CASE WHEN q.id IS NOT NULL AND SUM(CASE WHEN hq.answer_is_correct = true THEN 0 ELSE 1 END) = 0 " +
+            "AND COUNT(DISTINCT hq.answer_id_user) = (SELECT COUNT(*) FROM answer ca WHERE ca.question_id = q.id AND ca.is_correct = true) " +
+            "THEN 1 ELSE 0 END AS correct " +
+            "FROM history_quiz hq " +
+            "LEFT JOIN answer a ON a.id = hq.answer_id_user " +
+            "LEFT JOIN question q ON q.id = a.question_id " +
+            "WHERE hq.user_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM quiz_attempt qa " +
+            "WHERE qa.user_id = hq.user_id AND qa.session_id = hq.session_id) " +
+            "GROUP BY hq.user_id, hq.session_id, q.id, q.quiz_id) picked " +
+            "LEFT JOIN (SELECT quiz_id, COUNT(*) AS question_count FROM question GROUP BY quiz_id) qc ON qc.quiz_id = picked.quiz_id " +
+            "GROUP BY picked.user_id, picked.session_id", nativeQuery = true)
+    int backfillFromHistoryQuiz();
+}
@@ -0,0 +1,20 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.entity.QuizScoreStats;
+
+import java.util.List;
+
+public interface IQuizScoreStatsRepository extends JpaRepository<QuizScoreStats, Integer> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO quiz_score_stats (quiz_id, bucket, attempt_count, updated_at) VALUES (:quizId, :bucket, :delta, NOW()) " +
+            "ON DUPLICATE KEY UPDATE attempt_count = attempt_count + :delta, updated_at = NOW()", nativeQuery = true)
+    void addAttempts(@Param("quizId") int quizId, @Param("bucket") int bucket, @Param("delta") long delta);
+
+    List<QuizScoreStats> findByQuizId(int quizId);
+}
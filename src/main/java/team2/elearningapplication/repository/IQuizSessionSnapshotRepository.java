@@ -0,0 +1,27 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.entity.QuizSessionSnapshot;
+
+import java.time.LocalDateTime;
+
+public interface IQuizSessionSnapshotRepository extends JpaRepository<QuizSessionSnapshot, Integer> {
+    @Modifying
+    @Transactional
+    // timed attempts are kept, they still have to be graded
+    @Query("DELETE FROM QuizSessionSnapshot s WHERE s.lastAccess < :before AND s.deadlineAt IS NULL")
+    int deleteIdleBefore(@Param("before") LocalDateTime before);
+
+    // rows whose attempt was already graded, left behind when the node stopped before deleting them
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM quiz_session_snapshot WHERE EXISTS (SELECT 1 FROM quiz_attempt a " +
+            "JOIN users u ON u.id = a.user_id WHERE a.session_id = quiz_session_snapshot.session_id " +
+            "AND u.username = quiz_session_snapshot.username AND a.finished_at >= quiz_session_snapshot.started_at)",
+            nativeQuery = true)
+    int deleteFinished();
+}
@@ -0,0 +1,56 @@
+package team2.elearningapplication.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import team2.elearningapplication.Enum.EnumRollupGranularity;
+import team2.elearningapplication.Enum.EnumRollupScope;
+import team2.elearningapplication.entity.RevenueRollup;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface IRevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollup (granularity, scope, scope_id, bucket_start, revenue, enrollment_count) " +
+            "VALUES (:granularity, :scope, :scopeId, :bucketStart, :revenue, :enrollments) " +
+            "ON DUPLICATE KEY UPDATE revenue = revenue + VALUES(revenue), " +
+            "enrollment_count = enrollment_count + VALUES(enrollment_count)", nativeQuery = true)
+    void addToBucket(@Param("granularity") String granularity, @Param("scope") String scope, @Param("scopeId") int scopeId,
+                     @Param("bucketStart") LocalDate bucketStart, @Param("revenue") double revenue,
+                     @Param("enrollments") long enrollments);
+
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollup (granularity, scope, scope_id, bucket_start, revenue, enrollment_count) " +
+            "VALUES (:granularity, :scope, :scopeId, :bucketStart, :revenue, :enrollments) " +
+            "ON DUPLICATE KEY UPDATE revenue = VALUES(revenue), enrollment_count = VALUES(enrollment_count)", nativeQuery = true)
+    void setBucket(@Param("granularity") String granularity, @Param("scope") String scope, @Param("scopeId") int scopeId,
+                   @Param("bucketStart") LocalDate bucketStart, @Param("revenue") double revenue,
+                   @Param("enrollments") long enrollments);
+
+    @Query("SELECT r FROM RevenueRollup r WHERE r.granularity = :granularity AND r.scope = :scope AND r.scopeId = :scopeId " +
+            "AND r.bucketStart BETWEEN :from AND :to ORDER BY r.bucketStart")
+    List<RevenueRollup> findSeries(@Param("granularity") EnumRollupGranularity granularity, @Param("scope") EnumRollupScope scope,
+                                   @Param("scopeId") int scopeId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<RevenueRollup> findByGranularityAndBucketStartBetween(EnumRollupGranularity granularity, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") EnumRollupGranularity granularity, @Param("before") LocalDate before);
+
+    // a locking read, on an empty table it locks the gap so a second node waits instead of seeding too
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RevenueRollup> findFirstByGranularity(EnumRollupGranularity granularity);
+
+    // one row per (day, course, category) of successful payments, only used to seed an empty rollup
+    @Query(value = "SELECT DATE(p.created_at), p.course_id, c.category_id, SUM(p.amount), COUNT(p.id) FROM payment p " +
+            "JOIN course c ON c.id = p.course_id " +
+            "WHERE p.status = 'SUCCESS' AND p.created_at IS NOT NULL " +
+            "GROUP BY DATE(p.created_at), p.course_id, c.category_id", nativeQuery = true)
+    List<Object[]> sumPaymentsByDayAndCourse();
+}
@@ -6,12 +6,18 @@ import org.springframework.stereotype.Repository;
 import team2.elearningapplication.Enum.EnumUserStatus;
 import team2.elearningapplication.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IUserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUsername(String username);
 
+    boolean existsByUsername(String username);
+
+    List<User> findAllByUsernameIn(Collection<String> usernames);
+
     Optional<User> findUserById(int id);
 
     Optional<User> findByUsernameAndStatus(String username, EnumUserStatus status);
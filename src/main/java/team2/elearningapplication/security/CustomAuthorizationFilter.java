@@ -1,26 +1,25 @@
 package team2.elearningapplication.security;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
+import team2.elearningapplication.security.jwt.JWTKeyRing;
+import team2.elearningapplication.security.jwt.VerifiedTokenCache;
+import team2.elearningapplication.security.jwt.VerifiedTokenCache.VerifiedToken;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.stream;
@@ -29,11 +28,13 @@ import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 @Slf4j
+@RequiredArgsConstructor
 public class CustomAuthorizationFilter extends OncePerRequestFilter {
-    // Get secret from a file
+    private final JWTKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        String secret = Files.readString(Paths.get("secret.txt"));
         String pathRequest = request.getServletPath();
         if (pathRequest.equals("/api/v1/user/login") || pathRequest.equals("/api/auth/register") || pathRequest.equals("/api/auth/refreshToken")) {
             filterChain.doFilter(request, response);
@@ -43,19 +44,27 @@ public class CustomAuthorizationFilter extends OncePerRequestFilter {
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                 try {
                     String token = authorizationHeader.substring("Bearer ".length());
-                    Algorithm algorithm = Algorithm.HMAC256(secret.getBytes());
-                    JWTVerifier jwtVerifier = JWT.require(algorithm).build();
-                    DecodedJWT decodedJWT = jwtVerifier.verify(token);
-                    log.info("decodedJWT: {}", decodedJWT);
-                    String username = decodedJWT.getSubject();
-                    String[] roles = decodedJWT.getClaim("userInfo").asArray(String.class);
-                    log.info("username, roles: {}, {}", username, roles);
-                    Collection<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                    stream(roles).forEach(role -> {
-                        authorities.add(new SimpleGrantedAuthority(role));
-                    });
+                    // Tokens seen before skip signature verification and claim parsing
+                    VerifiedToken verifiedToken = tokenCache.get(token);
+                    if (verifiedToken == null) {
+                        // read first, a reload during the verification then keeps the result out of the cache
+                        long keyGeneration = keyRing.getGeneration();
+                        DecodedJWT decodedJWT = keyRing.verify(token);
+                        log.info("decodedJWT: {}", decodedJWT);
+                        String username = decodedJWT.getSubject();
+                        String[] roles = decodedJWT.getClaim("userInfo").asArray(String.class);
+                        log.info("username, roles: {}, {}", username, roles);
+                        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+                        stream(roles).forEach(role -> {
+                            authorities.add(new SimpleGrantedAuthority(role));
+                        });
+                        // tokens without an expiry are never cached
+                        long expiresAt = decodedJWT.getExpiresAt() == null ? 0 : decodedJWT.getExpiresAt().getTime();
+                        verifiedToken = new VerifiedToken(username, authorities, expiresAt, keyGeneration);
+                        tokenCache.put(token, verifiedToken);
+                    }
 
-                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
+                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(verifiedToken.getUsername(), null, verifiedToken.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
                     filterChain.doFilter(request, response);
                 } catch (Exception e) {
@@ -0,0 +1,187 @@
+package team2.elearningapplication.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the HMAC keys used to sign and verify JWTs. Keys are read from disk once and
+ * reloaded only when the backing files change, instead of on every request.
+ * <p>
+ * The legacy {@code secret.txt} is always loaded under the {@value #LEGACY_KEY_ID} key id so
+ * tokens issued before rotation keep verifying. An optional key ring file (properties format)
+ * adds rotated keys: {@code key.<kid>=<secret>} entries plus {@code active=<kid>} to pick the
+ * signing key.
+ */
+@Component
+@Slf4j
+public class JWTKeyRing {
+    public static final String LEGACY_KEY_ID = "default";
+    private static final String ACTIVE_PROPERTY = "active";
+    private static final String KEY_PREFIX = "key.";
+
+    private final Path secretPath;
+    private final Path keyRingPath;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile Keys keys = new Keys(0, null, Map.of(), Map.of());
+    private WatchService watchService;
+
+    public JWTKeyRing(@Value("${jwt.secret.path:secret.txt}") String secretPath,
+                      @Value("${jwt.key-ring.path:}") String keyRingPath) {
+        this.secretPath = Paths.get(secretPath).toAbsolutePath();
+        this.keyRingPath = keyRingPath.isBlank() ? null : Paths.get(keyRingPath).toAbsolutePath();
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        startWatcher();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    public String getActiveKeyId() {
+        String activeKeyId = keys.activeKeyId;
+        if (activeKeyId == null) {
+            throw new SecurityException("No JWT signing key loaded");
+        }
+        return activeKeyId;
+    }
+
+    public Algorithm getActiveAlgorithm() {
+        Keys current = keys;
+        if (current.activeKeyId == null) {
+            throw new SecurityException("No JWT signing key loaded");
+        }
+        return current.algorithms.get(current.activeKeyId);
+    }
+
+    // Tokens issued before key ids were added carry no kid and are checked against the legacy key
+    public DecodedJWT verify(String token) {
+        DecodedJWT decodedJWT = JWT.decode(token);
+        String keyId = decodedJWT.getKeyId() == null ? LEGACY_KEY_ID : decodedJWT.getKeyId();
+        JWTVerifier verifier = keys.verifiers.get(keyId);
+        if (verifier == null) {
+            throw new SecurityException("Unknown JWT key id: " + keyId);
+        }
+        return verifier.verify(decodedJWT);
+    }
+
+    /**
+     * Bumped by every reload. A token verified while it had another value may have been checked
+     * against a key that is gone.
+     */
+    public long getGeneration() {
+        return keys.generation;
+    }
+
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    public synchronized void reload() {
+        Map<String, Algorithm> algorithms = new HashMap<>();
+        String activeKeyId = null;
+        try {
+            if (Files.exists(secretPath)) {
+                algorithms.put(LEGACY_KEY_ID, Algorithm.HMAC256(Files.readString(secretPath).getBytes()));
+                activeKeyId = LEGACY_KEY_ID;
+            }
+            if (keyRingPath != null && Files.exists(keyRingPath)) {
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(keyRingPath)) {
+                    properties.load(reader);
+                }
+                for (String name : properties.stringPropertyNames()) {
+                    if (name.startsWith(KEY_PREFIX)) {
+                        algorithms.put(name.substring(KEY_PREFIX.length()), Algorithm.HMAC256(properties.getProperty(name).getBytes()));
+                    }
+                }
+                String configuredActive = properties.getProperty(ACTIVE_PROPERTY);
+                if (configuredActive != null && algorithms.containsKey(configuredActive.trim())) {
+                    activeKeyId = configuredActive.trim();
+                } else if (configuredActive != null) {
+                    log.error("Active JWT key id {} has no key, keeping {}", configuredActive, activeKeyId);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Reload JWT keys failed, keeping previous keys: {}", e.getMessage());
+            return;
+        }
+        if (algorithms.isEmpty()) {
+            log.error("No JWT key found at {}", secretPath);
+        }
+
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        algorithms.forEach((keyId, algorithm) -> verifiers.put(keyId, JWT.require(algorithm).build()));
+        keys = new Keys(keys.generation + 1, activeKeyId, Map.copyOf(algorithms), Map.copyOf(verifiers));
+        log.info("Loaded {} JWT key(s), active key id: {}", algorithms.size(), activeKeyId);
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    private void startWatcher() {
+        Set<Path> directories = new HashSet<>();
+        directories.add(secretPath.getParent());
+        if (keyRingPath != null) {
+            directories.add(keyRingPath.getParent());
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            log.error("Cannot watch JWT key files, keys will not be reloaded: {}", e.getMessage());
+            return;
+        }
+        Thread watcher = new Thread(this::watch, "jwt-key-ring-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changed = true;
+                        continue;
+                    }
+                    Path changedFile = ((Path) watchKey.watchable()).resolve((Path) event.context());
+                    changed |= changedFile.equals(secretPath) || changedFile.equals(keyRingPath);
+                }
+                watchKey.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("JWT key ring watcher stopped");
+        }
+    }
+
+    private record Keys(long generation, String activeKeyId, Map<String, Algorithm> algorithms, Map<String, JWTVerifier> verifiers) {
+    }
+}
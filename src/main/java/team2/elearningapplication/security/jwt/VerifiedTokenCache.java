@@ -0,0 +1,100 @@
+package team2.elearningapplication.security.jwt;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of tokens that already passed signature verification, so repeat calls
+ * with the same bearer token skip HMAC verification and claim parsing. Entries are keyed by
+ * the SHA-256 of the token, expire with the token and are dropped whenever the key ring reloads.
+ * Each entry carries the key ring generation it was verified under, so a verification that
+ * overlapped a reload is never served afterwards.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final int maxSize;
+    private final JWTKeyRing keyRing;
+    private final Map<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.max-size:10000}") int maxSize, JWTKeyRing keyRing) {
+        this.maxSize = maxSize;
+        this.keyRing = keyRing;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+        keyRing.addReloadListener(this::clear);
+    }
+
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        synchronized (cache) {
+            VerifiedToken verifiedToken = cache.get(key);
+            if (verifiedToken != null && (verifiedToken.isExpired() || verifiedToken.keyGeneration != keyRing.getGeneration())) {
+                cache.remove(key);
+                return null;
+            }
+            return verifiedToken;
+        }
+    }
+
+    public void put(String token, VerifiedToken verifiedToken) {
+        if (maxSize <= 0 || verifiedToken.isExpired()) {
+            return;
+        }
+        String key = hash(token);
+        synchronized (cache) {
+            // verified before a reload that already cleared the cache
+            if (verifiedToken.keyGeneration == keyRing.getGeneration()) {
+                cache.put(key, verifiedToken);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new SecurityException(e);
+        }
+    }
+
+    @Getter
+    public static class VerifiedToken {
+        private final String username;
+        private final List<SimpleGrantedAuthority> authorities;
+        private final long expiresAt;
+        // JWTKeyRing#getGeneration read before the token was verified
+        private final long keyGeneration;
+
+        public VerifiedToken(String username, List<SimpleGrantedAuthority> authorities, long expiresAt, long keyGeneration) {
+            this.username = username;
+            this.authorities = List.copyOf(authorities);
+            this.expiresAt = expiresAt;
+            this.keyGeneration = keyGeneration;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package team2.elearningapplication.service;
+
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.response.admin.dashboard.DashboardSnapshotResponse;
+
+public interface IDashboardService {
+    ResponseCommon<DashboardSnapshotResponse> getSnapshot();
+
+    long getTotalUser();
+
+    long getTotalCourse();
+
+    double getTotalRevenue();
+
+    void onUserCreated();
+
+    void onCourseCreated();
+
+    void onPaymentCompleted(double amount);
+}
@@ -5,6 +5,7 @@ import team2.elearningapplication.dto.common.ResponseCommon;
 import team2.elearningapplication.dto.request.admin.lesson.*;
 import team2.elearningapplication.dto.request.user.lesson.GetLessonByCourseIdRequest;
 import team2.elearningapplication.dto.request.user.lesson.GetTrackingCourseRequest;
+import team2.elearningapplication.dto.request.user.lesson.GetTrackingCoursesRequest;
 import team2.elearningapplication.dto.request.user.lesson.LessonCompletedRequest;
 import team2.elearningapplication.dto.response.admin.lesson.*;
 import team2.elearningapplication.dto.response.user.lesson.GetLessonByCourseIdResponse;
@@ -12,6 +13,8 @@ import team2.elearningapplication.dto.response.user.lesson.GetLessonPageResponse
 import team2.elearningapplication.dto.response.user.lesson.GetTrackingCourse;
 import team2.elearningapplication.dto.response.user.lesson.LessonCompletedResponse;
 
+import java.util.List;
+
 public interface ILessonService {
     ResponseCommon<AddLessonResponse> addLesson(AddLessonRequest addLessonRequest);
 
@@ -19,6 +22,8 @@ public interface ILessonService {
 
     ResponseCommon<DeleteLessonResponse> deleteLesson(DeleteLessonRequest deleteLessonRequest);
 
+    ResponseCommon<MoveLessonResponse> moveLesson(MoveLessonRequest moveLessonRequest);
+
     ResponseCommon<FindAllLessonResponse> findAllLesson();
 
     ResponseCommon<FindAllLessonResponse> findLessonByDeleted(FindLessonByDeletedRequest findLessonByDeletedRequest);
@@ -32,4 +37,6 @@ public interface ILessonService {
     ResponseCommon<LessonCompletedResponse> completeLesson(LessonCompletedRequest completeLessonRequest);
 
     ResponseCommon<GetTrackingCourse> trackingCourse(GetTrackingCourseRequest getTrackingCourseRequest);
+
+    ResponseCommon<List<GetTrackingCourse>> trackingCourses(GetTrackingCoursesRequest getTrackingCoursesRequest);
 }
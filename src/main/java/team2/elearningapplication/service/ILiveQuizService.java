@@ -0,0 +1,18 @@
+package team2.elearningapplication.service;
+
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.user.live.GetLiveQuizStatsRequest;
+import team2.elearningapplication.dto.request.user.live.LiveQuizActionRequest;
+import team2.elearningapplication.dto.request.user.live.OpenLiveQuizRequest;
+import team2.elearningapplication.dto.response.user.live.LiveQuizRoomResponse;
+import team2.elearningapplication.dto.response.user.live.LiveQuizStatsResponse;
+
+public interface ILiveQuizService {
+    ResponseCommon<LiveQuizRoomResponse> openRoom(OpenLiveQuizRequest openLiveQuizRequest);
+
+    ResponseCommon<LiveQuizRoomResponse> nextQuestion(LiveQuizActionRequest liveQuizActionRequest);
+
+    ResponseCommon<LiveQuizStatsResponse> closeRoom(LiveQuizActionRequest liveQuizActionRequest);
+
+    ResponseCommon<LiveQuizStatsResponse> getStats(GetLiveQuizStatsRequest getLiveQuizStatsRequest);
+}
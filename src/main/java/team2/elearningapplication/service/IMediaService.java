@@ -0,0 +1,16 @@
+package team2.elearningapplication.service;
+
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.media.CreateUploadRequest;
+import team2.elearningapplication.dto.request.admin.media.GetUploadProgressRequest;
+import team2.elearningapplication.dto.response.admin.media.UploadProgressResponse;
+
+import javax.servlet.http.HttpServletRequest;
+
+public interface IMediaService {
+    ResponseCommon<UploadProgressResponse> createUpload(CreateUploadRequest createUploadRequest);
+
+    ResponseCommon<UploadProgressResponse> upload(String uploadId, HttpServletRequest request);
+
+    ResponseCommon<UploadProgressResponse> getUploadProgress(GetUploadProgressRequest getUploadProgressRequest);
+}
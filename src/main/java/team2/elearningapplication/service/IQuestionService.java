@@ -31,4 +31,7 @@ public interface IQuestionService {
     ResponseCommon<GetQuestionPageResponse> getQuestionPage(PageRequestDTO pageRequestDTO);
 
     ResponseCommon<GetQuestionByQuizIdResponse> getQuestionByQuizId(GetQuestionByQuizIDRequest getQuestionByQuizIDRequest);
+
+    // the same response already serialized, shared by every caller
+    ResponseCommon<byte[]> getQuestionByQuizIdJson(GetQuestionByQuizIDRequest getQuestionByQuizIDRequest);
 }
@@ -1,11 +1,15 @@
 package team2.elearningapplication.service;
 
 import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.dashboard.GetQuizStatsRequest;
 import team2.elearningapplication.dto.request.admin.quiz.*;
 import team2.elearningapplication.dto.request.user.quiz.*;
+import team2.elearningapplication.dto.response.admin.dashboard.QuizStatsResponse;
 import team2.elearningapplication.dto.response.admin.quiz.*;
 import team2.elearningapplication.dto.response.user.quiz.*;
 
+import java.util.List;
+
 public interface IQuizService {
     ResponseCommon<AddQuizResponse> addQuiz(AddQuizRequest addQuizRequest);
 
@@ -21,13 +25,20 @@ public interface IQuizService {
 
     ResponseCommon<StartQuizResponse> startQuiz(StartQuizRequest startQuizRequest);
 
-//    ResponseCommon<NextQuestionResponse> nextQuestion(NextQuestionRequest nextQuestionRequest);
+    ResponseCommon<NextQuestionResponse> nextQuestion(NextQuestionRequest nextQuestionRequest);
+
+    ResponseCommon<SubmitAnswerResponse> submitAnswer(SubmitAnswerRequest submitAnswerRequest);
 
     ResponseCommon<FinishQuizResponse> finishQuiz(FinishQuizRequest finishQuizRequest);
 
+    // grades timed sessions closed on their deadline, data is the number of attempts written
+    ResponseCommon<Integer> finishExpiredSessions(List<Integer> sessionIds);
+
     ResponseCommon<ResetQuizResponse> resetQuiz(ResetQuizRequest resetQuizRequest);
 
     ResponseCommon<GetAllSessionQuizByUserResponse> getAllSessionQuiz(GetAllSessionQuizByUserRequest getAllSessionQuizByUserRequest);
 
     ResponseCommon<GetCorrectAnswerBySessionId> getAnswerCorrectBySessionId(GetAnswerCorrectBySessionIdRequest getAnswerCorrectBySessionIdRequest);
+
+    ResponseCommon<QuizStatsResponse> getQuizStats(GetQuizStatsRequest getQuizStatsRequest);
 }
@@ -0,0 +1,14 @@
+package team2.elearningapplication.service;
+
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.dashboard.GetRevenueSeriesRequest;
+import team2.elearningapplication.dto.response.admin.dashboard.RevenueSeriesResponse;
+import team2.elearningapplication.entity.Payment;
+
+public interface IRevenueRollupService {
+    void recordPayment(Payment payment);
+
+    ResponseCommon<RevenueSeriesResponse> getSeries(GetRevenueSeriesRequest request);
+
+    void compact();
+}
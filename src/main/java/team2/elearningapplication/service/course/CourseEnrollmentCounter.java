@@ -0,0 +1,148 @@
+package team2.elearningapplication.service.course;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.entity.CourseStats;
+import team2.elearningapplication.repository.ICourseStatsRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enrollment count per course, kept in memory and written to {@code course_stats} in batches.
+ * Enrollments only bump a striped {@link LongAdder}; a scheduled flush recounts the touched
+ * courses from {@code history_register_course}, so the table never adds a delta on top of a
+ * reseed done by another node. The most enrolled courses are kept in a precomputed list so
+ * reading the top K costs O(K). On startup the table is realigned with {@code history_register_course} and
+ * reloaded, so counts stay exact across restarts even if the last flush was lost.
+ */
+@Component
+@Slf4j
+public class CourseEnrollmentCounter {
+    private static final Comparator<Map.Entry<Integer, Long>> BY_COUNT =
+            Map.Entry.<Integer, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final ICourseStatsRepository courseStatsRepository;
+    private final int topCapacity;
+
+    private final Map<Integer, Long> totals = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+    private volatile List<Integer> topCourseIds = List.of();
+    private volatile boolean topDirty;
+
+    public CourseEnrollmentCounter(ICourseStatsRepository courseStatsRepository,
+                                   @Value("${course.stats.top-capacity:50}") int topCapacity) {
+        this.courseStatsRepository = courseStatsRepository;
+        this.topCapacity = topCapacity;
+    }
+
+    @PostConstruct
+    public void reseed() {
+        try {
+            courseStatsRepository.reseedFromHistory();
+        } catch (Exception e) {
+            log.error("Reseed course_stats from history failed, using stored counts: {}", e.getMessage());
+        }
+        try {
+            totals.clear();
+            for (CourseStats courseStats : courseStatsRepository.findAll()) {
+                totals.put(courseStats.getCourseId(), courseStats.getEnrollmentCount());
+            }
+            pending.clear();
+            rebuildTop();
+            log.info("Loaded enrollment counts of {} course(s)", totals.size());
+        } catch (Exception e) {
+            log.error("Load course_stats failed, top courses start empty: {}", e.getMessage());
+        }
+    }
+
+    public void increment(int courseId) {
+        pending.computeIfAbsent(courseId, id -> new LongAdder()).increment();
+        totals.merge(courseId, 1L, Long::sum);
+        topDirty = true;
+    }
+
+    /**
+     * Counts the enrollment once the current transaction commits, so a rolled back payment is
+     * not counted. Without a transaction it is counted right away.
+     */
+    public void incrementAfterCommit(int courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(courseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(courseId);
+            }
+        });
+    }
+
+    public long getCount(int courseId) {
+        return totals.getOrDefault(courseId, 0L);
+    }
+
+    /**
+     * Ids of the {@code k} most enrolled courses, most enrolled first. Ties go to the lower id.
+     * Past {@code course.stats.top-capacity} the ids are read from {@code course_stats}, which
+     * lags behind by at most one flush.
+     */
+    public List<Integer> getTopCourseIds(int k) {
+        if (k > topCapacity) {
+            return courseStatsRepository.findTopCourseIds(PageRequest.of(0, k));
+        }
+        if (topDirty) {
+            rebuildTop();
+        }
+        List<Integer> top = topCourseIds;
+        return top.subList(0, Math.min(k, top.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${course.stats.flush-interval-ms:30000}")
+    public void flush() {
+        for (Map.Entry<Integer, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                continue;
+            }
+            try {
+                courseStatsRepository.recountEnrollments(entry.getKey());
+            } catch (Exception e) {
+                // keep the course pending for the next flush
+                entry.getValue().add(delta);
+                log.error("Flush enrollment count of course {} failed: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    // bounded min-heap over all courses: O(n log K), only after the counts changed
+    private synchronized void rebuildTop() {
+        topDirty = false;
+        PriorityQueue<Map.Entry<Integer, Long>> heap = new PriorityQueue<>(topCapacity + 1, BY_COUNT);
+        for (Map.Entry<Integer, Long> entry : totals.entrySet()) {
+            heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (heap.size() > topCapacity) {
+                heap.poll();
+            }
+        }
+        Integer[] top = new Integer[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll().getKey();
+        }
+        topCourseIds = List.of(top);
+    }
+}
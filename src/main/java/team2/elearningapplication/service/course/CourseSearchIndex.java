@@ -0,0 +1,240 @@
+package team2.elearningapplication.service.course;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.entity.Course;
+import team2.elearningapplication.repository.ICourseRepository;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over course name, category name and description, replacing the
+ * {@code LIKE '%keyword%'} scan. Text is folded to lowercase ASCII (Vietnamese diacritics and
+ * {@code đ} removed) so "lap trinh" finds "Lập trình". Every query token also matches terms it
+ * is a prefix of, all tokens must match, and results are ranked with BM25 boosted by the
+ * course's enrollment count. Course writes update their entry; a renamed or deleted category
+ * re-indexes its courses through {@link #reindexCategory}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchIndex {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{Alnum}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_MATCH_FACTOR = 0.7;
+    private static final double POPULARITY_BOOST = 0.1;
+
+    private final ICourseRepository courseRepository;
+    private final CourseEnrollmentCounter courseEnrollmentCounter;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Course> courses = courseRepository.findAllByIsDeleted(false);
+            IndexData rebuilt = new IndexData();
+            for (Course course : courses) {
+                rebuilt.add(course.getId(), tokenize(course));
+            }
+            lock.writeLock().lock();
+            try {
+                data = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Indexed {} course(s) for search", courses.size());
+        } catch (Exception e) {
+            log.error("Rebuild course search index failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds or replaces a course. Deleted courses are removed from the index.
+     */
+    public void index(Course course) {
+        if (course.isDeleted()) {
+            remove(course.getId());
+            return;
+        }
+        Map<String, Integer> terms = tokenize(course);
+        lock.writeLock().lock();
+        try {
+            data.remove(course.getId());
+            data.add(course.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the courses of a category after it was renamed or deleted; the courses of a
+     * deleted category are no longer found by its name.
+     */
+    public void reindexCategory(int categoryId) {
+        List<Course> courses = courseRepository.findAllByCategoryIdAndIsDeleted(categoryId, false);
+        List<Map<String, Integer>> terms = new ArrayList<>(courses.size());
+        courses.forEach(course -> terms.add(tokenize(course)));
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < courses.size(); i++) {
+                data.remove(courses.get(i).getId());
+                data.add(courses.get(i).getId(), terms.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Re-indexed {} course(s) of category {}", courses.size(), categoryId);
+    }
+
+    public void remove(int courseId) {
+        lock.writeLock().lock();
+        try {
+            data.remove(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the courses matching every token of {@code keyword}, best match first.
+     */
+    public List<Integer> search(String keyword, int limit) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(fold(keyword)));
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Double> scores;
+        lock.readLock().lock();
+        try {
+            scores = data.score(queryTokens);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.size());
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            double popularity = 1 + POPULARITY_BOOST * Math.log1p(courseEnrollmentCounter.getCount(entry.getKey()));
+            ranked.add(Map.entry(entry.getKey(), entry.getValue() * popularity));
+        }
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> courseIds = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            courseIds.add(ranked.get(i).getKey());
+        }
+        return courseIds;
+    }
+
+    static List<String> fold(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("")
+                .replace('đ', 'd').replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // term -> weighted frequency, name and category count more than description
+    private static Map<String, Integer> tokenize(Course course) {
+        Map<String, Integer> terms = new HashMap<>();
+        fold(course.getName()).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        if (course.getCategory() != null && !course.getCategory().isDeleted()) {
+            fold(course.getCategory().getName()).forEach(term -> terms.merge(term, CATEGORY_WEIGHT, Integer::sum));
+        }
+        fold(course.getDescription()).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return terms;
+    }
+
+    private static final class IndexData {
+        // sorted so a prefix is a contiguous range of terms
+        private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+        private final Map<Integer, Map<String, Integer>> documents = new HashMap<>();
+        private final Map<Integer, Integer> lengths = new HashMap<>();
+        private long totalLength;
+
+        void add(int courseId, Map<String, Integer> terms) {
+            documents.put(courseId, terms);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(courseId, entry.getValue());
+                length += entry.getValue();
+            }
+            lengths.put(courseId, length);
+            totalLength += length;
+        }
+
+        void remove(int courseId) {
+            Map<String, Integer> terms = documents.remove(courseId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms.keySet()) {
+                Map<Integer, Integer> posting = postings.get(term);
+                posting.remove(courseId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= lengths.remove(courseId);
+        }
+
+        Map<Integer, Double> score(List<String> queryTokens) {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return Map.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            Map<Integer, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<Integer, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Map<Integer, Integer>> entry
+                        : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                    double matchFactor = entry.getKey().equals(token) ? 1 : PREFIX_MATCH_FACTOR;
+                    Map<Integer, Integer> posting = entry.getValue();
+                    double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                    for (Map.Entry<Integer, Integer> document : posting.entrySet()) {
+                        int courseId = document.getKey();
+                        if (scores != null && !scores.containsKey(courseId)) {
+                            continue;
+                        }
+                        int frequency = document.getValue();
+                        double tf = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengths.get(courseId) / averageLength));
+                        // a token counts once per course, by its best matching term
+                        tokenScores.merge(courseId, matchFactor * idf * tf, Math::max);
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Integer, Double> entry : tokenScores.entrySet()) {
+                        entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                    }
+                }
+                scores = tokenScores;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package team2.elearningapplication.service.course;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Course ids each user is enrolled in, loaded from {@code history_register_course} with one
+ * query the first time a user is asked about and kept in a bounded LRU. Enrollment checks are
+ * then a hash lookup with no database access. New enrollments are added in place by
+ * {@link #addEnrollment}, or by {@link #addEnrollmentAfterCommit} once the payment that made
+ * them is committed.
+ */
+@Component
+public class UserEnrollmentCache {
+    private final IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+    private final int maxUsers;
+    private final Map<String, CourseIdSet> enrollments;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserEnrollmentCache(IHistoryResgisterCourseRepository historyRegisterCourseRepository,
+                               @Value("${course.enrollment-cache.max-users:10000}") int maxUsers) {
+        this.historyRegisterCourseRepository = historyRegisterCourseRepository;
+        this.maxUsers = maxUsers;
+        this.enrollments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CourseIdSet> eldest) {
+                return size() > UserEnrollmentCache.this.maxUsers;
+            }
+        };
+    }
+
+    public boolean isEnrolled(String username, int courseId) {
+        return get(username).contains(courseId);
+    }
+
+    public List<Integer> getCourseIds(String username) {
+        return get(username).toList();
+    }
+
+    public void addEnrollment(String username, int courseId) {
+        synchronized (enrollments) {
+            generation.incrementAndGet();
+            CourseIdSet courseIds = enrollments.get(username);
+            if (courseIds != null) {
+                enrollments.put(username, courseIds.with(courseId));
+            }
+        }
+    }
+
+    /**
+     * Adds the enrollment once the current transaction commits, so a rolled back payment never
+     * shows up as enrolled. Without a transaction it is added right away.
+     */
+    public void addEnrollmentAfterCommit(String username, int courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addEnrollment(username, courseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addEnrollment(username, courseId);
+            }
+        });
+    }
+
+    private CourseIdSet get(String username) {
+        synchronized (enrollments) {
+            CourseIdSet courseIds = enrollments.get(username);
+            if (courseIds != null) {
+                return courseIds;
+            }
+        }
+        long loadGeneration = generation.get();
+        CourseIdSet loaded = CourseIdSet.of(historyRegisterCourseRepository.findCourseIdsByUsername(username));
+        // an enrollment added while loading may be missing from the result, do not keep it then;
+        // compared under the lock addEnrollment takes so none lands between the check and the put
+        synchronized (enrollments) {
+            if (generation.get() == loadGeneration && maxUsers > 0) {
+                enrollments.putIfAbsent(username, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Immutable open-addressing set of positive ints. Adding copies the table, which is fine
+     * because a user enrolls rarely and is checked often.
+     */
+    static final class CourseIdSet {
+        private static final int EMPTY = 0;
+        private final int[] table;
+        private final int size;
+
+        private CourseIdSet(int[] table, int size) {
+            this.table = table;
+            this.size = size;
+        }
+
+        static CourseIdSet of(List<Integer> courseIds) {
+            int[] table = new int[capacityFor(courseIds.size())];
+            int size = 0;
+            for (Integer courseId : courseIds) {
+                if (courseId != null && courseId > 0 && insert(table, courseId)) {
+                    size++;
+                }
+            }
+            return new CourseIdSet(table, size);
+        }
+
+        CourseIdSet with(int courseId) {
+            if (courseId <= 0 || contains(courseId)) {
+                return this;
+            }
+            int[] grown = new int[capacityFor(size + 1)];
+            for (int value : table) {
+                if (value != EMPTY) {
+                    insert(grown, value);
+                }
+            }
+            insert(grown, courseId);
+            return new CourseIdSet(grown, size + 1);
+        }
+
+        boolean contains(int courseId) {
+            int mask = table.length - 1;
+            for (int slot = mix(courseId) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (table[slot] == courseId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<Integer> toList() {
+            return Arrays.stream(table).filter(value -> value != EMPTY).sorted().boxed().toList();
+        }
+
+        // ids start at 1, 0 marks a free slot
+        private static boolean insert(int[] table, int courseId) {
+            int mask = table.length - 1;
+            int slot = mix(courseId) & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == courseId) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = courseId;
+            return true;
+        }
+
+        // power of two with at most 50% load
+        private static int capacityFor(int size) {
+            return Integer.highestOneBit(Math.max(size, 1) * 2 + 1) << 1;
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package team2.elearningapplication.service.email;
+
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.entity.Mail;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders a {@link Mail} and sends it over a pooled SMTP transport, on the calling thread.
+ * Shared by the in-memory dispatcher and the outbox relay.
+ */
+@Component
+public class EmailDelivery {
+    private final EmailRenderer emailRenderer;
+    private final PooledMailTransport mailTransport;
+    private final String defaultFrom;
+
+    public EmailDelivery(EmailRenderer emailRenderer, PooledMailTransport mailTransport,
+                         @Value("${mail.from:elearningapplicationsystem@gmail.com}") String defaultFrom) {
+        this.emailRenderer = emailRenderer;
+        this.mailTransport = mailTransport;
+        this.defaultFrom = defaultFrom;
+    }
+
+    public void deliver(Mail mail) throws MessagingException {
+        MimeMessage message = mailTransport.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                StandardCharsets.UTF_8.name());
+        helper.setTo(mail.getTo());
+        helper.setText(emailRenderer.render(mail), true);
+        helper.setSubject(mail.getSubject());
+        helper.setFrom(mail.getFrom() == null ? defaultFrom : mail.getFrom());
+        mailTransport.send(message);
+    }
+
+    /**
+     * Whether the server refused the mail for good (a 5xx reply), so sending it again is useless.
+     * Temporary 4xx replies and connection problems are worth a retry.
+     */
+    public static boolean isPermanentFailure(MessagingException e) {
+        for (Exception cause = e; cause != null;
+             cause = cause instanceof MessagingException messaging ? messaging.getNextException() : null) {
+            int returnCode = cause instanceof SMTPSendFailedException sendFailed ? sendFailed.getReturnCode()
+                    : cause instanceof SMTPAddressFailedException addressFailed ? addressFailed.getReturnCode() : 0;
+            if (returnCode >= 500) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package team2.elearningapplication.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.Enum.EnumMailLane;
+import team2.elearningapplication.dto.response.admin.dashboard.EmailLaneMetricsResponse;
+import team2.elearningapplication.entity.Mail;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends OTP mail from a fixed set of worker threads, right away instead of on the next poll of
+ * {@link EmailOutboxRelay}; payment and certificate mail goes through the outbox. When the bounded
+ * queue is full the caller waits up to {@code email.dispatch.offer-timeout-ms} and is then
+ * rejected. A failed send is queued again after an exponential backoff with jitter, up to
+ * {@code email.dispatch.max-attempts}; mail the server refused with a 5xx reply is not retried.
+ * <p>
+ * Queued mail lives in memory only and is lost on shutdown, a lost OTP is simply requested again.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+    private final EmailDelivery emailDelivery;
+    private final int workers;
+    private final long offerTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+
+    private final BlockingQueue<Job> queue;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    public EmailDispatcher(EmailDelivery emailDelivery,
+                           @Value("${email.dispatch.workers:4}") int workers,
+                           @Value("${email.dispatch.queue-capacity:1000}") int queueCapacity,
+                           @Value("${email.dispatch.offer-timeout-ms:2000}") long offerTimeoutMillis,
+                           @Value("${email.dispatch.max-attempts:4}") int maxAttempts,
+                           @Value("${email.dispatch.retry-base-ms:1000}") long retryBaseMillis,
+                           @Value("${email.dispatch.retry-max-ms:60000}") long retryMaxMillis) {
+        this.emailDelivery = emailDelivery;
+        this.workers = Math.max(workers, 1);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workerPool = Executors.newFixedThreadPool(workers, threadFactory("email-dispatch-"));
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("email-retry-"));
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            workerPool.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Email dispatcher stopped with {} mail(s) still queued", queue.size());
+        }
+    }
+
+    /**
+     * Queues {@code mail}, waiting while the queue is full.
+     *
+     * @throws RejectedExecutionException if the queue stayed full for the offer timeout
+     */
+    public void submit(Mail mail) {
+        boolean accepted;
+        try {
+            accepted = queue.offer(new Job(mail, 1), offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            throw new RejectedExecutionException("Email dispatch queue is full");
+        }
+        submitted.increment();
+    }
+
+    // the mail this dispatcher sends is all OTP mail
+    public List<EmailLaneMetricsResponse> getLaneMetrics() {
+        return List.of(new EmailLaneMetricsResponse(EnumMailLane.OTP, queue.size(), submitted.sum(), sent.sum(),
+                retried.sum(), failed.sum(), rejected.sum()));
+    }
+
+    private void work() {
+        while (running || !queue.isEmpty()) {
+            Job job;
+            try {
+                job = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job != null) {
+                deliver(job);
+            }
+        }
+    }
+
+    private void deliver(Job job) {
+        try {
+            emailDelivery.deliver(job.mail());
+            sent.increment();
+        } catch (MessagingException | MailException e) {
+            if (e instanceof MessagingException messaging && EmailDelivery.isPermanentFailure(messaging)) {
+                failed.increment();
+                log.error("Mail to {} refused: {}", job.mail().getTo(), e.getMessage());
+            } else if (job.attempt() >= maxAttempts || !running) {
+                failed.increment();
+                log.error("Send mail to {} failed after {} attempt(s): {}", job.mail().getTo(), job.attempt(), e.getMessage());
+            } else {
+                retried.increment();
+                long delay = retryDelay(job.attempt(), retryBaseMillis, retryMaxMillis, ThreadLocalRandom.current().nextDouble());
+                log.warn("Send mail to {} failed, retry in {} ms: {}", job.mail().getTo(), delay, e.getMessage());
+                scheduleRetry(new Job(job.mail(), job.attempt() + 1), delay);
+            }
+        } catch (RuntimeException e) {
+            // template or address problems do not go away with a retry
+            failed.increment();
+            log.error("Build mail to {} failed: {}", job.mail().getTo(), e.getMessage());
+        }
+    }
+
+    private void scheduleRetry(Job job, long delayMillis) {
+        try {
+            retryScheduler.schedule(() -> {
+                if (!queue.offer(job)) {
+                    failed.increment();
+                    log.error("Email dispatch queue is full, dropped retry of mail to {}", job.mail().getTo());
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            failed.increment();
+        }
+    }
+
+    // exponential backoff, the jitter spreads each delay over its upper half
+    static long retryDelay(int attempt, long baseMillis, long maxMillis, double random) {
+        long backoff = Math.min(maxMillis, baseMillis << Math.min(attempt - 1, 20));
+        return (long) (backoff * (0.5 + random / 2));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Job(Mail mail, int attempt) {
+    }
+}
@@ -0,0 +1,192 @@
+package team2.elearningapplication.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.entity.EmailOutbox;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background workers that drain {@code email_outbox}. Each worker claims a batch of due rows,
+ * sends them one by one and records the outcome per row; when nothing is due it sleeps for
+ * {@code email.outbox.poll-interval-ms}. A failed send is retried later with the same backoff as
+ * the in-memory dispatcher, a row claimed by a node that died is released after
+ * {@code email.outbox.claim-timeout-ms}. Delivery is at least once: a node that dies between
+ * sending and recording the outcome sends that mail again.
+ */
+@Component
+@Slf4j
+public class EmailOutboxRelay {
+    private final EmailOutboxService emailOutboxService;
+    private final EmailDelivery emailDelivery;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long claimTimeoutMillis;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+    private final int sentRetentionDays;
+    private final String node;
+
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    public EmailOutboxRelay(EmailOutboxService emailOutboxService, EmailDelivery emailDelivery,
+                            @Value("${email.outbox.enabled:true}") boolean enabled,
+                            @Value("${email.outbox.workers:2}") int workers,
+                            @Value("${email.outbox.batch-size:20}") int batchSize,
+                            @Value("${email.outbox.poll-interval-ms:1000}") long pollIntervalMillis,
+                            @Value("${email.outbox.claim-timeout-ms:300000}") long claimTimeoutMillis,
+                            @Value("${email.dispatch.max-attempts:4}") int maxAttempts,
+                            @Value("${email.dispatch.retry-base-ms:1000}") long retryBaseMillis,
+                            @Value("${email.dispatch.retry-max-ms:60000}") long retryMaxMillis,
+                            @Value("${email.outbox.sent-retention-days:7}") int sentRetentionDays,
+                            @Value("${email.outbox.node-id:}") String node) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailDelivery = emailDelivery;
+        this.enabled = enabled;
+        this.workers = Math.max(workers, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        this.sentRetentionDays = sentRetentionDays;
+        this.node = node == null || node.isBlank() ? defaultNode() : node;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Email outbox relay is disabled");
+            return;
+        }
+        running = true;
+        AtomicInteger count = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+        log.info("Email outbox relay started on node {} with {} worker(s)", node, workers);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (workerPool != null) {
+            workerPool.shutdown();
+            if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                workerPool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Claims one batch and sends it. Returns how many rows were claimed.
+     */
+    public int drainOnce() {
+        List<EmailOutbox> batch = emailOutboxService.claimBatch(node, batchSize);
+        for (EmailOutbox outbox : batch) {
+            send(outbox);
+        }
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.claim-timeout-ms:300000}")
+    public void releaseStaleClaims() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int released = emailOutboxService.releaseStaleClaims(LocalDateTime.now().minusNanos(claimTimeoutMillis * 1_000_000));
+            if (released > 0) {
+                log.warn("Released {} stale email outbox claim(s)", released);
+            }
+        } catch (Exception e) {
+            log.error("Release stale email outbox claims failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${email.outbox.purge-cron:0 0 3 * * *}")
+    public void purgeSent() {
+        try {
+            int purged = emailOutboxService.purgeSent(LocalDateTime.now().minusDays(sentRetentionDays));
+            log.info("Purged {} sent email outbox row(s)", purged);
+        } catch (Exception e) {
+            log.error("Purge email outbox failed: {}", e.getMessage());
+        }
+    }
+
+    private void work() {
+        while (running) {
+            int claimed;
+            try {
+                claimed = drainOnce();
+            } catch (Exception e) {
+                log.error("Drain email outbox failed: {}", e.getMessage());
+                claimed = 0;
+            }
+            // a full batch means more may be due, go again right away
+            if (claimed < batchSize) {
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void send(EmailOutbox outbox) {
+        try {
+            emailDelivery.deliver(emailOutboxService.toMail(outbox));
+            emailOutboxService.markSent(outbox.getId());
+        } catch (MessagingException | MailException e) {
+            if (e instanceof MessagingException messaging && EmailDelivery.isPermanentFailure(messaging)) {
+                emailOutboxService.markFailed(outbox.getId(), e.getMessage());
+                log.error("Outbox mail {} to {} refused: {}", outbox.getId(), outbox.getTo(), e.getMessage());
+            } else if (outbox.getAttempts() >= maxAttempts) {
+                emailOutboxService.markFailed(outbox.getId(), e.getMessage());
+                log.error("Outbox mail {} failed after {} attempt(s): {}", outbox.getId(), outbox.getAttempts(), e.getMessage());
+            } else {
+                long delay = EmailDispatcher.retryDelay(outbox.getAttempts(), retryBaseMillis, retryMaxMillis,
+                        ThreadLocalRandom.current().nextDouble());
+                emailOutboxService.retryAt(outbox.getId(), LocalDateTime.now().plusNanos(delay * 1_000_000), e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            emailOutboxService.markFailed(outbox.getId(), e.getMessage());
+            log.error("Build outbox mail {} failed: {}", outbox.getId(), e.getMessage());
+        }
+    }
+
+    private static String defaultNode() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
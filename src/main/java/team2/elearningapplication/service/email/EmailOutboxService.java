@@ -0,0 +1,131 @@
+package team2.elearningapplication.service.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.Enum.EnumMailLane;
+import team2.elearningapplication.Enum.EnumOutboxStatus;
+import team2.elearningapplication.entity.EmailOutbox;
+import team2.elearningapplication.entity.Mail;
+import team2.elearningapplication.repository.IEmailOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Reads and writes {@code email_outbox}. {@link #enqueue} joins the caller's transaction, so the
+ * mail is stored if and only if the business change commits. Claiming locks due rows with
+ * {@code FOR UPDATE SKIP LOCKED} and marks them {@code SENDING} in one short transaction, so
+ * several nodes can drain the table without picking the same row.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+    private static final int MAX_ERROR_LENGTH = 512;
+    private static final EnumMailLane DEFAULT_LANE = EnumMailLane.values()[EnumMailLane.values().length - 1];
+    private static final TypeReference<Map<String, String>> PROPS_TYPE = new TypeReference<>() {
+    };
+
+    private final IEmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public void enqueue(Mail mail) {
+        EnumMailLane lane = mail.getLane() == null ? DEFAULT_LANE : mail.getLane();
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox outbox = new EmailOutbox()
+                .setLane(lane)
+                .setPriority(lane.ordinal())
+                .setFrom(mail.getFrom())
+                .setTo(mail.getTo())
+                .setSubject(mail.getSubject())
+                .setTemplate(mail.getTemplate())
+                .setProps(writeProps(mail.getPros()))
+                .setStatus(EnumOutboxStatus.PENDING)
+                .setNextAttemptAt(now)
+                .setCreatedAt(now);
+        emailOutboxRepository.save(outbox);
+    }
+
+    @Transactional
+    public List<EmailOutbox> claimBatch(String node, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>();
+        for (Number id : emailOutboxRepository.lockDueIds(now, limit)) {
+            ids.add(id.longValue());
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        emailOutboxRepository.claim(ids, node, now);
+        List<EmailOutbox> claimed = new ArrayList<>(emailOutboxRepository.findAllById(ids));
+        claimed.sort(Comparator.comparingInt(EmailOutbox::getPriority).thenComparingLong(EmailOutbox::getId));
+        return claimed;
+    }
+
+    @Transactional
+    public void markSent(long id) {
+        emailOutboxRepository.markSent(id, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void retryAt(long id, LocalDateTime nextAttemptAt, String error) {
+        emailOutboxRepository.reschedule(id, nextAttemptAt, truncate(error));
+    }
+
+    @Transactional
+    public void markFailed(long id, String error) {
+        emailOutboxRepository.markFailed(id, truncate(error));
+    }
+
+    @Transactional
+    public int releaseStaleClaims(LocalDateTime claimedBefore) {
+        return emailOutboxRepository.releaseStaleClaims(claimedBefore);
+    }
+
+    @Transactional
+    public int purgeSent(LocalDateTime sentBefore) {
+        return emailOutboxRepository.deleteSentBefore(sentBefore);
+    }
+
+    public Mail toMail(EmailOutbox outbox) {
+        return new Mail()
+                .setLane(outbox.getLane())
+                .setFrom(outbox.getFrom())
+                .setTo(outbox.getTo())
+                .setSubject(outbox.getSubject())
+                .setTemplate(outbox.getTemplate())
+                .setPros(new HashMap<>(readProps(outbox.getProps())));
+    }
+
+    // templates only print the values, so their text form renders the same
+    private String writeProps(Map<String, Object> props) {
+        Map<String, String> text = new LinkedHashMap<>();
+        if (props != null) {
+            props.forEach((key, value) -> text.put(key, value == null ? null : String.valueOf(value)));
+        }
+        try {
+            return objectMapper.writeValueAsString(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Mail variables cannot be stored", e);
+        }
+    }
+
+    private Map<String, String> readProps(String props) {
+        if (props == null || props.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(props, PROPS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored mail variables are not valid JSON", e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
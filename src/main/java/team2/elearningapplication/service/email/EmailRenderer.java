@@ -0,0 +1,168 @@
+package team2.elearningapplication.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+import team2.elearningapplication.entity.Mail;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a {@link Mail} into the HTML body of its Thymeleaf template.
+ * <p>
+ * The mail templates only print their variables with {@code th:text}, so the first time a
+ * template is used with a given set of variables it is rendered once with marker values and cut
+ * into static text and variable slots. Later mail with the same variables is a concatenation of
+ * the static parts and the escaped values, without going through Thymeleaf. A template is only
+ * used this way if its compiled form renders exactly like Thymeleaf for two different marker
+ * sets and for values that need escaping; otherwise it keeps being processed by Thymeleaf.
+ */
+@Component
+@Slf4j
+public class EmailRenderer {
+    // markers only use characters that HTML escaping leaves alone
+    private static final String MARKER_PREFIX = "emlvar";
+    private static final String PROBE_SUFFIX = "<&>\"'";
+
+    private final ITemplateEngine templateEngine;
+    private final boolean precompile;
+    private final Map<TemplateKey, Optional<CompiledTemplate>> compiled = new ConcurrentHashMap<>();
+
+    public EmailRenderer(ITemplateEngine templateEngine,
+                         @Value("${email.template.precompile:true}") boolean precompile) {
+        this.templateEngine = templateEngine;
+        this.precompile = precompile;
+    }
+
+    public String render(Mail mail) {
+        Map<String, Object> props = mail.getPros() == null ? Map.of() : mail.getPros();
+        if (precompile) {
+            // set equality ignores the implementation, so the props' own key set can look up a copied one
+            Optional<CompiledTemplate> template = compiled.get(new TemplateKey(mail.getTemplate(), props.keySet()));
+            if (template == null) {
+                template = compiled.computeIfAbsent(
+                        new TemplateKey(mail.getTemplate(), Set.copyOf(props.keySet())), this::compile);
+            }
+            if (template.isPresent()) {
+                return template.get().render(props);
+            }
+        }
+        return process(mail.getTemplate(), props);
+    }
+
+    // whether mail like this one is rendered from the compiled form
+    boolean isCompiled(Mail mail) {
+        Map<String, Object> props = mail.getPros() == null ? Map.of() : mail.getPros();
+        Optional<CompiledTemplate> template = compiled.get(new TemplateKey(mail.getTemplate(), props.keySet()));
+        return template != null && template.isPresent();
+    }
+
+    private String process(String template, Map<String, ?> props) {
+        Context context = new Context();
+        context.setVariables(new HashMap<>(props));
+        return templateEngine.process(template, context);
+    }
+
+    private Optional<CompiledTemplate> compile(TemplateKey key) {
+        List<String> variables = new ArrayList<>(new TreeSet<>(key.variables()));
+        CompiledTemplate first = compileWith(key.template(), variables, newNonce());
+        CompiledTemplate second = compileWith(key.template(), variables, newNonce());
+        if (first != null && first.equals(second) && rendersLikeThymeleaf(key.template(), variables, first)) {
+            log.info("Compiled mail template {} with {} variable slot(s)", key.template(), first.slots.length);
+            return Optional.of(first);
+        }
+        log.info("Mail template {} depends on its values, it is processed by Thymeleaf each time", key.template());
+        return Optional.empty();
+    }
+
+    private CompiledTemplate compileWith(String template, List<String> variables, String nonce) {
+        Map<String, String> markers = new HashMap<>();
+        Map<String, String> variableByMarker = new HashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            String marker = MARKER_PREFIX + nonce + i + "x";
+            markers.put(variables.get(i), marker);
+            variableByMarker.put(marker, variables.get(i));
+        }
+        String html = process(template, markers);
+        if (variables.isEmpty()) {
+            return new CompiledTemplate(new String[]{html}, new String[0]);
+        }
+        Matcher matcher = Pattern.compile(Pattern.quote(MARKER_PREFIX + nonce) + "\\d+x").matcher(html);
+        List<String> parts = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int start = 0;
+        while (matcher.find()) {
+            String variable = variableByMarker.get(matcher.group());
+            if (variable == null) {
+                return null;
+            }
+            parts.add(html.substring(start, matcher.start()));
+            slots.add(variable);
+            start = matcher.end();
+        }
+        parts.add(html.substring(start));
+        return new CompiledTemplate(parts.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    // values that need escaping must come out exactly as Thymeleaf writes them
+    private boolean rendersLikeThymeleaf(String template, List<String> variables, CompiledTemplate compiledTemplate) {
+        Map<String, Object> probe = new HashMap<>();
+        for (String variable : variables) {
+            probe.put(variable, variable + PROBE_SUFFIX);
+        }
+        return compiledTemplate.render(probe).equals(process(template, probe));
+    }
+
+    private static String newNonce() {
+        return Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36) + "n";
+    }
+
+    private record TemplateKey(String template, Set<String> variables) {
+    }
+
+    private static final class CompiledTemplate {
+        private final String[] parts;
+        private final String[] slots;
+        private final int staticLength;
+
+        private CompiledTemplate(String[] parts, String[] slots) {
+            this.parts = parts;
+            this.slots = slots;
+            int length = 0;
+            for (String part : parts) {
+                length += part.length();
+            }
+            this.staticLength = length;
+        }
+
+        String render(Map<String, ?> props) {
+            StringBuilder html = new StringBuilder(staticLength + slots.length * 32);
+            html.append(parts[0]);
+            for (int i = 0; i < slots.length; i++) {
+                Object value = props.get(slots[i]);
+                if (value != null) {
+                    html.append(HtmlEscape.escapeHtml4Xml(value.toString()));
+                }
+                html.append(parts[i + 1]);
+            }
+            return html.toString();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CompiledTemplate that
+                    && Arrays.equals(parts, that.parts) && Arrays.equals(slots, that.slots);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(parts) + Arrays.hashCode(slots);
+        }
+    }
+}
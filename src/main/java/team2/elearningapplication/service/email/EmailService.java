@@ -1,45 +1,38 @@
 package team2.elearningapplication.service.email;
 
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.response.admin.dashboard.EmailLaneMetricsResponse;
 import team2.elearningapplication.entity.Mail;
 
-import javax.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender emailSender;
-    private final TemplateEngine templateEngine;
+    private final EmailDispatcher emailDispatcher;
+    private final EmailOutboxService emailOutboxService;
 
-    @SneakyThrows
-    @Async
+    /**
+     * Queues the mail for sending right away, see {@link EmailDispatcher}. Only for OTP mail, which
+     * is worth nothing once late; everything else goes through {@link #enqueueEmail}.
+     */
     public void sendEmail(Mail mail) {
-        MimeMessage message = emailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message,
-                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                StandardCharsets.UTF_8.name());
+        emailDispatcher.submit(mail);
+    }
 
-        Context context = new Context();
-        context.setVariables(mail.getPros());
+    /**
+     * Stores the mail in the outbox as part of the current transaction, it is sent after commit
+     * by {@link EmailOutboxRelay}. Use this for mail that must survive a crash or an SMTP outage.
+     */
+    public void enqueueEmail(Mail mail) {
+        emailOutboxService.enqueue(mail);
+    }
 
-        String html = templateEngine.process(mail.getTemplate(), context);
-        helper.setTo(mail.getTo());
-        helper.setText(html, true);
-        helper.setSubject(mail.getSubject());
-        helper.setFrom(mail.getFrom());
-        emailSender.send(message);
+    public ResponseCommon<List<EmailLaneMetricsResponse>> getLaneMetrics() {
+        return new ResponseCommon<>(ResponseCode.SUCCESS, emailDispatcher.getLaneMetrics());
     }
 }
-
-
-
-
@@ -0,0 +1,90 @@
+package team2.elearningapplication.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps connected SMTP transports between sends. {@link JavaMailSenderImpl#send} connects, logs
+ * in and quits for every message; here a transport is borrowed, used and handed back, so a
+ * burst of mail reuses a few connections. A transport that failed or was dropped by the server
+ * is closed and replaced by a fresh one on the next borrow.
+ */
+@Component
+@Slf4j
+public class PooledMailTransport {
+    private static final String DEFAULT_PROTOCOL = "smtp";
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingQueue<Transport> idle;
+
+    public PooledMailTransport(JavaMailSenderImpl mailSender,
+                               @Value("${email.dispatch.workers:4}") int poolSize) {
+        this.mailSender = mailSender;
+        this.idle = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        Transport transport = borrow();
+        boolean healthy = false;
+        try {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            healthy = true;
+        } finally {
+            release(transport, healthy);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+
+    private Transport borrow() throws MessagingException {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            if (transport.isConnected()) {
+                return transport;
+            }
+            closeQuietly(transport);
+        }
+        String protocol = mailSender.getProtocol() == null ? DEFAULT_PROTOCOL : mailSender.getProtocol();
+        transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return transport;
+    }
+
+    private void release(Transport transport, boolean healthy) {
+        if (!healthy || !idle.offer(transport)) {
+            closeQuietly(transport);
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Close SMTP transport failed: {}", e.getMessage());
+        }
+    }
+}
@@ -17,6 +17,8 @@ import team2.elearningapplication.repository.IAnswerRepository;
 import team2.elearningapplication.repository.IQuestionRepository;
 import team2.elearningapplication.repository.IUserRepository;
 import team2.elearningapplication.service.IAnswerService;
+import team2.elearningapplication.service.quiz.QuizAnswerKeyCache;
+import team2.elearningapplication.service.quiz.QuizContentCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -29,6 +31,8 @@ public class AnswerServiceImpl implements IAnswerService {
     private final IQuestionRepository questionRepository;
     private final IAnswerRepository answerRepository;
     private final IUserRepository userRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizContentCache quizContentCache;
 
     private final Logger log = LoggerFactory.getLogger(AnswerServiceImpl.class);
 
@@ -50,6 +54,8 @@ public class AnswerServiceImpl implements IAnswerService {
                 answer.setQuestionId(answer.getQuestionId());
                 answer.setUserCreated(user);
                 answerRepository.save(answer);
+                quizAnswerKeyCache.invalidateQuiz(question.getQuizID());
+                quizContentCache.invalidateQuiz(question.getQuizID());
 
                 // Create and return a success response
                 AddAnswerResponse addAnswerResponse = new AddAnswerResponse();
@@ -86,6 +92,8 @@ public class AnswerServiceImpl implements IAnswerService {
                 answerExist.setUserUpdated(user);
                 // Save the updated answer
                 answerRepository.save(answerExist);
+                quizAnswerKeyCache.invalidateQuestion(answerExist.getQuestionId());
+                quizContentCache.invalidateQuestion(answerExist.getQuestionId());
 
                 // Create and return a success response
                 UpdateAnswerResponse updateAnswerResponse = new UpdateAnswerResponse();
@@ -122,6 +130,8 @@ public class AnswerServiceImpl implements IAnswerService {
                 answerExist.setUpdatedAt(LocalDateTime.now());
                 answerExist.setUserUpdated(user);
                 answerRepository.save(answerExist);
+                quizAnswerKeyCache.invalidateQuestion(answerExist.getQuestionId());
+                quizContentCache.invalidateQuestion(answerExist.getQuestionId());
 
                 // Create a response with details of the deleted answer
                 DeleteAnswerResponse deleteAnswerResponse = new DeleteAnswerResponse();
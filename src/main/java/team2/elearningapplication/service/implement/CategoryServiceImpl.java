@@ -12,6 +12,7 @@ import team2.elearningapplication.entity.User;
 import team2.elearningapplication.repository.ICategoryRepository;
 import team2.elearningapplication.repository.IUserRepository;
 import team2.elearningapplication.service.ICategoryService;
+import team2.elearningapplication.service.course.CourseSearchIndex;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,6 +25,7 @@ public class CategoryServiceImpl implements ICategoryService {
 
     private final ICategoryRepository categoryRepository;
     private final IUserRepository userRepository;
+    private final CourseSearchIndex courseSearchIndex;
 
     @Override
     public ResponseCommon<AddCategoryResponse> addCategory(AddCategoryRequest addCategoryRequest) {
@@ -79,6 +81,8 @@ public class CategoryServiceImpl implements ICategoryService {
                 categoryUpdate.setDeleted(updateCategoryRequest.isDeleted());
                 categoryUpdate.setUserUpdated(user);
                 categoryRepository.save(categoryUpdate);
+                // courses are found by their category name
+                courseSearchIndex.reindexCategory(categoryUpdate.getId());
                 UpdateCategoryResponse updateCategoryResponse = new UpdateCategoryResponse();
                 updateCategoryResponse.setCategoryID(categoryUpdate.getId());
                 updateCategoryResponse.setCategoryName(categoryUpdate.getName());
@@ -107,6 +111,7 @@ public class CategoryServiceImpl implements ICategoryService {
                 categoryUpdate.setUpdatedAt(LocalDateTime.now());
                 categoryUpdate.setUserUpdated(user);
                 categoryRepository.save(categoryUpdate);
+                courseSearchIndex.reindexCategory(categoryUpdate.getId());
                 DeleteCategoryResponse deleteCategoryResponse = new DeleteCategoryResponse();
                 deleteCategoryResponse.setCategoryID(categoryUpdate.getId());
                 deleteCategoryResponse.setCategoryName(categoryUpdate.getName());
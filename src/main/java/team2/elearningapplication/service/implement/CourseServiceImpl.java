@@ -7,6 +7,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import team2.elearningapplication.Enum.*;
 import team2.elearningapplication.config.VnPayConfig;
 import team2.elearningapplication.dto.common.PageRequestDTO;
@@ -22,13 +23,23 @@ import team2.elearningapplication.dto.response.user.course.*;
 import team2.elearningapplication.entity.*;
 import team2.elearningapplication.repository.*;
 import team2.elearningapplication.service.ICourseService;
+import team2.elearningapplication.service.IDashboardService;
+import team2.elearningapplication.service.IRevenueRollupService;
+import team2.elearningapplication.service.course.CourseEnrollmentCounter;
+import team2.elearningapplication.service.course.CourseSearchIndex;
+import team2.elearningapplication.service.course.UserEnrollmentCache;
+import team2.elearningapplication.service.paging.KeysetPage;
+import team2.elearningapplication.service.paging.KeysetPager;
+import team2.elearningapplication.utils.CommonUtils;
 import team2.elearningapplication.service.email.EmailService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -36,6 +47,8 @@ import java.util.Objects;
 public class CourseServiceImpl implements ICourseService {
 
     private static final String ENROLL_FAILED = "Enroll course failed: ";
+    private static final int SEARCH_LIMIT = 50;
+    private static final Set<String> COURSE_SORT_KEYS = Set.of("id", "name", "price", "createdAt");
     private final ICourseRepository courseRepository;
     private final ICategoryRepository categoryRepository;
     private final IUserRepository userRepository;
@@ -44,6 +57,12 @@ public class CourseServiceImpl implements ICourseService {
     private final IPaymentRepository paymentRepository;
     private final IHistoryResgisterCourseRepository historyRegisterCourseRepository;
     private final EmailService emailService;
+    private final CourseEnrollmentCounter courseEnrollmentCounter;
+    private final CourseSearchIndex courseSearchIndex;
+    private final UserEnrollmentCache userEnrollmentCache;
+    private final IDashboardService dashboardService;
+    private final IRevenueRollupService revenueRollupService;
+    private final KeysetPager keysetPager;
 
     @Override
     public ResponseCommon<AddCourseResponse> addCourse(AddCourseRequest addCourseRequest) {
@@ -77,6 +96,8 @@ public class CourseServiceImpl implements ICourseService {
                 log.debug("Add Course failed: Unable to save the course");
                 return new ResponseCommon<>(ResponseCode.FAIL, null);
             }
+            courseSearchIndex.index(savedCourse);
+            dashboardService.onCourseCreated();
 
             AddCourseResponse addCourseResponse = new AddCourseResponse();
             addCourseResponse.setCourseID(course.getId());
@@ -118,6 +139,7 @@ public class CourseServiceImpl implements ICourseService {
                 courseUpdate.setDeleted(updateCourseRequest.isDeleted());
                 courseUpdate.setUserUpdated(user);
                 courseRepository.save(courseUpdate);
+                courseSearchIndex.index(courseUpdate);
                 UpdateCourseResponse updateCourseResponse = new UpdateCourseResponse();
                 updateCourseResponse.setCourseID(courseUpdate.getId());
                 updateCourseResponse.setCourseName(courseUpdate.getName());
@@ -155,6 +177,7 @@ public class CourseServiceImpl implements ICourseService {
                 courseDelete.setUpdatedAt(LocalDateTime.now());
                 courseDelete.setUserUpdated(user);
                 courseRepository.save(courseDelete);
+                courseSearchIndex.remove(courseDelete.getId());
                 DeleteCourseResponse deleteCourseResponse = new DeleteCourseResponse();
                 deleteCourseResponse.setCourseID(courseDelete.getId());
                 deleteCourseResponse.setCourseName(courseDelete.getName());
@@ -179,7 +202,7 @@ public class CourseServiceImpl implements ICourseService {
     public ResponseCommon<FindAllCourseResponse> findAllCourse() {
         try {
             // Get all courses with isDeleted is false
-            List<Course> listCourse = courseRepository.findAllByIsDeleted(false);
+            List<CourseCard> listCourse = courseRepository.findCardsByIsDeleted(false);
 
             // if listCourse is empty -> tell the user
             if (listCourse.isEmpty()) {
@@ -202,7 +225,7 @@ public class CourseServiceImpl implements ICourseService {
     public ResponseCommon<FindAllCourseResponse> findAllCourseByDeleted(FindCourseByDeletedRequest findCourseByDeletedRequest) {
         try {
             // Get all courses with isDeleted is false
-            List<Course> listCourse = courseRepository.findAllByIsDeleted(findCourseByDeletedRequest.isDeleted());
+            List<CourseCard> listCourse = courseRepository.findCardsByIsDeleted(findCourseByDeletedRequest.isDeleted());
 
             // if listCourse is empty -> tell the user
             if (listCourse.isEmpty()) {
@@ -253,7 +276,7 @@ public class CourseServiceImpl implements ICourseService {
     @Override
     public ResponseCommon<GetTopCourseResponse> getTopCourse(int numberCourse) {
         try {
-            List<Course> topCourse = courseRepository.getTopCourses(numberCourse);
+            List<CourseCard> topCourse = findCardsByIdInOrder(courseEnrollmentCounter.getTopCourseIds(numberCourse));
             // if topCourse is empty -> tell user
             if (topCourse.isEmpty()) {
                 return new ResponseCommon<>(ResponseCode.COURSE_LIST_IS_EMPTY.getCode(), "Course list is empty", null);
@@ -289,8 +312,7 @@ public class CourseServiceImpl implements ICourseService {
     @Override
     public ResponseCommon<GetCourseByUserResponse> getCourseByUser(String username) {
         try {
-            User user = userRepository.findByUsername(username).orElse(null);
-            List<Course> courseList = courseRepository.getCoursesByUserId(user.getId());
+            List<Course> courseList = courseRepository.findAllById(userEnrollmentCache.getCourseIds(username));
             // if courseList is empty -> tell user
             if (courseList.isEmpty()) {
                 return new ResponseCommon<>(ResponseCode.COURSE_LIST_IS_EMPTY.getCode(), "User not enroll any course", null);
@@ -309,7 +331,7 @@ public class CourseServiceImpl implements ICourseService {
     @Override
     public ResponseCommon<GetTotalCourseResponse> getTotalCourse() {
         try {
-            int totalCourse = courseRepository.getTotalCourse();
+            int totalCourse = (int) dashboardService.getTotalCourse();
             GetTotalCourseResponse getTotalCourseResponse = new GetTotalCourseResponse(totalCourse);
             return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Get total course success", getTotalCourseResponse);
         } catch (Exception e) {
@@ -322,7 +344,8 @@ public class CourseServiceImpl implements ICourseService {
     @Override
     public ResponseCommon<SearchCourseByNameAndCategoryResponse> searchCourse(SearchCourseByNameAndCategoryRequest searchCourseByNameAndCategoryRequest) {
         try {
-            List<Course> courseList = courseRepository.searchCoursesByNameOrCategory(searchCourseByNameAndCategoryRequest.getKeyword());
+            List<Integer> courseIds = courseSearchIndex.search(searchCourseByNameAndCategoryRequest.getKeyword(), SEARCH_LIMIT);
+            List<CourseCard> courseList = findCardsByIdInOrder(courseIds);
             // if courseList is empty -> tell user
             if (courseList.isEmpty()) {
                 return new ResponseCommon<>(ResponseCode.COURSE_LIST_IS_EMPTY.getCode(), "Not course match with search", null);
@@ -344,6 +367,10 @@ public class CourseServiceImpl implements ICourseService {
             int pageSize = pageRequestDTO.getPageSize();
             String sortBy = pageRequestDTO.getSortBy();
             String sortDir = pageRequestDTO.getSortDir();
+            if (pageRequestDTO.useKeyset()) {
+                return getCourseKeysetPage(pageRequestDTO);
+            }
+            KeysetPager.checkSortKey(sortBy, COURSE_SORT_KEYS);
 
             Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
 
@@ -366,6 +393,23 @@ public class CourseServiceImpl implements ICourseService {
         }
     }
 
+    private ResponseCommon<PageCourseResponse> getCourseKeysetPage(PageRequestDTO pageRequestDTO) {
+        KeysetPage<Course> coursePage = keysetPager.page(Course.class, "isDeleted", COURSE_SORT_KEYS, pageRequestDTO);
+        if (coursePage.getContent().isEmpty()) {
+            return new ResponseCommon<>(ResponseCode.COURSE_LIST_IS_EMPTY, null);
+        }
+        PageCourseResponse response = new PageCourseResponse();
+        response.setCourseList(coursePage.getContent());
+        response.setPageSize(pageRequestDTO.getPageSize());
+        // -1 when the total was not requested
+        response.setTotalElements(coursePage.getTotalElements() == null ? -1 : coursePage.getTotalElements().intValue());
+        response.setTotalPages(coursePage.getTotalElements() == null ? -1
+                : (int) Math.ceil((double) coursePage.getTotalElements() / Math.max(pageRequestDTO.getPageSize(), 1)));
+        response.setLast(coursePage.isLast());
+        response.setNextCursor(coursePage.getNextCursor());
+        return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+    }
+
     @Override
     public ResponseCommon<EnrollCourseResponse> enrollCourse(EnrollCourseRequest enrollCourseRequest) {
         try {
@@ -399,6 +443,7 @@ public class CourseServiceImpl implements ICourseService {
     }
 
     @Override
+    @Transactional
     public ResponseCommon<PaymentConfirmResponse> paymentConfirm(PaymentConfirmRequest paymentConfirmRequest) {
         try {
             Order order = orderRepository.getOrderById(paymentConfirmRequest.getOrderId()).orElse(null);
@@ -429,6 +474,7 @@ public class CourseServiceImpl implements ICourseService {
             return processPayment(order);
         } catch (Exception e) {
             e.printStackTrace();
+            CommonUtils.rollbackCurrentTransaction();
             log.debug(ENROLL_FAILED + e.getMessage());
             return new ResponseCommon<>(ResponseCode.FAIL, null);
         }
@@ -458,6 +504,25 @@ public class CourseServiceImpl implements ICourseService {
         return vnpResponseCode.equals("00");
     }
 
+    // an IN query does not keep the order of the ids, ranked lists need it
+    private List<CourseCard> findCardsByIdInOrder(List<Integer> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, CourseCard> cardById = new HashMap<>();
+        for (CourseCard card : courseRepository.findCardsByIdIn(courseIds)) {
+            cardById.put(card.getId(), card);
+        }
+        List<CourseCard> cards = new ArrayList<>(courseIds.size());
+        for (Integer courseId : courseIds) {
+            CourseCard card = cardById.get(courseId);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
     private ResponseCommon<PaymentConfirmResponse> processPayment(Order order) {
         Payment payment = new Payment();
         HistoryRegisterCourse historyRegisterCourse = new HistoryRegisterCourse();
@@ -481,6 +546,10 @@ public class CourseServiceImpl implements ICourseService {
         historyRegisterCourse.setCreatedAt(LocalDateTime.now());
         historyRegisterCourse.setOrder(order);
         historyRegisterCourseRepository.save(historyRegisterCourse);
+        courseEnrollmentCounter.incrementAfterCommit(payment.getCourse().getId());
+        userEnrollmentCache.addEnrollmentAfterCommit(payment.getUser().getUsername(), payment.getCourse().getId());
+        dashboardService.onPaymentCompleted(payment.getAmount());
+        revenueRollupService.recordPayment(payment);
         PaymentConfirmResponse paymentConfirmResponse = new PaymentConfirmResponse();
         paymentConfirmResponse.setStatus("Payment done");
         String mailTo = payment.getUser().getEmail();
@@ -489,9 +558,7 @@ public class CourseServiceImpl implements ICourseService {
         double amount = payment.getAmount();
         String transactionId = payment.getTransaction_id();
         LocalDateTime createdAt = payment.getCreated_at();
-        log.info("START... Sending email");
-        emailService.sendEmail(setUpMailPayment(mailTo, fullname, coursename, amount, transactionId, createdAt));
-        log.info("END... Email sent success");
+        emailService.enqueueEmail(setUpMailPayment(mailTo, fullname, coursename, amount, transactionId, createdAt));
         return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Confirm success", null);
     }
 
@@ -508,6 +575,7 @@ public class CourseServiceImpl implements ICourseService {
         model.put("created_at", createdAt);
         mail.setPros(model);
         mail.setTemplate("payment");
+        mail.setLane(EnumMailLane.PAYMENT);
         return mail;
     }
 
@@ -532,10 +600,7 @@ public class CourseServiceImpl implements ICourseService {
     public ResponseCommon<CheckEnrollCourseResponse> isEnrollCourse(CheckEnrollCourseRequest checkEnrollCourseRequest) {
         try {
             CheckEnrollCourseResponse checkEnrollCourseResponse = new CheckEnrollCourseResponse();
-            User user = userRepository.findByUsername(checkEnrollCourseRequest.getUsername()).orElse(null);
-            Course course = courseRepository.findCourseById(checkEnrollCourseRequest.getCourseId()).orElse(null);
-            HistoryRegisterCourse historyRegisterCourse = historyRegisterCourseRepository.findHistoryRegisterCourseByCourseIdAndUser(course, user).orElse(null);
-            checkEnrollCourseResponse.setEnrollCourse(!Objects.isNull(historyRegisterCourse));
+            checkEnrollCourseResponse.setEnrollCourse(userEnrollmentCache.isEnrolled(checkEnrollCourseRequest.getUsername(), checkEnrollCourseRequest.getCourseId()));
             return new ResponseCommon<>(ResponseCode.SUCCESS, checkEnrollCourseResponse);
         } catch (Exception e) {
             e.printStackTrace();
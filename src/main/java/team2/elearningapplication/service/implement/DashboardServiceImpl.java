@@ -0,0 +1,108 @@
+package team2.elearningapplication.service.implement;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.response.admin.dashboard.DashboardSnapshotResponse;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.IPaymentRepository;
+import team2.elearningapplication.repository.IUserRepository;
+import team2.elearningapplication.service.IDashboardService;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admin dashboard KPIs kept as in-memory counters. They are seeded from the database once at
+ * startup and then bumped by the user, course and payment write paths, so reading the dashboard
+ * never scans a table. A bump made inside a transaction is applied only once it commits, so a
+ * rolled back write leaves the counters as they were.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardServiceImpl implements IDashboardService {
+    private final IUserRepository userRepository;
+    private final ICourseRepository courseRepository;
+    private final IPaymentRepository paymentRepository;
+    private final IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+
+    private final LongAdder totalUser = new LongAdder();
+    private final LongAdder totalCourse = new LongAdder();
+    private final LongAdder totalEnrollment = new LongAdder();
+    private final DoubleAdder totalRevenue = new DoubleAdder();
+
+    @PostConstruct
+    public void seed() {
+        try {
+            totalUser.add(userRepository.getTotalUser());
+            totalCourse.add(courseRepository.getTotalCourse());
+            totalEnrollment.add(historyRegisterCourseRepository.count());
+            totalRevenue.add(paymentRepository.getTotalRevenue());
+            log.info("Seeded dashboard counters: {} user(s), {} course(s), {} enrollment(s)",
+                    totalUser.sum(), totalCourse.sum(), totalEnrollment.sum());
+        } catch (Exception e) {
+            log.error("Seed dashboard counters failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public ResponseCommon<DashboardSnapshotResponse> getSnapshot() {
+        DashboardSnapshotResponse response = new DashboardSnapshotResponse(totalUser.sum(), totalCourse.sum(),
+                totalEnrollment.sum(), totalRevenue.sum(), LocalDateTime.now());
+        return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+    }
+
+    @Override
+    public long getTotalUser() {
+        return totalUser.sum();
+    }
+
+    @Override
+    public long getTotalCourse() {
+        return totalCourse.sum();
+    }
+
+    @Override
+    public double getTotalRevenue() {
+        return totalRevenue.sum();
+    }
+
+    @Override
+    public void onUserCreated() {
+        afterCommit(totalUser::increment);
+    }
+
+    @Override
+    public void onCourseCreated() {
+        afterCommit(totalCourse::increment);
+    }
+
+    @Override
+    public void onPaymentCompleted(double amount) {
+        afterCommit(() -> {
+            totalEnrollment.increment();
+            totalRevenue.add(amount);
+        });
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -7,67 +7,91 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import team2.elearningapplication.Enum.ResponseCode;
 import team2.elearningapplication.dto.common.PageRequestDTO;
 import team2.elearningapplication.dto.common.ResponseCommon;
 import team2.elearningapplication.dto.request.admin.lesson.*;
 import team2.elearningapplication.dto.request.user.lesson.GetLessonByCourseIdRequest;
 import team2.elearningapplication.dto.request.user.lesson.GetTrackingCourseRequest;
+import team2.elearningapplication.dto.request.user.lesson.GetTrackingCoursesRequest;
 import team2.elearningapplication.dto.request.user.lesson.LessonCompletedRequest;
 import team2.elearningapplication.dto.response.admin.lesson.*;
 import team2.elearningapplication.dto.response.user.lesson.GetLessonByCourseIdResponse;
 import team2.elearningapplication.dto.response.user.lesson.GetLessonPageResponse;
 import team2.elearningapplication.dto.response.user.lesson.GetTrackingCourse;
 import team2.elearningapplication.dto.response.user.lesson.LessonCompletedResponse;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutline;
 import team2.elearningapplication.entity.Course;
 import team2.elearningapplication.entity.Lesson;
-import team2.elearningapplication.entity.LessonCompleted;
 import team2.elearningapplication.entity.User;
 import team2.elearningapplication.repository.ICourseRepository;
 import team2.elearningapplication.repository.ILessonCompletedRepository;
 import team2.elearningapplication.repository.ILessonRespository;
 import team2.elearningapplication.repository.IUserRepository;
 import team2.elearningapplication.service.ILessonService;
+import team2.elearningapplication.service.course.UserEnrollmentCache;
+import team2.elearningapplication.service.lesson.CourseOutline;
+import team2.elearningapplication.service.lesson.CourseOutlineCache;
+import team2.elearningapplication.service.lesson.CourseProgressCache;
+import team2.elearningapplication.service.lesson.LessonCompletionBuffer;
+import team2.elearningapplication.service.lesson.LessonRanker;
+import team2.elearningapplication.service.paging.KeysetPage;
+import team2.elearningapplication.service.paging.KeysetPager;
+import team2.elearningapplication.utils.CommonUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LessonServiceImpl implements ILessonService {
+    // lessons are ordered by rank, the stored stt lags behind moves
+    private static final Set<String> LESSON_SORT_KEYS = Set.of("id", "name", "rank", "createdAt");
     private final ILessonRespository lessonRespository;
     private final ICourseRepository courseRepository;
     private final IUserRepository userRepository;
     private final ILessonCompletedRepository lessonCompletedRespository;
+    private final KeysetPager keysetPager;
+    private final LessonCompletionBuffer lessonCompletionBuffer;
+    private final CourseProgressCache courseProgressCache;
+    private final CourseOutlineCache courseOutlineCache;
+    private final UserEnrollmentCache userEnrollmentCache;
+    private final LessonRanker lessonRanker;
 
     @Override
+    @Transactional
     public ResponseCommon<AddLessonResponse> addLesson(AddLessonRequest addLessonRequest) {
         try {
-            Lesson lesson = lessonRespository.findLessonByOrdNumberAndCourse(addLessonRequest.getOrdNumber(), addLessonRequest.getCourseID()).orElse(null);
+            Course course = courseRepository.findCourseById(addLessonRequest.getCourseID()).orElse(null);
             User user = userRepository.findByUsername(addLessonRequest.getUsername()).orElse(null);
-            // if lesson not null -> lesson exists -> tell the user
-            if (!Objects.isNull(lesson)) {
-                log.debug("Add Lesson failed: Lesson already exists");
-                return new ResponseCommon<>(ResponseCode.LESSON_EXIST, null);
+            // if course is null -> nowhere to add the lesson -> tell the user
+            if (Objects.isNull(course)) {
+                log.debug("Add Lesson failed: Course does not exist");
+                return new ResponseCommon<>(ResponseCode.COURSE_NOT_EXIST, null);
             }
-            // if lesson is null -> create a new lesson
+            // else -> insert the lesson at its ord number, the lessons from there on move down one
             else {
+                int lessonCount = courseOutlineCache.get(course.getId()).getLessons().size();
+                int position = Math.max(1, Math.min(addLessonRequest.getOrdNumber(), lessonCount + 1));
                 Lesson addLesson = new Lesson();
                 addLesson.setName(addLessonRequest.getLessonName());
-                addLesson.setCourse(courseRepository.findCourseById(addLessonRequest.getCourseID()).orElse(null));
-                addLesson.setOrdNumber(addLessonRequest.getOrdNumber());
+                addLesson.setCourse(course);
+                addLesson.setRank(lessonRanker.rankAt(course.getId(), position, 0));
                 addLesson.setLinkContent(addLessonRequest.getLinkContent());
                 addLesson.setDescription(addLessonRequest.getDescription());
                 LocalDateTime createdAt = LocalDateTime.now();
                 addLesson.setCreatedAt(createdAt);
                 addLesson.setUserCreated(user);
                 lessonRespository.save(addLesson);
+                invalidateCourse(addLesson.getCourse());
                 AddLessonResponse addLessonResponse = new AddLessonResponse();
                 addLessonResponse.setLessonName(addLesson.getName());
                 addLessonResponse.setLessonID(addLesson.getId());
-                addLessonResponse.setOrdNumber(addLesson.getOrdNumber());
+                addLessonResponse.setOrdNumber(position);
                 addLessonResponse.setCourseID(addLesson.getCourse().getId());
                 addLessonResponse.setLinkContent(addLesson.getLinkContent());
                 addLessonResponse.setDescription(addLesson.getDescription());
@@ -78,12 +102,14 @@ public class LessonServiceImpl implements ILessonService {
             }
         } catch (Exception e) {
             e.printStackTrace();
+            CommonUtils.rollbackCurrentTransaction();
             log.debug("Add Lesson failed: " + e.getMessage());
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Add Lesson Fail", null);
         }
     }
 
     @Override
+    @Transactional
     public ResponseCommon<UpdateLessonResponse> updateLesson(UpdateLessonRequest updateLessonRequest) {
         try {
             Lesson lesson = lessonRespository.findLessonById(updateLessonRequest.getLessonID()).orElse(null);
@@ -96,9 +122,23 @@ public class LessonServiceImpl implements ILessonService {
             // if lesson not null -> update the lesson
             else {
                 Lesson updateLesson = lesson;
+                Course previousCourse = updateLesson.getCourse();
+                Course course = courseRepository.findCourseById(updateLessonRequest.getCourseID()).orElse(null);
+                boolean courseChanged = previousCourse == null || course == null || previousCourse.getId() != course.getId();
                 updateLesson.setName(updateLessonRequest.getLessonName());
-                updateLesson.setCourse(courseRepository.findCourseById(updateLessonRequest.getCourseID()).orElse(null));
-                updateLesson.setOrdNumber(updateLessonRequest.getOrdNumber());
+                updateLesson.setCourse(course);
+                int ordNumber = 0;
+                if (course != null && !updateLessonRequest.isDeleted()) {
+                    // a new ord number is a move: only this lesson gets a new rank
+                    int position = courseOutlineCache.get(course.getId()).findById(updateLesson.getId())
+                            .map(LessonOutline::getOrdNumber).orElse(0);
+                    if (courseChanged || position != updateLessonRequest.getOrdNumber()) {
+                        int lessonCount = courseOutlineCache.get(course.getId()).getLessons().size();
+                        position = Math.max(1, Math.min(updateLessonRequest.getOrdNumber(), lessonCount + (position == 0 ? 1 : 0)));
+                        updateLesson.setRank(lessonRanker.rankAt(course.getId(), position, updateLesson.getId()));
+                    }
+                    ordNumber = position;
+                }
                 updateLesson.setLinkContent(updateLessonRequest.getLinkContent());
                 updateLesson.setDescription(updateLessonRequest.getDescription());
                 LocalDateTime updateAt = LocalDateTime.now();
@@ -106,10 +146,12 @@ public class LessonServiceImpl implements ILessonService {
                 updateLesson.setDeleted(updateLessonRequest.isDeleted());
                 updateLesson.setUserUpdated(user);
                 lessonRespository.save(updateLesson);
+                invalidateCourse(previousCourse);
+                invalidateCourse(updateLesson.getCourse());
                 UpdateLessonResponse updateLessonResponse = new UpdateLessonResponse();
                 updateLessonResponse.setLessonID(updateLesson.getId());
                 updateLessonResponse.setLessonName(updateLesson.getName());
-                updateLessonResponse.setOrdNumber(updateLesson.getOrdNumber());
+                updateLessonResponse.setOrdNumber(ordNumber);
                 updateLessonResponse.setCourseID(updateLesson.getCourse().getId());
                 updateLessonResponse.setLinkContent(updateLesson.getLinkContent());
                 updateLessonResponse.setDescription(updateLesson.getDescription());
@@ -123,6 +165,7 @@ public class LessonServiceImpl implements ILessonService {
             }
         } catch (Exception e) {
             e.printStackTrace();
+            CommonUtils.rollbackCurrentTransaction();
             log.debug("Update Lesson failed: " + e.getMessage());
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Update Lesson Fail", null);
         }
@@ -141,14 +184,18 @@ public class LessonServiceImpl implements ILessonService {
             // if lesson not null -> update the lesson
             else {
                 Lesson deleteLesson = lesson;
+                // the position it had, the lessons after it move up one
+                int ordNumber = deleteLesson.getCourse() == null ? 0 : courseOutlineCache.get(deleteLesson.getCourse().getId())
+                        .findById(deleteLesson.getId()).map(LessonOutline::getOrdNumber).orElse(0);
                 deleteLesson.setDeleted(true);
                 deleteLesson.setUpdatedAt(LocalDateTime.now());
                 deleteLesson.setUserUpdated(user);
                 lessonRespository.save(deleteLesson);
+                invalidateCourse(deleteLesson.getCourse());
                 DeleteLessonResponse deleteLessonResponse = new DeleteLessonResponse();
                 deleteLessonResponse.setLessonName(deleteLesson.getName());
                 deleteLessonResponse.setLessonID(deleteLesson.getId());
-                deleteLessonResponse.setOrdNumber(deleteLesson.getOrdNumber());
+                deleteLessonResponse.setOrdNumber(ordNumber);
                 deleteLessonResponse.setCourseID(deleteLesson.getCourse().getId());
                 deleteLessonResponse.setLinkContent(deleteLesson.getLinkContent());
                 deleteLessonResponse.setDescription(deleteLesson.getDescription());
@@ -167,6 +214,34 @@ public class LessonServiceImpl implements ILessonService {
         }
     }
 
+    @Override
+    @Transactional
+    public ResponseCommon<MoveLessonResponse> moveLesson(MoveLessonRequest moveLessonRequest) {
+        try {
+            Lesson lesson = lessonRespository.findLessonById(moveLessonRequest.getLessonID()).orElse(null);
+            if (Objects.isNull(lesson) || lesson.isDeleted() || Objects.isNull(lesson.getCourse())) {
+                log.debug("Move Lesson failed: Lesson does not exist");
+                return new ResponseCommon<>(ResponseCode.LESSON_NOT_EXIST, null);
+            }
+            int courseId = lesson.getCourse().getId();
+            long rank = lessonRanker.rankAt(courseId, moveLessonRequest.getOrdNumber(), lesson.getId());
+            lessonRespository.updateRank(lesson.getId(), rank, LocalDateTime.now());
+            // ord numbers of the course change, resume pointers are read through them
+            invalidateCourse(lesson.getCourse());
+            MoveLessonResponse response = new MoveLessonResponse();
+            response.setLessonID(lesson.getId());
+            response.setCourseID(courseId);
+            response.setOrdNumber(courseOutlineCache.get(courseId).findById(lesson.getId()).map(LessonOutline::getOrdNumber).orElse(0));
+            log.debug("Move Lesson successful");
+            return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+        } catch (Exception e) {
+            e.printStackTrace();
+            CommonUtils.rollbackCurrentTransaction();
+            log.debug("Move Lesson failed: " + e.getMessage());
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Move Lesson Fail", null);
+        }
+    }
+
     @Override
     public ResponseCommon<FindAllLessonResponse> findAllLesson() {
         try {
@@ -222,10 +297,16 @@ public class LessonServiceImpl implements ILessonService {
                 response.setName(lesson.getName());
                 response.setDescription(lesson.getDescription());
                 response.setCourse(lesson.getCourse());
-                response.setOrdNumber(lesson.getOrdNumber());
                 response.setLinkContent(lesson.getLinkContent());
                 response.setCreatedAt(lesson.getCreatedAt());
                 response.setDeleted(lesson.isDeleted());
+                if (lesson.getCourse() != null) {
+                    CourseOutline outline = courseOutlineCache.get(lesson.getCourse().getId());
+                    // the position in the outline, 0 for a deleted lesson
+                    response.setOrdNumber(outline.findById(lesson.getId()).map(LessonOutline::getOrdNumber).orElse(0));
+                    outline.previous(lesson.getId()).ifPresent(previous -> response.setPreviousLessonId(previous.getId()));
+                    outline.next(lesson.getId()).ifPresent(next -> response.setNextLessonId(next.getId()));
+                }
 
                 log.debug("Get Lesson by id successful");
                 return new ResponseCommon<>(ResponseCode.SUCCESS, response);
@@ -244,6 +325,14 @@ public class LessonServiceImpl implements ILessonService {
             int pageSize = pageRequestDTO.getPageSize();
             String sortBy = pageRequestDTO.getSortBy();
             String sortDir = pageRequestDTO.getSortDir();
+            if ("ordNumber".equals(sortBy)) {
+                sortBy = "rank";
+                pageRequestDTO.setSortBy(sortBy);
+            }
+            if (pageRequestDTO.useKeyset()) {
+                return getLessonKeysetPage(pageRequestDTO);
+            }
+            KeysetPager.checkSortKey(sortBy, LESSON_SORT_KEYS);
 
             Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
 
@@ -266,16 +355,32 @@ public class LessonServiceImpl implements ILessonService {
         }
     }
 
+    private ResponseCommon<GetLessonPageResponse> getLessonKeysetPage(PageRequestDTO pageRequestDTO) {
+        KeysetPage<Lesson> lessonPage = keysetPager.page(Lesson.class, "isDeleted", LESSON_SORT_KEYS, pageRequestDTO);
+        if (lessonPage.getContent().isEmpty()) {
+            return new ResponseCommon<>(ResponseCode.LESSON_LIST_IS_EMPTY, null);
+        }
+        GetLessonPageResponse response = new GetLessonPageResponse();
+        response.setLessonsList(lessonPage.getContent());
+        response.setPageSize(pageRequestDTO.getPageSize());
+        // -1 when the total was not requested
+        response.setTotalElements(lessonPage.getTotalElements() == null ? -1 : lessonPage.getTotalElements().intValue());
+        response.setTotalPages(lessonPage.getTotalElements() == null ? -1
+                : (int) Math.ceil((double) lessonPage.getTotalElements() / Math.max(pageRequestDTO.getPageSize(), 1)));
+        response.setLast(lessonPage.isLast());
+        response.setNextCursor(lessonPage.getNextCursor());
+        return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+    }
+
     @Override
     public ResponseCommon<GetLessonByCourseIdResponse> getLessonByCourseId(GetLessonByCourseIdRequest getLessonByCourseIdRequest) {
         try {
-            Course course = courseRepository.findCourseById(getLessonByCourseIdRequest.getCourseId()).orElse(null);
-            if (Objects.isNull(course)) {
+            CourseOutline outline = courseOutlineCache.get(getLessonByCourseIdRequest.getCourseId());
+            if (!outline.isCourseExists()) {
                 return new ResponseCommon<>(ResponseCode.COURSE_NOT_EXIST, null);
             } else {
-                List<Lesson> lessonList = lessonRespository.findAllByCourse(course);
                 GetLessonByCourseIdResponse response = new GetLessonByCourseIdResponse();
-                response.setLessonList(lessonList);
+                response.setLessonList(outline.getLessons());
                 return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Get lesson by course id success", response);
 
             }
@@ -291,24 +396,37 @@ public class LessonServiceImpl implements ILessonService {
         try {
             LessonCompletedResponse response = new LessonCompletedResponse();
 
-            // Lấy thông tin người dùng và bài học từ cơ sở dữ liệu
-            Lesson lesson = lessonRespository.findById(completeLessonRequest.getLessonId()).orElse(null);
-            User user = userRepository.findByUsername(completeLessonRequest.getUsername()).orElse(null);
-            Course course = courseRepository.findCourseById(lesson.getCourse().getId()).orElse(null);
-            // Kiểm tra xem bài học đã hoàn thành chưa
-            LessonCompleted checkLesson = lessonCompletedRespository.findLessonsByUserAndLesson(user, lesson).orElse(null);
-            if (checkLesson != null) {
+            int lessonId = completeLessonRequest.getLessonId();
+            // the outline of the course is usually cached by the time a lesson is watched
+            Integer courseId = courseOutlineCache.getCourseIdOf(lessonId);
+            LessonOutline lesson = courseId == null ? null : courseOutlineCache.get(courseId).findById(lessonId).orElse(null);
+            if (lesson == null) {
+                Lesson stored = lessonRespository.findById(lessonId).orElse(null);
+                if (stored == null || stored.isDeleted() || stored.getCourse() == null) {
+                    return new ResponseCommon<>(ResponseCode.LESSON_NOT_EXIST, null);
+                }
+                courseId = stored.getCourse().getId();
+                lesson = courseOutlineCache.get(courseId).findById(lessonId).orElse(null);
+                if (lesson == null) {
+                    return new ResponseCommon<>(ResponseCode.LESSON_NOT_EXIST, null);
+                }
+            }
+            String username = completeLessonRequest.getUsername();
+            // the flush would silently skip a completion of an unknown user
+            if (!userRepository.existsByUsername(username)) {
+                return new ResponseCommon<>(ResponseCode.USER_NOT_FOUND, null);
+            }
+            // Kiểm tra xem bài học đã hoàn thành chưa, the row may still be in the buffer
+            boolean done = lessonCompletionBuffer.isPending(username, courseId, lessonId)
+                    || lessonCompletedRespository.existsByUsernameAndLessonId(username, lessonId)
+                    || !lessonCompletionBuffer.complete(username, courseId, lessonId, lesson.getOrdNumber());
+            if (done) {
                 response.setDone(true);
                 response.setMessage("Lesson is done after");
                 return new ResponseCommon<>(ResponseCode.FAIL, response);
             }
+            courseProgressCache.complete(username, courseId, lessonId, lesson.getOrdNumber());
 
-            LessonCompleted completed = new LessonCompleted();
-            completed.setDone(true);
-            completed.setUser(user);
-            completed.setLesson(lesson);
-            completed.setCourse(course);
-            lessonCompletedRespository.save(completed);
             response.setDone(true);
             response.setMessage("Done make lesson completed2");
             return new ResponseCommon<>(ResponseCode.SUCCESS, response);
@@ -322,18 +440,43 @@ public class LessonServiceImpl implements ILessonService {
     @Override
     public ResponseCommon<GetTrackingCourse> trackingCourse(GetTrackingCourseRequest getTrackingCourseRequest) {
         try {
-            User user = userRepository.findByUsername(getTrackingCourseRequest.getUsername()).orElse(null);
-            int totalLesson = lessonRespository.countLessonsByCourseId(getTrackingCourseRequest.getCourseId());
-            List<LessonCompleted> lessonCompleted = lessonCompletedRespository.findCompletedLessonsByUserAndCourse(user.getUsername(), getTrackingCourseRequest.getCourseId());
-            int totalCompleted = lessonCompleted.size();
-            GetTrackingCourse getTrackingCourse = new GetTrackingCourse();
-            getTrackingCourse.setLessonCompleted(totalCompleted);
-            getTrackingCourse.setTotalLesson(totalLesson);
-            return new ResponseCommon<>(ResponseCode.SUCCESS, getTrackingCourse);
+            CourseProgressCache.CourseProgress progress = courseProgressCache.get(getTrackingCourseRequest.getUsername(), getTrackingCourseRequest.getCourseId());
+            return new ResponseCommon<>(ResponseCode.SUCCESS, toTrackingCourse(progress));
         } catch (Exception e) {
             e.printStackTrace();
             log.error("tracking course An error occurred - " + e.getMessage(), e);
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Get lesson by course id fail", null);
         }
     }
+
+    @Override
+    public ResponseCommon<List<GetTrackingCourse>> trackingCourses(GetTrackingCoursesRequest getTrackingCoursesRequest) {
+        try {
+            List<Integer> courseIds = userEnrollmentCache.getCourseIds(getTrackingCoursesRequest.getUsername());
+            List<GetTrackingCourse> trackingCourses = courseProgressCache.getAll(getTrackingCoursesRequest.getUsername(), courseIds).stream()
+                    .map(this::toTrackingCourse)
+                    .toList();
+            return new ResponseCommon<>(ResponseCode.SUCCESS, trackingCourses);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("tracking courses An error occurred - " + e.getMessage(), e);
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Get tracking courses fail", null);
+        }
+    }
+
+    private void invalidateCourse(Course course) {
+        if (course != null) {
+            courseOutlineCache.invalidateCourse(course.getId());
+            courseProgressCache.evictCourse(course.getId());
+        }
+    }
+
+    private GetTrackingCourse toTrackingCourse(CourseProgressCache.CourseProgress progress) {
+        GetTrackingCourse getTrackingCourse = new GetTrackingCourse();
+        getTrackingCourse.setCourseId(progress.courseId());
+        getTrackingCourse.setLessonCompleted(progress.completedLessons());
+        getTrackingCourse.setTotalLesson(progress.totalLessons());
+        getTrackingCourse.setLessonCurrent(progress.lessonCurrent());
+        return getTrackingCourse;
+    }
 }
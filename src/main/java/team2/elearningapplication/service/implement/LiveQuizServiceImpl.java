@@ -0,0 +1,103 @@
+package team2.elearningapplication.service.implement;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.user.live.GetLiveQuizStatsRequest;
+import team2.elearningapplication.dto.request.user.live.LiveQuizActionRequest;
+import team2.elearningapplication.dto.request.user.live.OpenLiveQuizRequest;
+import team2.elearningapplication.dto.response.user.live.LiveQuizRoomResponse;
+import team2.elearningapplication.dto.response.user.live.LiveQuizStatsResponse;
+import team2.elearningapplication.repository.IQuizRepository;
+import team2.elearningapplication.service.ILiveQuizService;
+import team2.elearningapplication.service.live.LiveQuizRegistry;
+import team2.elearningapplication.service.live.LiveQuizRoom;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveQuizServiceImpl implements ILiveQuizService {
+    private static final String LIVE_QUIZ_NOT_EXIST = "Live quiz not exist or ended";
+    private static final String NOT_LIVE_QUIZ_HOST = "Only the host can run the live quiz";
+
+    private final IQuizRepository quizRepository;
+    private final LiveQuizRegistry liveQuizRegistry;
+
+    @Override
+    public ResponseCommon<LiveQuizRoomResponse> openRoom(OpenLiveQuizRequest openLiveQuizRequest) {
+        try {
+            if (quizRepository.findQuizById(openLiveQuizRequest.getQuizId()).isEmpty()) {
+                return new ResponseCommon<>(ResponseCode.QUIZ_NOT_EXIST.getCode(), "Quiz not exist", null);
+            }
+            LiveQuizRoom room = liveQuizRegistry.open(openLiveQuizRequest.getQuizId(), openLiveQuizRequest.getUsername());
+            return new ResponseCommon<>(ResponseCode.SUCCESS, toResponse(room));
+        } catch (IllegalArgumentException e) {
+            return new ResponseCommon<>(ResponseCode.QUESTION_LIST_IS_EMPTY.getCode(), e.getMessage(), null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("open live quiz failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "open live quiz failed", null);
+        }
+    }
+
+    @Override
+    public ResponseCommon<LiveQuizRoomResponse> nextQuestion(LiveQuizActionRequest liveQuizActionRequest) {
+        try {
+            LiveQuizRoom room = liveQuizRegistry.find(liveQuizActionRequest.getRoomCode()).orElse(null);
+            if (room == null) {
+                return new ResponseCommon<>(ResponseCode.LIVE_QUIZ_NOT_EXIST.getCode(), LIVE_QUIZ_NOT_EXIST, null);
+            }
+            if (!room.getHost().equals(liveQuizActionRequest.getUsername())) {
+                return new ResponseCommon<>(ResponseCode.NOT_LIVE_QUIZ_HOST.getCode(), NOT_LIVE_QUIZ_HOST, null);
+            }
+            if (liveQuizRegistry.next(room).isEmpty()) {
+                return new ResponseCommon<>(ResponseCode.QUESTION_NOT_EXIST.getCode(), "No question left, close the live quiz", toResponse(room));
+            }
+            return new ResponseCommon<>(ResponseCode.SUCCESS, toResponse(room));
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("next live question failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "next live question failed", null);
+        }
+    }
+
+    @Override
+    public ResponseCommon<LiveQuizStatsResponse> closeRoom(LiveQuizActionRequest liveQuizActionRequest) {
+        try {
+            LiveQuizRoom room = liveQuizRegistry.find(liveQuizActionRequest.getRoomCode()).orElse(null);
+            if (room == null) {
+                return new ResponseCommon<>(ResponseCode.LIVE_QUIZ_NOT_EXIST.getCode(), LIVE_QUIZ_NOT_EXIST, null);
+            }
+            if (!room.getHost().equals(liveQuizActionRequest.getUsername())) {
+                return new ResponseCommon<>(ResponseCode.NOT_LIVE_QUIZ_HOST.getCode(), NOT_LIVE_QUIZ_HOST, null);
+            }
+            return new ResponseCommon<>(ResponseCode.SUCCESS, liveQuizRegistry.close(room));
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("close live quiz failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "close live quiz failed", null);
+        }
+    }
+
+    @Override
+    public ResponseCommon<LiveQuizStatsResponse> getStats(GetLiveQuizStatsRequest getLiveQuizStatsRequest) {
+        try {
+            LiveQuizRoom room = liveQuizRegistry.find(getLiveQuizStatsRequest.getRoomCode()).orElse(null);
+            if (room == null) {
+                return new ResponseCommon<>(ResponseCode.LIVE_QUIZ_NOT_EXIST.getCode(), LIVE_QUIZ_NOT_EXIST, null);
+            }
+            return new ResponseCommon<>(ResponseCode.SUCCESS, liveQuizRegistry.stats(room, null));
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("get live quiz stats failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "get live quiz stats failed", null);
+        }
+    }
+
+    private LiveQuizRoomResponse toResponse(LiveQuizRoom room) {
+        return new LiveQuizRoomResponse(room.getRoomCode(), room.getQuizId(), room.getPosition(), room.getTotalQuestion(),
+                liveQuizRegistry.getConnectionCount(room.getRoomCode()));
+    }
+}
@@ -0,0 +1,108 @@
+package team2.elearningapplication.service.implement;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+import team2.elearningapplication.Enum.EnumUploadStatus;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.media.CreateUploadRequest;
+import team2.elearningapplication.dto.request.admin.media.GetUploadProgressRequest;
+import team2.elearningapplication.dto.response.admin.media.UploadProgressResponse;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+import team2.elearningapplication.repository.IUserRepository;
+import team2.elearningapplication.service.IMediaService;
+import team2.elearningapplication.service.media.MediaUpload;
+import team2.elearningapplication.service.media.MediaUploadManager;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaServiceImpl implements IMediaService {
+    private static final String UPLOAD_NOT_EXIST = "Upload not exist or expired";
+    private static final String UPLOAD_BUSY = "Too many uploads running, try again later";
+
+    private final MediaUploadManager mediaUploadManager;
+    private final IUserRepository userRepository;
+    private final ICourseRepository courseRepository;
+    private final ILessonRespository lessonRespository;
+
+    @Override
+    public ResponseCommon<UploadProgressResponse> createUpload(CreateUploadRequest createUploadRequest) {
+        try {
+            if (userRepository.findByUsername(createUploadRequest.getUsername()).isEmpty()) {
+                return new ResponseCommon<>(ResponseCode.USER_NOT_FOUND, null);
+            }
+            int targetId = createUploadRequest.getTargetId();
+            if (createUploadRequest.getTarget() == EnumMediaTarget.COURSE_THUMBNAIL && !courseRepository.existsById(targetId)) {
+                return new ResponseCommon<>(ResponseCode.COURSE_NOT_EXIST, null);
+            }
+            if (createUploadRequest.getTarget() == EnumMediaTarget.LESSON_CONTENT && !lessonRespository.existsById(targetId)) {
+                return new ResponseCommon<>(ResponseCode.LESSON_NOT_EXIST, null);
+            }
+            // refused before the client starts sending the file
+            if (!mediaUploadManager.hasFreeSlot()) {
+                return new ResponseCommon<>(ResponseCode.UPLOAD_BUSY.getCode(), UPLOAD_BUSY, null);
+            }
+            MediaUpload upload = mediaUploadManager.create(createUploadRequest.getUsername(), createUploadRequest.getTarget(), targetId);
+            return new ResponseCommon<>(ResponseCode.SUCCESS, toResponse(upload));
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("create upload failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "create upload failed", null);
+        }
+    }
+
+    @Override
+    public ResponseCommon<UploadProgressResponse> upload(String uploadId, HttpServletRequest request) {
+        try {
+            MediaUpload upload = mediaUploadManager.find(uploadId).orElse(null);
+            if (upload == null) {
+                return new ResponseCommon<>(ResponseCode.UPLOAD_NOT_EXIST.getCode(), UPLOAD_NOT_EXIST, null);
+            }
+            if (!mediaUploadManager.upload(upload, request, url -> attach(upload, url))) {
+                return new ResponseCommon<>(ResponseCode.UPLOAD_BUSY.getCode(), UPLOAD_BUSY, toResponse(upload));
+            }
+            if (upload.getStatus() == EnumUploadStatus.FAILED) {
+                return new ResponseCommon<>(ResponseCode.UPLOAD_FAIL.getCode(), upload.getError(), toResponse(upload));
+            }
+            return new ResponseCommon<>(ResponseCode.SUCCESS, toResponse(upload));
+        } catch (IllegalStateException e) {
+            return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), e.getMessage(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "upload interrupted", null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("upload failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "upload failed", null);
+        }
+    }
+
+    @Override
+    public ResponseCommon<UploadProgressResponse> getUploadProgress(GetUploadProgressRequest getUploadProgressRequest) {
+        return mediaUploadManager.find(getUploadProgressRequest.getUploadId())
+                .map(upload -> new ResponseCommon<>(ResponseCode.SUCCESS, toResponse(upload)))
+                .orElseGet(() -> new ResponseCommon<>(ResponseCode.UPLOAD_NOT_EXIST.getCode(), UPLOAD_NOT_EXIST, null));
+    }
+
+    // the stored media replaces the link an admin pasted before; when this throws the manager deletes it again
+    private void attach(MediaUpload upload, String url) {
+        int updated = upload.getTarget() == EnumMediaTarget.COURSE_THUMBNAIL
+                ? courseRepository.updateLinkThumnail(upload.getTargetId(), url, LocalDateTime.now())
+                : lessonRespository.updateLinkContent(upload.getTargetId(), url, LocalDateTime.now());
+        if (updated == 0) {
+            throw new IllegalArgumentException(upload.getTarget() + " " + upload.getTargetId() + " no longer exists");
+        }
+    }
+
+    private static UploadProgressResponse toResponse(MediaUpload upload) {
+        return new UploadProgressResponse(upload.getId(), upload.getTarget(), upload.getTargetId(), upload.getStatus(),
+                upload.getBytesReceived(), upload.getTotalBytes(), upload.getUrl(), upload.getError());
+    }
+}
@@ -14,6 +14,7 @@ import team2.elearningapplication.entity.Payment;
 import team2.elearningapplication.entity.User;
 import team2.elearningapplication.repository.IPaymentRepository;
 import team2.elearningapplication.repository.IUserRepository;
+import team2.elearningapplication.service.IDashboardService;
 import team2.elearningapplication.service.IPaymentService;
 
 import java.io.UnsupportedEncodingException;
@@ -28,6 +29,7 @@ public class PaymentService implements IPaymentService {
 
     private final IPaymentRepository paymentRepository;
     private final IUserRepository userRepository;
+    private final IDashboardService dashboardService;
 
     @Override
     public ResponseCommon<PaymentRes> addPayment(double amount) throws UnsupportedEncodingException {
@@ -98,15 +100,8 @@ public class PaymentService implements IPaymentService {
     @Override
     public ResponseCommon<GetTotalRevenueResponse> getTotalRevenue() {
         try {
-            double total = 0;
-            List<Payment> paymentList = paymentRepository.findAll();
-
-            for (Payment payment : paymentList) {
-                total += payment.getAmount();
-            }
-
             GetTotalRevenueResponse response = new GetTotalRevenueResponse();
-            response.setTotalRevenue(total);
+            response.setTotalRevenue(dashboardService.getTotalRevenue());
             return new ResponseCommon<>(ResponseCode.SUCCESS, response);
         } catch (Exception e) {
             e.printStackTrace();
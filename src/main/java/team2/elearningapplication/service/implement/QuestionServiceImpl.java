@@ -26,19 +26,30 @@ import team2.elearningapplication.entity.Quiz;
 import team2.elearningapplication.entity.User;
 import team2.elearningapplication.repository.*;
 import team2.elearningapplication.service.IQuestionService;
+import team2.elearningapplication.service.quiz.QuizAnswerKeyCache;
+import team2.elearningapplication.service.quiz.QuizContent;
+import team2.elearningapplication.service.quiz.QuizContentCache;
+import team2.elearningapplication.service.paging.KeysetPage;
+import team2.elearningapplication.service.paging.KeysetPager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class QuestionServiceImpl implements IQuestionService {
+    private static final Set<String> QUESTION_SORT_KEYS = Set.of("id", "questionName", "ordQuestion", "quizID");
     private final IQuestionDataRepository questionDataRepository;
     private final IQuestionRepository questionRepository;
     private final IQuizRepository iQuizRepository;
     private final IAnswerRepository iAnswerRepository;
     private final IUserRepository userRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizContentCache quizContentCache;
+    private final KeysetPager keysetPager;
 
 
     private final Logger log = LoggerFactory.getLogger(QuestionServiceImpl.class);
@@ -66,6 +77,8 @@ public class QuestionServiceImpl implements IQuestionService {
                 answer.setQuestionId(questionAdd.getId());
                 iAnswerRepository.save(answer);
             }
+            quizAnswerKeyCache.invalidateQuiz(questionAdd.getQuizID());
+            quizContentCache.invalidateQuiz(questionAdd.getQuizID());
 
             log.debug("addQuestion: Question added successfully.");
             return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Add question success", new AddQuestionResponse());
@@ -89,6 +102,17 @@ public class QuestionServiceImpl implements IQuestionService {
                 return new ResponseCommon<>(ResponseCode.QUESTION_NOT_EXIST.getCode(), "Question not exist", null);
             }
 
+            // every answer is looked up before anything is saved, a missing one changes nothing
+            List<Answer> answersToUpdate = new ArrayList<>();
+            for (Answer answer : updateQuestionRequest.getAnswers()) {
+                Answer answerUpdate = iAnswerRepository.findAnswerById(answer.getId()).orElse(null);
+                if (answerUpdate == null) {
+                    log.debug("updateQuestion: Answer not found.");
+                    return new ResponseCommon<>(ResponseCode.ANSWER_NOT_EXIST.getCode(), "Answer not exist", null);
+                }
+                answersToUpdate.add(answerUpdate);
+            }
+
             // Update the question
             questionToUpdate.setQuestionName(updateQuestionRequest.getQuestionName());
             questionToUpdate.setQuestionType(updateQuestionRequest.getQuestionType());
@@ -97,17 +121,16 @@ public class QuestionServiceImpl implements IQuestionService {
             questionToUpdate.setUserUpdated(user);
             // Save the updated question
             questionRepository.save(questionToUpdate);
-            for (Answer answer : updateQuestionRequest.getAnswers()) {
-                Answer answerUpdate = iAnswerRepository.findAnswerById(answer.getId()).orElse(null);
-                if (answerUpdate == null) {
-                    log.debug("updateQuestion: Answer not found.");
-                    return new ResponseCommon<>(ResponseCode.ANSWER_NOT_EXIST.getCode(), "Answer not exist", null);
-                }
+            for (int i = 0; i < answersToUpdate.size(); i++) {
+                Answer answer = updateQuestionRequest.getAnswers().get(i);
+                Answer answerUpdate = answersToUpdate.get(i);
                 answerUpdate.setAnswerContent(answer.getAnswerContent());
                 answerUpdate.setCorrect(answer.isCorrect());
                 answerUpdate.setUpdatedAt(LocalDateTime.now());
                 iAnswerRepository.save(answerUpdate);
             }
+            quizAnswerKeyCache.invalidateQuiz(questionToUpdate.getQuizID());
+            quizContentCache.invalidateQuiz(questionToUpdate.getQuizID());
 
             log.debug("updateQuestion: Question updated successfully.");
             return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Update question success", new UpdateQuestionResponse());
@@ -136,6 +159,8 @@ public class QuestionServiceImpl implements IQuestionService {
 
             // Save the deleted question
             questionRepository.save(questionToDelete);
+            quizAnswerKeyCache.invalidateQuiz(questionToDelete.getQuizID());
+            quizContentCache.invalidateQuiz(questionToDelete.getQuizID());
 
             // Create and return a success response
             DeleteQuestionResponse deleteQuestionResponse = new DeleteQuestionResponse();
@@ -224,6 +249,10 @@ public class QuestionServiceImpl implements IQuestionService {
             int pageSize = pageRequestDTO.getPageSize();
             String sortBy = pageRequestDTO.getSortBy();
             String sortDir = pageRequestDTO.getSortDir();
+            if (pageRequestDTO.useKeyset()) {
+                return getQuestionKeysetPage(pageRequestDTO);
+            }
+            KeysetPager.checkSortKey(sortBy, QUESTION_SORT_KEYS);
 
             Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by(Sort.Direction.fromString(sortDir), sortBy));
 
@@ -246,12 +275,29 @@ public class QuestionServiceImpl implements IQuestionService {
         }
     }
 
+    private ResponseCommon<GetQuestionPageResponse> getQuestionKeysetPage(PageRequestDTO pageRequestDTO) {
+        KeysetPage<Question> questionPage = keysetPager.page(Question.class, "deleted", QUESTION_SORT_KEYS, pageRequestDTO);
+        if (questionPage.getContent().isEmpty()) {
+            return new ResponseCommon<>(ResponseCode.QUESTION_LIST_IS_EMPTY, null);
+        }
+        GetQuestionPageResponse response = new GetQuestionPageResponse();
+        response.setQuestionList(questionPage.getContent());
+        response.setPageSize(pageRequestDTO.getPageSize());
+        // -1 when the total was not requested
+        response.setTotalElements(questionPage.getTotalElements() == null ? -1 : questionPage.getTotalElements().intValue());
+        response.setTotalPages(questionPage.getTotalElements() == null ? -1
+                : (int) Math.ceil((double) questionPage.getTotalElements() / Math.max(pageRequestDTO.getPageSize(), 1)));
+        response.setLast(questionPage.isLast());
+        response.setNextCursor(questionPage.getNextCursor());
+        return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+    }
+
     @Override
     public ResponseCommon<GetQuestionByQuizIdResponse> getQuestionByQuizId(GetQuestionByQuizIDRequest getQuestionByQuizIDRequest) {
         try {
-            List<Question> questions = questionRepository.getQuestionByQuizID(getQuestionByQuizIDRequest.getQuizId());
+            QuizContent content = quizContentCache.get(getQuestionByQuizIDRequest.getQuizId());
             GetQuestionByQuizIdResponse getQuestionByQuizIdResponse = new GetQuestionByQuizIdResponse();
-            getQuestionByQuizIdResponse.setQuestionList(questions);
+            getQuestionByQuizIdResponse.setQuestionList(content.getQuestions());
             return new ResponseCommon<>(ResponseCode.SUCCESS, getQuestionByQuizIdResponse);
         } catch (Exception e) {
             e.printStackTrace();
@@ -259,4 +305,15 @@ public class QuestionServiceImpl implements IQuestionService {
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Get question by id  fail", null);
         }
     }
+
+    @Override
+    public ResponseCommon<byte[]> getQuestionByQuizIdJson(GetQuestionByQuizIDRequest getQuestionByQuizIDRequest) {
+        try {
+            byte[] json = quizContentCache.get(getQuestionByQuizIDRequest.getQuizId()).getQuestionListJson();
+            return new ResponseCommon<>(ResponseCode.SUCCESS, json);
+        } catch (Exception e) {
+            log.error("Get question by id An error occurred - " + e.getMessage(), e);
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "Get question by id  fail", null);
+        }
+    }
 }
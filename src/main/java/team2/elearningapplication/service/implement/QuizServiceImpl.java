@@ -4,20 +4,37 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.Enum.EnumMailLane;
 import team2.elearningapplication.Enum.ResponseCode;
 import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.dashboard.GetQuizStatsRequest;
 import team2.elearningapplication.dto.request.admin.quiz.*;
 import team2.elearningapplication.dto.request.user.quiz.*;
+import team2.elearningapplication.dto.response.admin.dashboard.QuestionDifficulty;
+import team2.elearningapplication.dto.response.admin.dashboard.QuizStatsResponse;
 import team2.elearningapplication.dto.response.admin.quiz.*;
-import team2.elearningapplication.dto.response.user.answer.AnswerCorrectDTO;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
 import team2.elearningapplication.dto.response.user.quiz.*;
 import team2.elearningapplication.entity.*;
 import team2.elearningapplication.repository.*;
 import team2.elearningapplication.service.IQuizService;
 import team2.elearningapplication.service.email.EmailService;
+import team2.elearningapplication.service.quiz.PackedAnswers;
+import team2.elearningapplication.service.quiz.QuizAnswerKey;
+import team2.elearningapplication.service.quiz.QuizAnswerKeyCache;
+import team2.elearningapplication.service.quiz.QuizAttemptReader;
+import team2.elearningapplication.service.quiz.QuizContentCache;
+import team2.elearningapplication.service.quiz.QuizDeadlineScheduler;
+import team2.elearningapplication.service.quiz.QuizReviewCache;
+import team2.elearningapplication.service.quiz.QuizSession;
+import team2.elearningapplication.service.quiz.QuizSessionStore;
+import team2.elearningapplication.service.quiz.QuizStatsCollector;
 import team2.elearningapplication.utils.CommonUtils;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 @Service
@@ -25,15 +42,22 @@ import java.util.*;
 public class QuizServiceImpl implements IQuizService {
     private static final double BASE_MARK = 0.8;
     private static final String QUIZ_NOT_EXIST = "Quiz not exist";
+    private static final String QUIZ_SESSION_NOT_EXIST = "Quiz session not exist or expired";
+    private static final int MAX_ATTEMPT_PAGE_SIZE = 100;
 
     private final IQuizRepository quizRepository;
     private final ILessonRespository lessonRespository;
-    private final IQuestionRepository questionRepository;
-    private final IAnswerRepository answerRepository;
     private final IUserRepository userRepository;
     private final EmailService emailService;
     private final ICourseRepository courseRepository;
-    private final IHistoryQuizRepository historyQuizRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final IQuizAttemptRepository quizAttemptRepository;
+    private final QuizAttemptReader quizAttemptReader;
+    private final QuizReviewCache quizReviewCache;
+    private final QuizContentCache quizContentCache;
+    private final QuizSessionStore quizSessionStore;
+    private final QuizStatsCollector quizStatsCollector;
+    private final QuizDeadlineScheduler quizDeadlineScheduler;
 
     private final Logger log = LoggerFactory.getLogger(QuizServiceImpl.class);
 
@@ -51,6 +75,7 @@ public class QuizServiceImpl implements IQuizService {
                 quizAdd.setLesson(lessonRespository.findLessonById(addQuizRequest.getLessonID()).orElse(null));
                 quizAdd.setName(addQuizRequest.getQuizName());
                 quizAdd.setUserCreated(user);
+                quizAdd.setTimeLimitSeconds(timeLimit(addQuizRequest.getTimeLimitSeconds()));
                 quizRepository.save(quizAdd);
                 AddQuizResponse addQuizResponse = new AddQuizResponse();
                 addQuizResponse.setLessonName(quizAdd.getName());
@@ -77,6 +102,9 @@ public class QuizServiceImpl implements IQuizService {
                 quiz.setLesson(lessonRespository.findLessonById(updateQuizRequest.getLessonID()).orElse(null));
                 quiz.setDeleted(updateQuizRequest.isDeleted());
                 quiz.setUserUpdated(user);
+                if (updateQuizRequest.getTimeLimitSeconds() != null) {
+                    quiz.setTimeLimitSeconds(timeLimit(updateQuizRequest.getTimeLimitSeconds()));
+                }
                 quizRepository.save(quiz);
                 UpdateQuizResponse updateQuizResponse = new UpdateQuizResponse();
                 updateQuizResponse.setUpdateAt(LocalDateTime.now());
@@ -170,6 +198,7 @@ public class QuizServiceImpl implements IQuizService {
                 response.setLesson(quiz.getLesson());
                 response.setLesson(quiz.getLesson());
                 response.setDeleted(quiz.isDeleted());
+                response.setTimeLimitSeconds(quiz.getTimeLimitSeconds());
 
                 log.debug("Get quiz by id successfully");
                 return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Get quiz by id success", response);
@@ -181,16 +210,36 @@ public class QuizServiceImpl implements IQuizService {
         }
     }
 
+    // null or not positive means no limit
+    private static Integer timeLimit(Integer timeLimitSeconds) {
+        return timeLimitSeconds == null || timeLimitSeconds <= 0 ? null : timeLimitSeconds;
+    }
+
     @Override
     public ResponseCommon<StartQuizResponse> startQuiz(StartQuizRequest startQuizRequest) {
         try {
-            Question question = questionRepository.findQuestionByQuizIDAndAndOrdQuestion(startQuizRequest.getQuizId(), 1);
-            int sessionId = CommonUtils.getSessionID();
-            int totalQuestion = questionRepository.countQuestionsByQuizId(startQuizRequest.getQuizId());
+            // the session is bound to its owner, every later call has to name the same user
+            if (startQuizRequest.getUsername() == null || startQuizRequest.getUsername().isBlank()) {
+                return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), "Username is required", null);
+            }
+            Quiz quiz = quizRepository.findQuizById(startQuizRequest.getQuizId()).orElse(null);
+            if (Objects.isNull(quiz)) {
+                return new ResponseCommon<>(ResponseCode.QUIZ_NOT_EXIST.getCode(), QUIZ_NOT_EXIST, null);
+            }
+            QuestionContent question = quizContentCache.get(startQuizRequest.getQuizId()).getQuestionByOrd(1);
+            QuizAnswerKey answerKey = quizAnswerKeyCache.get(startQuizRequest.getQuizId());
+            int courseId = quiz.getLesson() == null || quiz.getLesson().getCourse() == null ? 0 : quiz.getLesson().getCourse().getId();
+            long deadline = quiz.getTimeLimitSeconds() == null ? 0 : System.currentTimeMillis() + quiz.getTimeLimitSeconds() * 1000L;
+            int sessionId = quizSessionStore.start(answerKey, startQuizRequest.getUsername(), courseId, deadline);
+            if (deadline > 0) {
+                quizDeadlineScheduler.schedule(sessionId, deadline);
+            }
+            int totalQuestion = answerKey.getTotalQuestion();
             StartQuizResponse startQuizResponse = new StartQuizResponse();
             startQuizResponse.setQuestion(question);
             startQuizResponse.setSessionId(sessionId);
             startQuizResponse.setTotalQuestion(totalQuestion);
+            startQuizResponse.setDeadlineAt(deadline > 0 ? toDateTime(deadline) : null);
             return new ResponseCommon<>(ResponseCode.SUCCESS, startQuizResponse);
         } catch (Exception e) {
             e.printStackTrace();
@@ -200,56 +249,265 @@ public class QuizServiceImpl implements IQuizService {
     }
 
     @Override
+    public ResponseCommon<NextQuestionResponse> nextQuestion(NextQuestionRequest nextQuestionRequest) {
+        try {
+            List<Integer> answerIds = nextQuestionRequest.getAnswerIdList();
+            if ((answerIds == null || answerIds.isEmpty()) && nextQuestionRequest.getAnswerId() > 0) {
+                answerIds = List.of(nextQuestionRequest.getAnswerId());
+            }
+            int[] picked = toArray(answerIds);
+            // quiz id, answered, total
+            int[] progress = quizSessionStore.update(nextQuestionRequest.getSessionId(), nextQuestionRequest.getUsername(), session -> {
+                if (nextQuestionRequest.getPreQuestionId() > 0 && picked.length > 0) {
+                    session.submit(nextQuestionRequest.getPreQuestionId(), picked);
+                }
+                return new int[]{session.getQuizId(), session.getAnsweredCount(), session.getTotalQuestion()};
+            }).orElse(null);
+            if (progress == null) {
+                return new ResponseCommon<>(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), QUIZ_SESSION_NOT_EXIST, null);
+            }
+            NextQuestionResponse response = new NextQuestionResponse();
+            response.setQuestion(quizContentCache.get(progress[0]).getQuestionByOrd(nextQuestionRequest.getOrdQuestion() + 1));
+            response.setAnsweredQuestion(progress[1]);
+            response.setTotalQuestion(progress[2]);
+            return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+        } catch (IllegalStateException e) {
+            return new ResponseCommon<>(ResponseCode.QUIZ_TIME_UP.getCode(), e.getMessage(), null);
+        } catch (IllegalArgumentException e) {
+            log.debug("next question rejected: {}", e.getMessage());
+            return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), e.getMessage(), null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("next question failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "next question failed", null);
+        }
+    }
+
+    @Override
+    public ResponseCommon<SubmitAnswerResponse> submitAnswer(SubmitAnswerRequest submitAnswerRequest) {
+        try {
+            int[] picked = toArray(submitAnswerRequest.getAnswerIdList());
+            SubmitAnswerResponse response = quizSessionStore.update(submitAnswerRequest.getSessionId(), submitAnswerRequest.getUsername(), session -> {
+                session.submit(submitAnswerRequest.getQuestionId(), picked);
+                SubmitAnswerResponse submitted = new SubmitAnswerResponse();
+                submitted.setQuestionId(submitAnswerRequest.getQuestionId());
+                submitted.setAnsweredQuestion(session.getAnsweredCount());
+                submitted.setTotalQuestion(session.getTotalQuestion());
+                return submitted;
+            }).orElse(null);
+            if (response == null) {
+                return new ResponseCommon<>(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), QUIZ_SESSION_NOT_EXIST, null);
+            }
+            return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+        } catch (IllegalStateException e) {
+            return new ResponseCommon<>(ResponseCode.QUIZ_TIME_UP.getCode(), e.getMessage(), null);
+        } catch (IllegalArgumentException e) {
+            log.debug("submit answer rejected: {}", e.getMessage());
+            return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), e.getMessage(), null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("submit answer failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "submit answer failed", null);
+        }
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static int[] toArray(List<Integer> answerIds) {
+        if (answerIds == null) {
+            return new int[0];
+        }
+        int[] array = new int[answerIds.size()];
+        for (int i = 0; i < array.length; i++) {
+            Integer answerId = answerIds.get(i);
+            if (answerId == null) {
+                throw new IllegalArgumentException("Answer id must not be null");
+            }
+            array[i] = answerId;
+        }
+        return array;
+    }
+
+    @Override
+    @Transactional
     public ResponseCommon<FinishQuizResponse> finishQuiz(FinishQuizRequest finishQuizRequest) {
         try {
             User user = userRepository.findByUsername(finishQuizRequest.getUsername()).orElse(null);
             Course course = courseRepository.findCourseById(finishQuizRequest.getCourseId()).orElse(null);
+            QuizAttempt previous = quizAttemptRepository.findByUserAndSessionId(user, finishQuizRequest.getSessionId()).orElse(null);
+            if (previous != null && previous.isAutoSubmitted()) {
+                return new ResponseCommon<>(ResponseCode.QUIZ_TIME_UP.getCode(), "Time is up, the attempt was submitted on its deadline", null);
+            }
             List<Integer> answerByUser = finishQuizRequest.getAnswerIdList();
-            HistoryQuiz historyQuiz = new HistoryQuiz();
-            int totalCorrect = 0;
-            int totalQuestion = questionRepository.countQuestionsByQuizId(finishQuizRequest.getQuizId());
-            int totalIncorrect = totalQuestion - totalCorrect;
-            for (int i = 0; i < answerByUser.size(); i++) {
-                boolean isCorrect = answerRepository.checkIsCorrect(answerByUser.get(i));
-                log.debug(String.format("isCorrect: %s", isCorrect));
-                if (isCorrect) {
-                    totalCorrect++;
-                    historyQuiz.setUser(user);
-                    historyQuiz.setSessionId(finishQuizRequest.getSessionId());
-                    historyQuiz.setAnswerId(answerByUser.get(i));
-                    historyQuiz.setCorrect(isCorrect);
-                    historyQuiz.setCreatedAt(LocalDateTime.now());
-                    historyQuizRepository.save(historyQuiz);
-                } else {
-                    totalIncorrect++;
-                    historyQuiz.setUser(user);
-                    historyQuiz.setSessionId(finishQuizRequest.getSessionId());
-                    historyQuiz.setAnswerId(answerByUser.get(i));
-                    historyQuiz.setCorrect(isCorrect);
-                    historyQuiz.setCreatedAt(LocalDateTime.now());
-                    historyQuizRepository.save(historyQuiz);
+            QuizAnswerKey.GradeResult gradeResult;
+            if (answerByUser == null || answerByUser.isEmpty()) {
+                // graded while answering, only the totals are read here
+                QuizSession.Result result = quizSessionStore.update(finishQuizRequest.getSessionId(),
+                        finishQuizRequest.getUsername(), session -> requireOpen(session).result()).orElse(null);
+                if (result == null) {
+                    return new ResponseCommon<>(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), QUIZ_SESSION_NOT_EXIST, null);
+                }
+                if (result.quizId() != finishQuizRequest.getQuizId()) {
+                    return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), "Session belongs to another quiz", null);
+                }
+                answerByUser = result.answerIds();
+                gradeResult = result.gradeResult();
+            } else {
+                // answers sent whole, a session still held for them must not be past its deadline
+                Integer sessionQuizId = quizSessionStore.update(finishQuizRequest.getSessionId(), finishQuizRequest.getUsername(),
+                        session -> requireOpen(session).getQuizId()).orElse(null);
+                if (sessionQuizId == null) {
+                    // without its session a timed attempt could be sent at any time
+                    Integer timeLimitSeconds = quizRepository.findQuizById(finishQuizRequest.getQuizId())
+                            .map(Quiz::getTimeLimitSeconds).orElse(null);
+                    if (timeLimit(timeLimitSeconds) != null) {
+                        return new ResponseCommon<>(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), QUIZ_SESSION_NOT_EXIST, null);
+                    }
+                } else if (sessionQuizId != finishQuizRequest.getQuizId()) {
+                    return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), "Session belongs to another quiz", null);
                 }
+                gradeResult = quizAnswerKeyCache.get(finishQuizRequest.getQuizId()).grade(answerByUser);
+            }
+            int totalCorrect = gradeResult.getTotalCorrect();
+            int totalIncorrect = gradeResult.getTotalIncorrect();
+            LocalDateTime createdAt = LocalDateTime.now();
+            boolean firstSubmit = saveQuizAttempt(previous, user, finishQuizRequest, PackedAnswers.pack(answerByUser, gradeResult), gradeResult, createdAt);
+            if (firstSubmit) {
+                // a resubmitted session replaces its attempt, count it only once
+                quizStatsCollector.recordAfterCommit(finishQuizRequest.getQuizId(), gradeResult);
             }
-            double mark = (double) totalCorrect / totalQuestion;
-            if (mark >= BASE_MARK) {
-                log.info("START... Sending email");
-                assert user != null;
-                assert course != null;
-                emailService.sendEmail(setUpMail(user.getEmail(), course.getName()));
-                log.info("END... Email sent successfully");
+            quizSessionStore.removeAfterCommit(finishQuizRequest.getSessionId());
+            quizDeadlineScheduler.cancelAfterCommit(finishQuizRequest.getSessionId());
+            quizReviewCache.invalidate(finishQuizRequest.getSessionId());
+            double mark = gradeResult.getMark();
+            // an attempt finished on its deadline may have no user or course to mail about
+            if (mark >= BASE_MARK && user != null && course != null) {
+                emailService.enqueueEmail(setUpMail(user.getEmail(), course.getName()));
             }
             FinishQuizResponse finishQuizResponse = new FinishQuizResponse();
             finishQuizResponse.setTotalCorrect(totalCorrect);
             finishQuizResponse.setTotalInCorrect(totalIncorrect);
             finishQuizResponse.setPercent(mark);
             return new ResponseCommon<>(ResponseCode.SUCCESS, finishQuizResponse);
+        } catch (IllegalStateException e) {
+            return new ResponseCommon<>(ResponseCode.QUIZ_TIME_UP.getCode(), e.getMessage(), null);
         } catch (Exception e) {
             e.printStackTrace();
+            CommonUtils.rollbackCurrentTransaction();
             log.error("finish quiz  failed");
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "finish quiz  failed", null);
         }
     }
 
+    /**
+     * Writes the attempts of timed sessions closed on their deadline in one transaction, one
+     * saveAll for the sweep: users, courses and earlier rows of the sessions are read with one
+     * query each. Sessions gone meanwhile were finished by their user and are skipped.
+     */
+    @Override
+    @Transactional
+    public ResponseCommon<Integer> finishExpiredSessions(List<Integer> sessionIds) {
+        try {
+            List<ExpiredAttempt> expired = new ArrayList<>(sessionIds.size());
+            for (Integer sessionId : sessionIds) {
+                quizSessionStore.updateAnyOwner(sessionId, session -> new ExpiredAttempt(sessionId, session.getUsername(),
+                        session.getCourseId(), session.result())).ifPresent(expired::add);
+            }
+            if (expired.isEmpty()) {
+                return new ResponseCommon<>(ResponseCode.SUCCESS, 0);
+            }
+            Set<String> usernames = new HashSet<>();
+            Set<Integer> courseIds = new HashSet<>();
+            for (ExpiredAttempt attempt : expired) {
+                if (attempt.username() != null) {
+                    usernames.add(attempt.username());
+                }
+                courseIds.add(attempt.courseId());
+            }
+            Map<String, User> users = new HashMap<>();
+            for (User user : userRepository.findAllByUsernameIn(usernames)) {
+                users.put(user.getUsername(), user);
+            }
+            Map<Integer, Course> courses = new HashMap<>();
+            for (Course course : courseRepository.findAllById(courseIds)) {
+                courses.put(course.getId(), course);
+            }
+            // a sweep retried after its commit was lost finds its own rows
+            Map<Integer, QuizAttempt> graded = new HashMap<>();
+            for (QuizAttempt attempt : quizAttemptRepository.findAllBySessionIdIn(sessionIds)) {
+                graded.put(attempt.getSessionId(), attempt);
+            }
+
+            LocalDateTime finishedAt = LocalDateTime.now();
+            List<QuizAttempt> attempts = new ArrayList<>(expired.size());
+            for (ExpiredAttempt expiredAttempt : expired) {
+                User user = users.get(expiredAttempt.username());
+                QuizAnswerKey.GradeResult gradeResult = expiredAttempt.result().gradeResult();
+                QuizAttempt attempt = graded.get(expiredAttempt.sessionId());
+                if (attempt == null || !sameUser(attempt.getUser(), user)) {
+                    attempt = new QuizAttempt();
+                    quizStatsCollector.recordAfterCommit(expiredAttempt.result().quizId(), gradeResult);
+                }
+                attempt.setUser(user);
+                attempt.setSessionId(expiredAttempt.sessionId());
+                attempt.setQuizId(expiredAttempt.result().quizId());
+                attempt.setTotalCorrect(gradeResult.getTotalCorrect());
+                attempt.setTotalIncorrect(gradeResult.getTotalIncorrect());
+                attempt.setFinishedAt(finishedAt);
+                attempt.setAutoSubmitted(true);
+                attempt.setAnswers(PackedAnswers.pack(expiredAttempt.result().answerIds(), gradeResult));
+                attempts.add(attempt);
+
+                Course course = courses.get(expiredAttempt.courseId());
+                if (gradeResult.getMark() >= BASE_MARK && user != null && course != null) {
+                    emailService.enqueueEmail(setUpMail(user.getEmail(), course.getName()));
+                }
+                quizSessionStore.removeAfterCommit(expiredAttempt.sessionId());
+                quizReviewCache.invalidate(expiredAttempt.sessionId());
+            }
+            quizAttemptRepository.saveAll(attempts);
+            return new ResponseCommon<>(ResponseCode.SUCCESS, attempts.size());
+        } catch (Exception e) {
+            e.printStackTrace();
+            CommonUtils.rollbackCurrentTransaction();
+            log.error("finish expired quiz sessions failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "finish expired quiz sessions failed", null);
+        }
+    }
+
+    private static boolean sameUser(User user, User other) {
+        return user == null ? other == null : other != null && user.getId() == other.getId();
+    }
+
+    private record ExpiredAttempt(int sessionId, String username, int courseId, QuizSession.Result result) {
+    }
+
+    // a session closed on its deadline is graded by QuizDeadlineScheduler only
+    private static QuizSession requireOpen(QuizSession session) {
+        if (session.isClosed()) {
+            throw new IllegalStateException("Time is up for quiz session " + session.getSessionId());
+        }
+        return session;
+    }
+
+    private boolean saveQuizAttempt(QuizAttempt previous, User user, FinishQuizRequest finishQuizRequest, byte[] answers,
+                                 QuizAnswerKey.GradeResult gradeResult, LocalDateTime finishedAt) {
+        // submitting the same session again replaces its summary instead of adding a second one
+        QuizAttempt attempt = previous != null ? previous : new QuizAttempt();
+        attempt.setUser(user);
+        attempt.setSessionId(finishQuizRequest.getSessionId());
+        attempt.setQuizId(finishQuizRequest.getQuizId());
+        attempt.setTotalCorrect(gradeResult.getTotalCorrect());
+        attempt.setTotalIncorrect(gradeResult.getTotalIncorrect());
+        attempt.setFinishedAt(finishedAt);
+        boolean created = attempt.getId() == 0;
+        attempt.setAnswers(answers);
+        quizAttemptRepository.save(attempt);
+        return created;
+    }
+
     private Mail setUpMail(String mailTo, String courseName) {
         Mail mail = new Mail();
         mail.setTo(mailTo);
@@ -258,6 +516,7 @@ public class QuizServiceImpl implements IQuizService {
         model.put("course_name", courseName);
         mail.setPros(model);
         mail.setTemplate("certificate");
+        mail.setLane(EnumMailLane.CERTIFICATE);
         return mail;
     }
 
@@ -265,10 +524,30 @@ public class QuizServiceImpl implements IQuizService {
     public ResponseCommon<ResetQuizResponse> resetQuiz(ResetQuizRequest resetQuizRequest) {
         try {
 
-            int newSessionId = CommonUtils.getSessionID();
+            // an open session is restarted on the same quiz, otherwise only a fresh id is handed out
+            QuizSession session = quizSessionStore.removeOpen(resetQuizRequest.getSessionId(), resetQuizRequest.getUsername())
+                    .orElse(null);
+            int newSessionId;
+            if (session != null) {
+                quizDeadlineScheduler.cancel(resetQuizRequest.getSessionId());
+                // a timed attempt starts over with the time limit the quiz has now
+                Integer timeLimitSeconds = quizRepository.findQuizById(session.getQuizId())
+                        .map(Quiz::getTimeLimitSeconds).orElse(null);
+                long deadline = timeLimitSeconds == null ? 0 : System.currentTimeMillis() + timeLimitSeconds * 1000L;
+                newSessionId = quizSessionStore.start(quizAnswerKeyCache.get(session.getQuizId()), resetQuizRequest.getUsername(),
+                        session.getCourseId(), deadline);
+                if (deadline > 0) {
+                    quizDeadlineScheduler.schedule(newSessionId, deadline);
+                }
+            } else {
+                newSessionId = CommonUtils.getSessionID();
+            }
             ResetQuizResponse resetQuizResponse = new ResetQuizResponse();
             resetQuizResponse.setNewSessionId(newSessionId);
             return new ResponseCommon<>(ResponseCode.SUCCESS, resetQuizResponse);
+        } catch (IllegalStateException e) {
+            // closed on its deadline, the attempt is graded as it stands
+            return new ResponseCommon<>(ResponseCode.QUIZ_TIME_UP.getCode(), e.getMessage(), null);
         } catch (Exception e) {
             log.error("reset quiz  failed");
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "reset quiz  failed", null);
@@ -278,22 +557,21 @@ public class QuizServiceImpl implements IQuizService {
     @Override
     public ResponseCommon<GetAllSessionQuizByUserResponse> getAllSessionQuiz(GetAllSessionQuizByUserRequest getAllSessionQuizByUserRequest) {
         try {
-            List<HistoryQuizUser> historyQuizUsers = new ArrayList<>();
-
             User user = userRepository.findByUsername(getAllSessionQuizByUserRequest.getUsername()).orElse(null);
-            List<Integer> listSessionId = historyQuizRepository.findDistinctSessionIdsByUser(user);
-
-            for (int i = 0; i < listSessionId.size(); i++) {
-                historyQuizUsers.add(new HistoryQuizUser(
-                        listSessionId.get(i),
-                        historyQuizRepository.countCorrectAnswersBySessionId(listSessionId.get(i)),
-                        historyQuizRepository.countIncorrectAnswersBySessionId(listSessionId.get(i)),
-                        historyQuizRepository.findLatestCreatedAtBySessionId(listSessionId.get(i))
-                ));
+            int pageSize = Math.min(Math.max(getAllSessionQuizByUserRequest.getPageSize(), 1), MAX_ATTEMPT_PAGE_SIZE);
+            QuizAttemptReader.AttemptPage page = quizAttemptReader.findPage(user, getAllSessionQuizByUserRequest.getCursor(), pageSize);
+            List<HistoryQuizUser> historyQuizUsers = new ArrayList<>(page.attempts().size());
+            for (QuizAttempt attempt : page.attempts()) {
+                historyQuizUsers.add(new HistoryQuizUser(attempt.getSessionId(), attempt.getTotalCorrect(),
+                        attempt.getTotalIncorrect(), attempt.getFinishedAt()));
             }
             GetAllSessionQuizByUserResponse response = new GetAllSessionQuizByUserResponse();
             response.setListQuiz(historyQuizUsers);
+            response.setNextCursor(page.nextCursor());
             return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+        } catch (IllegalArgumentException e) {
+            log.debug("get all session quiz rejected: {}", e.getMessage());
+            return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(), e.getMessage(), null);
         } catch (Exception e) {
             e.printStackTrace();
             log.error("get all session quiz  failed");
@@ -304,22 +582,7 @@ public class QuizServiceImpl implements IQuizService {
     @Override
     public ResponseCommon<GetCorrectAnswerBySessionId> getAnswerCorrectBySessionId(GetAnswerCorrectBySessionIdRequest getAnswerCorrectBySessionIdRequest) {
         try {
-            List<AnswerCorrectDTO> answerListCorrect = new ArrayList<>();
-            List<Answer> answerLists = new ArrayList<>();
-            List<Integer> listAnswerId = historyQuizRepository.findAnswerIdsBySessionIdAndCorrect(getAnswerCorrectBySessionIdRequest.getSessionId());
-            for (int i = 0; i < listAnswerId.size(); i++) {
-                answerLists.add(answerRepository.findAnswerById(listAnswerId.get(i)).orElse(null));
-            }
-            for (Answer answer : answerLists) {
-                AnswerCorrectDTO answerDTO = new AnswerCorrectDTO();
-                answerDTO.setId(answer.getId());
-                answerDTO.setAnswerContent(answer.getAnswerContent());
-                answerDTO.setCorrect(answerDTO.isCorrect());
-                answerDTO.setQuestionId(answer.getQuestionId());
-                answerListCorrect.add(answerDTO);
-            }
-            GetCorrectAnswerBySessionId response = new GetCorrectAnswerBySessionId();
-            response.setAnswerList(answerListCorrect);
+            GetCorrectAnswerBySessionId response = quizReviewCache.get(getAnswerCorrectBySessionIdRequest.getSessionId());
             return new ResponseCommon<>(ResponseCode.SUCCESS, response);
         } catch (Exception e) {
             e.printStackTrace();
@@ -327,4 +590,28 @@ public class QuizServiceImpl implements IQuizService {
             return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "get correct answer  session quiz  failed", null);
         }
     }
+
+    @Override
+    public ResponseCommon<QuizStatsResponse> getQuizStats(GetQuizStatsRequest getQuizStatsRequest) {
+        try {
+            int quizId = getQuizStatsRequest.getQuizId();
+            if (quizRepository.findQuizById(quizId).isEmpty()) {
+                return new ResponseCommon<>(ResponseCode.QUIZ_NOT_EXIST.getCode(), QUIZ_NOT_EXIST, null);
+            }
+            QuizStatsResponse response = quizStatsCollector.getStats(quizId);
+            // names of questions still in the quiz, a deleted one keeps its counts without a name
+            Map<Integer, String> questionNames = new HashMap<>();
+            for (QuestionContent question : quizContentCache.get(quizId).getQuestions()) {
+                questionNames.put(question.getId(), question.getQuestionName());
+            }
+            for (QuestionDifficulty question : response.getQuestions()) {
+                question.setQuestionName(questionNames.get(question.getQuestionId()));
+            }
+            return new ResponseCommon<>(ResponseCode.SUCCESS, response);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.error("get quiz stats failed");
+            return new ResponseCommon<>(ResponseCode.FAIL.getCode(), "get quiz stats failed", null);
+        }
+    }
 }
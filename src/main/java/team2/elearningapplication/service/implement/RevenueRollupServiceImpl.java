@@ -0,0 +1,188 @@
+package team2.elearningapplication.service.implement;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.Enum.EnumRollupGranularity;
+import team2.elearningapplication.Enum.EnumRollupScope;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.admin.dashboard.GetRevenueSeriesRequest;
+import team2.elearningapplication.dto.response.admin.dashboard.RevenueBucket;
+import team2.elearningapplication.dto.response.admin.dashboard.RevenueSeriesResponse;
+import team2.elearningapplication.entity.Course;
+import team2.elearningapplication.entity.Payment;
+import team2.elearningapplication.entity.RevenueRollup;
+import team2.elearningapplication.repository.IRevenueRollupRepository;
+import team2.elearningapplication.service.IRevenueRollupService;
+import team2.elearningapplication.utils.CommonUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Revenue and enrollment count per day, week and month, for each course and each category.
+ * Every successful payment adds itself to its six buckets, so a series over any range reads one
+ * row per bucket from {@code revenue_rollup} and never touches {@code payment}. A nightly job
+ * recomputes the recent weeks and months from their days and drops day rows older than
+ * {@code rollup.day-retention-days}; week and month rows are kept forever.
+ */
+@Service
+@Slf4j
+public class RevenueRollupServiceImpl implements IRevenueRollupService {
+    private static final EnumRollupGranularity[] GRANULARITIES = EnumRollupGranularity.values();
+
+    private final IRevenueRollupRepository revenueRollupRepository;
+    private final int recentDays;
+    private final int dayRetentionDays;
+    private final int maxBuckets;
+
+    public RevenueRollupServiceImpl(IRevenueRollupRepository revenueRollupRepository,
+                                    @Value("${rollup.compaction.recent-days:2}") int recentDays,
+                                    @Value("${rollup.day-retention-days:400}") int dayRetentionDays,
+                                    @Value("${rollup.series.max-buckets:1000}") int maxBuckets) {
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.recentDays = Math.max(recentDays, 1);
+        // compaction reads back to the start of the month, those days must still be there
+        this.dayRetentionDays = Math.max(dayRetentionDays, 62);
+        this.maxBuckets = maxBuckets;
+    }
+
+    // joins the payment transaction, so the rollup and the payment commit or roll back together
+    @Override
+    @Transactional
+    public void recordPayment(Payment payment) {
+        LocalDateTime createdAt = payment.getCreated_at() == null ? LocalDateTime.now() : payment.getCreated_at();
+        Course course = payment.getCourse();
+        addToBuckets(createdAt.toLocalDate(), course.getId(),
+                course.getCategory() == null ? null : course.getCategory().getId(), payment.getAmount(), 1);
+    }
+
+    @Override
+    public ResponseCommon<RevenueSeriesResponse> getSeries(GetRevenueSeriesRequest request) {
+        try {
+            EnumRollupGranularity granularity = request.getGranularity();
+            if (granularity == null || request.getScope() == null || request.getFrom() == null
+                    || request.getTo() == null || request.getFrom().isAfter(request.getTo())) {
+                return new ResponseCommon<>(ResponseCode.INVALID_DATA, null);
+            }
+            LocalDate from = granularity.bucketStart(request.getFrom());
+            LocalDate to = granularity.bucketStart(request.getTo());
+            if (bucketCount(granularity, from, to) > maxBuckets) {
+                return new ResponseCommon<>(ResponseCode.INVALID_DATA.getCode(),
+                        "A series has at most " + maxBuckets + " buckets", null);
+            }
+            List<RevenueRollup> rows = revenueRollupRepository.findSeries(granularity, request.getScope(),
+                    request.getScopeId(), from, to);
+            return new ResponseCommon<>(ResponseCode.SUCCESS, new RevenueSeriesResponse(granularity,
+                    request.getScope(), request.getScopeId(), fillSeries(granularity, from, to, rows)));
+        } catch (Exception e) {
+            log.error("Get revenue series failed: {}", e.getMessage());
+            return new ResponseCommon<>(ResponseCode.FAIL, null);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${rollup.compaction.cron:0 30 2 * * *}")
+    @Transactional
+    public void compact() {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate since = today.minusDays(recentDays);
+            for (EnumRollupGranularity granularity : List.of(EnumRollupGranularity.WEEK, EnumRollupGranularity.MONTH)) {
+                LocalDate from = granularity.bucketStart(since);
+                Map<RollupKey, RevenueBucket> sums = new HashMap<>();
+                for (RevenueRollup day : revenueRollupRepository.findByGranularityAndBucketStartBetween(
+                        EnumRollupGranularity.DAY, from, today)) {
+                    RevenueBucket sum = sums.computeIfAbsent(new RollupKey(day.getScope(), day.getScopeId(),
+                            granularity.bucketStart(day.getBucketStart())), key -> new RevenueBucket(key.bucketStart(), 0, 0));
+                    sum.setRevenue(sum.getRevenue() + day.getRevenue());
+                    sum.setEnrollmentCount(sum.getEnrollmentCount() + day.getEnrollmentCount());
+                }
+                for (Map.Entry<RollupKey, RevenueBucket> entry : sums.entrySet()) {
+                    RollupKey key = entry.getKey();
+                    revenueRollupRepository.setBucket(granularity.name(), key.scope().name(), key.scopeId(),
+                            key.bucketStart(), entry.getValue().getRevenue(), entry.getValue().getEnrollmentCount());
+                }
+            }
+            int pruned = revenueRollupRepository.deleteOlderThan(EnumRollupGranularity.DAY, today.minusDays(dayRetentionDays));
+            log.info("Compacted revenue rollup since {}, pruned {} day row(s)", since, pruned);
+        } catch (Exception e) {
+            // a half compacted month would be committed otherwise
+            CommonUtils.rollbackCurrentTransaction();
+            log.error("Compact revenue rollup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Seeds an empty rollup from the payment history, once. The check locks the day rows, so when
+     * several nodes start together one seeds and the others wait for it and then find it done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        try {
+            if (revenueRollupRepository.findFirstByGranularity(EnumRollupGranularity.DAY).isPresent()) {
+                return;
+            }
+            List<Object[]> rows = revenueRollupRepository.sumPaymentsByDayAndCourse();
+            for (Object[] row : rows) {
+                LocalDate day = ((Date) row[0]).toLocalDate();
+                Integer categoryId = row[2] == null ? null : ((Number) row[2]).intValue();
+                addToBuckets(day, ((Number) row[1]).intValue(), categoryId,
+                        ((Number) row[3]).doubleValue(), ((Number) row[4]).longValue());
+            }
+            log.info("Backfilled revenue rollup from {} day/course group(s) of payments", rows.size());
+        } catch (Exception e) {
+            CommonUtils.rollbackCurrentTransaction();
+            log.error("Backfill revenue rollup failed: {}", e.getMessage());
+        }
+    }
+
+    private void addToBuckets(LocalDate day, int courseId, Integer categoryId, double revenue, long enrollments) {
+        for (EnumRollupGranularity granularity : GRANULARITIES) {
+            LocalDate bucketStart = granularity.bucketStart(day);
+            revenueRollupRepository.addToBucket(granularity.name(), EnumRollupScope.COURSE.name(), courseId,
+                    bucketStart, revenue, enrollments);
+            if (categoryId != null) {
+                revenueRollupRepository.addToBucket(granularity.name(), EnumRollupScope.CATEGORY.name(), categoryId,
+                        bucketStart, revenue, enrollments);
+            }
+        }
+    }
+
+    static long bucketCount(EnumRollupGranularity granularity, LocalDate from, LocalDate to) {
+        return switch (granularity) {
+            case DAY -> ChronoUnit.DAYS.between(from, to) + 1;
+            case WEEK -> ChronoUnit.WEEKS.between(from, to) + 1;
+            case MONTH -> ChronoUnit.MONTHS.between(from, to) + 1;
+        };
+    }
+
+    // one entry per bucket from `from` to `to`, buckets without a row are zero
+    static List<RevenueBucket> fillSeries(EnumRollupGranularity granularity, LocalDate from, LocalDate to,
+                                          List<RevenueRollup> rows) {
+        Map<LocalDate, RevenueRollup> byBucket = new HashMap<>();
+        for (RevenueRollup row : rows) {
+            byBucket.put(row.getBucketStart(), row);
+        }
+        List<RevenueBucket> buckets = new ArrayList<>();
+        for (LocalDate bucket = from; !bucket.isAfter(to); bucket = granularity.nextBucket(bucket)) {
+            RevenueRollup row = byBucket.get(bucket);
+            buckets.add(row == null
+                    ? new RevenueBucket(bucket, 0, 0)
+                    : new RevenueBucket(bucket, row.getRevenue(), row.getEnrollmentCount()));
+        }
+        return buckets;
+    }
+
+    private record RollupKey(EnumRollupScope scope, int scopeId, LocalDate bucketStart) {
+    }
+}
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import team2.elearningapplication.Enum.EnumMailLane;
 import team2.elearningapplication.Enum.EnumUserStatus;
 import team2.elearningapplication.Enum.ResponseCode;
 import team2.elearningapplication.dto.common.ResponseCommon;
@@ -21,6 +22,7 @@ import team2.elearningapplication.security.SecurityUtils;
 import team2.elearningapplication.security.UserDetailsImpl;
 import team2.elearningapplication.security.jwt.JWTResponse;
 import team2.elearningapplication.security.jwt.JWTUtils;
+import team2.elearningapplication.service.IDashboardService;
 import team2.elearningapplication.service.IUserService;
 import team2.elearningapplication.service.email.EmailService;
 import team2.elearningapplication.utils.CommonUtils;
@@ -38,6 +40,8 @@ public class UserServiceImpl implements IUserService {
     private final IUserRepository userRepository;
     private final EmailService emailService;
     private final PasswordService passwordService;
+    private final JWTUtils jwtUtils;
+    private final IDashboardService dashboardService;
     private final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
 
     @Value("${mail.from}")
@@ -83,7 +87,8 @@ public class UserServiceImpl implements IUserService {
             }
             // if user is null -> new user
             log.debug("check user is null{}", user);
-            if (Objects.isNull(user)) {
+            boolean newUser = Objects.isNull(user);
+            if (newUser) {
                 user = new User();
             }
             user.setUsername(genUserFromEmail(requestDTO.getEmail()));
@@ -103,6 +108,9 @@ public class UserServiceImpl implements IUserService {
             user.setCreatedAt(LocalDateTime.now());
             user.setOtp(CommonUtils.getOTP());
             User createdUser = userRepository.save(user);
+            if (newUser) {
+                dashboardService.onUserCreated();
+            }
             log.info(START_MAIL);
             emailService.sendEmail(setUpMail(user.getEmail(), user.getOtp()));
             log.info(END_MAIL);
@@ -127,6 +135,7 @@ public class UserServiceImpl implements IUserService {
         model.put("otp_value", otp);
         mail.setPros(model);
         mail.setTemplate("index");
+        mail.setLane(EnumMailLane.OTP);
         return mail;
     }
 
@@ -206,10 +215,9 @@ public class UserServiceImpl implements IUserService {
                     return new ResponseCommon<>(ResponseCode.PASSWORD_INCORRECT, null);
                 } // else -> verify otp
                 else {
-                    JWTUtils utils = new JWTUtils();
                     UserDetailsImpl userDetails = UserDetailsImpl.build(user.get());
-                    String accessToken = utils.generateAccessToken(userDetails);
-                    String refreshToken = utils.generateRefreshToken(userDetails);
+                    String accessToken = jwtUtils.generateAccessToken(userDetails);
+                    String refreshToken = jwtUtils.generateRefreshToken(userDetails);
                     user.orElse(null).setSession_id(CommonUtils.getSessionID());
                     userRepository.save(user.get());
                     return new ResponseCommon<>(new JWTResponse(accessToken, refreshToken, ResponseCode.SUCCESS.getMessage()));
@@ -362,7 +370,7 @@ public class UserServiceImpl implements IUserService {
     @Override
     public ResponseCommon<GetTotalUserResponse> getTotalUser() {
         try {
-            int totalUser = userRepository.getTotalUser();
+            int totalUser = (int) dashboardService.getTotalUser();
             GetTotalUserResponse getTotalUserResponse = new GetTotalUserResponse(totalUser);
             return new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), "Get total user success", getTotalUserResponse);
         } catch (Exception e) {
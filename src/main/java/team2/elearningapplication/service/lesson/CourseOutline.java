@@ -0,0 +1,68 @@
+package team2.elearningapplication.service.lesson;
+
+import lombok.Getter;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutline;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutlineRow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable lessons of one course at one version, not deleted ones only, in the order they are
+ * taken. The ord number of a lesson is its position here, counted from 1; the stored
+ * {@code stt} is not kept in step with moves and is never read as one.
+ */
+public final class CourseOutline {
+    @Getter
+    private final int courseId;
+    @Getter
+    private final long version;
+    // false when the course itself does not exist
+    @Getter
+    private final boolean courseExists;
+    @Getter
+    private final List<LessonOutline> lessons;
+    private final Map<Integer, Integer> positionById;
+
+    // rows in rank order
+    CourseOutline(int courseId, long version, boolean courseExists, List<LessonOutlineRow> rows) {
+        this.courseId = courseId;
+        this.version = version;
+        this.courseExists = courseExists;
+        List<LessonOutline> lessons = new ArrayList<>(rows.size());
+        this.positionById = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            LessonOutlineRow row = rows.get(i);
+            lessons.add(new LessonOutline(row.getId(), row.getName(), i + 1));
+            positionById.put(row.getId(), i);
+        }
+        this.lessons = List.copyOf(lessons);
+    }
+
+    public Optional<LessonOutline> findById(int lessonId) {
+        Integer position = positionById.get(lessonId);
+        return position == null ? Optional.empty() : Optional.of(lessons.get(position));
+    }
+
+    /**
+     * The lesson after the given one, empty after the last one or for a lesson not in the outline.
+     */
+    public Optional<LessonOutline> next(int lessonId) {
+        return neighbour(lessonId, 1);
+    }
+
+    public Optional<LessonOutline> previous(int lessonId) {
+        return neighbour(lessonId, -1);
+    }
+
+    private Optional<LessonOutline> neighbour(int lessonId, int step) {
+        Integer position = positionById.get(lessonId);
+        if (position == null || position + step < 0 || position + step >= lessons.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(lessons.get(position + step));
+    }
+}
@@ -0,0 +1,89 @@
+package team2.elearningapplication.service.lesson;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutline;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutlineRow;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link CourseOutline} per course, its lesson ids, names and ranks read with a
+ * single projection instead of the lesson entities with their course and user graph. Listing
+ * the lessons of a course, finding a lesson by ord number and moving to the next or previous
+ * lesson then read nothing from the database. Each course has a version that lesson writes
+ * bump; an outline is only served while its version is current, so a load racing with a write
+ * is never kept.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseOutlineCache {
+    private final ILessonRespository lessonRespository;
+    private final ICourseRepository courseRepository;
+
+    private final Map<Integer, CourseOutline> outlines = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    // lesson id -> course id for every lesson held in a cached outline
+    private final Map<Integer, Integer> lessonToCourse = new ConcurrentHashMap<>();
+
+    public CourseOutline get(int courseId) {
+        long version = versions.getOrDefault(courseId, 0L);
+        CourseOutline outline = outlines.get(courseId);
+        if (outline != null && outline.getVersion() == version) {
+            return outline;
+        }
+        outline = load(courseId, version);
+        CourseOutline loaded = outline;
+        outlines.compute(courseId, (id, current) ->
+                versions.getOrDefault(courseId, 0L) == version && (current == null || current.getVersion() < version) ? loaded : current);
+        for (LessonOutline lesson : outline.getLessons()) {
+            lessonToCourse.put(lesson.getId(), courseId);
+        }
+        return outline;
+    }
+
+    /**
+     * Course of a lesson held in a cached outline, null when no cached outline has it.
+     */
+    public Integer getCourseIdOf(int lessonId) {
+        return lessonToCourse.get(lessonId);
+    }
+
+    public void invalidateCourse(int courseId) {
+        bump(courseId);
+        // writes inside a transaction are only visible after commit, bump again then
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(courseId);
+                }
+            });
+        }
+    }
+
+    private void bump(int courseId) {
+        versions.merge(courseId, 1L, Long::sum);
+        CourseOutline removed = outlines.remove(courseId);
+        if (removed != null) {
+            for (LessonOutline lesson : removed.getLessons()) {
+                lessonToCourse.remove(lesson.getId(), courseId);
+            }
+            log.debug("Evicted outline of course {}", courseId);
+        }
+    }
+
+    private CourseOutline load(int courseId, long version) {
+        List<LessonOutlineRow> rows = lessonRespository.findOutlineByCourseId(courseId);
+        boolean courseExists = !rows.isEmpty() || courseRepository.existsById(courseId);
+        return new CourseOutline(courseId, version, courseExists, rows);
+    }
+}
@@ -0,0 +1,267 @@
+package team2.elearningapplication.service.lesson;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutline;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.ILessonCompletedRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Course progress of each enrollment kept as a bitset of completed lessons. Every lesson of a
+ * course gets a slot, its ordinal in the course by id, so a slot never moves when lessons are
+ * added, reordered or deleted; a mask of the lessons not deleted gives the lesson count, cached
+ * per course. Both counts are taken when an entry is built, reading progress is O(1) with no
+ * database access.
+ * <p>
+ * Enrollments are loaded on first read, several courses with one query each for lessons,
+ * completions and resume pointers, and kept in a bounded LRU. A resume pointer is stored as a
+ * lesson id and read as that lesson's ord number in the course outline. A completion sets its
+ * bit in place. A change to the lessons of a course drops its slots; enrollments built on the
+ * old slots are reloaded on their next read, with ord numbers that follow the change.
+ */
+@Component
+public class CourseProgressCache {
+    private final ILessonRespository lessonRespository;
+    private final ILessonCompletedRepository lessonCompletedRepository;
+    private final IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+    private final LessonCompletionBuffer lessonCompletionBuffer;
+    private final CourseOutlineCache courseOutlineCache;
+    private final int maxEnrollments;
+
+    private final Map<Integer, CourseLessons> courses = new ConcurrentHashMap<>();
+    private final Map<Enrollment, EnrollmentProgress> enrollments;
+    // bumped by every change under the enrollments lock, a load that overlaps one is returned but not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public CourseProgressCache(ILessonRespository lessonRespository,
+                               ILessonCompletedRepository lessonCompletedRepository,
+                               IHistoryResgisterCourseRepository historyRegisterCourseRepository,
+                               LessonCompletionBuffer lessonCompletionBuffer,
+                               CourseOutlineCache courseOutlineCache,
+                               @Value("${lesson.progress-cache.max-enrollments:20000}") int maxEnrollments) {
+        this.lessonRespository = lessonRespository;
+        this.lessonCompletedRepository = lessonCompletedRepository;
+        this.historyRegisterCourseRepository = historyRegisterCourseRepository;
+        this.lessonCompletionBuffer = lessonCompletionBuffer;
+        this.courseOutlineCache = courseOutlineCache;
+        this.maxEnrollments = maxEnrollments;
+        this.enrollments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Enrollment, EnrollmentProgress> eldest) {
+                return size() > CourseProgressCache.this.maxEnrollments;
+            }
+        };
+    }
+
+    public CourseProgress get(String username, int courseId) {
+        return getAll(username, List.of(courseId)).get(0);
+    }
+
+    /**
+     * Progress of the user in each course, in the order of {@code courseIds}.
+     */
+    public List<CourseProgress> getAll(String username, List<Integer> courseIds) {
+        EnrollmentProgress[] found = new EnrollmentProgress[courseIds.size()];
+        Set<Integer> missing = new HashSet<>();
+        synchronized (enrollments) {
+            for (int i = 0; i < found.length; i++) {
+                int courseId = courseIds.get(i);
+                EnrollmentProgress progress = enrollments.get(new Enrollment(username, courseId));
+                if (progress != null && progress.lessons == courses.get(courseId)) {
+                    found[i] = progress;
+                } else {
+                    missing.add(courseId);
+                }
+            }
+        }
+        Map<Integer, EnrollmentProgress> loaded = missing.isEmpty() ? Map.of() : load(username, missing);
+        List<CourseProgress> progress = new ArrayList<>(found.length);
+        for (int i = 0; i < found.length; i++) {
+            int courseId = courseIds.get(i);
+            EnrollmentProgress enrollment = found[i] != null ? found[i] : loaded.get(courseId);
+            progress.add(new CourseProgress(courseId, enrollment.completed, enrollment.lessons.total, enrollment.lessonCurrent));
+        }
+        return progress;
+    }
+
+    /**
+     * Marks a lesson completed in the cached progress of the user, if there is one.
+     */
+    public void complete(String username, int courseId, int lessonId, int ordNumber) {
+        synchronized (enrollments) {
+            generation.incrementAndGet();
+            Enrollment enrollment = new Enrollment(username, courseId);
+            EnrollmentProgress progress = enrollments.get(enrollment);
+            if (progress != null) {
+                enrollments.put(enrollment, progress.with(lessonId, ordNumber));
+            }
+        }
+    }
+
+    /**
+     * Drops the lesson slots of a course after a lesson was added, changed or deleted.
+     */
+    public void evictCourse(int courseId) {
+        synchronized (enrollments) {
+            generation.incrementAndGet();
+            courses.remove(courseId);
+        }
+    }
+
+    private Map<Integer, EnrollmentProgress> load(String username, Set<Integer> courseIds) {
+        long loadGeneration = generation.get();
+        Map<Integer, CourseLessons> lessons = new HashMap<>();
+        Set<Integer> unknownCourses = new HashSet<>();
+        for (Integer courseId : courseIds) {
+            CourseLessons cached = courses.get(courseId);
+            if (cached != null) {
+                lessons.put(courseId, cached);
+            } else {
+                unknownCourses.add(courseId);
+            }
+        }
+        if (!unknownCourses.isEmpty()) {
+            lessons.putAll(loadLessons(unknownCourses));
+        }
+
+        // the buffer before the table: a completion flushed in between is then in the table
+        Map<Integer, Set<Integer>> completedIds = new HashMap<>();
+        Map<Integer, Integer> lessonCurrents = new HashMap<>();
+        for (Integer courseId : courseIds) {
+            completedIds.put(courseId, lessonCompletionBuffer.getPendingLessonIds(username, courseId));
+            lessonCurrents.put(courseId, lessonCompletionBuffer.getPendingLessonCurrent(username, courseId));
+        }
+        for (Object[] row : lessonCompletedRepository.findCompletedLessonIds(username, courseIds)) {
+            completedIds.get((Integer) row[0]).add((Integer) row[1]);
+        }
+        for (Object[] row : historyRegisterCourseRepository.findLessonCurrents(username, courseIds)) {
+            Integer courseId = (Integer) row[0];
+            lessonCurrents.merge(courseId, ordNumberOf(courseId, (Integer) row[1]), Math::max);
+        }
+
+        Map<Integer, EnrollmentProgress> loaded = new HashMap<>();
+        for (Integer courseId : courseIds) {
+            loaded.put(courseId, EnrollmentProgress.of(lessons.get(courseId), completedIds.get(courseId), lessonCurrents.get(courseId)));
+        }
+        // checked and kept under the lock every change takes, so none can slip in between
+        synchronized (enrollments) {
+            if (generation.get() == loadGeneration && maxEnrollments > 0) {
+                unknownCourses.forEach(courseId -> courses.putIfAbsent(courseId, lessons.get(courseId)));
+                loaded.forEach((courseId, progress) -> enrollments.put(new Enrollment(username, courseId), progress));
+            }
+        }
+        return loaded;
+    }
+
+    // an enrollment without a resume lesson, or whose lesson is gone, starts at the first one
+    private int ordNumberOf(int courseId, Integer lessonId) {
+        if (lessonId == null) {
+            return 1;
+        }
+        return courseOutlineCache.get(courseId).findById(lessonId).map(LessonOutline::getOrdNumber).orElse(1);
+    }
+
+    private Map<Integer, CourseLessons> loadLessons(Set<Integer> courseIds) {
+        Map<Integer, SortedMap<Integer, Boolean>> deletedByLesson = new HashMap<>();
+        courseIds.forEach(courseId -> deletedByLesson.put(courseId, new TreeMap<>()));
+        for (Object[] row : lessonRespository.findLessonStatesByCourseIds(courseIds)) {
+            deletedByLesson.get((Integer) row[0]).put((Integer) row[1], (Boolean) row[2]);
+        }
+        Map<Integer, CourseLessons> lessons = new HashMap<>();
+        deletedByLesson.forEach((courseId, lessonStates) -> lessons.put(courseId, CourseLessons.of(lessonStates)));
+        return lessons;
+    }
+
+    public record CourseProgress(int courseId, int completedLessons, int totalLessons, int lessonCurrent) {
+    }
+
+    private record Enrollment(String username, int courseId) {
+    }
+
+    /**
+     * Slot of each lesson of a course, and the slots of the lessons not deleted.
+     */
+    static final class CourseLessons {
+        private final Map<Integer, Integer> slots;
+        private final long[] live;
+        private final int total;
+
+        private CourseLessons(Map<Integer, Integer> slots, long[] live, int total) {
+            this.slots = slots;
+            this.live = live;
+            this.total = total;
+        }
+
+        // lesson id -> deleted, in id order
+        static CourseLessons of(SortedMap<Integer, Boolean> lessons) {
+            Map<Integer, Integer> slots = new HashMap<>();
+            long[] live = new long[words(lessons.size())];
+            int total = 0;
+            for (Map.Entry<Integer, Boolean> lesson : lessons.entrySet()) {
+                int slot = slots.size();
+                slots.put(lesson.getKey(), slot);
+                if (!lesson.getValue()) {
+                    live[slot >>> 6] |= 1L << slot;
+                    total++;
+                }
+            }
+            return new CourseLessons(slots, live, total);
+        }
+
+        int slotOf(int lessonId) {
+            return slots.getOrDefault(lessonId, -1);
+        }
+    }
+
+    /**
+     * Completed slots of one enrollment. Immutable, a completion copies the few words of the
+     * bitset.
+     */
+    static final class EnrollmentProgress {
+        private final CourseLessons lessons;
+        private final long[] bits;
+        private final int completed;
+        private final int lessonCurrent;
+
+        private EnrollmentProgress(CourseLessons lessons, long[] bits, int lessonCurrent) {
+            this.lessons = lessons;
+            this.bits = bits;
+            this.lessonCurrent = lessonCurrent;
+            int count = 0;
+            for (int i = 0; i < bits.length; i++) {
+                count += Long.bitCount(bits[i] & lessons.live[i]);
+            }
+            this.completed = count;
+        }
+
+        static EnrollmentProgress of(CourseLessons lessons, Set<Integer> completedLessonIds, int lessonCurrent) {
+            long[] bits = new long[lessons.live.length];
+            for (Integer lessonId : completedLessonIds) {
+                int slot = lessons.slotOf(lessonId);
+                if (slot >= 0) {
+                    bits[slot >>> 6] |= 1L << slot;
+                }
+            }
+            return new EnrollmentProgress(lessons, bits, lessonCurrent);
+        }
+
+        EnrollmentProgress with(int lessonId, int ordNumber) {
+            int slot = lessons.slotOf(lessonId);
+            if (slot < 0 || (bits[slot >>> 6] & 1L << slot) != 0) {
+                return ordNumber > lessonCurrent ? new EnrollmentProgress(lessons, bits, ordNumber) : this;
+            }
+            long[] updated = bits.clone();
+            updated[slot >>> 6] |= 1L << slot;
+            return new EnrollmentProgress(lessons, updated, Math.max(lessonCurrent, ordNumber));
+        }
+    }
+
+    private static int words(int slots) {
+        return (slots + 63) >>> 6;
+    }
+}
@@ -0,0 +1,168 @@
+package team2.elearningapplication.service.lesson;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.ILessonCompletedRepository;
+import team2.elearningapplication.repository.ILessonCompletedRepositoryCustom.CompletionRow;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer of lesson completions. A completion is only put in memory, keyed by user
+ * and course, so a repeated completion of the same lesson is dropped before it reaches the
+ * database. A scheduled flush inserts the {@code lesson_complete} rows with one multi-row INSERT
+ * and moves the {@code history_register_course.lesson_current_id} resume pointer to the furthest
+ * completed lesson, {@code lesson.completion.batch-size} completions per transaction.
+ * <p>
+ * A completion stays visible here until its batch is committed, so progress reads that merge
+ * {@link #getPendingLessonIds} with the table see it right away and never count it twice.
+ * Completions of the last interval are lost if the node dies without a shutdown.
+ */
+@Component
+@Slf4j
+public class LessonCompletionBuffer {
+    private final ILessonCompletedRepository lessonCompletedRepository;
+    private final IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // user and course -> lesson id -> lesson ord number, the inner maps only change inside compute
+    private final Map<Progress, Map<Integer, Integer>> pending = new ConcurrentHashMap<>();
+
+    public LessonCompletionBuffer(ILessonCompletedRepository lessonCompletedRepository,
+                                  IHistoryResgisterCourseRepository historyRegisterCourseRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${lesson.completion.batch-size:500}") int batchSize) {
+        this.lessonCompletedRepository = lessonCompletedRepository;
+        this.historyRegisterCourseRepository = historyRegisterCourseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Buffers a completion.
+     *
+     * @return false when the same completion is already waiting for a flush
+     */
+    public boolean complete(String username, int courseId, int lessonId, int ordNumber) {
+        boolean[] added = new boolean[1];
+        pending.compute(new Progress(username, courseId), (progress, lessons) -> {
+            Map<Integer, Integer> updated = lessons == null ? new HashMap<>() : lessons;
+            added[0] = updated.putIfAbsent(lessonId, ordNumber) == null;
+            return updated;
+        });
+        return added[0];
+    }
+
+    public boolean isPending(String username, int courseId, int lessonId) {
+        boolean[] found = new boolean[1];
+        pending.computeIfPresent(new Progress(username, courseId), (progress, lessons) -> {
+            found[0] = lessons.containsKey(lessonId);
+            return lessons;
+        });
+        return found[0];
+    }
+
+    /**
+     * Lessons of the course the user completed that may not be in {@code lesson_complete} yet.
+     */
+    public Set<Integer> getPendingLessonIds(String username, int courseId) {
+        Set<Integer> lessonIds = new HashSet<>();
+        pending.computeIfPresent(new Progress(username, courseId), (progress, lessons) -> {
+            lessonIds.addAll(lessons.keySet());
+            return lessons;
+        });
+        return lessonIds;
+    }
+
+    /**
+     * Highest ord number among the buffered completions of the course, 0 when there is none.
+     */
+    public int getPendingLessonCurrent(String username, int courseId) {
+        int[] current = new int[1];
+        pending.computeIfPresent(new Progress(username, courseId), (progress, lessons) -> {
+            current[0] = lessons.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            return lessons;
+        });
+        return current[0];
+    }
+
+    public int size() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${lesson.completion.flush-interval-ms:2000}")
+    public void flush() {
+        List<Completion> completions = new ArrayList<>();
+        for (Progress progress : pending.keySet()) {
+            pending.computeIfPresent(progress, (key, lessons) -> {
+                lessons.forEach((lessonId, ordNumber) -> completions.add(new Completion(key, lessonId, ordNumber)));
+                return lessons;
+            });
+        }
+        for (int from = 0; from < completions.size(); from += batchSize) {
+            List<Completion> batch = completions.subList(from, Math.min(from + batchSize, completions.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                remove(batch);
+            } catch (Exception e) {
+                log.error("Flush of {} lesson completion(s) failed, writing them one by one: {}", batch.size(), e.getMessage());
+                batch.forEach(this::flushOne);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void flushOne(Completion completion) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(completion)));
+            remove(List.of(completion));
+        } catch (DataIntegrityViolationException e) {
+            // would fail again on every flush
+            remove(List.of(completion));
+            log.error("Dropped completion of lesson {} by {}: {}", completion.lessonId(), completion.progress().username(), e.getMessage());
+        } catch (Exception e) {
+            // kept for the next flush
+            log.error("Flush completion of lesson {} by {} failed: {}", completion.lessonId(), completion.progress().username(), e.getMessage());
+        }
+    }
+
+    private void write(List<Completion> batch) {
+        List<CompletionRow> rows = new ArrayList<>(batch.size());
+        Map<Progress, Completion> lessonCurrent = new HashMap<>();
+        for (Completion completion : batch) {
+            Progress progress = completion.progress();
+            rows.add(new CompletionRow(progress.username(), completion.lessonId()));
+            lessonCurrent.merge(progress, completion, (a, b) -> b.ordNumber() > a.ordNumber() ? b : a);
+        }
+        lessonCompletedRepository.insertAllIfAbsent(rows);
+        lessonCurrent.forEach((progress, furthest) ->
+                historyRegisterCourseRepository.advanceLessonCurrent(progress.username(), progress.courseId(), furthest.lessonId()));
+    }
+
+    private void remove(List<Completion> flushed) {
+        for (Completion completion : flushed) {
+            pending.computeIfPresent(completion.progress(), (progress, lessons) -> {
+                lessons.remove(completion.lessonId());
+                return lessons.isEmpty() ? null : lessons;
+            });
+        }
+    }
+
+    private record Progress(String username, int courseId) {
+    }
+
+    private record Completion(Progress progress, int lessonId, int ordNumber) {
+    }
+}
@@ -0,0 +1,105 @@
+package team2.elearningapplication.service.lesson;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+
+/**
+ * Orders lessons inside a course by a sparse rank. Ranks start {@link #GAP} apart, a lesson put
+ * between two others takes the middle of their ranks, so a move or an insert writes its own row
+ * only. Only when two neighbours have no rank left between them is the course rebalanced: one
+ * UPDATE respaces every rank.
+ * <p>
+ * The ord number of a lesson is its position in the outline, which is ordered by rank. The
+ * stored {@code stt} is not kept in step and is only read once, to rank lessons saved before
+ * ranks existed.
+ */
+@Component
+@Slf4j
+public class LessonRanker {
+    static final long GAP = 1L << 20;
+
+    private final ILessonRespository lessonRespository;
+    private final IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+    private final CourseOutlineCache courseOutlineCache;
+
+    public LessonRanker(ILessonRespository lessonRespository, IHistoryResgisterCourseRepository historyRegisterCourseRepository,
+                        CourseOutlineCache courseOutlineCache) {
+        this.lessonRespository = lessonRespository;
+        this.historyRegisterCourseRepository = historyRegisterCourseRepository;
+        this.courseOutlineCache = courseOutlineCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int ranked = lessonRespository.backfillRanks(GAP);
+            if (ranked > 0) {
+                log.info("Ranked {} lesson(s) saved before lesson ranks", ranked);
+            }
+            // needs the ranks above to find the lesson at a saved position
+            int pointed = historyRegisterCourseRepository.backfillLessonCurrentIds();
+            if (pointed > 0) {
+                log.info("Pointed {} enrollment(s) at their resume lesson", pointed);
+            }
+        } catch (Exception e) {
+            log.error("Backfill of lesson ranks failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rank that puts a lesson at {@code position} (from 1, clamped to the ends) among the other
+     * lessons of the course. Rebalances the course first when the neighbours are too close.
+     * <p>
+     * The lessons of the course stay locked until the caller's transaction ends, so two lessons
+     * put at the same position at once never get the same rank.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long rankAt(int courseId, int position, int lessonId) {
+        Long rank = between(lockRanks(courseId, lessonId), position);
+        if (rank == null) {
+            rebalance(courseId);
+            rank = between(lockRanks(courseId, lessonId), position);
+        }
+        if (rank == null) {
+            throw new IllegalStateException("No rank left at position " + position + " of course " + courseId);
+        }
+        return rank;
+    }
+
+    public void rebalance(int courseId) {
+        int updated = lessonRespository.rebalance(courseId, GAP);
+        courseOutlineCache.invalidateCourse(courseId);
+        log.debug("Rebalanced {} lesson(s) of course {}", updated, courseId);
+    }
+
+    // read from the table, not the outline cache, which may not hold a rank committed meanwhile
+    private long[] lockRanks(int courseId, int lessonId) {
+        return lessonRespository.lockRanksByCourseId(courseId, lessonId).stream().mapToLong(Number::longValue).toArray();
+    }
+
+    // null when the neighbours at that position leave no room
+    static Long between(long[] ranks, int position) {
+        int index = Math.max(0, Math.min(position - 1, ranks.length));
+        if (ranks.length == 0) {
+            return GAP;
+        }
+        if (index == 0) {
+            return ranks[0] - GAP;
+        }
+        if (index == ranks.length) {
+            return ranks[ranks.length - 1] + GAP;
+        }
+        long before = ranks[index - 1];
+        long after = ranks[index];
+        if (after - before < 2) {
+            return null;
+        }
+        return before + (after - before) / 2;
+    }
+}
@@ -0,0 +1,116 @@
+package team2.elearningapplication.service.live;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One participant socket. A websocket takes one asynchronous send at a time, so frames wait in
+ * a small queue and the completion of each send starts the next; a broadcast never blocks on a
+ * slow client. A client that lets more than {@code maxQueued} frames pile up is disconnected
+ * instead of buffering for it.
+ */
+@Slf4j
+public final class LiveConnection {
+    @Getter
+    private final Session session;
+    @Getter
+    private final String username;
+    @Getter
+    private final LiveQuizRoom room;
+    private final int maxQueued;
+    private final Queue<String> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile CloseReason closeWhenDrained;
+
+    LiveConnection(Session session, String username, LiveQuizRoom room, int maxQueued) {
+        this.session = session;
+        this.username = username;
+        this.room = room;
+        this.maxQueued = Math.max(maxQueued, 1);
+    }
+
+    /**
+     * Queues a frame for sending.
+     *
+     * @return false when the connection is closed or too far behind, the frame is dropped then
+     */
+    public boolean send(String frame) {
+        if (closed.get()) {
+            return false;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        outbox.add(frame);
+        drain();
+        return true;
+    }
+
+    public void close(CloseReason.CloseCode code, String reason) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        outbox.clear();
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Close of live quiz socket of {} failed: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the socket once the frames already queued are sent.
+     */
+    public void closeWhenDrained(CloseReason.CloseCode code, String reason) {
+        closeWhenDrained = new CloseReason(code, reason);
+        drain();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void drain() {
+        // whoever flips the flag owns the socket until the send completes
+        while (!outbox.isEmpty() && !closed.get() && sending.compareAndSet(false, true)) {
+            String frame = outbox.poll();
+            if (frame == null) {
+                sending.set(false);
+                continue;
+            }
+            queued.decrementAndGet();
+            try {
+                session.getAsyncRemote().sendText(frame, this::sent);
+            } catch (IllegalStateException e) {
+                sending.set(false);
+                close(CloseReason.CloseCodes.GOING_AWAY, "Socket not writable");
+            }
+            return;
+        }
+        CloseReason reason = closeWhenDrained;
+        if (reason != null && outbox.isEmpty() && sending.compareAndSet(false, true)) {
+            close(reason.getCloseCode(), reason.getReasonPhrase());
+        }
+    }
+
+    private void sent(SendResult result) {
+        sending.set(false);
+        if (!result.isOK()) {
+            close(CloseReason.CloseCodes.GOING_AWAY, "Send failed");
+            return;
+        }
+        drain();
+    }
+}
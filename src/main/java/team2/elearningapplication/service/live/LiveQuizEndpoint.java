@@ -0,0 +1,65 @@
+package team2.elearningapplication.service.live;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.websocket.*;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Socket of one participant, at {@value #PATH}{@code ?username=}. The server pushes question,
+ * leaderboard and end frames; the client answers with {@code {"questionId":1,"answerIds":[2]}}.
+ * One instance per connection.
+ */
+@Slf4j
+public class LiveQuizEndpoint extends Endpoint {
+    public static final String PATH = "/ws/live-quiz/{roomCode}";
+
+    private final LiveQuizRegistry liveQuizRegistry;
+    private LiveConnection connection;
+
+    public LiveQuizEndpoint(LiveQuizRegistry liveQuizRegistry) {
+        this.liveQuizRegistry = liveQuizRegistry;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        List<String> usernames = session.getRequestParameterMap().get("username");
+        String username = usernames == null || usernames.isEmpty() ? null : usernames.get(0);
+        if (username == null || username.isBlank()) {
+            reject(session, "Username is required");
+            return;
+        }
+        connection = liveQuizRegistry.join(session.getPathParameters().get("roomCode"), username, session).orElse(null);
+        if (connection == null) {
+            reject(session, "Live quiz not found");
+            return;
+        }
+        session.addMessageHandler(new MessageHandler.Whole<String>() {
+            @Override
+            public void onMessage(String text) {
+                liveQuizRegistry.onMessage(connection, text);
+            }
+        });
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        if (connection != null) {
+            liveQuizRegistry.leave(connection);
+        }
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.debug("Live quiz socket error: {}", error.getMessage());
+    }
+
+    private static void reject(Session session, String reason) {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, reason));
+        } catch (IOException e) {
+            log.debug("Close of rejected live quiz socket failed: {}", e.getMessage());
+        }
+    }
+}
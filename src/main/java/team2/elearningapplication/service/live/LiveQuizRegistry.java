@@ -0,0 +1,246 @@
+package team2.elearningapplication.service.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.dto.request.user.live.LiveAnswerMessage;
+import team2.elearningapplication.dto.response.user.live.LiveQuizStatsResponse;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+import team2.elearningapplication.service.quiz.QuizAnswerKey;
+import team2.elearningapplication.service.quiz.QuizAnswerKeyCache;
+import team2.elearningapplication.service.quiz.QuizContentCache;
+
+import javax.annotation.PreDestroy;
+import javax.websocket.CloseReason;
+import javax.websocket.Session;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Live quiz rooms of this node and their sockets. Every frame is serialized once and the same
+ * string goes to all connections of the room: the question when the host opens it, and the
+ * leaderboard with the option counts every {@code live-quiz.leaderboard-interval-ms} while
+ * answers keep coming, never once per answer. Rooms idle for {@code live-quiz.idle-timeout-ms}
+ * are closed.
+ * <p>
+ * Rooms live in memory only, a participant must connect to the node that opened the room.
+ */
+@Component
+@Slf4j
+public class LiveQuizRegistry {
+    static final String TYPE_QUESTION = "question";
+    static final String TYPE_LEADERBOARD = "leaderboard";
+    static final String TYPE_END = "end";
+
+    private final QuizContentCache quizContentCache;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final ObjectMapper objectMapper;
+    private final int leaderboardSize;
+    private final int maxQueuedFrames;
+    private final long answerWindowMillis;
+    private final long idleTimeoutMillis;
+
+    private final Map<String, LiveQuizRoom> rooms = new ConcurrentHashMap<>();
+    private final Map<String, Set<LiveConnection>> connections = new ConcurrentHashMap<>();
+    // room code -> version of the room when its leaderboard was last pushed
+    private final Map<String, Long> pushedVersions = new ConcurrentHashMap<>();
+
+    public LiveQuizRegistry(QuizContentCache quizContentCache, QuizAnswerKeyCache quizAnswerKeyCache, ObjectMapper objectMapper,
+                            @Value("${live-quiz.leaderboard-size:10}") int leaderboardSize,
+                            @Value("${live-quiz.max-queued-frames:32}") int maxQueuedFrames,
+                            @Value("${live-quiz.answer-window-ms:20000}") long answerWindowMillis,
+                            @Value("${live-quiz.idle-timeout-ms:3600000}") long idleTimeoutMillis) {
+        this.quizContentCache = quizContentCache;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.objectMapper = objectMapper;
+        this.leaderboardSize = leaderboardSize;
+        this.maxQueuedFrames = maxQueuedFrames;
+        this.answerWindowMillis = answerWindowMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public LiveQuizRoom open(int quizId, String host) {
+        return open(quizId, host, quizContentCache.get(quizId).getQuestions(), quizAnswerKeyCache.get(quizId));
+    }
+
+    LiveQuizRoom open(int quizId, String host, List<QuestionContent> questions, QuizAnswerKey answerKey) {
+        if (questions.isEmpty()) {
+            throw new IllegalArgumentException("Quiz " + quizId + " has no question");
+        }
+        while (true) {
+            String roomCode = String.valueOf(ThreadLocalRandom.current().nextInt(100_000, 1_000_000));
+            LiveQuizRoom room = new LiveQuizRoom(roomCode, quizId, host, questions, answerKey, answerWindowMillis,
+                    System.currentTimeMillis());
+            if (rooms.putIfAbsent(roomCode, room) == null) {
+                connections.put(roomCode, ConcurrentHashMap.newKeySet());
+                log.info("Opened live quiz room {} on quiz {}", roomCode, quizId);
+                return room;
+            }
+        }
+    }
+
+    public Optional<LiveQuizRoom> find(String roomCode) {
+        return Optional.ofNullable(roomCode == null ? null : rooms.get(roomCode));
+    }
+
+    public int getConnectionCount(String roomCode) {
+        Set<LiveConnection> roomConnections = connections.get(roomCode);
+        return roomConnections == null ? 0 : roomConnections.size();
+    }
+
+    /**
+     * Opens the next question of the room and sends it to every connection.
+     *
+     * @return the question, empty after the last one
+     */
+    public Optional<LiveQuizRoom.Question> next(LiveQuizRoom room) {
+        LiveQuizRoom.Question question = room.advance(System.currentTimeMillis(), opened -> {
+            LiveQuizStatsResponse frame = new LiveQuizStatsResponse();
+            frame.setType(TYPE_QUESTION);
+            frame.setRoomCode(room.getRoomCode());
+            frame.setPosition(opened.getPosition() + 1);
+            frame.setTotalQuestion(room.getTotalQuestion());
+            frame.setQuestion(opened.getContent());
+            return write(frame);
+        });
+        if (question == null) {
+            return Optional.empty();
+        }
+        broadcast(room.getRoomCode(), question.getFrame());
+        return Optional.of(question);
+    }
+
+    /**
+     * Ends the room: the final standings go out, then every socket is closed.
+     */
+    public LiveQuizStatsResponse close(LiveQuizRoom room) {
+        room.close();
+        LiveQuizStatsResponse standings = stats(room, TYPE_END);
+        broadcast(room.getRoomCode(), write(standings));
+        rooms.remove(room.getRoomCode(), room);
+        pushedVersions.remove(room.getRoomCode());
+        Set<LiveConnection> roomConnections = connections.remove(room.getRoomCode());
+        if (roomConnections != null) {
+            roomConnections.forEach(connection -> connection.closeWhenDrained(CloseReason.CloseCodes.NORMAL_CLOSURE, "Live quiz ended"));
+        }
+        log.info("Closed live quiz room {}", room.getRoomCode());
+        return standings;
+    }
+
+    public LiveQuizStatsResponse stats(LiveQuizRoom room, String type) {
+        LiveQuizStatsResponse stats = new LiveQuizStatsResponse();
+        stats.setType(type);
+        stats.setRoomCode(room.getRoomCode());
+        stats.setPosition(room.getPosition());
+        stats.setTotalQuestion(room.getTotalQuestion());
+        stats.setParticipants(getConnectionCount(room.getRoomCode()));
+        LiveQuizRoom.Question question = room.getCurrent();
+        if (question != null) {
+            stats.setAnswered(question.getAnswered());
+            stats.setOptionCounts(question.optionCounts());
+        }
+        stats.setLeaderboard(room.leaderboard(leaderboardSize));
+        return stats;
+    }
+
+    /**
+     * Attaches a socket to its room, sending the open question to a late joiner.
+     *
+     * @return empty when the room does not exist
+     */
+    public Optional<LiveConnection> join(String roomCode, String username, Session session) {
+        LiveQuizRoom room = find(roomCode).orElse(null);
+        Set<LiveConnection> roomConnections = roomCode == null ? null : connections.get(roomCode);
+        if (room == null || room.isClosed() || roomConnections == null) {
+            return Optional.empty();
+        }
+        LiveConnection connection = new LiveConnection(session, username, room, maxQueuedFrames);
+        roomConnections.add(connection);
+        if (room.isClosed()) {
+            // close() may have emptied the set before this add, nobody else would close the socket
+            roomConnections.remove(connection);
+            connection.close(CloseReason.CloseCodes.NORMAL_CLOSURE, "Live quiz ended");
+            return Optional.empty();
+        }
+        room.join(username);
+        LiveQuizRoom.Question question = room.getCurrent();
+        if (question != null) {
+            connection.send(question.getFrame());
+        }
+        return Optional.of(connection);
+    }
+
+    public void leave(LiveConnection connection) {
+        Set<LiveConnection> roomConnections = connections.get(connection.getRoom().getRoomCode());
+        if (roomConnections != null) {
+            roomConnections.remove(connection);
+        }
+    }
+
+    /**
+     * Counts an answer frame. Malformed frames and answers that do not count are ignored, the
+     * participant sees the result on the next leaderboard.
+     */
+    public void onMessage(LiveConnection connection, String text) {
+        LiveAnswerMessage message;
+        try {
+            message = objectMapper.readValue(text, LiveAnswerMessage.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Ignored live quiz frame of {}: {}", connection.getUsername(), e.getMessage());
+            return;
+        }
+        List<Integer> answerIds = message.getAnswerIds();
+        if (answerIds == null || answerIds.contains(null)) {
+            return;
+        }
+        int[] picked = answerIds.stream().mapToInt(Integer::intValue).toArray();
+        connection.getRoom().answer(connection.getUsername(), message.getQuestionId(), picked, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${live-quiz.leaderboard-interval-ms:1000}")
+    public void pushLeaderboards() {
+        long now = System.currentTimeMillis();
+        for (LiveQuizRoom room : rooms.values()) {
+            if (now - room.getLastActivity() > idleTimeoutMillis) {
+                close(room);
+                continue;
+            }
+            long version = room.getVersion();
+            Long pushed = pushedVersions.put(room.getRoomCode(), version);
+            if (pushed == null || pushed != version) {
+                broadcast(room.getRoomCode(), write(stats(room, TYPE_LEADERBOARD)));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        rooms.values().forEach(this::close);
+    }
+
+    private void broadcast(String roomCode, String frame) {
+        Set<LiveConnection> roomConnections = connections.get(roomCode);
+        if (roomConnections == null) {
+            return;
+        }
+        for (LiveConnection connection : roomConnections) {
+            if (!connection.send(frame)) {
+                // too far behind or gone, it would only fall further back
+                roomConnections.remove(connection);
+                connection.close(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too slow to keep up");
+            }
+        }
+    }
+
+    private String write(LiveQuizStatsResponse frame) {
+        try {
+            return objectMapper.writeValueAsString(frame);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize live quiz frame", e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package team2.elearningapplication.service.live;
+
+import lombok.Getter;
+import team2.elearningapplication.dto.response.user.live.LeaderboardEntry;
+import team2.elearningapplication.dto.response.user.live.OptionCount;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+import team2.elearningapplication.service.quiz.QuizAnswerKey;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * One live run of a quiz: the host moves every participant through the questions together.
+ * Answers arrive on socket threads and are counted without locks: per-option counts are an
+ * {@link AtomicLongArray} of the open question, and each participant claims a question once
+ * with a compare-and-set on the last position they answered. Only moving to the next question
+ * is serialized, it is rare and done by the host.
+ */
+public final class LiveQuizRoom {
+    // points of a correct answer: half for being right, the rest shrinks with the time taken
+    static final int BASE_POINTS = 500;
+    static final int SPEED_POINTS = 500;
+
+    @Getter
+    private final String roomCode;
+    @Getter
+    private final int quizId;
+    @Getter
+    private final String host;
+    private final List<QuestionContent> questions;
+    private final QuizAnswerKey answerKey;
+    private final long answerWindowMillis;
+    private final Map<String, Participant> participants = new ConcurrentHashMap<>();
+    // bumped on every counted answer, the leaderboard is only pushed when it moved
+    private final AtomicLong version = new AtomicLong();
+    @Getter
+    private volatile long lastActivity;
+    private volatile Question current;
+    @Getter
+    private volatile boolean closed;
+
+    LiveQuizRoom(String roomCode, int quizId, String host, List<QuestionContent> questions, QuizAnswerKey answerKey,
+                 long answerWindowMillis, long now) {
+        this.roomCode = roomCode;
+        this.quizId = quizId;
+        this.host = host;
+        List<QuestionContent> ordered = new ArrayList<>(questions);
+        ordered.sort(Comparator.comparingInt(QuestionContent::getOrdQuestion));
+        this.questions = List.copyOf(ordered);
+        this.answerKey = answerKey;
+        this.answerWindowMillis = Math.max(answerWindowMillis, 1);
+        this.lastActivity = now;
+    }
+
+    public int getTotalQuestion() {
+        return questions.size();
+    }
+
+    /**
+     * 1-based position of the open question, 0 before the first.
+     */
+    public int getPosition() {
+        Question question = current;
+        return question == null ? 0 : question.position + 1;
+    }
+
+    public Question getCurrent() {
+        return current;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void join(String username) {
+        participants.computeIfAbsent(username, Participant::new);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Opens the next question and returns it, or null after the last one. The frame is built
+     * before the question is visible, so everyone who can answer it has been able to get it.
+     */
+    synchronized Question advance(long now, Function<Question, String> frameOf) {
+        int position = current == null ? 0 : current.position + 1;
+        if (closed || position >= questions.size()) {
+            return null;
+        }
+        QuestionContent content = questions.get(position);
+        Question question = new Question(position, content, answerKey.indexOfQuestion(content.getId()), now);
+        question.frame = frameOf.apply(question);
+        current = question;
+        lastActivity = now;
+        version.incrementAndGet();
+        return question;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Counts an answer to the open question.
+     *
+     * @return points earned, 0 for a wrong answer, -1 when the answer was not counted: the
+     * question is not open, it was already answered by this participant or an option is not
+     * part of it. An option picked twice counts once.
+     */
+    public int answer(String username, int questionId, int[] answerIds, long now) {
+        Question question = current;
+        if (closed || question == null || question.content.getId() != questionId || answerIds.length == 0) {
+            return -1;
+        }
+        // validated and graded before the participant's slot is claimed, a refused answer can be sent again
+        boolean[] picked = new boolean[question.optionIds.length];
+        int[] options = new int[answerIds.length];
+        int distinct = 0;
+        for (int answerId : answerIds) {
+            int option = question.optionOf(answerId);
+            // shown with the question but unknown to the answer key: content and key disagree
+            if (option < 0 || question.keyIndex >= 0 && answerKey.questionOfAnswer(answerId) != question.keyIndex) {
+                return -1;
+            }
+            if (!picked[option]) {
+                picked[option] = true;
+                options[distinct++] = option;
+            }
+        }
+        options = Arrays.copyOf(options, distinct);
+        boolean correct = question.keyIndex >= 0 && answerKey.gradeQuestion(question.keyIndex, question.idsOf(options));
+        Participant participant = participants.computeIfAbsent(username, Participant::new);
+        int answered = participant.lastPosition.get();
+        if (answered >= question.position || !participant.lastPosition.compareAndSet(answered, question.position)) {
+            return -1;
+        }
+        for (int option : options) {
+            question.counts.incrementAndGet(option);
+        }
+        question.answered.incrementAndGet();
+        int points = 0;
+        if (correct) {
+            long elapsed = Math.max(0, now - question.openedAt);
+            points = BASE_POINTS + (int) (SPEED_POINTS * Math.max(0, answerWindowMillis - elapsed) / answerWindowMillis);
+            participant.score.addAndGet(points);
+            participant.correct.incrementAndGet();
+        }
+        lastActivity = now;
+        version.incrementAndGet();
+        return points;
+    }
+
+    public int getParticipantCount() {
+        return participants.size();
+    }
+
+    /**
+     * The {@code limit} best scores, ties by most correct answers then username.
+     */
+    public List<LeaderboardEntry> leaderboard(int limit) {
+        Comparator<Participant> order = Comparator.comparingLong((Participant p) -> p.score.get())
+                .thenComparingInt(p -> p.correct.get())
+                .thenComparing(p -> p.username, Comparator.reverseOrder());
+        // min-heap of the best seen so far, the weakest on top
+        PriorityQueue<Participant> best = new PriorityQueue<>(Math.max(limit, 1), order);
+        for (Participant participant : participants.values()) {
+            best.add(participant);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Participant> ranked = new ArrayList<>(best);
+        ranked.sort(order.reversed());
+        List<LeaderboardEntry> entries = new ArrayList<>(ranked.size());
+        for (Participant participant : ranked) {
+            entries.add(new LeaderboardEntry(entries.size() + 1, participant.username, participant.score.get(), participant.correct.get()));
+        }
+        return entries;
+    }
+
+    public static final class Question {
+        @Getter
+        private final int position;
+        @Getter
+        private final QuestionContent content;
+        private final int keyIndex;
+        private final long openedAt;
+        // answer ids in the order they are shown, counts at the same index
+        private final int[] optionIds;
+        private final AtomicLongArray counts;
+        private final AtomicInteger answered = new AtomicInteger();
+        private String frame;
+
+        private Question(int position, QuestionContent content, int keyIndex, long openedAt) {
+            this.position = position;
+            this.content = content;
+            this.keyIndex = keyIndex;
+            this.openedAt = openedAt;
+            this.optionIds = content.getAnswerList().stream().mapToInt(QuestionContent.AnswerContent::getId).toArray();
+            this.counts = new AtomicLongArray(optionIds.length);
+        }
+
+        // a question has a handful of options, a scan beats a map
+        private int optionOf(int answerId) {
+            for (int i = 0; i < optionIds.length; i++) {
+                if (optionIds[i] == answerId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int[] idsOf(int[] options) {
+            int[] ids = new int[options.length];
+            for (int i = 0; i < options.length; i++) {
+                ids[i] = optionIds[options[i]];
+            }
+            return ids;
+        }
+
+        public int getAnswered() {
+            return answered.get();
+        }
+
+        public List<OptionCount> optionCounts() {
+            List<OptionCount> result = new ArrayList<>(optionIds.length);
+            for (int i = 0; i < optionIds.length; i++) {
+                result.add(new OptionCount(optionIds[i], counts.get(i)));
+            }
+            return result;
+        }
+
+        /**
+         * The serialized question frame, the same string is sent to every connection.
+         */
+        public String getFrame() {
+            return frame;
+        }
+    }
+
+    private static final class Participant {
+        private final String username;
+        private final AtomicInteger lastPosition = new AtomicInteger(-1);
+        private final AtomicLong score = new AtomicLong();
+        private final AtomicInteger correct = new AtomicInteger();
+
+        private Participant(String username) {
+            this.username = username;
+        }
+    }
+}
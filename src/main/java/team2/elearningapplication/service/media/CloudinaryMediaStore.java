@@ -0,0 +1,70 @@
+package team2.elearningapplication.service.media;
+
+import com.cloudinary.Cloudinary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends media to Cloudinary with its chunked upload: the stream is read {@code chunkBytes} at a
+ * time and each chunk is posted as a part of the same asset, so memory per upload stays around
+ * two chunks whatever the size of the file. The size is not known up front, the last chunk is the
+ * one after which the stream ends.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store", havingValue = "cloudinary", matchIfMissing = true)
+@Slf4j
+public class CloudinaryMediaStore implements MediaStore {
+    // Cloudinary refuses chunks under 5 MB, except the last one
+    private static final int MIN_CHUNK_BYTES = 5 * 1024 * 1024;
+
+    private final Cloudinary cloudinary;
+    private final int chunkBytes;
+    private final String folder;
+
+    public CloudinaryMediaStore(@Value("${cloudinary.url:}") String cloudinaryUrl,
+                                @Value("${media.upload.chunk-bytes:20971520}") int chunkBytes,
+                                @Value("${cloudinary.folder:elearning}") String folder) {
+        // without a url the client reads CLOUDINARY_URL from the environment
+        this.cloudinary = cloudinaryUrl.isBlank() ? new Cloudinary() : new Cloudinary(cloudinaryUrl);
+        this.chunkBytes = Math.max(chunkBytes, MIN_CHUNK_BYTES);
+        this.folder = folder;
+    }
+
+    @Override
+    public StoredMedia store(InputStream content, String fileName, EnumMediaTarget target) throws IOException {
+        Map<String, Object> options = new HashMap<>();
+        options.put("resource_type", target == EnumMediaTarget.COURSE_THUMBNAIL ? "image" : "auto");
+        options.put("folder", folder + "/" + target.name().toLowerCase());
+        if (fileName != null && !fileName.isBlank()) {
+            options.put("filename", fileName);
+        }
+        Map<?, ?> result = cloudinary.uploader().uploadLarge(content, options, chunkBytes);
+        Object url = result.get("secure_url");
+        if (url == null) {
+            throw new IOException("Cloudinary returned no url: " + result.get("error"));
+        }
+        log.debug("Stored {} as {}", fileName, result.get("public_id"));
+        // destroy needs the resource type, "auto" only resolves to one here
+        return new StoredMedia(url.toString(), result.get("resource_type") + ":" + result.get("public_id"));
+    }
+
+    @Override
+    public void delete(StoredMedia media) throws IOException {
+        int separator = media.id().indexOf(':');
+        Map<String, Object> options = new HashMap<>();
+        options.put("resource_type", media.id().substring(0, separator));
+        options.put("invalidate", true);
+        Map<?, ?> result = cloudinary.uploader().destroy(media.id().substring(separator + 1), options);
+        if (!"ok".equals(result.get("result")) && !"not found".equals(result.get("result"))) {
+            throw new IOException("Cloudinary did not delete " + media.id() + ": " + result.get("result"));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package team2.elearningapplication.service.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+/**
+ * Stand-in for {@link CloudinaryMediaStore} that copies media under a local directory and serves
+ * it as {@code file:} URLs, for tests and for running without a Cloudinary account.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store", havingValue = "local")
+public class LocalMediaStore implements MediaStore {
+    private final Path directory;
+
+    public LocalMediaStore(@Value("${media.local.directory:media}") String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath();
+    }
+
+    @Override
+    public StoredMedia store(InputStream content, String fileName, EnumMediaTarget target) throws IOException {
+        Path folder = Files.createDirectories(directory.resolve(target.name().toLowerCase()));
+        Path file = folder.resolve(UUID.randomUUID() + "-" + safeName(fileName));
+        try {
+            Files.copy(content, file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new StoredMedia(file.toUri().toString(), file.toString());
+    }
+
+    @Override
+    public void delete(StoredMedia media) throws IOException {
+        Files.deleteIfExists(Paths.get(media.id()));
+    }
+
+    private static String safeName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "media";
+        }
+        // browsers may send a full client path, keep the last segment only
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,29 @@
+package team2.elearningapplication.service.media;
+
+import team2.elearningapplication.Enum.EnumMediaTarget;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where uploaded media ends up. The content is read once, front to back, as it arrives from the
+ * client; a store holds a chunk of it at a time, never the whole file.
+ */
+public interface MediaStore {
+    /**
+     * Stores the content and returns where it is served from.
+     */
+    StoredMedia store(InputStream content, String fileName, EnumMediaTarget target) throws IOException;
+
+    /**
+     * Removes media stored by {@link #store}, for an upload that could not be attached.
+     */
+    void delete(StoredMedia media) throws IOException;
+
+    /**
+     * @param url what the media is served from
+     * @param id  what the store finds it by again, opaque to callers
+     */
+    record StoredMedia(String url, String id) {
+    }
+}
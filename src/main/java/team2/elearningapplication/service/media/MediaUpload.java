@@ -0,0 +1,67 @@
+package team2.elearningapplication.service.media;
+
+import lombok.Getter;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+import team2.elearningapplication.Enum.EnumUploadStatus;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One upload and how far it got. The thread streaming the body is the only writer, polls read the
+ * volatile fields while it runs.
+ */
+@Getter
+public class MediaUpload {
+    private final String id;
+    private final String username;
+    private final EnumMediaTarget target;
+    private final int targetId;
+    private final AtomicReference<EnumUploadStatus> status = new AtomicReference<>(EnumUploadStatus.PENDING);
+    private volatile long bytesReceived;
+    // length of the whole request body, -1 when the client streams it without one
+    private volatile long totalBytes = -1;
+    private volatile String url;
+    private volatile String error;
+    private volatile long updatedAtMillis = System.currentTimeMillis();
+
+    public MediaUpload(String id, String username, EnumMediaTarget target, int targetId) {
+        this.id = id;
+        this.username = username;
+        this.target = target;
+        this.targetId = targetId;
+    }
+
+    public EnumUploadStatus getStatus() {
+        return status.get();
+    }
+
+    // only one request may stream the body of an upload
+    boolean start(long totalBytes) {
+        if (!status.compareAndSet(EnumUploadStatus.PENDING, EnumUploadStatus.UPLOADING)) {
+            return false;
+        }
+        this.totalBytes = totalBytes;
+        updatedAtMillis = System.currentTimeMillis();
+        return true;
+    }
+
+    void received(long bytes) {
+        bytesReceived += bytes;
+        updatedAtMillis = System.currentTimeMillis();
+    }
+
+    void complete(String url) {
+        this.url = url;
+        finish(EnumUploadStatus.COMPLETED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(EnumUploadStatus.FAILED);
+    }
+
+    private void finish(EnumUploadStatus finalStatus) {
+        updatedAtMillis = System.currentTimeMillis();
+        status.set(finalStatus);
+    }
+}
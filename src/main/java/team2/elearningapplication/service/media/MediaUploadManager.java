@@ -0,0 +1,193 @@
+package team2.elearningapplication.service.media;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+import team2.elearningapplication.Enum.EnumUploadStatus;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs media uploads straight from the request body into the {@link MediaStore}. The multipart
+ * body is parsed as a stream, the file part is handed to the store while it is still arriving,
+ * so neither the servlet container nor this node buffers the file. The request thread does the
+ * streaming; a fixed number of slots bounds how many uploads a node runs at once, an upload
+ * that finds none free within the wait is refused and can be sent again. Its body is read and
+ * dropped first, so the client sees the refusal on a connection it can reuse; creating an upload
+ * is refused already when no slot is free, so this stays the exception.
+ * <p>
+ * Uploads are created first so their id is known before the body is sent, and can be polled for
+ * progress from another request while it streams. Finished uploads are dropped after a while.
+ */
+@Component
+@Slf4j
+public class MediaUploadManager {
+    private final MediaStore mediaStore;
+    private final Semaphore slots;
+    private final long waitMs;
+    private final long maxBytes;
+    private final long expireMs;
+
+    private final Map<String, MediaUpload> uploads = new ConcurrentHashMap<>();
+
+    public MediaUploadManager(MediaStore mediaStore,
+                              @Value("${media.upload.max-parallel:4}") int maxParallel,
+                              @Value("${media.upload.wait-ms:2000}") long waitMs,
+                              @Value("${media.upload.max-bytes:4294967296}") long maxBytes,
+                              @Value("${media.upload.expire-ms:3600000}") long expireMs) {
+        this.mediaStore = mediaStore;
+        this.slots = new Semaphore(maxParallel, true);
+        this.waitMs = waitMs;
+        this.maxBytes = maxBytes;
+        this.expireMs = expireMs;
+    }
+
+    public MediaUpload create(String username, EnumMediaTarget target, int targetId) {
+        MediaUpload upload = new MediaUpload(UUID.randomUUID().toString(), username, target, targetId);
+        uploads.put(upload.getId(), upload);
+        return upload;
+    }
+
+    public Optional<MediaUpload> find(String uploadId) {
+        return Optional.ofNullable(uploads.get(uploadId));
+    }
+
+    // a hint for refusing early, the slot is only taken once the body arrives
+    public boolean hasFreeSlot() {
+        return slots.availablePermits() > 0;
+    }
+
+    /**
+     * Streams the first file part of a multipart request into the store, on the calling thread.
+     * {@code onStored} gets the URL before the upload counts as completed; when it throws, the
+     * stored media is deleted again and the upload fails. A failure of the body or the store is
+     * recorded on the upload, not thrown.
+     *
+     * @return false when no slot was free, the upload is still pending then
+     * @throws IllegalStateException when the upload was already sent
+     */
+    public boolean upload(MediaUpload upload, HttpServletRequest request, Consumer<String> onStored) throws InterruptedException {
+        if (!slots.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+            discardBody(request);
+            return false;
+        }
+        try {
+            if (!upload.start(request.getContentLengthLong())) {
+                throw new IllegalStateException("Upload " + upload.getId() + " was already sent");
+            }
+            try {
+                MediaStore.StoredMedia stored = store(upload, request);
+                try {
+                    onStored.accept(stored.url());
+                } catch (RuntimeException e) {
+                    deleteQuietly(stored);
+                    throw e;
+                }
+                upload.complete(stored.url());
+                log.debug("Upload {} stored {} byte(s) at {}", upload.getId(), upload.getBytesReceived(), stored.url());
+            } catch (Exception e) {
+                upload.fail(messageOf(e));
+                log.error("Upload {} failed: {}", upload.getId(), upload.getError());
+            }
+            return true;
+        } finally {
+            slots.release();
+        }
+    }
+
+    private MediaStore.StoredMedia store(MediaUpload upload, HttpServletRequest request) throws IOException {
+        ServletFileUpload fileUpload = new ServletFileUpload();
+        fileUpload.setFileSizeMax(maxBytes);
+        FileItemIterator items = fileUpload.getItemIterator(request);
+        while (items.hasNext()) {
+            FileItemStream item = items.next();
+            if (item.isFormField()) {
+                continue;
+            }
+            try (InputStream content = new CountingInputStream(item.openStream(), upload)) {
+                return mediaStore.store(content, item.getName(), upload.getTarget());
+            }
+        }
+        throw new IOException("No file in the request");
+    }
+
+    // nothing points at it, it would only take space in the store
+    private void deleteQuietly(MediaStore.StoredMedia stored) {
+        try {
+            mediaStore.delete(stored);
+        } catch (Exception e) {
+            log.error("Delete of unattached media {} failed: {}", stored.url(), e.getMessage());
+        }
+    }
+
+    private static void discardBody(HttpServletRequest request) {
+        try {
+            request.getInputStream().transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            log.debug("Discard of a refused upload body failed: {}", e.getMessage());
+        }
+    }
+
+    // the parser wraps limit errors in an IOException without a message of its own
+    private static String messageOf(Throwable e) {
+        Throwable cause = e;
+        while (cause.getMessage() == null && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    @Scheduled(fixedDelayString = "${media.upload.sweep-interval-ms:60000}")
+    public void expire() {
+        long expireBefore = System.currentTimeMillis() - expireMs;
+        uploads.values().removeIf(upload -> upload.getStatus() != EnumUploadStatus.UPLOADING
+                && upload.getUpdatedAtMillis() < expireBefore);
+    }
+
+    public int size() {
+        return uploads.size();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final MediaUpload upload;
+
+        CountingInputStream(InputStream in, MediaUpload upload) {
+            super(in);
+            this.upload = upload;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                upload.received(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                upload.received(read);
+            }
+            return read;
+        }
+    }
+}
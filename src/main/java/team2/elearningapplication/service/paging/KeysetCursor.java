@@ -0,0 +1,31 @@
+package team2.elearningapplication.service.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: the sort it was taken with, the sort value and
+ * the id tiebreaker. Sent to clients as an opaque URL-safe Base64 string.
+ */
+record KeysetCursor(String sortBy, String sortDir, int lastId, String lastValue) {
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "n";
+    private static final String VALUE_PREFIX = "v";
+
+    String encode() {
+        String value = lastValue == null ? NULL_VALUE : VALUE_PREFIX + lastValue;
+        String raw = String.join(SEPARATOR, sortBy, sortDir, String.valueOf(lastId), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        // the value goes last so it may contain the separator
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        String value = parts[3].startsWith(VALUE_PREFIX) ? parts[3].substring(VALUE_PREFIX.length()) : null;
+        return new KeysetCursor(parts[0], parts[1], Integer.parseInt(parts[2]), value);
+    }
+}
@@ -0,0 +1,20 @@
+package team2.elearningapplication.service.paging;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private final List<T> content;
+    // null on the last page
+    private final String nextCursor;
+    // null unless the total was requested
+    private final Long totalElements;
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
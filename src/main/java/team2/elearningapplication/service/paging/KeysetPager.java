@@ -0,0 +1,171 @@
+package team2.elearningapplication.service.paging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.dto.common.PageRequestDTO;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyset (seek) pagination for the page endpoints. Instead of an offset, each page starts right
+ * after the (sort value, id) of the previous page's last row, so deep pages cost the same as the
+ * first one and no {@code COUNT(*)} runs per page. Sorting is limited to whitelisted attributes
+ * and always ends with {@code id} as a tiebreaker. The total count is optional and cached per
+ * entity for {@code paging.count-cache.ttl-ms}.
+ * <p>
+ * Null sort values follow MySQL ordering: first when ascending, last when descending.
+ */
+@Component
+public class KeysetPager {
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final long countTtlMillis;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public KeysetPager(@Value("${paging.count-cache.ttl-ms:30000}") long countTtlMillis) {
+        this.countTtlMillis = countTtlMillis;
+    }
+
+    public static void checkSortKey(String sortBy, Set<String> sortKeys) {
+        if (!sortKeys.contains(sortBy)) {
+            throw new IllegalArgumentException("Sort by " + sortBy + " is not supported, use one of " + sortKeys);
+        }
+    }
+
+    /**
+     * Reads one keyset page of {@code entityType} rows whose {@code deletedAttribute} is false.
+     */
+    public <T> KeysetPage<T> page(Class<T> entityType, String deletedAttribute, Set<String> sortKeys, PageRequestDTO request) {
+        String sortBy = request.getSortBy();
+        checkSortKey(sortBy, sortKeys);
+        boolean ascending = !"desc".equalsIgnoreCase(request.getSortDir());
+        String sortDir = ascending ? "asc" : "desc";
+        int pageSize = Math.max(request.getPageSize(), 1);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isFalse(root.get(deletedAttribute)));
+
+        Field sortField = field(entityType, sortBy);
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+            if (!cursor.sortBy().equals(sortBy) || !cursor.sortDir().equals(sortDir)) {
+                throw new IllegalArgumentException("Page cursor was issued for another sort");
+            }
+            predicates.add(after(cb, root, sortBy, ascending, parse(sortField.getType(), cursor.lastValue()), cursor.lastId()));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+        if (ID.equals(sortBy)) {
+            query.orderBy(ascending ? cb.asc(root.get(ID)) : cb.desc(root.get(ID)));
+        } else {
+            query.orderBy(ascending ? cb.asc(root.get(sortBy)) : cb.desc(root.get(sortBy)),
+                    ascending ? cb.asc(root.get(ID)) : cb.desc(root.get(ID)));
+        }
+
+        // one extra row tells whether there is a next page
+        List<T> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            T last = rows.get(pageSize - 1);
+            Object lastValue = read(sortField, last);
+            int lastId = (Integer) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last);
+            nextCursor = new KeysetCursor(sortBy, sortDir, lastId, lastValue == null ? null : lastValue.toString()).encode();
+        }
+        Long total = request.isWithTotal() ? count(entityType, deletedAttribute) : null;
+        return new KeysetPage<>(rows, nextCursor, total);
+    }
+
+    public <T> long count(Class<T> entityType, String deletedAttribute) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(entityType.getName());
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(cb.count(root)).where(cb.isFalse(root.get(deletedAttribute)));
+        long count = entityManager.createQuery(query).getSingleResult();
+        counts.put(entityType.getName(), new CachedCount(count, now + countTtlMillis));
+        return count;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Predicate after(CriteriaBuilder cb, Root<T> root, String sortBy, boolean ascending,
+                                       Comparable value, int lastId) {
+        Path<Integer> id = root.get(ID);
+        Predicate idAfter = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        if (ID.equals(sortBy)) {
+            return idAfter;
+        }
+        Path<Comparable> sort = root.get(sortBy);
+        if (value == null) {
+            // nulls come first ascending: all non-null rows are after; descending: only nulls remain
+            return ascending
+                    ? cb.or(cb.isNotNull(sort), cb.and(cb.isNull(sort), idAfter))
+                    : cb.and(cb.isNull(sort), idAfter);
+        }
+        Predicate valueAfter = ascending ? cb.greaterThan(sort, value) : cb.lessThan(sort, value);
+        Predicate tie = cb.and(cb.equal(sort, value), idAfter);
+        return ascending ? cb.or(valueAfter, tie) : cb.or(valueAfter, tie, cb.isNull(sort));
+    }
+
+    private Field field(Class<?> entityType, String attribute) {
+        Member member = entityManager.getMetamodel().entity(entityType).getAttribute(attribute).getJavaMember();
+        if (!(member instanceof Field field)) {
+            throw new IllegalArgumentException("Sort by " + attribute + " is not supported");
+        }
+        field.setAccessible(true);
+        return field;
+    }
+
+    private static Object read(Field field, Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    static Comparable parse(Class<?> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        if (type == String.class) {
+            return value;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == long.class || type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == double.class || type == Double.class) {
+            return Double.valueOf(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        throw new IllegalArgumentException("Cannot page by a " + type.getSimpleName() + " attribute");
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
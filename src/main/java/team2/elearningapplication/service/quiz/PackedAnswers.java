@@ -0,0 +1,78 @@
+package team2.elearningapplication.service.quiz;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of the answers of one attempt, stored in {@code quiz_attempt.answers} instead of
+ * one {@code history_quiz} row per answer. A format byte is followed by one unsigned varint per
+ * answer holding {@code answerId << 1 | correct}, in submission order, so a typical answer takes
+ * two or three bytes.
+ */
+public final class PackedAnswers {
+    static final byte FORMAT = 1;
+
+    private PackedAnswers() {
+    }
+
+    public static byte[] pack(List<Integer> answerIds, QuizAnswerKey.GradeResult gradeResult) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 + answerIds.size() * 3);
+        out.write(FORMAT);
+        for (int i = 0; i < answerIds.size(); i++) {
+            Integer answerId = answerIds.get(i);
+            // answers that are not ids at all cannot be looked up later, keep the rest
+            if (answerId == null || answerId < 0) {
+                continue;
+            }
+            writeVarint(out, (long) answerId << 1 | (gradeResult.isAnswerCorrect(i) ? 1 : 0));
+        }
+        return out.toByteArray();
+    }
+
+    public static byte[] pack(List<AttemptAnswer> answers) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 + answers.size() * 3);
+        out.write(FORMAT);
+        for (AttemptAnswer answer : answers) {
+            writeVarint(out, (long) answer.answerId() << 1 | (answer.correct() ? 1 : 0));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not in a known format
+     */
+    public static List<AttemptAnswer> unpack(byte[] packed) {
+        if (packed == null || packed.length == 0 || packed[0] != FORMAT) {
+            throw new IllegalArgumentException("Unknown packed answer format");
+        }
+        List<AttemptAnswer> answers = new ArrayList<>(packed.length / 2);
+        int position = 1;
+        while (position < packed.length) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position == packed.length || shift > 35) {
+                    throw new IllegalArgumentException("Truncated packed answers");
+                }
+                b = packed[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            answers.add(new AttemptAnswer((int) (value >>> 1), (value & 1) == 1));
+        }
+        return answers;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public record AttemptAnswer(int answerId, boolean correct) {
+    }
+}
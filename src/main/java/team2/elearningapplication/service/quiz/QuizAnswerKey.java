@@ -0,0 +1,231 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.Getter;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+
+import java.util.*;
+
+/**
+ * Immutable answer key of one quiz. Answer ids are kept in a sorted primitive array so a
+ * submitted answer resolves to its question and option bit without boxing, and each
+ * question holds its correct options as a bitset.
+ */
+public final class QuizAnswerKey {
+    @Getter
+    private final int quizId;
+    private final int[] questionIds;
+    private final boolean[] multipleChoice;
+    private final BitSet[] correctOptions;
+    private final int[] answerIds;
+    private final int[] answerQuestion;
+    private final int[] answerBit;
+
+    private QuizAnswerKey(int quizId, int[] questionIds, boolean[] multipleChoice, BitSet[] correctOptions,
+                          int[] answerIds, int[] answerQuestion, int[] answerBit) {
+        this.quizId = quizId;
+        this.questionIds = questionIds;
+        this.multipleChoice = multipleChoice;
+        this.correctOptions = correctOptions;
+        this.answerIds = answerIds;
+        this.answerQuestion = answerQuestion;
+        this.answerBit = answerBit;
+    }
+
+    /**
+     * Builds the key from the rows of the quiz. Deleted questions and answers are left out, as
+     * they are from the content shown to the user.
+     */
+    public static QuizAnswerKey build(int quizId, List<Question> questions, List<Answer> answers) {
+        List<Question> sortedQuestions = new ArrayList<>();
+        for (Question question : questions) {
+            if (!question.isDeleted()) {
+                sortedQuestions.add(question);
+            }
+        }
+        sortedQuestions.sort(Comparator.comparingInt(Question::getId));
+        int[] questionIds = new int[sortedQuestions.size()];
+        boolean[] multipleChoice = new boolean[sortedQuestions.size()];
+        BitSet[] correctOptions = new BitSet[sortedQuestions.size()];
+        for (int i = 0; i < sortedQuestions.size(); i++) {
+            questionIds[i] = sortedQuestions.get(i).getId();
+            multipleChoice[i] = sortedQuestions.get(i).getQuestionType() == EnumQuestionType.MUILTPLE_CHOICE;
+            correctOptions[i] = new BitSet();
+        }
+
+        List<Answer> sortedAnswers = new ArrayList<>();
+        for (Answer answer : answers) {
+            if (!answer.isDeleted() && Arrays.binarySearch(questionIds, answer.getQuestionId()) >= 0) {
+                sortedAnswers.add(answer);
+            }
+        }
+        sortedAnswers.sort(Comparator.comparingInt(Answer::getId));
+        int[] answerIds = new int[sortedAnswers.size()];
+        int[] answerQuestion = new int[sortedAnswers.size()];
+        int[] answerBit = new int[sortedAnswers.size()];
+        int[] optionCount = new int[questionIds.length];
+        for (int i = 0; i < sortedAnswers.size(); i++) {
+            Answer answer = sortedAnswers.get(i);
+            int question = Arrays.binarySearch(questionIds, answer.getQuestionId());
+            answerIds[i] = answer.getId();
+            answerQuestion[i] = question;
+            answerBit[i] = optionCount[question]++;
+            if (answer.isCorrect()) {
+                correctOptions[question].set(answerBit[i]);
+            }
+        }
+        return new QuizAnswerKey(quizId, questionIds, multipleChoice, correctOptions, answerIds, answerQuestion, answerBit);
+    }
+
+    public int getTotalQuestion() {
+        return questionIds.length;
+    }
+
+    public boolean containsQuestion(int questionId) {
+        return Arrays.binarySearch(questionIds, questionId) >= 0;
+    }
+
+    public int[] getQuestionIds() {
+        return questionIds.clone();
+    }
+
+    /**
+     * Position of the question in this key, or -1 if it is not part of the quiz.
+     */
+    public int indexOfQuestion(int questionId) {
+        int index = Arrays.binarySearch(questionIds, questionId);
+        return index < 0 ? -1 : index;
+    }
+
+    public int getQuestionId(int question) {
+        return questionIds[question];
+    }
+
+    /**
+     * Position of the question the answer belongs to, or -1 if the answer is not part of the quiz.
+     */
+    public int questionOfAnswer(int answerId) {
+        int index = Arrays.binarySearch(answerIds, answerId);
+        return index < 0 ? -1 : answerQuestion[index];
+    }
+
+    public boolean isCorrectOption(int answerId) {
+        int index = Arrays.binarySearch(answerIds, answerId);
+        return index >= 0 && correctOptions[answerQuestion[index]].get(answerBit[index]);
+    }
+
+    /**
+     * Grades the options picked for one question, with the same rules as {@link #grade}. Every
+     * answer id must belong to that question.
+     */
+    public boolean gradeQuestion(int question, int[] pickedAnswerIds) {
+        BitSet picked = new BitSet();
+        for (int answerId : pickedAnswerIds) {
+            int index = Arrays.binarySearch(answerIds, answerId);
+            if (index < 0 || answerQuestion[index] != question) {
+                throw new IllegalArgumentException("Answer " + answerId + " is not an option of question " + questionIds[question]);
+            }
+            picked.set(answerBit[index]);
+        }
+        return isQuestionCorrect(question, picked.isEmpty() ? null : picked);
+    }
+
+    /**
+     * Grades a whole submission in memory. Each submitted answer is marked correct when it is a
+     * correct option of its question. A one-choice question counts as correct when exactly one
+     * correct option is picked. A multiple-choice question counts as correct when the picked
+     * options equal the correct options bit for bit.
+     */
+    public GradeResult grade(List<Integer> submittedAnswerIds) {
+        BitSet[] selected = new BitSet[questionIds.length];
+        boolean[] answerCorrect = new boolean[submittedAnswerIds.size()];
+        for (int i = 0; i < submittedAnswerIds.size(); i++) {
+            Integer answerId = submittedAnswerIds.get(i);
+            int index = answerId == null ? -1 : Arrays.binarySearch(answerIds, answerId);
+            // answers outside this quiz are simply wrong
+            if (index < 0) {
+                continue;
+            }
+            int question = answerQuestion[index];
+            if (selected[question] == null) {
+                selected[question] = new BitSet();
+            }
+            selected[question].set(answerBit[index]);
+            answerCorrect[i] = correctOptions[question].get(answerBit[index]);
+        }
+
+        BitSet correctQuestions = new BitSet(questionIds.length);
+        for (int question = 0; question < questionIds.length; question++) {
+            if (isQuestionCorrect(question, selected[question])) {
+                correctQuestions.set(question);
+            }
+        }
+        return resultOf(correctQuestions, answerCorrect);
+    }
+
+    // questions are positions in this key
+    GradeResult resultOf(BitSet correctQuestions, boolean[] answerCorrect) {
+        return new GradeResult(correctQuestions.cardinality(), questionIds.length, answerCorrect, questionIds, correctQuestions);
+    }
+
+    private boolean isQuestionCorrect(int question, BitSet picked) {
+        if (picked == null || correctOptions[question].isEmpty()) {
+            return false;
+        }
+        if (multipleChoice[question]) {
+            return picked.equals(correctOptions[question]);
+        }
+        return picked.cardinality() == 1 && correctOptions[question].get(picked.nextSetBit(0));
+    }
+
+    public static final class GradeResult {
+        @Getter
+        private final int totalCorrect;
+        @Getter
+        private final int totalQuestion;
+        private final boolean[] answerCorrect;
+        // shared with the key, never written
+        private final int[] questionIds;
+        private final BitSet correctQuestions;
+
+        GradeResult(int totalCorrect, int totalQuestion, boolean[] answerCorrect) {
+            this(totalCorrect, totalQuestion, answerCorrect, new int[0], new BitSet());
+        }
+
+        GradeResult(int totalCorrect, int totalQuestion, boolean[] answerCorrect, int[] questionIds, BitSet correctQuestions) {
+            this.totalCorrect = totalCorrect;
+            this.totalQuestion = totalQuestion;
+            this.answerCorrect = answerCorrect;
+            this.questionIds = questionIds;
+            this.correctQuestions = correctQuestions;
+        }
+
+        /**
+         * Number of graded questions, 0 for a result built without per-question detail.
+         */
+        public int getGradedQuestionCount() {
+            return questionIds.length;
+        }
+
+        public int getQuestionId(int question) {
+            return questionIds[question];
+        }
+
+        public boolean isQuestionCorrect(int question) {
+            return correctQuestions.get(question);
+        }
+
+        public int getTotalIncorrect() {
+            return totalQuestion - totalCorrect;
+        }
+
+        public boolean isAnswerCorrect(int index) {
+            return answerCorrect[index];
+        }
+
+        public double getMark() {
+            return totalQuestion == 0 ? 0 : (double) totalCorrect / totalQuestion;
+        }
+    }
+}
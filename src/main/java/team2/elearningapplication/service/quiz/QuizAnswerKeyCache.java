@@ -0,0 +1,102 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.repository.IAnswerRepository;
+import team2.elearningapplication.repository.IQuestionRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one {@link QuizAnswerKey} per quiz so grading never goes back to the database.
+ * Question and answer writes invalidate only the quiz they belong to.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAnswerKeyCache {
+    private final IQuestionRepository questionRepository;
+    private final IAnswerRepository answerRepository;
+
+    private final Map<Integer, QuizAnswerKey> answerKeys = new ConcurrentHashMap<>();
+    // question id -> quiz id for every question held in a cached key
+    private final Map<Integer, Integer> questionToQuiz = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public QuizAnswerKey get(int quizId) {
+        QuizAnswerKey answerKey = answerKeys.get(quizId);
+        if (answerKey != null) {
+            return answerKey;
+        }
+        long loadGeneration = generation.get();
+        answerKey = load(quizId);
+        // a write that raced with the load bumps the generation, the stale key is then not kept;
+        // writes bump it under the same lock, so none lands between the check and the put
+        synchronized (answerKeys) {
+            if (generation.get() == loadGeneration) {
+                answerKeys.putIfAbsent(quizId, answerKey);
+                for (int questionId : answerKey.getQuestionIds()) {
+                    questionToQuiz.put(questionId, quizId);
+                }
+            }
+        }
+        return answerKey;
+    }
+
+    public void invalidateQuiz(int quizId) {
+        evict(quizId);
+        // writes inside a transaction are only visible after commit, evict again then
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(quizId);
+                }
+            });
+        }
+    }
+
+    public void invalidateQuestion(int questionId) {
+        Integer quizId = questionToQuiz.get(questionId);
+        if (quizId != null) {
+            invalidateQuiz(quizId);
+        } else {
+            // not cached yet, still stop a load that is running right now from being kept
+            synchronized (answerKeys) {
+                generation.incrementAndGet();
+            }
+        }
+    }
+
+    private void evict(int quizId) {
+        QuizAnswerKey removed;
+        synchronized (answerKeys) {
+            generation.incrementAndGet();
+            removed = answerKeys.remove(quizId);
+            if (removed != null) {
+                for (int questionId : removed.getQuestionIds()) {
+                    questionToQuiz.remove(questionId, quizId);
+                }
+            }
+        }
+        if (removed != null) {
+            log.debug("Evicted answer key of quiz {}", quizId);
+        }
+    }
+
+    private QuizAnswerKey load(int quizId) {
+        List<Question> questions = questionRepository.getQuestionByQuizID(quizId);
+        List<Answer> answers = questions.isEmpty()
+                ? List.of()
+                : answerRepository.findAnswerByQuestionIdIn(questions.stream().map(Question::getId).toList());
+        return QuizAnswerKey.build(quizId, questions, answers);
+    }
+}
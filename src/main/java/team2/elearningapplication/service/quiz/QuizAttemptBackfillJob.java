@@ -0,0 +1,118 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.entity.HistoryQuiz;
+import team2.elearningapplication.entity.QuizAttempt;
+import team2.elearningapplication.repository.IHistoryQuizRepository;
+import team2.elearningapplication.repository.IQuizAttemptRepository;
+
+import java.util.*;
+
+/**
+ * One-time job that builds {@code quiz_attempt} rows for sessions finished before the table
+ * existed. It only inserts sessions that have no attempt yet, so running it again is harmless;
+ * turn it off with {@code quiz.attempt.backfill.enabled=false} once it has run.
+ * <p>
+ * It then packs the {@code history_quiz} rows of every attempt without packed answers into
+ * {@code quiz_attempt.answers}, in batches of {@code quiz.attempt.pack.batch-size}, and regrades
+ * the attempt against the quiz's answer key so its totals count questions exactly like
+ * {@code finishQuiz} does. With {@code quiz.attempt.pack.delete-history} the migrated rows are
+ * deleted afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAttemptBackfillJob {
+    private final IQuizAttemptRepository quizAttemptRepository;
+    private final IHistoryQuizRepository historyQuizRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+
+    @Value("${quiz.attempt.backfill.enabled:true}")
+    private boolean enabled;
+    @Value("${quiz.attempt.pack.batch-size:500}")
+    private int batchSize;
+    @Value("${quiz.attempt.pack.delete-history:false}")
+    private boolean deleteHistory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int inserted = quizAttemptRepository.backfillFromHistoryQuiz();
+            log.info("Quiz attempt backfill inserted {} attempt(s)", inserted);
+        } catch (Exception e) {
+            log.error("Quiz attempt backfill failed: {}", e.getMessage());
+            return;
+        }
+        try {
+            int packed = packHistory();
+            log.info("Packed the history_quiz answers of {} attempt(s)", packed);
+        } catch (Exception e) {
+            log.error("Packing history_quiz answers failed: {}", e.getMessage());
+        }
+    }
+
+    int packHistory() {
+        int packed = 0;
+        int afterId = 0;
+        while (true) {
+            List<QuizAttempt> attempts = quizAttemptRepository.findUnpackedAfter(afterId, PageRequest.of(0, batchSize));
+            if (attempts.isEmpty()) {
+                return packed;
+            }
+            Set<Integer> sessionIds = new HashSet<>();
+            attempts.forEach(attempt -> sessionIds.add(attempt.getSessionId()));
+            // user id + session id -> answers in the order they were saved
+            Map<Long, List<PackedAnswers.AttemptAnswer>> answers = new HashMap<>();
+            for (HistoryQuiz historyQuiz : historyQuizRepository.findBySessionIdIn(sessionIds)) {
+                if (historyQuiz.getUser() != null) {
+                    answers.computeIfAbsent(key(historyQuiz.getUser().getId(), historyQuiz.getSessionId()), k -> new ArrayList<>())
+                            .add(new PackedAnswers.AttemptAnswer(historyQuiz.getAnswerId(), historyQuiz.isCorrect()));
+                }
+            }
+            for (QuizAttempt attempt : attempts) {
+                int userId = attempt.getUser() == null ? 0 : attempt.getUser().getId();
+                List<PackedAnswers.AttemptAnswer> attemptAnswers = answers.getOrDefault(key(userId, attempt.getSessionId()), List.of());
+                // an attempt without history rows gets an empty list, so it is not picked up again
+                attempt.setAnswers(PackedAnswers.pack(attemptAnswers));
+                regrade(attempt, attemptAnswers);
+            }
+            quizAttemptRepository.saveAll(attempts);
+            if (deleteHistory) {
+                for (QuizAttempt attempt : attempts) {
+                    if (attempt.getUser() != null) {
+                        historyQuizRepository.deleteByUserAndSessionId(attempt.getUser(), attempt.getSessionId());
+                    }
+                }
+            }
+            packed += attempts.size();
+            afterId = attempts.get(attempts.size() - 1).getId();
+        }
+    }
+
+    private void regrade(QuizAttempt attempt, List<PackedAnswers.AttemptAnswer> attemptAnswers) {
+        if (attempt.getQuizId() == null) {
+            return;
+        }
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(attempt.getQuizId());
+        // the quiz is gone, keep the counts the insert computed
+        if (answerKey.getQuestionIds().length == 0) {
+            return;
+        }
+        QuizAnswerKey.GradeResult result = answerKey.grade(attemptAnswers.stream().map(PackedAnswers.AttemptAnswer::answerId).toList());
+        attempt.setTotalCorrect(result.getTotalCorrect());
+        attempt.setTotalIncorrect(result.getTotalIncorrect());
+    }
+
+    private static long key(int userId, int sessionId) {
+        return (long) userId << 32 | (sessionId & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,84 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import team2.elearningapplication.entity.HistoryQuiz;
+import team2.elearningapplication.entity.QuizAttempt;
+import team2.elearningapplication.entity.User;
+import team2.elearningapplication.repository.IHistoryQuizRepository;
+import team2.elearningapplication.repository.IQuizAttemptRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads finished attempts from {@code quiz_attempt}. Answers come from the packed column; an
+ * attempt not migrated yet falls back to its {@code history_quiz} rows, so callers do not care
+ * whether {@link QuizAttemptBackfillJob} has reached it.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizAttemptReader {
+    private final IQuizAttemptRepository quizAttemptRepository;
+    private final IHistoryQuizRepository historyQuizRepository;
+
+    public List<PackedAnswers.AttemptAnswer> findAnswers(int sessionId) {
+        for (QuizAttempt attempt : quizAttemptRepository.findBySessionId(sessionId)) {
+            if (attempt.getAnswers() != null) {
+                return PackedAnswers.unpack(attempt.getAnswers());
+            }
+        }
+        List<PackedAnswers.AttemptAnswer> answers = new ArrayList<>();
+        for (HistoryQuiz historyQuiz : historyQuizRepository.findBySessionIdIn(List.of(sessionId))) {
+            answers.add(new PackedAnswers.AttemptAnswer(historyQuiz.getAnswerId(), historyQuiz.isCorrect()));
+        }
+        return answers;
+    }
+
+    /**
+     * One page of the user's attempts, newest first. The cursor is the position after the last
+     * attempt of the previous page, null for the first page. A cursor this reader did not hand
+     * out is rejected with an {@link IllegalArgumentException}.
+     */
+    public AttemptPage findPage(User user, String cursor, int pageSize) {
+        // fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<QuizAttempt> attempts;
+        if (cursor == null || cursor.isBlank()) {
+            attempts = quizAttemptRepository.findFirstPageByUser(user, limit);
+        } else {
+            Position position = Position.decode(cursor);
+            attempts = quizAttemptRepository.findPageByUserAfter(user, position.finishedAt(), position.id(), limit);
+        }
+        if (attempts.size() <= pageSize) {
+            return new AttemptPage(attempts, null);
+        }
+        QuizAttempt last = attempts.get(pageSize - 1);
+        String position = last.getFinishedAt() + "|" + last.getId();
+        return new AttemptPage(attempts.subList(0, pageSize),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record Position(LocalDateTime finishedAt, int id) {
+        static Position decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new Position(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+
+    public record AttemptPage(List<QuizAttempt> attempts, String nextCursor) {
+    }
+}
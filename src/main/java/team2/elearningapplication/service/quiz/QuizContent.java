@@ -0,0 +1,48 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.Getter;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable questions and options of one quiz at one version, with the
+ * {@code get-questions-by-quiz-id} response already serialized to JSON.
+ */
+public final class QuizContent {
+    @Getter
+    private final int quizId;
+    @Getter
+    private final long version;
+    @Getter
+    private final List<QuestionContent> questions;
+    private final Map<Integer, QuestionContent> byOrd;
+    private final byte[] questionListJson;
+
+    QuizContent(int quizId, long version, List<QuestionContent> questions, byte[] questionListJson) {
+        this.quizId = quizId;
+        this.version = version;
+        this.questions = List.copyOf(questions);
+        this.byOrd = new HashMap<>();
+        for (QuestionContent question : questions) {
+            byOrd.putIfAbsent(question.getOrdQuestion(), question);
+        }
+        this.questionListJson = questionListJson;
+    }
+
+    /**
+     * Question at the given position in the quiz, null past the last one.
+     */
+    public QuestionContent getQuestionByOrd(int ordQuestion) {
+        return byOrd.get(ordQuestion);
+    }
+
+    /**
+     * The shared serialized response, written as is to every caller. Do not modify.
+     */
+    public byte[] getQuestionListJson() {
+        return questionListJson;
+    }
+}
@@ -0,0 +1,132 @@
+package team2.elearningapplication.service.quiz;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.response.user.question.GetQuestionByQuizIdResponse;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+import team2.elearningapplication.dto.response.user.question.QuizContentRow;
+import team2.elearningapplication.repository.IQuestionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link QuizContent} per quiz, loaded with a single join over questions and options,
+ * so starting a quiz and moving between its questions read nothing from the database. Each quiz
+ * has a version that question and answer writes bump; a snapshot is only served while its
+ * version is current, so a load racing with a write is never kept.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizContentCache {
+    static final String QUESTION_LIST_MESSAGE = "Get questions by quiz ID success";
+
+    private final IQuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Integer, QuizContent> contents = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    // question id -> quiz id for every question held in a cached snapshot
+    private final Map<Integer, Integer> questionToQuiz = new ConcurrentHashMap<>();
+
+    public QuizContent get(int quizId) {
+        long version = versions.getOrDefault(quizId, 0L);
+        QuizContent content = contents.get(quizId);
+        if (content != null && content.getVersion() == version) {
+            return content;
+        }
+        content = load(quizId, version);
+        QuizContent loaded = content;
+        contents.compute(quizId, (id, current) ->
+                versions.getOrDefault(quizId, 0L) == version && (current == null || current.getVersion() < version) ? loaded : current);
+        for (QuestionContent question : content.getQuestions()) {
+            questionToQuiz.put(question.getId(), quizId);
+        }
+        return content;
+    }
+
+    public void invalidateQuiz(int quizId) {
+        bump(quizId);
+        // writes inside a transaction are only visible after commit, bump again then
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(quizId);
+                }
+            });
+        }
+    }
+
+    public void invalidateQuestion(int questionId) {
+        Integer quizId = questionToQuiz.get(questionId);
+        if (quizId != null) {
+            invalidateQuiz(quizId);
+        } else {
+            // the question is in no cached snapshot, look it up so a running load is not kept either
+            questionRepository.findQuestionById(questionId).ifPresent(question -> invalidateQuiz(question.getQuizID()));
+        }
+    }
+
+    private void bump(int quizId) {
+        versions.merge(quizId, 1L, Long::sum);
+        QuizContent removed = contents.remove(quizId);
+        if (removed != null) {
+            for (QuestionContent question : removed.getQuestions()) {
+                questionToQuiz.remove(question.getId(), quizId);
+            }
+            log.debug("Evicted content of quiz {}", quizId);
+        }
+    }
+
+    private QuizContent load(int quizId, long version) {
+        List<QuestionContent> questions = build(quizId, questionRepository.findContentRowsByQuizId(quizId));
+        GetQuestionByQuizIdResponse response = new GetQuestionByQuizIdResponse();
+        response.setQuestionList(questions);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(
+                    new ResponseCommon<>(ResponseCode.SUCCESS.getCode(), QUESTION_LIST_MESSAGE, response));
+            return new QuizContent(quizId, version, questions, json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize content of quiz " + quizId, e);
+        }
+    }
+
+    // rows come ordered by question, so consecutive rows belong to one question
+    static List<QuestionContent> build(int quizId, List<QuizContentRow> rows) {
+        List<QuestionContent> questions = new ArrayList<>();
+        List<QuestionContent.AnswerContent> answers = null;
+        QuizContentRow first = null;
+        for (QuizContentRow row : rows) {
+            if (first == null || first.getQuestionId() != row.getQuestionId()) {
+                if (first != null) {
+                    questions.add(question(quizId, first, answers));
+                }
+                first = row;
+                answers = new ArrayList<>();
+            }
+            if (row.getAnswerId() != null) {
+                answers.add(new QuestionContent.AnswerContent(row.getAnswerId(), row.getAnswerContent(), row.getQuestionId()));
+            }
+        }
+        if (first != null) {
+            questions.add(question(quizId, first, answers));
+        }
+        return questions;
+    }
+
+    private static QuestionContent question(int quizId, QuizContentRow row, List<QuestionContent.AnswerContent> answers) {
+        return new QuestionContent(row.getQuestionId(), row.getQuestionName(), row.getQuestionType(), row.getOrdQuestion(),
+                quizId, List.copyOf(answers));
+    }
+}
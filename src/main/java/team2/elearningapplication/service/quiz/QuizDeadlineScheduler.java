@@ -0,0 +1,223 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.service.IQuizService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Finishes timed quiz sessions when their time is up. Every deadline sits in one
+ * {@link TimingWheel} driven by a single thread every {@code quiz.deadline.tick-ms}, so
+ * thousands of running attempts cost no scheduled task each. The wheel thread only closes the
+ * due sessions; it hands each tick's expirations as one batch to a grading thread, which writes
+ * them with one {@link IQuizService#finishExpiredSessions} transaction. When the batch fails its
+ * sessions are finished one by one, so a bad one does not hold back the others; a failed finish
+ * is tried again after {@code quiz.deadline.retry-ms}, up to {@code quiz.deadline.max-attempts}.
+ * <p>
+ * Deadlines are not stored here: after a restart they are rebuilt from the sessions
+ * {@link QuizSessionStore} restored from its snapshot.
+ */
+@Component
+@Slf4j
+public class QuizDeadlineScheduler {
+    private final QuizSessionStore quizSessionStore;
+    private final IQuizService quizService;
+    private final long tickMillis;
+    private final long retryMillis;
+    private final int maxAttempts;
+    private final LongSupplier clock;
+
+    private final TimingWheel wheel;
+    // failed finishes so far, only for sessions that failed at least once
+    private final Map<Integer, Integer> attempts = new HashMap<>();
+    private ExecutorService gradingPool;
+    private Thread ticker;
+    private volatile boolean running;
+
+    @Autowired
+    public QuizDeadlineScheduler(QuizSessionStore quizSessionStore, @Lazy IQuizService quizService,
+                                 @Value("${quiz.deadline.tick-ms:100}") long tickMillis,
+                                 @Value("${quiz.deadline.retry-ms:5000}") long retryMillis,
+                                 @Value("${quiz.deadline.max-attempts:5}") int maxAttempts) {
+        this(quizSessionStore, quizService, tickMillis, retryMillis, maxAttempts, System::currentTimeMillis);
+    }
+
+    QuizDeadlineScheduler(QuizSessionStore quizSessionStore, IQuizService quizService, long tickMillis,
+                          long retryMillis, int maxAttempts, LongSupplier clock) {
+        this.quizSessionStore = quizSessionStore;
+        this.quizService = quizService;
+        this.tickMillis = tickMillis;
+        this.retryMillis = retryMillis;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.clock = clock;
+        this.wheel = new TimingWheel(tickMillis, clock.getAsLong());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        gradingPool = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quiz-deadline-grading");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = new Thread(this::run, "quiz-deadline-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        ticker.interrupt();
+        gradingPool.shutdown();
+        if (!gradingPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            gradingPool.shutdownNow();
+        }
+    }
+
+    public void schedule(int sessionId, long deadline) {
+        synchronized (wheel) {
+            wheel.schedule(sessionId, deadline);
+        }
+    }
+
+    public void cancel(int sessionId) {
+        synchronized (wheel) {
+            wheel.cancel(sessionId);
+            attempts.remove(sessionId);
+        }
+    }
+
+    /**
+     * Cancels the deadline once the current transaction commits, so a rolled back finish still
+     * gets finished on time. Without a transaction it is cancelled right away.
+     */
+    public void cancelAfterCommit(int sessionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cancel(sessionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cancel(sessionId);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    // after QuizSessionStore#restore, which loads the sessions
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void restore() {
+        Map<Integer, Long> deadlines = quizSessionStore.deadlines();
+        synchronized (wheel) {
+            deadlines.forEach(wheel::schedule);
+        }
+        if (!deadlines.isEmpty()) {
+            log.info("Rescheduled {} quiz deadline(s)", deadlines.size());
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<Integer> expired = advance();
+            if (!expired.isEmpty()) {
+                gradingPool.execute(() -> grade(expired));
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel to now and closes the sessions that are due, so no answer is taken after
+     * the deadline while the batch waits to be graded.
+     */
+    List<Integer> advance() {
+        List<Integer> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(clock.getAsLong(), expired::add);
+        }
+        for (Integer sessionId : expired) {
+            quizSessionStore.updateAnyOwner(sessionId, session -> {
+                session.close();
+                return session;
+            });
+        }
+        return expired;
+    }
+
+    void grade(List<Integer> sessionIds) {
+        if (finish(sessionIds)) {
+            sessionIds.forEach(this::forget);
+            return;
+        }
+        if (sessionIds.size() == 1) {
+            retry(sessionIds.get(0));
+            return;
+        }
+        // one session that cannot be graded must not hold back the rest of the batch
+        for (Integer sessionId : sessionIds) {
+            if (finish(List.of(sessionId))) {
+                forget(sessionId);
+            } else {
+                retry(sessionId);
+            }
+        }
+    }
+
+    private boolean finish(List<Integer> sessionIds) {
+        try {
+            return quizService.finishExpiredSessions(sessionIds).getCode() == ResponseCode.SUCCESS.getCode();
+        } catch (Exception e) {
+            log.error("Auto submit of {} quiz session(s) failed: {}", sessionIds.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void retry(int sessionId) {
+        synchronized (wheel) {
+            int failed = attempts.merge(sessionId, 1, Integer::sum);
+            if (failed >= maxAttempts) {
+                attempts.remove(sessionId);
+                log.error("Gave up auto submitting quiz session {} after {} attempt(s)", sessionId, failed);
+                return;
+            }
+            wheel.schedule(sessionId, clock.getAsLong() + retryMillis);
+        }
+    }
+
+    private void forget(int sessionId) {
+        synchronized (wheel) {
+            attempts.remove(sessionId);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package team2.elearningapplication.service.quiz;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.dto.response.user.answer.AnswerCorrectDTO;
+import team2.elearningapplication.dto.response.user.answer.AnswerReviewRow;
+import team2.elearningapplication.dto.response.user.quiz.GetCorrectAnswerBySessionId;
+import team2.elearningapplication.dto.response.user.quiz.QuestionReviewDTO;
+import team2.elearningapplication.repository.IAnswerRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Review of finished sessions. The picked answers come from {@link QuizAttemptReader}, then one
+ * join reads every option of the answered questions with the question text, so a review costs
+ * two queries whatever its size. A graded session does not change, so reviews are kept in a
+ * bounded LRU of {@code quiz.review-cache.max-sessions}; finishing a session again evicts it.
+ */
+@Component
+public class QuizReviewCache {
+    private final QuizAttemptReader quizAttemptReader;
+    private final IAnswerRepository answerRepository;
+    private final int maxSessions;
+    private final Map<Integer, GetCorrectAnswerBySessionId> reviews;
+    private final AtomicLong generation = new AtomicLong();
+
+    public QuizReviewCache(QuizAttemptReader quizAttemptReader, IAnswerRepository answerRepository,
+                           @Value("${quiz.review-cache.max-sessions:2000}") int maxSessions) {
+        this.quizAttemptReader = quizAttemptReader;
+        this.answerRepository = answerRepository;
+        this.maxSessions = maxSessions;
+        this.reviews = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, GetCorrectAnswerBySessionId> eldest) {
+                return size() > QuizReviewCache.this.maxSessions;
+            }
+        };
+    }
+
+    public GetCorrectAnswerBySessionId get(int sessionId) {
+        synchronized (reviews) {
+            GetCorrectAnswerBySessionId review = reviews.get(sessionId);
+            if (review != null) {
+                return review;
+            }
+        }
+        long loadGeneration = generation.get();
+        List<PackedAnswers.AttemptAnswer> answers = quizAttemptReader.findAnswers(sessionId);
+        if (answers.isEmpty()) {
+            // not finished yet, or nothing answered: nothing worth keeping
+            return new GetCorrectAnswerBySessionId(List.of(), List.of());
+        }
+        GetCorrectAnswerBySessionId review = build(answers, answerRepository.findReviewRowsByAnsweredIds(
+                answers.stream().map(PackedAnswers.AttemptAnswer::answerId).toList()));
+        // compared under the lock evict takes, an invalidation cannot slip in before the put
+        synchronized (reviews) {
+            if (generation.get() == loadGeneration && maxSessions > 0) {
+                reviews.putIfAbsent(sessionId, review);
+            }
+        }
+        return review;
+    }
+
+    public void invalidate(int sessionId) {
+        evict(sessionId);
+        // the new attempt is only visible after commit, evict again then
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(sessionId);
+                }
+            });
+        }
+    }
+
+    private void evict(int sessionId) {
+        synchronized (reviews) {
+            generation.incrementAndGet();
+            reviews.remove(sessionId);
+        }
+    }
+
+    static GetCorrectAnswerBySessionId build(List<PackedAnswers.AttemptAnswer> answers, List<AnswerReviewRow> rows) {
+        // answer id -> correct as graded when the session finished
+        Map<Integer, Boolean> picked = new HashMap<>();
+        answers.forEach(answer -> picked.merge(answer.answerId(), answer.correct(), Boolean::logicalOr));
+        // rows come ordered by question, so consecutive rows belong to one question
+        List<AnswerCorrectDTO> correctPicked = new ArrayList<>();
+        List<QuestionReviewDTO> questions = new ArrayList<>();
+        QuestionReviewDTO current = null;
+        for (AnswerReviewRow row : rows) {
+            if (current == null || current.getQuestionId() != row.getQuestionId()) {
+                current = new QuestionReviewDTO(row.getQuestionId(), row.getQuestionName(), new ArrayList<>(), new ArrayList<>());
+                questions.add(current);
+            }
+            Boolean pickedCorrect = picked.get(row.getAnswerId());
+            if (pickedCorrect != null) {
+                AnswerCorrectDTO answer = new AnswerCorrectDTO(row.getAnswerId(), row.getAnswerContent(), pickedCorrect, row.getQuestionId());
+                current.getPickedAnswers().add(answer);
+                if (pickedCorrect) {
+                    correctPicked.add(answer);
+                }
+            }
+            if (row.isCorrect() && !row.isDeleted()) {
+                current.getCorrectAnswers().add(new AnswerCorrectDTO(row.getAnswerId(), row.getAnswerContent(), true, row.getQuestionId()));
+            }
+        }
+        return new GetCorrectAnswerBySessionId(correctPicked, questions);
+    }
+}
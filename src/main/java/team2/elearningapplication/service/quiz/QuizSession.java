@@ -0,0 +1,199 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * State of one quiz attempt kept by {@link QuizSessionStore}: which questions are answered,
+ * the options picked for each and whether each question is already graded correct. Every
+ * submit grades its question right away against the answer key captured at start, so
+ * finishing only reads the running totals.
+ * <p>
+ * A timed session has a deadline; once it is closed, by {@link QuizSessionStore} when the
+ * deadline has passed, submits are refused and only the result can be read.
+ * <p>
+ * Not thread safe, the store only hands a session out while holding its stripe lock.
+ */
+public final class QuizSession {
+    private static final int[] NO_ANSWER = new int[0];
+
+    @Getter
+    private final int sessionId;
+    @Getter
+    private final String username;
+    private final QuizAnswerKey answerKey;
+    @Getter
+    private final long startedAt;
+    @Getter
+    private long lastAccess;
+    // 0 when the session is not bound to a course or not timed
+    @Getter
+    private final int courseId;
+    @Getter
+    private final long deadline;
+    @Getter
+    private boolean closed;
+    private final BitSet answered = new BitSet();
+    private final BitSet correct = new BitSet();
+    private final int[][] picked;
+    private final boolean[][] pickedCorrect;
+    private int answerCount;
+    private boolean dirty = true;
+
+    QuizSession(int sessionId, String username, QuizAnswerKey answerKey, long startedAt) {
+        this(sessionId, username, answerKey, startedAt, 0, 0);
+    }
+
+    QuizSession(int sessionId, String username, QuizAnswerKey answerKey, long startedAt, int courseId, long deadline) {
+        this.sessionId = sessionId;
+        this.username = username;
+        this.answerKey = answerKey;
+        this.startedAt = startedAt;
+        this.lastAccess = startedAt;
+        this.courseId = courseId;
+        this.deadline = deadline;
+        this.picked = new int[answerKey.getTotalQuestion()][];
+        this.pickedCorrect = new boolean[answerKey.getTotalQuestion()][];
+    }
+
+    public int getQuizId() {
+        return answerKey.getQuizId();
+    }
+
+    public int getTotalQuestion() {
+        return answerKey.getTotalQuestion();
+    }
+
+    public int getAnsweredCount() {
+        return answered.cardinality();
+    }
+
+    public int getTotalCorrect() {
+        return correct.cardinality();
+    }
+
+    public boolean isAnswered(int questionId) {
+        int question = answerKey.indexOfQuestion(questionId);
+        return question >= 0 && answered.get(question);
+    }
+
+    /**
+     * Records the options picked for a question and grades it, replacing an earlier answer to the
+     * same question. An empty pick clears the answer.
+     *
+     * @return whether the question is now answered correctly
+     * @throws IllegalArgumentException if the question or one of the answers is not part of the quiz
+     * @throws IllegalStateException if the session is closed
+     */
+    public boolean submit(int questionId, int[] answerIds) {
+        if (closed) {
+            throw new IllegalStateException("Time is up for quiz session " + sessionId);
+        }
+        int question = answerKey.indexOfQuestion(questionId);
+        if (question < 0) {
+            throw new IllegalArgumentException("Question " + questionId + " is not part of quiz " + answerKey.getQuizId());
+        }
+        boolean questionCorrect = answerKey.gradeQuestion(question, answerIds);
+        boolean[] answerCorrect = new boolean[answerIds.length];
+        for (int i = 0; i < answerIds.length; i++) {
+            answerCorrect[i] = answerKey.isCorrectOption(answerIds[i]);
+        }
+        answerCount += answerIds.length - (picked[question] == null ? 0 : picked[question].length);
+        picked[question] = answerIds.length == 0 ? null : answerIds.clone();
+        pickedCorrect[question] = answerIds.length == 0 ? null : answerCorrect;
+        answered.set(question, answerIds.length > 0);
+        correct.set(question, questionCorrect);
+        dirty = true;
+        return questionCorrect;
+    }
+
+    /**
+     * The graded attempt as {@link QuizAnswerKey#grade} would return it for the picked answers,
+     * listed by question.
+     */
+    public Result result() {
+        List<Integer> answerIds = new ArrayList<>(answerCount);
+        boolean[] answerCorrect = new boolean[answerCount];
+        for (int question = answered.nextSetBit(0); question >= 0; question = answered.nextSetBit(question + 1)) {
+            for (int i = 0; i < picked[question].length; i++) {
+                answerCorrect[answerIds.size()] = pickedCorrect[question][i];
+                answerIds.add(picked[question][i]);
+            }
+        }
+        return new Result(getQuizId(), answerIds, answerKey.resultOf((BitSet) correct.clone(), answerCorrect));
+    }
+
+    /**
+     * Picked answers as {@code questionId:answerId,answerId;...}, the form kept in a snapshot.
+     */
+    public String encodeAnswers() {
+        StringBuilder encoded = new StringBuilder();
+        for (int question = answered.nextSetBit(0); question >= 0; question = answered.nextSetBit(question + 1)) {
+            if (encoded.length() > 0) {
+                encoded.append(';');
+            }
+            encoded.append(answerKey.getQuestionId(question)).append(':');
+            for (int i = 0; i < picked[question].length; i++) {
+                if (i > 0) {
+                    encoded.append(',');
+                }
+                encoded.append(picked[question][i]);
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Replays snapshot answers against the current answer key. Answers that no longer fit the
+     * quiz, because a question or option was removed meanwhile, are dropped.
+     */
+    void replay(String encodedAnswers) {
+        if (encodedAnswers == null || encodedAnswers.isEmpty()) {
+            return;
+        }
+        for (String entry : encodedAnswers.split(";")) {
+            int separator = entry.indexOf(':');
+            try {
+                int questionId = Integer.parseInt(entry.substring(0, separator));
+                String[] values = entry.substring(separator + 1).split(",");
+                int[] answerIds = NO_ANSWER;
+                if (!values[0].isEmpty()) {
+                    answerIds = new int[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        answerIds[i] = Integer.parseInt(values[i]);
+                    }
+                }
+                submit(questionId, answerIds);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                // skip this question, keep the rest of the attempt
+            }
+        }
+    }
+
+    public boolean isTimed() {
+        return deadline > 0;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    // a read only moves the idle clock, the snapshot is written for changed answers
+    void touch(long now) {
+        lastAccess = now;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    public record Result(int quizId, List<Integer> answerIds, QuizAnswerKey.GradeResult gradeResult) {
+    }
+}
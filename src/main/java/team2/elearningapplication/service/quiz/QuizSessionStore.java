@@ -0,0 +1,423 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.entity.QuizSessionSnapshot;
+import team2.elearningapplication.repository.IQuizSessionSnapshotRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Quiz attempts in progress, held in memory so answering a question never touches the database.
+ * Sessions are spread over lock stripes by id, so attempts only contend when they share a
+ * stripe. A session idle for longer than {@code quiz.session.ttl-ms} is gone: it is dropped on
+ * the next access and by a periodic sweep.
+ * <p>
+ * Unless {@code quiz.session.snapshot.enabled} is off, changed sessions are copied to
+ * {@code quiz_session_snapshot} every {@code quiz.session.snapshot.interval-ms} and reloaded on
+ * startup, so attempts survive a restart of the node, losing at most one interval of answers.
+ * <p>
+ * A timed session is closed by the first access after its deadline and is never dropped as
+ * idle before that; {@link QuizDeadlineScheduler} finishes it. Its snapshot row is kept across
+ * restarts however long the node was down, so the attempt is still graded.
+ */
+@Component
+@Slf4j
+public class QuizSessionStore {
+    private final IQuizSessionSnapshotRepository snapshotRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final long ttlMillis;
+    private final boolean snapshotEnabled;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+    // finished or expired sessions whose snapshot row still has to go
+    private final Queue<Integer> removedSnapshots = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public QuizSessionStore(IQuizSessionSnapshotRepository snapshotRepository, QuizAnswerKeyCache quizAnswerKeyCache,
+                            @Value("${quiz.session.ttl-ms:7200000}") long ttlMillis,
+                            @Value("${quiz.session.stripes:64}") int stripeCount,
+                            @Value("${quiz.session.snapshot.enabled:true}") boolean snapshotEnabled) {
+        this(snapshotRepository, quizAnswerKeyCache, ttlMillis, stripeCount, snapshotEnabled, System::currentTimeMillis);
+    }
+
+    QuizSessionStore(IQuizSessionSnapshotRepository snapshotRepository, QuizAnswerKeyCache quizAnswerKeyCache,
+                     long ttlMillis, int stripeCount, boolean snapshotEnabled, LongSupplier clock) {
+        this.snapshotRepository = snapshotRepository;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.ttlMillis = ttlMillis;
+        this.snapshotEnabled = snapshotEnabled;
+        this.clock = clock;
+        // power of two so the stripe is a mask of the id
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(stripeCount, 1) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Opens a session on the given answer key and returns its id, a positive int not used by any
+     * live session.
+     */
+    public int start(QuizAnswerKey answerKey, String username) {
+        return start(answerKey, username, 0, 0);
+    }
+
+    /**
+     * Opens a session bound to a course, timed when {@code deadline} is positive.
+     *
+     * @throws IllegalArgumentException if {@code username} is blank, every session has an owner
+     */
+    public int start(QuizAnswerKey answerKey, String username, int courseId, long deadline) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required to start a quiz session");
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            int sessionId = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+            Stripe stripe = stripe(sessionId);
+            stripe.lock.lock();
+            try {
+                if (!stripe.sessions.containsKey(sessionId)) {
+                    stripe.sessions.put(sessionId, new QuizSession(sessionId, username, answerKey, now, courseId, deadline));
+                    return sessionId;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} on the live session while holding its stripe lock. Empty when the
+     * session does not exist, has expired or does not belong to {@code username}; a call without
+     * a username matches no session.
+     */
+    public <T> Optional<T> update(int sessionId, String username, Function<QuizSession, T> action) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return apply(sessionId, username, action);
+    }
+
+    /**
+     * Runs {@code action} on the live session of whichever user, for grading sessions past their
+     * deadline. Never call it with a session id taken from a request.
+     */
+    public <T> Optional<T> updateAnyOwner(int sessionId, Function<QuizSession, T> action) {
+        return apply(sessionId, null, action);
+    }
+
+    // a null username skips the owner check
+    private <T> Optional<T> apply(int sessionId, String username, Function<QuizSession, T> action) {
+        Stripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            QuizSession session = access(stripe, sessionId, username);
+            return session == null ? Optional.empty() : Optional.ofNullable(action.apply(session));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the session if it is still open and returns it, for starting the attempt over. A
+     * closed session is kept for {@link QuizDeadlineScheduler} to grade.
+     *
+     * @throws IllegalStateException if the session is closed
+     */
+    public Optional<QuizSession> removeOpen(int sessionId, String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            QuizSession session = access(stripe, sessionId, username);
+            if (session == null) {
+                return Optional.empty();
+            }
+            if (session.isClosed()) {
+                throw new IllegalStateException("Time is up for quiz session " + sessionId);
+            }
+            stripe.sessions.remove(sessionId);
+            markRemoved(sessionId);
+            return Optional.of(session);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // the live session, closed if its deadline passed; null when gone or not the user's, any user's when null
+    private QuizSession access(Stripe stripe, int sessionId, String username) {
+        long now = clock.getAsLong();
+        QuizSession session = stripe.sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        if (isExpired(session, now)) {
+            stripe.sessions.remove(sessionId);
+            markRemoved(sessionId);
+            return null;
+        }
+        if (username != null && !username.equals(session.getUsername())) {
+            return null;
+        }
+        if (session.isTimed() && !session.isClosed() && now >= session.getDeadline()) {
+            session.close();
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public void remove(int sessionId) {
+        Stripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            if (stripe.sessions.remove(sessionId) != null) {
+                markRemoved(sessionId);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the session once the current transaction commits, so a rolled back finish leaves
+     * the attempt open for a retry. Without a transaction it is removed right away.
+     */
+    public void removeAfterCommit(int sessionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(sessionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(sessionId);
+            }
+        });
+    }
+
+    /**
+     * Session id to deadline of every timed session still open.
+     */
+    public Map<Integer, Long> deadlines() {
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (QuizSession session : stripe.sessions.values()) {
+                    if (session.isTimed() && !session.isClosed()) {
+                        deadlines.put(session.getSessionId(), session.getDeadline());
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return deadlines;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.sessions.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.session.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<QuizSession> iterator = stripe.sessions.values().iterator();
+                while (iterator.hasNext()) {
+                    QuizSession session = iterator.next();
+                    if (isExpired(session, now)) {
+                        iterator.remove();
+                        markRemoved(session.getSessionId());
+                        evicted++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle quiz session(s)", evicted);
+        }
+    }
+
+    /**
+     * Writes sessions changed since the last snapshot and deletes the rows of removed ones.
+     * Rows are built under the stripe lock, the database is written after releasing it.
+     */
+    @Scheduled(fixedDelayString = "${quiz.session.snapshot.interval-ms:15000}")
+    public void snapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        List<QuizSessionSnapshot> changed = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (QuizSession session : stripe.sessions.values()) {
+                    if (session.isDirty()) {
+                        changed.add(toSnapshot(session));
+                        session.setDirty(false);
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (!changed.isEmpty()) {
+            try {
+                snapshotRepository.saveAll(changed);
+            } catch (Exception e) {
+                log.error("Snapshot of {} quiz session(s) failed: {}", changed.size(), e.getMessage());
+                changed.forEach(snapshot -> markDirty(snapshot.getSessionId()));
+            }
+        }
+
+        List<Integer> removed = new ArrayList<>();
+        for (Integer sessionId = removedSnapshots.poll(); sessionId != null; sessionId = removedSnapshots.poll()) {
+            removed.add(sessionId);
+        }
+        if (!removed.isEmpty()) {
+            try {
+                snapshotRepository.deleteAllByIdInBatch(removed);
+            } catch (Exception e) {
+                log.error("Delete of {} quiz session snapshot(s) failed: {}", removed.size(), e.getMessage());
+                removedSnapshots.addAll(removed);
+            }
+        }
+    }
+
+    /**
+     * Reloads the snapshot rows that have not expired yet. Answers are replayed against the
+     * current answer key of each quiz. Rows of attempts already graded are dropped, so a session
+     * finished just before the node stopped is not graded again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void restore() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        try {
+            long now = clock.getAsLong();
+            snapshotRepository.deleteIdleBefore(toDateTime(now - ttlMillis));
+            snapshotRepository.deleteFinished();
+            int restored = 0;
+            for (QuizSessionSnapshot snapshot : snapshotRepository.findAll()) {
+                QuizSession session = new QuizSession(snapshot.getSessionId(), snapshot.getUsername(),
+                        quizAnswerKeyCache.get(snapshot.getQuizId()), toMillis(snapshot.getStartedAt(), now),
+                        snapshot.getCourseId(), snapshot.getDeadlineAt() == null ? 0 : toMillis(snapshot.getDeadlineAt(), now));
+                session.replay(snapshot.getAnswers());
+                session.touch(toMillis(snapshot.getLastAccess(), now));
+                session.setDirty(false);
+                Stripe stripe = stripe(session.getSessionId());
+                stripe.lock.lock();
+                try {
+                    stripe.sessions.putIfAbsent(session.getSessionId(), session);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                restored++;
+            }
+            log.info("Restored {} quiz session(s) from snapshot", restored);
+        } catch (Exception e) {
+            log.error("Restore quiz sessions from snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+
+    private boolean isExpired(QuizSession session, long now) {
+        if (session.isTimed() && !session.isClosed()) {
+            return false;
+        }
+        return now - session.getLastAccess() > ttlMillis;
+    }
+
+    // a failed snapshot is retried on the next run
+    private void markDirty(int sessionId) {
+        Stripe stripe = stripe(sessionId);
+        stripe.lock.lock();
+        try {
+            QuizSession session = stripe.sessions.get(sessionId);
+            if (session != null) {
+                session.setDirty(true);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void markRemoved(int sessionId) {
+        if (snapshotEnabled) {
+            removedSnapshots.add(sessionId);
+        }
+    }
+
+    private Stripe stripe(int sessionId) {
+        int h = sessionId * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static QuizSessionSnapshot toSnapshot(QuizSession session) {
+        return new QuizSessionSnapshot()
+                .setSessionId(session.getSessionId())
+                .setUsername(session.getUsername())
+                .setQuizId(session.getQuizId())
+                .setCourseId(session.getCourseId())
+                .setDeadlineAt(session.isTimed() ? toDateTime(session.getDeadline()) : null)
+                .setAnswers(session.encodeAnswers())
+                .setStartedAt(toDateTime(session.getStartedAt()))
+                .setLastAccess(toDateTime(session.getLastAccess()));
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime, long fallback) {
+        return dateTime == null ? fallback : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Integer, QuizSession> sessions = new HashMap<>();
+    }
+}
@@ -0,0 +1,166 @@
+package team2.elearningapplication.service.quiz;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.dto.response.admin.dashboard.QuestionDifficulty;
+import team2.elearningapplication.dto.response.admin.dashboard.QuizStatsResponse;
+import team2.elearningapplication.dto.response.admin.dashboard.ScoreBucket;
+import team2.elearningapplication.entity.QuestionStats;
+import team2.elearningapplication.entity.QuizScoreStats;
+import team2.elearningapplication.repository.IQuestionStatsRepository;
+import team2.elearningapplication.repository.IQuizScoreStatsRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Quiz analytics kept up to date by every graded attempt instead of grouped from the raw
+ * answers: how often each question is got right (hit) or not (miss), and how many attempts of
+ * each quiz score in each tenth of the range. Grading only bumps {@link LongAdder}s; a scheduled
+ * flush adds the pending deltas to {@code question_stats} and {@code quiz_score_stats}. Reads
+ * merge the stored rows of one quiz with what is still pending.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizStatsCollector {
+    public static final int SCORE_BUCKETS = 10;
+
+    private final IQuestionStatsRepository questionStatsRepository;
+    private final IQuizScoreStatsRepository quizScoreStatsRepository;
+
+    private final Map<Integer, QuestionCounter> pendingQuestions = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder[]> pendingScores = new ConcurrentHashMap<>();
+
+    public void record(int quizId, QuizAnswerKey.GradeResult result) {
+        for (int question = 0; question < result.getGradedQuestionCount(); question++) {
+            QuestionCounter counter = pendingQuestions.computeIfAbsent(result.getQuestionId(question), id -> new QuestionCounter());
+            counter.quizId = quizId;
+            (result.isQuestionCorrect(question) ? counter.hits : counter.misses).increment();
+        }
+        pendingScores.computeIfAbsent(quizId, id -> newBuckets())[bucketOf(result.getMark())].increment();
+    }
+
+    /**
+     * Records the attempt once the current transaction commits, so a rolled back finish is not
+     * counted. Without a transaction it is recorded right away.
+     */
+    public void recordAfterCommit(int quizId, QuizAnswerKey.GradeResult result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(quizId, result);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(quizId, result);
+            }
+        });
+    }
+
+    public QuizStatsResponse getStats(int quizId) {
+        long[] buckets = new long[SCORE_BUCKETS];
+        for (QuizScoreStats stats : quizScoreStatsRepository.findByQuizId(quizId)) {
+            if (stats.getBucket() >= 0 && stats.getBucket() < SCORE_BUCKETS) {
+                buckets[stats.getBucket()] += stats.getAttemptCount();
+            }
+        }
+        LongAdder[] pending = pendingScores.get(quizId);
+        long attemptCount = 0;
+        List<ScoreBucket> distribution = new ArrayList<>(SCORE_BUCKETS);
+        for (int bucket = 0; bucket < SCORE_BUCKETS; bucket++) {
+            long count = buckets[bucket] + (pending == null ? 0 : pending[bucket].sum());
+            attemptCount += count;
+            distribution.add(new ScoreBucket(bucket * 100 / SCORE_BUCKETS, (bucket + 1) * 100 / SCORE_BUCKETS, count));
+        }
+
+        Map<Integer, long[]> counts = new HashMap<>();
+        for (QuestionStats stats : questionStatsRepository.findByQuizId(quizId)) {
+            counts.put(stats.getQuestionId(), new long[]{stats.getHitCount(), stats.getMissCount()});
+        }
+        for (Map.Entry<Integer, QuestionCounter> entry : pendingQuestions.entrySet()) {
+            QuestionCounter counter = entry.getValue();
+            if (counter.quizId == quizId) {
+                long[] count = counts.computeIfAbsent(entry.getKey(), id -> new long[2]);
+                count[0] += counter.hits.sum();
+                count[1] += counter.misses.sum();
+            }
+        }
+        List<QuestionDifficulty> questions = new ArrayList<>(counts.size());
+        for (Map.Entry<Integer, long[]> entry : counts.entrySet()) {
+            long hits = entry.getValue()[0];
+            long misses = entry.getValue()[1];
+            double missRate = hits + misses == 0 ? 0 : (double) misses / (hits + misses);
+            questions.add(new QuestionDifficulty(entry.getKey(), null, hits, misses, missRate));
+        }
+        questions.sort(Comparator.comparingDouble(QuestionDifficulty::getMissRate).reversed()
+                .thenComparing(Comparator.comparingLong(QuestionDifficulty::getMissCount).reversed())
+                .thenComparingInt(QuestionDifficulty::getQuestionId));
+        return new QuizStatsResponse(quizId, attemptCount, distribution, questions);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.stats.flush-interval-ms:30000}")
+    public void flush() {
+        for (Map.Entry<Integer, QuestionCounter> entry : pendingQuestions.entrySet()) {
+            QuestionCounter counter = entry.getValue();
+            long hits = counter.hits.sumThenReset();
+            long misses = counter.misses.sumThenReset();
+            if (hits == 0 && misses == 0) {
+                continue;
+            }
+            try {
+                questionStatsRepository.addCounts(entry.getKey(), counter.quizId, hits, misses);
+            } catch (Exception e) {
+                // keep the deltas for the next flush
+                counter.hits.add(hits);
+                counter.misses.add(misses);
+                log.error("Flush stats of question {} failed: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        for (Map.Entry<Integer, LongAdder[]> entry : pendingScores.entrySet()) {
+            LongAdder[] buckets = entry.getValue();
+            for (int bucket = 0; bucket < SCORE_BUCKETS; bucket++) {
+                long delta = buckets[bucket].sumThenReset();
+                if (delta == 0) {
+                    continue;
+                }
+                try {
+                    quizScoreStatsRepository.addAttempts(entry.getKey(), bucket, delta);
+                } catch (Exception e) {
+                    buckets[bucket].add(delta);
+                    log.error("Flush score bucket {} of quiz {} failed: {}", bucket, entry.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    static int bucketOf(double mark) {
+        return Math.max(0, Math.min(SCORE_BUCKETS - 1, (int) (mark * SCORE_BUCKETS)));
+    }
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[SCORE_BUCKETS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        return buckets;
+    }
+
+    private static final class QuestionCounter {
+        // the quiz the question was last graded in
+        private volatile int quizId;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
@@ -0,0 +1,172 @@
+package team2.elearningapplication.service.quiz;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timing wheel holding one deadline per int key. Level 0 has one slot per tick,
+ * each level above covers {@value #SLOTS} slots of the level below; a timer sits in the lowest
+ * level its remaining time fits and is moved down a level when the wheel below wraps around.
+ * Scheduling and cancelling are O(1); advancing costs one slot per tick plus the timers it
+ * fires or moves. Deadlines past the range of the top level are parked in its last slot and
+ * placed again when reached.
+ * <p>
+ * Deadlines are rounded up to the next tick, so a timer never fires early. Not thread safe.
+ */
+public final class TimingWheel {
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    // per level, the first timer of each slot
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private final Map<Integer, Timer> timers = new HashMap<>();
+    // the tick the next advance handles first
+    private long nextTick;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.nextTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Sets the deadline of {@code key}, replacing an earlier one. A deadline already past fires
+     * on the next advance.
+     */
+    public void schedule(int key, long deadlineMillis) {
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = new Timer(key);
+            timers.put(key, timer);
+        } else {
+            unlink(timer);
+        }
+        // round up, firing at the tick that contains the deadline would be early
+        timer.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(timer);
+    }
+
+    public boolean cancel(int key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    public boolean contains(int key) {
+        return timers.containsKey(key);
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Handles every tick up to {@code nowMillis}, passing the key of each due timer to
+     * {@code expired}. A key is removed before it is passed on, so the callback may schedule it
+     * again.
+     *
+     * @return the number of timers fired
+     */
+    public int advance(long nowMillis, IntConsumer expired) {
+        long lastTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (nextTick <= lastTick) {
+            int index = (int) (nextTick & SLOT_MASK);
+            // wrapping around a level pulls the next slot of the level above down
+            for (int level = 1; level < LEVELS && index == 0; level++) {
+                index = (int) ((nextTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                cascade(level, index);
+            }
+            index = (int) (nextTick & SLOT_MASK);
+            Timer timer = slots[0][index];
+            slots[0][index] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timer.level = -1;
+                timers.remove(timer.key);
+                fired++;
+                expired.accept(timer.key);
+                timer = next;
+            }
+            nextTick++;
+        }
+        return fired;
+    }
+
+    private void cascade(int level, int index) {
+        Timer timer = slots[level][index];
+        slots[level][index] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void place(Timer timer) {
+        long expires = Math.max(timer.deadlineTick, nextTick);
+        long remaining = expires - nextTick;
+        if (remaining >= MAX_TICKS) {
+            // out of range: park in the slot reached last, it is placed again from there
+            expires = nextTick + MAX_TICKS - 1;
+            remaining = MAX_TICKS - 1;
+        }
+        int level = 0;
+        while (remaining >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((expires >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timer.level = level;
+        timer.index = index;
+        Timer head = slots[level][index];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][index] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.level < 0) {
+            return;
+        }
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.index] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    private static final class Timer {
+        private final int key;
+        private long deadlineTick;
+        private int level = -1;
+        private int index;
+        private Timer prev;
+        private Timer next;
+
+        private Timer(int key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package team2.elearningapplication.utils;
 
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 import java.text.DecimalFormat;
 import java.util.Random;
 import java.util.UUID;
@@ -19,4 +22,11 @@ public class CommonUtils {
         return UUID.randomUUID().toString();
     }
 
+    // for @Transactional methods that catch their own exceptions and return a FAIL response
+    public static void rollbackCurrentTransaction() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
 }
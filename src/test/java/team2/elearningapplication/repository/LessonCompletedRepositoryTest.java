@@ -0,0 +1,57 @@
+package team2.elearningapplication.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import team2.elearningapplication.entity.Course;
+import team2.elearningapplication.entity.Lesson;
+import team2.elearningapplication.entity.User;
+import team2.elearningapplication.repository.ILessonCompletedRepositoryCustom.CompletionRow;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class LessonCompletedRepositoryTest {
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    ILessonCompletedRepository lessonCompletedRepository;
+
+    @Test
+    void rowsOfUnknownUsersAndCompletedLessonsAreSkipped() {
+        User alice = new User();
+        alice.setUsername("alice");
+        entityManager.persist(alice);
+        User bob = new User();
+        bob.setUsername("bob");
+        entityManager.persist(bob);
+        Course course = entityManager.persist(new Course());
+        int first = lesson(course);
+        int second = lesson(course);
+        entityManager.flush();
+
+        assertEquals(3, lessonCompletedRepository.insertAllIfAbsent(List.of(
+                new CompletionRow("alice", first),
+                new CompletionRow("alice", second),
+                new CompletionRow("bob", first),
+                new CompletionRow("nobody", first))));
+        // already there, nothing is inserted twice
+        assertEquals(1, lessonCompletedRepository.insertAllIfAbsent(List.of(
+                new CompletionRow("alice", first),
+                new CompletionRow("bob", second))));
+        assertEquals(0, lessonCompletedRepository.insertAllIfAbsent(List.of()));
+
+        assertEquals(4, lessonCompletedRepository.count());
+        assertTrue(lessonCompletedRepository.existsByUsernameAndLessonId("bob", second));
+        assertEquals(2, lessonCompletedRepository.findCompletedLessonsByUserAndCourse("alice", course.getId()).size());
+    }
+
+    private int lesson(Course course) {
+        Lesson lesson = new Lesson();
+        lesson.setCourse(course);
+        return entityManager.persistAndGetId(lesson, Integer.class);
+    }
+}
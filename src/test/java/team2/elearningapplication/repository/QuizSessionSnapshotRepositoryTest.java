@@ -0,0 +1,47 @@
+package team2.elearningapplication.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import team2.elearningapplication.entity.QuizAttempt;
+import team2.elearningapplication.entity.QuizSessionSnapshot;
+import team2.elearningapplication.entity.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class QuizSessionSnapshotRepositoryTest {
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    IQuizSessionSnapshotRepository snapshotRepository;
+
+    @Test
+    void onlySnapshotsOfGradedAttemptsAreDeleted() {
+        LocalDateTime now = LocalDateTime.now();
+        User alice = new User();
+        alice.setUsername("alice");
+        entityManager.persist(alice);
+        entityManager.persist(new QuizAttempt().setUser(alice).setSessionId(1).setQuizId(5).setFinishedAt(now));
+        // an older attempt that happened to get the same session id
+        entityManager.persist(new QuizAttempt().setUser(alice).setSessionId(3).setQuizId(5).setFinishedAt(now.minusDays(1)));
+        entityManager.persist(snapshot(1, now.minusHours(1)));
+        entityManager.persist(snapshot(2, now.minusHours(1)));
+        entityManager.persist(snapshot(3, now.minusHours(1)));
+        entityManager.flush();
+
+        assertEquals(1, snapshotRepository.deleteFinished());
+
+        assertFalse(snapshotRepository.existsById(1));
+        assertTrue(snapshotRepository.existsById(2));
+        assertTrue(snapshotRepository.existsById(3));
+    }
+
+    private static QuizSessionSnapshot snapshot(int sessionId, LocalDateTime startedAt) {
+        return new QuizSessionSnapshot().setSessionId(sessionId).setUsername("alice").setQuizId(5)
+                .setStartedAt(startedAt).setLastAccess(startedAt);
+    }
+}
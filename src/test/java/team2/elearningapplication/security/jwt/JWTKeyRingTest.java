@@ -0,0 +1,107 @@
+package team2.elearningapplication.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JWTKeyRingTest {
+
+    @TempDir
+    Path dir;
+
+    JWTKeyRing keyRing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(dir.resolve("secret.txt"), "legacy-secret");
+        Files.writeString(dir.resolve("keys.properties"), "active=k2\nkey.k1=first-secret\nkey.k2=second-secret\n");
+        keyRing = new JWTKeyRing(dir.resolve("secret.txt").toString(), dir.resolve("keys.properties").toString());
+        keyRing.reload();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        keyRing.close();
+    }
+
+    @Test
+    void signsWithActiveKeyAndVerifiesRotatedKeys() {
+        String token = JWT.create().withKeyId(keyRing.getActiveKeyId()).withSubject("user")
+                .sign(keyRing.getActiveAlgorithm());
+        assertEquals("k2", keyRing.getActiveKeyId());
+        assertEquals("user", keyRing.verify(token).getSubject());
+
+        String oldToken = JWT.create().withKeyId("k1").withSubject("old").sign(Algorithm.HMAC256("first-secret".getBytes()));
+        assertEquals("old", keyRing.verify(oldToken).getSubject());
+    }
+
+    @Test
+    void tokenWithoutKeyIdUsesLegacySecret() {
+        String token = JWT.create().withSubject("legacy").sign(Algorithm.HMAC256("legacy-secret".getBytes()));
+        assertEquals("legacy", keyRing.verify(token).getSubject());
+    }
+
+    @Test
+    void unknownKeyIdIsRejected() {
+        String token = JWT.create().withKeyId("k9").withSubject("user").sign(Algorithm.HMAC256("other".getBytes()));
+        assertThrows(SecurityException.class, () -> keyRing.verify(token));
+    }
+
+    @Test
+    void reloadDropsRemovedKeysAndClearsVerifiedTokens() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, keyRing);
+        long expiresAt = new Date().getTime() + 60000;
+        cache.put("token", new VerifiedTokenCache.VerifiedToken("user", List.of(new SimpleGrantedAuthority("STUDENT")), expiresAt, keyRing.getGeneration()));
+        assertNotNull(cache.get("token"));
+
+        Files.writeString(dir.resolve("keys.properties"), "active=k3\nkey.k3=third-secret\n");
+        keyRing.reload();
+
+        assertNull(cache.get("token"));
+        assertEquals("k3", keyRing.getActiveKeyId());
+        String oldToken = JWT.create().withKeyId("k1").withSubject("old").sign(Algorithm.HMAC256("first-secret".getBytes()));
+        assertThrows(SecurityException.class, () -> keyRing.verify(oldToken));
+    }
+
+    @Test
+    void tokenVerifiedAcrossAReloadIsNotCached() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, keyRing);
+        long expiresAt = new Date().getTime() + 60000;
+        long verifiedUnder = keyRing.getGeneration();
+
+        // k1 is removed while the token signed with it is being verified
+        Files.writeString(dir.resolve("keys.properties"), "active=k3\nkey.k3=third-secret\n");
+        keyRing.reload();
+        cache.put("token", new VerifiedTokenCache.VerifiedToken("user", List.of(new SimpleGrantedAuthority("STUDENT")), expiresAt, verifiedUnder));
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void verifiedTokenCacheIsBoundedAndSkipsExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, keyRing);
+        long expiresAt = new Date().getTime() + 60000;
+        List<SimpleGrantedAuthority> roles = List.of(new SimpleGrantedAuthority("STUDENT"));
+        cache.put("a", new VerifiedTokenCache.VerifiedToken("a", roles, expiresAt, keyRing.getGeneration()));
+        cache.put("b", new VerifiedTokenCache.VerifiedToken("b", roles, expiresAt, keyRing.getGeneration()));
+        cache.get("a");
+        cache.put("c", new VerifiedTokenCache.VerifiedToken("c", roles, expiresAt, keyRing.getGeneration()));
+        cache.put("d", new VerifiedTokenCache.VerifiedToken("d", roles, new Date().getTime() - 1, keyRing.getGeneration()));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertNull(cache.get("d"));
+    }
+}
@@ -0,0 +1,98 @@
+package team2.elearningapplication.service.course;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.entity.CourseStats;
+import team2.elearningapplication.repository.ICourseStatsRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseEnrollmentCounterTest {
+    @Mock
+    ICourseStatsRepository courseStatsRepository;
+
+    CourseEnrollmentCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(courseStatsRepository.findAll()).thenReturn(List.of(
+                new CourseStats().setCourseId(1).setEnrollmentCount(5),
+                new CourseStats().setCourseId(2).setEnrollmentCount(9),
+                new CourseStats().setCourseId(3).setEnrollmentCount(5)));
+        counter = new CourseEnrollmentCounter(courseStatsRepository, 2);
+        counter.reseed();
+    }
+
+    @Test
+    void reseedLoadsStoredCounts() {
+        Mockito.verify(courseStatsRepository).reseedFromHistory();
+        assertEquals(9, counter.getCount(2));
+        assertEquals(List.of(2, 1), counter.getTopCourseIds(2));
+        assertEquals(List.of(2), counter.getTopCourseIds(1));
+    }
+
+    @Test
+    void incrementUpdatesTopCourses() {
+        counter.increment(3);
+        counter.increment(4);
+        assertEquals(6, counter.getCount(3));
+        assertEquals(List.of(2, 3), counter.getTopCourseIds(2));
+    }
+
+    @Test
+    void flushRecountsTouchedCoursesOnce() {
+        counter.increment(3);
+        counter.increment(3);
+        counter.flush();
+        counter.flush();
+        Mockito.verify(courseStatsRepository, Mockito.times(1)).recountEnrollments(3);
+        Mockito.verify(courseStatsRepository, Mockito.never()).recountEnrollments(1);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        Mockito.doThrow(new RuntimeException("down")).doNothing().when(courseStatsRepository).recountEnrollments(1);
+        counter.increment(1);
+        counter.flush();
+        counter.flush();
+        counter.flush();
+        Mockito.verify(courseStatsRepository, Mockito.times(2)).recountEnrollments(1);
+    }
+
+    @Test
+    void topPastTheCapacityIsReadFromTheTable() {
+        Mockito.when(courseStatsRepository.findTopCourseIds(PageRequest.of(0, 3))).thenReturn(List.of(2, 1, 3));
+        assertEquals(List.of(2, 1, 3), counter.getTopCourseIds(3));
+        assertEquals(List.of(2, 1), counter.getTopCourseIds(2));
+        Mockito.verify(courseStatsRepository, Mockito.times(1)).findTopCourseIds(Mockito.any());
+    }
+
+    @Test
+    void enrollmentInATransactionCountsOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.incrementAfterCommit(3);
+            counter.incrementAfterCommit(3);
+            assertEquals(5, counter.getCount(3));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            // the first transaction rolls back, the second commits
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(6, counter.getCount(3));
+
+        counter.incrementAfterCommit(3);
+        assertEquals(7, counter.getCount(3));
+    }
+}
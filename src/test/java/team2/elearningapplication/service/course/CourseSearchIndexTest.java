@@ -0,0 +1,97 @@
+package team2.elearningapplication.service.course;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.entity.Category;
+import team2.elearningapplication.entity.Course;
+import team2.elearningapplication.repository.ICourseRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+    @Mock
+    ICourseRepository courseRepository;
+    @Mock
+    CourseEnrollmentCounter courseEnrollmentCounter;
+
+    CourseSearchIndex index;
+
+    private static Course course(int id, String name, String categoryName, String description) {
+        Category category = new Category();
+        category.setName(categoryName);
+        return new Course().setId(id).setName(name).setCategory(category).setDescription(description);
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(courseRepository.findAllByIsDeleted(false)).thenReturn(List.of(
+                course(1, "Lập trình Java cơ bản", "Lập trình", "Học Java từ đầu"),
+                course(2, "Tiếng Anh giao tiếp", "Ngoại ngữ", "Luyện nói tiếng Anh"),
+                course(3, "Đồ họa máy tính", "Thiết kế", "Giới thiệu lập trình đồ họa")));
+        index = new CourseSearchIndex(courseRepository, courseEnrollmentCounter);
+        index.rebuild();
+    }
+
+    @Test
+    void foldsVietnameseDiacritics() {
+        assertEquals(List.of("do", "hoa", "lap", "trinh"), CourseSearchIndex.fold("Đồ họa, Lập-trình"));
+        assertEquals(List.of(3), index.search("do hoa", 10));
+        assertEquals(List.of(2), index.search("TIẾNG anh", 10));
+    }
+
+    @Test
+    void matchesPrefixesAndRanksNameHigher() {
+        // course 1 has "lap trinh" in name and category, course 3 only in its description
+        assertEquals(List.of(1, 3), index.search("lap tri", 10));
+        assertEquals(List.of(1), index.search("lap tri", 1));
+        assertTrue(index.search("java python", 10).isEmpty());
+    }
+
+    @Test
+    void popularityBreaksCloseScores() {
+        Mockito.when(courseEnrollmentCounter.getCount(4)).thenReturn(1000L);
+        index.index(course(4, "Tiếng Anh giao tiếp", "Ngoại ngữ", "Luyện nói tiếng Anh"));
+        assertEquals(List.of(4, 2), index.search("tieng anh", 10));
+    }
+
+    @Test
+    void updatesIncrementally() {
+        index.index(course(2, "Tiếng Nhật", "Ngoại ngữ", ""));
+        assertTrue(index.search("anh", 10).isEmpty());
+        assertEquals(List.of(2), index.search("nhat", 10));
+
+        index.index(course(1, "Lập trình Java cơ bản", "Lập trình", "").setDeleted(true));
+        index.remove(3);
+        assertTrue(index.search("lap trinh", 10).isEmpty());
+    }
+
+    @Test
+    void categoryChangesReachItsCourses() {
+        Category category = new Category();
+        category.setId(7);
+        category.setName("Khoa học dữ liệu");
+        Course course = course(2, "Tiếng Anh giao tiếp", "", "Luyện nói tiếng Anh").setCategory(category);
+        Mockito.when(courseRepository.findAllByCategoryIdAndIsDeleted(7, false)).thenReturn(List.of(course));
+
+        index.reindexCategory(7);
+        assertEquals(List.of(2), index.search("khoa hoc", 10));
+        assertTrue(index.search("ngoai ngu", 10).isEmpty());
+
+        category.setName("Trí tuệ nhân tạo");
+        index.reindexCategory(7);
+        assertTrue(index.search("khoa hoc", 10).isEmpty());
+        assertEquals(List.of(2), index.search("tri tue", 10));
+
+        category.setDeleted(true);
+        index.reindexCategory(7);
+        assertTrue(index.search("tri tue", 10).isEmpty());
+        // the course itself is still found
+        assertEquals(List.of(2), index.search("tieng anh", 10));
+    }
+}
@@ -0,0 +1,89 @@
+package team2.elearningapplication.service.course;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEnrollmentCacheTest {
+    @Mock
+    IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+
+    UserEnrollmentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(historyRegisterCourseRepository.findCourseIdsByUsername("student")).thenReturn(List.of(3, 7, 3));
+        cache = new UserEnrollmentCache(historyRegisterCourseRepository, 100);
+    }
+
+    @Test
+    void loadsOnceAndAnswersFromMemory() {
+        assertTrue(cache.isEnrolled("student", 7));
+        assertFalse(cache.isEnrolled("student", 4));
+        assertEquals(List.of(3, 7), cache.getCourseIds("student"));
+        Mockito.verify(historyRegisterCourseRepository, Mockito.times(1)).findCourseIdsByUsername("student");
+    }
+
+    @Test
+    void addEnrollmentUpdatesLoadedUser() {
+        cache.isEnrolled("student", 3);
+        cache.addEnrollment("student", 4);
+        cache.addEnrollment("student", 4);
+        assertEquals(List.of(3, 4, 7), cache.getCourseIds("student"));
+        Mockito.verify(historyRegisterCourseRepository, Mockito.times(1)).findCourseIdsByUsername("student");
+    }
+
+    @Test
+    void enrollmentDuringALoadIsNotLost() {
+        Mockito.when(historyRegisterCourseRepository.findCourseIdsByUsername("late")).thenAnswer(invocation -> {
+            // committed after the query read its rows
+            cache.addEnrollment("late", 9);
+            return List.of(3);
+        }).thenReturn(List.of(3, 9));
+
+        assertFalse(cache.isEnrolled("late", 9));
+        assertTrue(cache.isEnrolled("late", 9));
+        Mockito.verify(historyRegisterCourseRepository, Mockito.times(2)).findCourseIdsByUsername("late");
+    }
+
+    @Test
+    void enrollmentInATransactionIsAddedOnlyOnCommit() {
+        cache.isEnrolled("student", 3);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.addEnrollmentAfterCommit("student", 4);
+            cache.addEnrollmentAfterCommit("student", 5);
+            assertFalse(cache.isEnrolled("student", 4));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(3, 5, 7), cache.getCourseIds("student"));
+    }
+
+    @Test
+    void courseIdSetGrowsPastItsInitialTable() {
+        UserEnrollmentCache.CourseIdSet set = UserEnrollmentCache.CourseIdSet.of(List.of());
+        List<Integer> expected = new ArrayList<>();
+        for (int courseId = 1; courseId <= 100; courseId++) {
+            set = set.with(courseId * 31);
+            expected.add(courseId * 31);
+        }
+        assertEquals(expected, set.toList());
+        assertTrue(set.contains(31 * 50));
+        assertFalse(set.contains(32));
+    }
+}
@@ -0,0 +1,119 @@
+package team2.elearningapplication.service.email;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumMailLane;
+import team2.elearningapplication.dto.response.admin.dashboard.EmailLaneMetricsResponse;
+import team2.elearningapplication.entity.Mail;
+
+import javax.mail.MessagingException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailDispatcherTest extends Mockito {
+    @Mock
+    EmailDelivery emailDelivery;
+
+    private EmailDispatcher dispatcher;
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    private EmailDispatcher dispatcher(int queueCapacity, long offerTimeoutMillis) {
+        return new EmailDispatcher(emailDelivery, 1, queueCapacity, offerTimeoutMillis, 3, 1, 5);
+    }
+
+    private static Mail mail(String to) {
+        return new Mail().setTo(to).setSubject("subject").setPros(Map.of()).setTemplate("index").setLane(EnumMailLane.OTP);
+    }
+
+    private void recordDeliveries(CountDownLatch latch) throws MessagingException {
+        doAnswer(invocation -> {
+            delivered.add(((Mail) invocation.getArgument(0)).getTo());
+            latch.countDown();
+            return null;
+        }).when(emailDelivery).deliver(any());
+    }
+
+    private static EmailLaneMetricsResponse metrics(EmailDispatcher dispatcher) {
+        List<EmailLaneMetricsResponse> metrics = dispatcher.getLaneMetrics();
+        assertEquals(1, metrics.size());
+        assertEquals(EnumMailLane.OTP, metrics.get(0).getLane());
+        return metrics.get(0);
+    }
+
+    @Test
+    void queuedMailGoesOutInOrder() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        recordDeliveries(latch);
+        dispatcher = dispatcher(10, 0);
+        dispatcher.submit(mail("first@example.com"));
+        dispatcher.submit(mail("second@example.com"));
+
+        dispatcher.start();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first@example.com", "second@example.com"), delivered);
+        // counted once the delivery returns, just after the latch
+        assertEquals(2, metrics(dispatcher).getSubmitted());
+    }
+
+    @Test
+    void fullQueueRejectsTheCaller() {
+        dispatcher = dispatcher(1, 0);
+        dispatcher.submit(mail("first@example.com"));
+
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.submit(mail("second@example.com")));
+        assertEquals(1, metrics(dispatcher).getRejected());
+        assertEquals(1, metrics(dispatcher).getQueued());
+        dispatcher.start();
+    }
+
+    @Test
+    void failedSendIsRetried() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        doThrow(new MessagingException("connection reset"))
+                .doAnswer(invocation -> {
+                    latch.countDown();
+                    return null;
+                })
+                .when(emailDelivery).deliver(any());
+        dispatcher = dispatcher(10, 0);
+        dispatcher.start();
+
+        dispatcher.submit(mail("user@example.com"));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        EmailLaneMetricsResponse metrics = metrics(dispatcher);
+        assertEquals(1, metrics.getRetried());
+        assertEquals(0, metrics.getFailed());
+    }
+
+    @Test
+    void retryDelayGrowsAndStaysCapped() {
+        assertEquals(500, EmailDispatcher.retryDelay(1, 1000, 60000, 0));
+        assertEquals(4000, EmailDispatcher.retryDelay(3, 1000, 60000, 1));
+        assertEquals(60000, EmailDispatcher.retryDelay(30, 1000, 60000, 1));
+        assertTrue(EmailDispatcher.retryDelay(2, 1000, 60000, 0.5) >= 1000);
+    }
+}
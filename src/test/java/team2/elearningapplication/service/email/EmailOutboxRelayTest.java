@@ -0,0 +1,140 @@
+package team2.elearningapplication.service.email;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import team2.elearningapplication.Enum.EnumMailLane;
+import team2.elearningapplication.Enum.EnumOutboxStatus;
+import team2.elearningapplication.entity.EmailOutbox;
+import team2.elearningapplication.entity.Mail;
+import team2.elearningapplication.repository.IEmailOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxRelayTest extends Mockito {
+    @Mock
+    IEmailOutboxRepository emailOutboxRepository;
+    @Mock
+    EmailRenderer emailRenderer;
+
+    private LocalSmtpServer smtpServer;
+    private PooledMailTransport mailTransport;
+    private EmailOutboxService emailOutboxService;
+    private EmailOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        smtpServer = new LocalSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        mailTransport = new PooledMailTransport(mailSender, 2);
+        emailOutboxService = new EmailOutboxService(emailOutboxRepository, new ObjectMapper());
+        EmailDelivery emailDelivery = new EmailDelivery(emailRenderer, mailTransport, "noreply@example.com");
+        relay = new EmailOutboxRelay(emailOutboxService, emailDelivery, false, 1, 10, 100, 60000,
+                3, 1000, 60000, 7, "test-node");
+        when(emailRenderer.render(any())).thenAnswer(invocation -> "<p>" + ((Mail) invocation.getArgument(0)).getPros() + "</p>");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mailTransport.close();
+        smtpServer.close();
+    }
+
+    private EmailOutbox row(long id, String to, int attempts) {
+        return new EmailOutbox().setId(id).setLane(EnumMailLane.PAYMENT).setPriority(EnumMailLane.PAYMENT.ordinal())
+                .setTo(to).setSubject("Payment " + id).setTemplate("payment")
+                .setProps("{\"amount\":\"199000.0\"}").setStatus(EnumOutboxStatus.SENDING).setAttempts(attempts);
+    }
+
+    private void claimable(EmailOutbox... rows) {
+        when(emailOutboxRepository.lockDueIds(any(), eq(10)))
+                .thenReturn(Arrays.stream(rows).map(row -> (Number) row.getId()).toList())
+                .thenReturn(List.of());
+        when(emailOutboxRepository.findAllById(any())).thenReturn(List.of(rows));
+    }
+
+    @Test
+    void drainSendsClaimedMailOverOneConnection() {
+        claimable(row(1, "first@example.com", 1), row(2, "second@example.com", 1));
+
+        assertEquals(2, relay.drainOnce());
+
+        verify(emailOutboxRepository).claim(eq(List.of(1L, 2L)), eq("test-node"), any(LocalDateTime.class));
+        verify(emailOutboxRepository).markSent(eq(1L), any());
+        verify(emailOutboxRepository).markSent(eq(2L), any());
+        List<String> messages = smtpServer.getMessages();
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).contains("To: first@example.com"));
+        assertTrue(messages.get(0).contains("amount=199000.0"));
+        assertEquals(1, smtpServer.getConnections());
+        assertEquals(0, relay.drainOnce());
+    }
+
+    @Test
+    void temporaryFailureIsRescheduled() {
+        smtpServer.failNextMessages(1, "451 try again later");
+        claimable(row(5, "user@example.com", 1));
+
+        relay.drainOnce();
+
+        verify(emailOutboxRepository).reschedule(eq(5L), any(LocalDateTime.class), contains("451"));
+        verify(emailOutboxRepository, never()).markSent(anyLong(), any());
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    void lastAttemptFailureMarksFailed() {
+        smtpServer.failNextMessages(1, "451 try again later");
+        claimable(row(6, "user@example.com", 3));
+
+        relay.drainOnce();
+
+        verify(emailOutboxRepository).markFailed(eq(6L), contains("451"));
+        verify(emailOutboxRepository, never()).reschedule(anyLong(), any(), any());
+    }
+
+    @Test
+    void rejectedMailIsNotRetried() {
+        smtpServer.failNextMessages(1, "554 message rejected");
+        claimable(row(7, "user@example.com", 1));
+
+        relay.drainOnce();
+
+        verify(emailOutboxRepository).markFailed(eq(7L), contains("554"));
+        verify(emailOutboxRepository, never()).reschedule(anyLong(), any(), any());
+    }
+
+    @Test
+    void enqueueStoresMailAsPendingRow() {
+        Map<String, Object> props = new HashMap<>();
+        props.put("amount", 199000.0);
+        props.put("created_at", LocalDateTime.of(2024, 5, 1, 10, 30));
+        emailOutboxService.enqueue(new Mail().setTo("user@example.com").setSubject("Payment")
+                .setTemplate("payment").setPros(props).setLane(EnumMailLane.PAYMENT));
+
+        ArgumentCaptor<EmailOutbox> saved = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository).save(saved.capture());
+        EmailOutbox outbox = saved.getValue();
+        assertEquals(EnumOutboxStatus.PENDING, outbox.getStatus());
+        assertEquals(EnumMailLane.PAYMENT.ordinal(), outbox.getPriority());
+        assertNotNull(outbox.getNextAttemptAt());
+        Mail mail = emailOutboxService.toMail(outbox);
+        assertEquals("199000.0", mail.getPros().get("amount"));
+        assertEquals("2024-05-01T10:30", mail.getPros().get("created_at"));
+    }
+}
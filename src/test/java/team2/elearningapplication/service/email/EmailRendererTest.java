@@ -0,0 +1,78 @@
+package team2.elearningapplication.service.email;
+
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+import team2.elearningapplication.entity.Mail;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailRendererTest {
+
+    static SpringTemplateEngine mailTemplateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        return templateEngine;
+    }
+
+    private static String thymeleaf(TemplateEngine templateEngine, Mail mail) {
+        Context context = new Context();
+        context.setVariables(mail.getPros());
+        return templateEngine.process(mail.getTemplate(), context);
+    }
+
+    private static Mail mail(String template, Map<String, Object> props) {
+        return new Mail().setTemplate(template).setPros(props);
+    }
+
+    @Test
+    void compiledTemplatesRenderLikeThymeleaf() {
+        SpringTemplateEngine templateEngine = mailTemplateEngine();
+        EmailRenderer renderer = new EmailRenderer(templateEngine, true);
+        Map<String, Object> payment = new HashMap<>();
+        payment.put("fullname", "Nguyễn <Văn> & \"A\"");
+        payment.put("coursename", "Java 'Core'");
+        payment.put("amount", 199000.0);
+        payment.put("transaction_id", "TX-1");
+        payment.put("created_at", LocalDateTime.of(2024, 5, 1, 10, 30));
+        Map<String, Object> otp = new HashMap<>();
+        otp.put("otp_value", "012345");
+        Map<String, Object> certificate = new HashMap<>();
+        certificate.put("course_name", "Spring Boot");
+        certificate.put("fullname", null);
+
+        for (Mail mail : new Mail[]{mail("payment", payment), mail("index", otp), mail("certificate", certificate)}) {
+            String expected = thymeleaf(templateEngine, mail);
+            assertEquals(expected, renderer.render(mail));
+            assertTrue(renderer.isCompiled(mail));
+            // the second render goes through the compiled form
+            assertEquals(expected, renderer.render(mail));
+        }
+    }
+
+    @Test
+    void valueDependentTemplateFallsBackToThymeleaf() {
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new StringTemplateResolver());
+        EmailRenderer renderer = new EmailRenderer(templateEngine, true);
+        String template = "<p th:if=\"${name.length() > 3}\" th:text=\"${name}\"></p><i th:utext=\"${name}\"></i>";
+
+        assertEquals("<i>Bob</i>", renderer.render(mail(template, Map.of("name", "Bob"))));
+        assertFalse(renderer.isCompiled(mail(template, Map.of("name", "Bob"))));
+        assertEquals("<p>Alice</p><i>Alice</i>", renderer.render(mail(template, Map.of("name", "Alice"))));
+        assertEquals("<p>&lt;em&gt;</p><i><em></i>", renderer.render(mail(template, Map.of("name", "<em>"))));
+    }
+}
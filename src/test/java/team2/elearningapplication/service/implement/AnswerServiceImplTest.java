@@ -22,6 +22,8 @@ import team2.elearningapplication.entity.User;
 import team2.elearningapplication.repository.IAnswerRepository;
 import team2.elearningapplication.repository.IQuestionRepository;
 import team2.elearningapplication.repository.IUserRepository;
+import team2.elearningapplication.service.quiz.QuizAnswerKeyCache;
+import team2.elearningapplication.service.quiz.QuizContentCache;
 
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -63,6 +65,12 @@ class AnswerServiceImplTest extends Mockito {
     @Mock
     IUserRepository userRepository;
 
+    @Mock
+    QuizAnswerKeyCache quizAnswerKeyCache;
+
+    @Mock
+    QuizContentCache quizContentCache;
+
     // test setup methods
     @BeforeEach
     void setUp() {
@@ -0,0 +1,127 @@
+package team2.elearningapplication.service.implement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumTypeRole;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.dto.request.user.course.SearchCourseByNameAndCategoryRequest;
+import team2.elearningapplication.dto.response.admin.course.FindAllCourseResponse;
+import team2.elearningapplication.dto.response.user.course.CourseCard;
+import team2.elearningapplication.dto.response.user.course.GetTopCourseResponse;
+import team2.elearningapplication.dto.response.user.course.SearchCourseByNameAndCategoryResponse;
+import team2.elearningapplication.entity.Category;
+import team2.elearningapplication.entity.Course;
+import team2.elearningapplication.entity.User;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.service.course.CourseEnrollmentCounter;
+import team2.elearningapplication.service.course.CourseSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the course lists served as card projections with the entity graphs they replace:
+ * the JSON is measured for both shapes and the lists must be read through the card queries only.
+ */
+class CourseCardProjectionTest extends Mockito {
+    private static final int COURSE_COUNT = 30;
+
+    @InjectMocks
+    CourseServiceImpl courseService;
+    @Mock
+    ICourseRepository courseRepository;
+    @Mock
+    CourseEnrollmentCounter courseEnrollmentCounter;
+    @Mock
+    CourseSearchIndex courseSearchIndex;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<Course> courses = new ArrayList<>();
+    private final List<CourseCard> cards = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        User admin = user(1, "admin");
+        User editor = user(2, "editor");
+        Category category = new Category();
+        category.setId(1);
+        category.setName("Lập trình");
+        category.setUserCreated(admin);
+        category.setUserUpdated(editor);
+        for (int id = 1; id <= COURSE_COUNT; id++) {
+            Course course = new Course(id, "Course " + id, "Description of course " + id, category, LocalDateTime.now(),
+                    "https://res.cloudinary.com/demo/image/upload/course-" + id + ".png", 100_000 + id,
+                    false, LocalDateTime.now(), admin, editor);
+            courses.add(course);
+            cards.add(new CourseCard(id, course.getName(), course.getPrice(), course.getLinkThumnail(), category.getName()));
+        }
+    }
+
+    private static User user(int id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ");
+        user.setEmail(username + "@example.com");
+        user.setPhone("0900000000");
+        user.setFullName("Nguyễn Văn " + username);
+        user.setRole(EnumTypeRole.ADMIN);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user.setOtp("123456");
+        user.setExpiredOTP(LocalDateTime.now());
+        return user;
+    }
+
+    @Test
+    void findAllCourseReadsCardsAndShrinksTheResponse() throws Exception {
+        when(courseRepository.findCardsByIsDeleted(false)).thenReturn(cards);
+
+        ResponseCommon<FindAllCourseResponse> response = courseService.findAllCourse();
+
+        assertEquals(ResponseCode.SUCCESS.getCode(), response.getCode());
+        verify(courseRepository).findCardsByIsDeleted(false);
+        verifyNoMoreInteractions(courseRepository);
+
+        int entityBytes = objectMapper.writeValueAsBytes(courses).length;
+        String cardJson = objectMapper.writeValueAsString(response.getData().getListCourse());
+        assertTrue(cardJson.length() * 4 < entityBytes, "cards should be under a quarter of the entity payload");
+        // no user data leaks into a public list anymore
+        assertFalse(cardJson.contains("password"));
+        assertFalse(cardJson.contains("otp"));
+    }
+
+    @Test
+    void topCourseKeepsRankAndReadsCards() {
+        when(courseEnrollmentCounter.getTopCourseIds(3)).thenReturn(List.of(7, 2, 9));
+        when(courseRepository.findCardsByIdIn(List.of(7, 2, 9))).thenReturn(List.of(cards.get(1), cards.get(6), cards.get(8)));
+
+        ResponseCommon<GetTopCourseResponse> response = courseService.getTopCourse(3);
+
+        assertEquals(List.of(7, 2, 9), response.getData().getListCourse().stream().map(CourseCard::getId).toList());
+        verify(courseRepository).findCardsByIdIn(anyCollection());
+        verifyNoMoreInteractions(courseRepository);
+    }
+
+    @Test
+    void searchWithoutMatchesDoesNotQuery() {
+        when(courseSearchIndex.search(eq("nothing"), anyInt())).thenReturn(List.of());
+
+        ResponseCommon<SearchCourseByNameAndCategoryResponse> response =
+                courseService.searchCourse(new SearchCourseByNameAndCategoryRequest("nothing"));
+
+        assertEquals(ResponseCode.COURSE_LIST_IS_EMPTY.getCode(), response.getCode());
+        verifyNoInteractions(courseRepository);
+    }
+}
@@ -23,6 +23,11 @@ import team2.elearningapplication.dto.response.admin.course.UpdateCourseResponse
 import team2.elearningapplication.entity.*;
 import team2.elearningapplication.repository.ICourseRepository;
 import team2.elearningapplication.repository.IUserRepository;
+import team2.elearningapplication.service.IDashboardService;
+import team2.elearningapplication.service.IRevenueRollupService;
+import team2.elearningapplication.service.course.CourseEnrollmentCounter;
+import team2.elearningapplication.service.course.CourseSearchIndex;
+import team2.elearningapplication.service.course.UserEnrollmentCache;
 
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -49,6 +54,16 @@ class CourseServiceImplTest extends Mockito {
     ICourseRepository courseRepository;
     @Mock
     IUserRepository userRepository;
+    @Mock
+    CourseEnrollmentCounter courseEnrollmentCounter;
+    @Mock
+    CourseSearchIndex courseSearchIndex;
+    @Mock
+    UserEnrollmentCache userEnrollmentCache;
+    @Mock
+    IDashboardService dashboardService;
+    @Mock
+    IRevenueRollupService revenueRollupService;
 
     @BeforeEach
     void setUp() {
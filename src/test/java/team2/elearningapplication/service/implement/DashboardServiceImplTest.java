@@ -0,0 +1,64 @@
+package team2.elearningapplication.service.implement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.IPaymentRepository;
+import team2.elearningapplication.repository.IUserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardServiceImplTest extends Mockito {
+    @Mock
+    IUserRepository userRepository;
+    @Mock
+    ICourseRepository courseRepository;
+    @Mock
+    IPaymentRepository paymentRepository;
+    @Mock
+    IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+
+    DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dashboardService = new DashboardServiceImpl(userRepository, courseRepository, paymentRepository,
+                historyRegisterCourseRepository);
+    }
+
+    @Test
+    void countersMoveOnlyWhenTheWriteCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dashboardService.onUserCreated();
+            dashboardService.onCourseCreated();
+            dashboardService.onPaymentCompleted(20);
+            dashboardService.onPaymentCompleted(30);
+            assertEquals(0, dashboardService.getTotalUser());
+            assertEquals(0, dashboardService.getTotalRevenue());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCommit();
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(2).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            synchronizations.get(3).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, dashboardService.getTotalUser());
+        assertEquals(0, dashboardService.getTotalCourse());
+        assertEquals(30, dashboardService.getTotalRevenue());
+        assertEquals(1, dashboardService.getSnapshot().getData().getTotalEnrollment());
+
+        dashboardService.onCourseCreated();
+        assertEquals(1, dashboardService.getTotalCourse());
+    }
+}
@@ -0,0 +1,89 @@
+package team2.elearningapplication.service.implement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.request.admin.question.UpdateQuestionRequest;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.repository.IAnswerRepository;
+import team2.elearningapplication.repository.IQuestionRepository;
+import team2.elearningapplication.repository.IUserRepository;
+import team2.elearningapplication.service.quiz.QuizAnswerKeyCache;
+import team2.elearningapplication.service.quiz.QuizContentCache;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionServiceImplTest extends Mockito {
+    @InjectMocks
+    QuestionServiceImpl questionService;
+
+    @Mock
+    IQuestionRepository questionRepository;
+    @Mock
+    IAnswerRepository answerRepository;
+    @Mock
+    IUserRepository userRepository;
+    @Mock
+    QuizAnswerKeyCache quizAnswerKeyCache;
+    @Mock
+    QuizContentCache quizContentCache;
+
+    private final Question question = new Question();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        question.setId(10);
+        question.setQuizID(1);
+        when(questionRepository.findQuestionById(10)).thenReturn(Optional.of(question));
+        when(userRepository.findByUsername(any())).thenReturn(Optional.empty());
+    }
+
+    private static Answer answer(int id, String content) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setAnswerContent(content);
+        return answer;
+    }
+
+    private UpdateQuestionRequest update(Answer... answers) {
+        return new UpdateQuestionRequest("admin", 10, 1, "renamed", EnumQuestionType.ONE_CHOICE, List.of(answers), false);
+    }
+
+    @Test
+    void unknownAnswerLeavesTheQuestionUntouched() {
+        Answer stored = answer(101, "before");
+        when(answerRepository.findAnswerById(101)).thenReturn(Optional.of(stored));
+        when(answerRepository.findAnswerById(999)).thenReturn(Optional.empty());
+
+        assertEquals(ResponseCode.ANSWER_NOT_EXIST.getCode(),
+                questionService.updateQuestion(update(answer(101, "after"), answer(999, "missing"))).getCode());
+
+        verify(questionRepository, never()).save(any());
+        verify(answerRepository, never()).save(any());
+        assertEquals("before", stored.getAnswerContent());
+        assertNull(question.getQuestionName());
+    }
+
+    @Test
+    void updateInvalidatesTheQuizCaches() {
+        Answer stored = answer(101, "before");
+        when(answerRepository.findAnswerById(101)).thenReturn(Optional.of(stored));
+
+        assertEquals(ResponseCode.SUCCESS.getCode(), questionService.updateQuestion(update(answer(101, "after"))).getCode());
+
+        assertEquals("after", stored.getAnswerContent());
+        verify(answerRepository).save(stored);
+        verify(quizAnswerKeyCache).invalidateQuiz(1);
+        verify(quizContentCache).invalidateQuiz(1);
+    }
+}
@@ -0,0 +1,240 @@
+package team2.elearningapplication.service.implement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.request.user.quiz.FinishQuizRequest;
+import team2.elearningapplication.dto.request.user.quiz.GetAllSessionQuizByUserRequest;
+import team2.elearningapplication.dto.request.user.quiz.StartQuizRequest;
+import team2.elearningapplication.dto.request.user.quiz.SubmitAnswerRequest;
+import team2.elearningapplication.entity.*;
+import team2.elearningapplication.repository.*;
+import team2.elearningapplication.service.email.EmailService;
+import team2.elearningapplication.service.quiz.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizServiceImplTest extends Mockito {
+    @Mock
+    IQuizRepository quizRepository;
+    @Mock
+    ILessonRespository lessonRespository;
+    @Mock
+    IUserRepository userRepository;
+    @Mock
+    EmailService emailService;
+    @Mock
+    ICourseRepository courseRepository;
+    @Mock
+    QuizAnswerKeyCache quizAnswerKeyCache;
+    @Mock
+    IQuizAttemptRepository quizAttemptRepository;
+    @Mock
+    QuizAttemptReader quizAttemptReader;
+    @Mock
+    QuizReviewCache quizReviewCache;
+    @Mock
+    QuizContentCache quizContentCache;
+    @Mock
+    QuizStatsCollector quizStatsCollector;
+    @Mock
+    QuizDeadlineScheduler quizDeadlineScheduler;
+    @Mock
+    IQuizSessionSnapshotRepository snapshotRepository;
+
+    private QuizSessionStore quizSessionStore;
+    private QuizServiceImpl quizService;
+
+    // question 10: 101 correct, question 20: 201 correct
+    private final QuizAnswerKey answerKey = QuizAnswerKey.build(1, List.of(question(10), question(20)),
+            List.of(answer(101, 10, true), answer(102, 10, false), answer(201, 20, true), answer(202, 20, false)));
+    private final User alice = user(1, "alice");
+    private final User bob = user(2, "bob");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(quizAnswerKeyCache.get(1)).thenReturn(answerKey);
+        quizSessionStore = new QuizSessionStore(snapshotRepository, quizAnswerKeyCache, 60_000, 4, false);
+        quizService = new QuizServiceImpl(quizRepository, lessonRespository, userRepository, emailService, courseRepository,
+                quizAnswerKeyCache, quizAttemptRepository, quizAttemptReader, quizReviewCache, quizContentCache,
+                quizSessionStore, quizStatsCollector, quizDeadlineScheduler);
+        when(userRepository.findAllByUsernameIn(any())).thenReturn(List.of(alice, bob));
+    }
+
+    private static Question question(int id) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(EnumQuestionType.ONE_CHOICE);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    private static User user(int id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+
+    private int timedSession(String username, int... answers) {
+        int sessionId = quizSessionStore.start(answerKey, username, 7, System.currentTimeMillis() + 60_000);
+        quizSessionStore.update(sessionId, username, session -> session.submit(10, answers)).orElseThrow();
+        return sessionId;
+    }
+
+    @Test
+    void expiredSessionsAreWrittenWithOneSaveAll() {
+        int aliceSession = timedSession("alice", 101);
+        int bobSession = timedSession("bob", 102);
+
+        assertEquals(2, quizService.finishExpiredSessions(List.of(aliceSession, bobSession, 12345)).getData());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QuizAttempt>> saved = ArgumentCaptor.forClass(List.class);
+        verify(quizAttemptRepository, times(1)).saveAll(saved.capture());
+        verify(quizAttemptRepository, never()).save(any());
+        verify(userRepository, times(1)).findAllByUsernameIn(any());
+        List<QuizAttempt> attempts = saved.getValue();
+        assertEquals(2, attempts.size());
+        assertSame(alice, attempts.get(0).getUser());
+        assertEquals(1, attempts.get(0).getTotalCorrect());
+        assertEquals(0, attempts.get(1).getTotalCorrect());
+        assertTrue(attempts.stream().allMatch(QuizAttempt::isAutoSubmitted));
+        verify(quizStatsCollector, times(2)).recordAfterCommit(eq(1), any());
+        // removed without a transaction around the call
+        assertEquals(0, quizSessionStore.size());
+    }
+
+    private FinishQuizRequest finish(int sessionId, List<Integer> answerIds) {
+        FinishQuizRequest request = new FinishQuizRequest();
+        request.setUsername("alice");
+        request.setCourseId(7);
+        request.setQuizId(1);
+        request.setSessionId(sessionId);
+        request.setAnswerIdList(answerIds);
+        return request;
+    }
+
+    @Test
+    void finishAfterTheDeadlineIsRefused() throws InterruptedException {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        int sessionId = quizSessionStore.start(answerKey, "alice", 7, System.currentTimeMillis() + 50);
+        Thread.sleep(100);
+
+        assertEquals(ResponseCode.QUIZ_TIME_UP.getCode(), quizService.finishQuiz(finish(sessionId, List.of(101, 201))).getCode());
+        assertEquals(ResponseCode.QUIZ_TIME_UP.getCode(), quizService.finishQuiz(finish(sessionId, null)).getCode());
+        verify(quizAttemptRepository, never()).save(any());
+        // still there for the deadline scheduler to grade
+        assertEquals(1, quizSessionStore.size());
+    }
+
+    @Test
+    void autoSubmittedAttemptIsNeverReplaced() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        QuizAttempt graded = new QuizAttempt().setUser(alice).setSessionId(42).setAutoSubmitted(true);
+        when(quizAttemptRepository.findByUserAndSessionId(alice, 42)).thenReturn(Optional.of(graded));
+
+        assertEquals(ResponseCode.QUIZ_TIME_UP.getCode(), quizService.finishQuiz(finish(42, List.of(101, 201))).getCode());
+        verify(quizAttemptRepository, never()).save(any());
+        verifyNoInteractions(quizStatsCollector);
+    }
+
+    @Test
+    void finishBeforeTheDeadlineIsGraded() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        int sessionId = timedSession("alice", 101);
+
+        assertEquals(ResponseCode.SUCCESS.getCode(), quizService.finishQuiz(finish(sessionId, null)).getCode());
+        ArgumentCaptor<QuizAttempt> saved = ArgumentCaptor.forClass(QuizAttempt.class);
+        verify(quizAttemptRepository).save(saved.capture());
+        assertEquals(1, saved.getValue().getTotalCorrect());
+        // question 20 was never answered and counts as incorrect, like in a backfilled attempt
+        assertEquals(1, saved.getValue().getTotalIncorrect());
+        assertFalse(saved.getValue().isAutoSubmitted());
+    }
+
+    @Test
+    void answersSentWholeNeedTheSessionOfATimedQuiz() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        Quiz timed = new Quiz();
+        timed.setId(1);
+        timed.setTimeLimitSeconds(60);
+        when(quizRepository.findQuizById(1)).thenReturn(Optional.of(timed));
+
+        // a made-up session id would skip the deadline
+        assertEquals(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), quizService.finishQuiz(finish(12345, List.of(101, 201))).getCode());
+        verify(quizAttemptRepository, never()).save(any());
+
+        QuizAnswerKey otherQuiz = QuizAnswerKey.build(2, List.of(), List.of());
+        int otherSession = quizSessionStore.start(otherQuiz, "alice");
+        assertEquals(ResponseCode.INVALID_DATA.getCode(), quizService.finishQuiz(finish(otherSession, List.of(101, 201))).getCode());
+        verify(quizAttemptRepository, never()).save(any());
+
+        int sessionId = timedSession("alice", 101);
+        assertEquals(ResponseCode.SUCCESS.getCode(), quizService.finishQuiz(finish(sessionId, List.of(101, 201))).getCode());
+        verify(quizAttemptRepository).save(any());
+    }
+
+    @Test
+    void answersSentWholeForAnUntimedQuizNeedNoSession() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        Quiz untimed = new Quiz();
+        untimed.setId(1);
+        when(quizRepository.findQuizById(1)).thenReturn(Optional.of(untimed));
+
+        assertEquals(ResponseCode.SUCCESS.getCode(), quizService.finishQuiz(finish(12345, List.of(101, 201))).getCode());
+        verify(quizAttemptRepository).save(any());
+    }
+
+    @Test
+    void quizIsNotStartedWithoutAUsername() {
+        StartQuizRequest request = new StartQuizRequest();
+        request.setQuizId(1);
+
+        assertEquals(ResponseCode.INVALID_DATA.getCode(), quizService.startQuiz(request).getCode());
+        verifyNoInteractions(quizRepository);
+        assertEquals(0, quizSessionStore.size());
+    }
+
+    @Test
+    void onlyTheOwnerAnswersInASession() {
+        int sessionId = quizSessionStore.start(answerKey, "alice");
+        SubmitAnswerRequest request = new SubmitAnswerRequest();
+        request.setSessionId(sessionId);
+        request.setQuestionId(10);
+        request.setAnswerIdList(List.of(101));
+
+        assertEquals(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), quizService.submitAnswer(request).getCode());
+        request.setUsername("bob");
+        assertEquals(ResponseCode.QUIZ_SESSION_NOT_EXIST.getCode(), quizService.submitAnswer(request).getCode());
+        request.setUsername("alice");
+        assertEquals(ResponseCode.SUCCESS.getCode(), quizService.submitAnswer(request).getCode());
+    }
+
+    @Test
+    void tamperedSessionCursorIsInvalidData() {
+        when(quizAttemptReader.findPage(any(), eq("tampered"), anyInt())).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        GetAllSessionQuizByUserRequest request = new GetAllSessionQuizByUserRequest();
+        request.setUsername("alice");
+        request.setCursor("tampered");
+
+        assertEquals(ResponseCode.INVALID_DATA.getCode(), quizService.getAllSessionQuiz(request).getCode());
+    }
+}
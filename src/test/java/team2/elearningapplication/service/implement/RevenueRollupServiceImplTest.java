@@ -0,0 +1,67 @@
+package team2.elearningapplication.service.implement;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import team2.elearningapplication.Enum.EnumRollupGranularity;
+import team2.elearningapplication.Enum.EnumRollupScope;
+import team2.elearningapplication.dto.response.admin.dashboard.RevenueBucket;
+import team2.elearningapplication.entity.RevenueRollup;
+import team2.elearningapplication.repository.IRevenueRollupRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueRollupServiceImplTest {
+
+    private static RevenueRollup row(EnumRollupGranularity granularity, LocalDate bucketStart, double revenue, long count) {
+        return new RevenueRollup().setGranularity(granularity).setScope(EnumRollupScope.COURSE).setScopeId(1)
+                .setBucketStart(bucketStart).setRevenue(revenue).setEnrollmentCount(count);
+    }
+
+    @Test
+    void bucketStartAlignsToMondayAndFirstOfMonth() {
+        LocalDate sunday = LocalDate.of(2024, 3, 10);
+        assertEquals(sunday, EnumRollupGranularity.DAY.bucketStart(sunday));
+        assertEquals(LocalDate.of(2024, 3, 4), EnumRollupGranularity.WEEK.bucketStart(sunday));
+        assertEquals(LocalDate.of(2024, 3, 1), EnumRollupGranularity.MONTH.bucketStart(sunday));
+    }
+
+    @Test
+    void fillSeriesHasOneBucketPerStepAndZerosForGaps() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 4, 1);
+        List<RevenueBucket> buckets = RevenueRollupServiceImpl.fillSeries(EnumRollupGranularity.MONTH, from, to,
+                List.of(row(EnumRollupGranularity.MONTH, LocalDate.of(2024, 2, 1), 150, 3)));
+
+        assertEquals(4, buckets.size());
+        assertEquals(4, RevenueRollupServiceImpl.bucketCount(EnumRollupGranularity.MONTH, from, to));
+        assertEquals(0, buckets.get(0).getRevenue());
+        assertEquals(LocalDate.of(2024, 2, 1), buckets.get(1).getBucketStart());
+        assertEquals(150, buckets.get(1).getRevenue());
+        assertEquals(3, buckets.get(1).getEnrollmentCount());
+        assertEquals(LocalDate.of(2024, 4, 1), buckets.get(3).getBucketStart());
+    }
+
+    @Test
+    void weekBucketsStepSevenDays() {
+        LocalDate from = LocalDate.of(2024, 12, 30);
+        List<RevenueBucket> buckets = RevenueRollupServiceImpl.fillSeries(EnumRollupGranularity.WEEK, from,
+                LocalDate.of(2025, 1, 13), List.of());
+        assertEquals(List.of(from, LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 13)),
+                buckets.stream().map(RevenueBucket::getBucketStart).toList());
+    }
+
+    @Test
+    void backfillLocksTheDayRowsAndSkipsASeededRollup() {
+        IRevenueRollupRepository repository = Mockito.mock(IRevenueRollupRepository.class);
+        Mockito.when(repository.findFirstByGranularity(EnumRollupGranularity.DAY))
+                .thenReturn(Optional.of(row(EnumRollupGranularity.DAY, LocalDate.of(2024, 3, 10), 10, 1)));
+        new RevenueRollupServiceImpl(repository, 2, 400, 1000).backfillIfEmpty();
+        Mockito.verify(repository, Mockito.never()).sumPaymentsByDayAndCourse();
+        Mockito.verify(repository, Mockito.never()).addToBucket(Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.any(), Mockito.anyDouble(), Mockito.anyLong());
+    }
+}
@@ -0,0 +1,68 @@
+package team2.elearningapplication.service.lesson;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutline;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutlineRow;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseOutlineCacheTest extends Mockito {
+    @Mock
+    ILessonRespository lessonRespository;
+    @Mock
+    ICourseRepository courseRepository;
+
+    private CourseOutlineCache courseOutlineCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        courseOutlineCache = new CourseOutlineCache(lessonRespository, courseRepository);
+        when(lessonRespository.findOutlineByCourseId(1)).thenReturn(List.of(
+                new LessonOutlineRow(30, "Intro", -100L), new LessonOutlineRow(10, "Basics", 200L), new LessonOutlineRow(20, "Wrap up", 300L)));
+    }
+
+    @Test
+    void navigatesInOutlineOrder() {
+        CourseOutline outline = courseOutlineCache.get(1);
+        assertEquals(Optional.of(10), outline.next(30).map(LessonOutline::getId));
+        assertEquals(Optional.of(30), outline.previous(10).map(LessonOutline::getId));
+        assertTrue(outline.previous(30).isEmpty());
+        assertTrue(outline.next(20).isEmpty());
+        assertTrue(outline.next(99).isEmpty());
+        // ord numbers are positions in rank order
+        assertEquals(3, outline.findById(20).map(LessonOutline::getOrdNumber).orElse(0));
+        assertEquals(2, outline.findById(10).map(LessonOutline::getOrdNumber).orElse(0));
+        assertEquals(3, outline.getLessons().size());
+    }
+
+    @Test
+    void servedFromMemoryUntilInvalidated() {
+        assertSame(courseOutlineCache.get(1), courseOutlineCache.get(1));
+        verify(lessonRespository, times(1)).findOutlineByCourseId(1);
+        assertEquals(1, courseOutlineCache.getCourseIdOf(10));
+
+        courseOutlineCache.invalidateCourse(1);
+        assertNull(courseOutlineCache.getCourseIdOf(10));
+        courseOutlineCache.get(1);
+        verify(lessonRespository, times(2)).findOutlineByCourseId(1);
+    }
+
+    @Test
+    void emptyOutlineTellsWhetherTheCourseExists() {
+        when(courseRepository.existsById(2)).thenReturn(true);
+        assertTrue(courseOutlineCache.get(2).isCourseExists());
+        assertFalse(courseOutlineCache.get(3).isCourseExists());
+        assertTrue(courseOutlineCache.get(1).isCourseExists());
+        verify(courseRepository, never()).existsById(1);
+    }
+}
@@ -0,0 +1,153 @@
+package team2.elearningapplication.service.lesson;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.dto.response.user.lesson.LessonOutlineRow;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.ILessonCompletedRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseProgressCacheTest {
+    @Mock
+    ILessonRespository lessonRespository;
+    @Mock
+    ILessonCompletedRepository lessonCompletedRepository;
+    @Mock
+    IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+    @Mock
+    LessonCompletionBuffer lessonCompletionBuffer;
+    @Mock
+    ICourseRepository courseRepository;
+
+    CourseOutlineCache courseOutlineCache;
+    CourseProgressCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // course 1: lessons 10, 11, 12 (deleted); course 2: 20
+        Mockito.when(lessonRespository.findLessonStatesByCourseIds(Mockito.any())).thenAnswer(invocation -> {
+            Collection<Integer> courseIds = invocation.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            if (courseIds.contains(1)) {
+                rows.add(new Object[]{1, 11, false});
+                rows.add(new Object[]{1, 10, false});
+                rows.add(new Object[]{1, 12, true});
+            }
+            if (courseIds.contains(2)) {
+                rows.add(new Object[]{2, 20, false});
+            }
+            return rows;
+        });
+        Mockito.when(lessonCompletedRepository.findCompletedLessonIds(Mockito.eq("alice"), Mockito.any()))
+                .thenReturn(List.of(new Object[]{1, 10}, new Object[]{1, 12}));
+        Mockito.when(historyRegisterCourseRepository.findLessonCurrents(Mockito.eq("alice"), Mockito.any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 10}));
+        Mockito.when(lessonRespository.findOutlineByCourseId(1)).thenReturn(List.of(
+                new LessonOutlineRow(10, "a", LessonRanker.GAP), new LessonOutlineRow(11, "b", 2 * LessonRanker.GAP)));
+        Mockito.when(lessonCompletionBuffer.getPendingLessonIds(Mockito.anyString(), Mockito.anyInt()))
+                .thenAnswer(invocation -> new HashSet<>());
+        courseOutlineCache = new CourseOutlineCache(lessonRespository, courseRepository);
+        cache = new CourseProgressCache(lessonRespository, lessonCompletedRepository, historyRegisterCourseRepository,
+                lessonCompletionBuffer, courseOutlineCache, 100);
+    }
+
+    @Test
+    void deletedLessonsAreNotCounted() {
+        CourseProgressCache.CourseProgress progress = cache.get("alice", 1);
+        assertEquals(1, progress.completedLessons());
+        assertEquals(2, progress.totalLessons());
+        assertEquals(1, progress.lessonCurrent());
+    }
+
+    @Test
+    void secondReadIsServedFromMemory() {
+        cache.get("alice", 1);
+        cache.get("alice", 1);
+        Mockito.verify(lessonRespository, Mockito.times(1)).findLessonStatesByCourseIds(Mockito.any());
+        Mockito.verify(lessonCompletedRepository, Mockito.times(1)).findCompletedLessonIds(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void completionSetsItsBitInPlace() {
+        cache.get("alice", 1);
+        cache.complete("alice", 1, 11, 2);
+        cache.complete("alice", 1, 11, 2);
+
+        CourseProgressCache.CourseProgress progress = cache.get("alice", 1);
+        assertEquals(2, progress.completedLessons());
+        assertEquals(2, progress.lessonCurrent());
+        Mockito.verify(lessonCompletedRepository, Mockito.times(1)).findCompletedLessonIds(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void completionDuringALoadIsNotLost() {
+        Mockito.when(lessonCompletedRepository.findCompletedLessonIds(Mockito.eq("alice"), Mockito.any())).thenAnswer(invocation -> {
+            // completed after the table was read, the row is not in this result
+            cache.complete("alice", 1, 11, 2);
+            return List.<Object[]>of(new Object[]{1, 10});
+        }).thenReturn(List.of(new Object[]{1, 10}, new Object[]{1, 11}));
+
+        assertEquals(1, cache.get("alice", 1).completedLessons());
+        assertEquals(2, cache.get("alice", 1).completedLessons());
+        Mockito.verify(lessonCompletedRepository, Mockito.times(2)).findCompletedLessonIds(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void bufferedCompletionsAreCountedOnLoad() {
+        Mockito.when(lessonCompletionBuffer.getPendingLessonIds("alice", 1)).thenReturn(new HashSet<>(Set.of(10, 11)));
+        Mockito.when(lessonCompletionBuffer.getPendingLessonCurrent("alice", 1)).thenReturn(2);
+
+        CourseProgressCache.CourseProgress progress = cache.get("alice", 1);
+        assertEquals(2, progress.completedLessons());
+        assertEquals(2, progress.lessonCurrent());
+    }
+
+    @Test
+    void batchLoadsAllCoursesWithOneQueryEach() {
+        List<CourseProgressCache.CourseProgress> progress = cache.getAll("alice", List.of(2, 1));
+        assertEquals(List.of(2, 1), progress.stream().map(CourseProgressCache.CourseProgress::courseId).toList());
+        assertEquals(0, progress.get(0).completedLessons());
+        assertEquals(1, progress.get(0).totalLessons());
+        Mockito.verify(lessonRespository, Mockito.times(1)).findLessonStatesByCourseIds(Set.of(1, 2));
+        Mockito.verify(lessonCompletedRepository, Mockito.times(1)).findCompletedLessonIds("alice", Set.of(1, 2));
+    }
+
+    @Test
+    void resumePointerFollowsItsLessonWhenItMoves() {
+        Mockito.when(historyRegisterCourseRepository.findLessonCurrents(Mockito.eq("alice"), Mockito.any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 11}));
+        assertEquals(2, cache.get("alice", 1).lessonCurrent());
+
+        // lesson 11 moved to the front
+        Mockito.when(lessonRespository.findOutlineByCourseId(1)).thenReturn(List.of(
+                new LessonOutlineRow(11, "b", LessonRanker.GAP / 2), new LessonOutlineRow(10, "a", LessonRanker.GAP)));
+        courseOutlineCache.invalidateCourse(1);
+        cache.evictCourse(1);
+        assertEquals(1, cache.get("alice", 1).lessonCurrent());
+    }
+
+    @Test
+    void enrollmentWithoutResumeLessonStartsAtTheFirst() {
+        Mockito.when(historyRegisterCourseRepository.findLessonCurrents(Mockito.eq("alice"), Mockito.any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1, null}, new Object[]{2, 99}));
+        assertEquals(List.of(1, 1), cache.getAll("alice", List.of(1, 2)).stream()
+                .map(CourseProgressCache.CourseProgress::lessonCurrent).toList());
+    }
+
+    @Test
+    void lessonChangeReloadsTheCourse() {
+        cache.get("alice", 1);
+        cache.evictCourse(1);
+        cache.get("alice", 1);
+        Mockito.verify(lessonRespository, Mockito.times(2)).findLessonStatesByCourseIds(Mockito.any());
+    }
+}
@@ -0,0 +1,99 @@
+package team2.elearningapplication.service.lesson;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.ILessonCompletedRepository;
+import team2.elearningapplication.repository.ILessonCompletedRepositoryCustom.CompletionRow;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonCompletionBufferTest {
+    @Mock
+    ILessonCompletedRepository lessonCompletedRepository;
+    @Mock
+    IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    LessonCompletionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        buffer = new LessonCompletionBuffer(lessonCompletedRepository, historyRegisterCourseRepository,
+                new TransactionTemplate(transactionManager), 2);
+    }
+
+    @Test
+    void repeatedCompletionIsBufferedOnce() {
+        assertTrue(buffer.complete("alice", 1, 10, 1));
+        assertFalse(buffer.complete("alice", 1, 10, 1));
+        assertTrue(buffer.complete("bob", 1, 10, 1));
+        assertTrue(buffer.isPending("alice", 1, 10));
+        assertFalse(buffer.isPending("alice", 2, 10));
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void pendingCompletionsAreVisibleUntilFlushed() {
+        buffer.complete("alice", 1, 10, 1);
+        buffer.complete("alice", 1, 12, 3);
+        buffer.complete("alice", 1, 11, 2);
+        assertEquals(Set.of(10, 11, 12), buffer.getPendingLessonIds("alice", 1));
+        assertEquals(3, buffer.getPendingLessonCurrent("alice", 1));
+
+        buffer.flush();
+        assertEquals(Set.of(), buffer.getPendingLessonIds("alice", 1));
+        assertEquals(0, buffer.getPendingLessonCurrent("alice", 1));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void flushWritesRowsAndTheHighestLessonPerBatch() {
+        buffer.complete("alice", 1, 10, 1);
+        buffer.complete("alice", 1, 11, 2);
+        buffer.flush();
+        buffer.flush();
+
+        // both rows in one statement, nothing left for the second flush
+        Mockito.verify(lessonCompletedRepository).insertAllIfAbsent(List.of(
+                new CompletionRow("alice", 10), new CompletionRow("alice", 11)));
+        Mockito.verify(historyRegisterCourseRepository).advanceLessonCurrent("alice", 1, 11);
+        Mockito.verify(transactionManager).commit(Mockito.any());
+    }
+
+    @Test
+    void failedCompletionIsKeptAndRetried() {
+        Mockito.when(lessonCompletedRepository.insertAllIfAbsent(List.of(new CompletionRow("alice", 10))))
+                .thenThrow(new RuntimeException("down")).thenThrow(new RuntimeException("down")).thenReturn(1);
+        buffer.complete("alice", 1, 10, 1);
+        buffer.flush();
+        assertTrue(buffer.isPending("alice", 1, 10));
+
+        buffer.flush();
+        assertFalse(buffer.isPending("alice", 1, 10));
+    }
+
+    @Test
+    void rejectedCompletionIsDroppedWithoutBlockingTheBatch() {
+        Mockito.when(lessonCompletedRepository.insertAllIfAbsent(Mockito.argThat(rows -> rows.contains(new CompletionRow("alice", 10)))))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        buffer.complete("alice", 1, 10, 1);
+        buffer.complete("alice", 1, 11, 2);
+        buffer.flush();
+
+        assertEquals(0, buffer.size());
+        Mockito.verify(lessonCompletedRepository).insertAllIfAbsent(List.of(new CompletionRow("alice", 11)));
+        Mockito.verify(historyRegisterCourseRepository).advanceLessonCurrent("alice", 1, 11);
+    }
+}
@@ -0,0 +1,88 @@
+package team2.elearningapplication.service.lesson;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.repository.ICourseRepository;
+import team2.elearningapplication.repository.IHistoryResgisterCourseRepository;
+import team2.elearningapplication.repository.ILessonRespository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LessonRankerTest extends Mockito {
+    private static final long GAP = LessonRanker.GAP;
+
+    @Mock
+    ILessonRespository lessonRespository;
+    @Mock
+    ICourseRepository courseRepository;
+    @Mock
+    IHistoryResgisterCourseRepository historyRegisterCourseRepository;
+
+    private LessonRanker lessonRanker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        lessonRanker = new LessonRanker(lessonRespository, historyRegisterCourseRepository, new CourseOutlineCache(lessonRespository, courseRepository));
+    }
+
+    @Test
+    void takesTheMiddleOfTheNeighbours() {
+        long[] ranks = {GAP, 2 * GAP, 3 * GAP};
+        assertEquals(GAP + GAP / 2, LessonRanker.between(ranks, 2));
+        assertEquals(0L, LessonRanker.between(ranks, 1));
+        assertEquals(4 * GAP, LessonRanker.between(ranks, 4));
+        // clamped to the ends
+        assertEquals(4 * GAP, LessonRanker.between(ranks, 99));
+        assertEquals(0L, LessonRanker.between(ranks, -3));
+        assertEquals(GAP, LessonRanker.between(new long[0], 1));
+        assertNull(LessonRanker.between(new long[]{5, 6}, 2));
+    }
+
+    @Test
+    void movingALessonDoesNotCountItsOwnRank() {
+        // lesson 10 at GAP is left out by the query
+        when(lessonRespository.lockRanksByCourseId(1, 10)).thenReturn(List.of(2 * GAP, 3 * GAP));
+        // lesson 10 to the second place: between b and c
+        assertEquals(2 * GAP + GAP / 2, lessonRanker.rankAt(1, 2, 10));
+        verify(lessonRespository, never()).rebalance(anyInt(), anyLong());
+        verify(lessonRespository, never()).findOutlineByCourseId(anyInt());
+    }
+
+    @Test
+    void rebalancesOnceWhenNeighboursAreTooClose() {
+        when(lessonRespository.lockRanksByCourseId(1, 0))
+                .thenReturn(List.of(7L, 8L))
+                .thenReturn(List.of(GAP, 2 * GAP));
+
+        assertEquals(GAP + GAP / 2, lessonRanker.rankAt(1, 2, 0));
+        verify(lessonRespository, times(1)).rebalance(1, GAP);
+        verify(lessonRespository, times(2)).lockRanksByCourseId(1, 0);
+    }
+
+    @Test
+    void repeatedMovesRebalanceOnlyWhenTheGapIsUsedUp() {
+        long[] ranks = {GAP, 2 * GAP};
+        int moves = 0;
+        // keep moving a lesson right after the first one, each move halves the gap it leaves
+        for (Long rank = LessonRanker.between(ranks, 2); rank != null; rank = LessonRanker.between(ranks, 2)) {
+            ranks = new long[]{ranks[0], rank};
+            moves++;
+        }
+        assertEquals(20, moves);
+    }
+
+    @Test
+    void backfillPointsEnrollmentsAfterRankingLessons() {
+        lessonRanker.backfill();
+        InOrder order = inOrder(lessonRespository, historyRegisterCourseRepository);
+        order.verify(lessonRespository).backfillRanks(GAP);
+        order.verify(historyRegisterCourseRepository).backfillLessonCurrentIds();
+    }
+}
@@ -0,0 +1,81 @@
+package team2.elearningapplication.service.live;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveConnectionTest extends Mockito {
+    @Mock
+    Session session;
+    @Mock
+    RemoteEndpoint.Async remote;
+
+    private LiveConnection connection;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(session.getAsyncRemote()).thenReturn(remote);
+        connection = new LiveConnection(session, "alice", null, 2);
+    }
+
+    private SendHandler lastHandler(int sends) {
+        ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+        verify(remote, times(sends)).sendText(anyString(), handler.capture());
+        return handler.getValue();
+    }
+
+    @Test
+    void sendsOneFrameAtATimeInOrder() {
+        assertTrue(connection.send("a"));
+        assertTrue(connection.send("b"));
+        verify(remote).sendText(eq("a"), any(SendHandler.class));
+        verify(remote, never()).sendText(eq("b"), any(SendHandler.class));
+
+        lastHandler(1).onResult(new SendResult());
+        verify(remote).sendText(eq("b"), any(SendHandler.class));
+    }
+
+    @Test
+    void slowClientIsRefusedPastTheQueueLimit() {
+        // one in flight, two waiting
+        assertTrue(connection.send("a"));
+        assertTrue(connection.send("b"));
+        assertTrue(connection.send("c"));
+        assertFalse(connection.send("d"));
+    }
+
+    @Test
+    void closesAfterQueuedFramesWhenAsked() throws Exception {
+        connection.send("a");
+        connection.send("end");
+        connection.closeWhenDrained(CloseReason.CloseCodes.NORMAL_CLOSURE, "done");
+        verify(session, never()).close(any(CloseReason.class));
+
+        lastHandler(1).onResult(new SendResult());
+        verify(session, never()).close(any(CloseReason.class));
+        lastHandler(2).onResult(new SendResult());
+        verify(session).close(any(CloseReason.class));
+        assertTrue(connection.isClosed());
+        assertFalse(connection.send("late"));
+    }
+
+    @Test
+    void failedSendClosesTheSocket() throws Exception {
+        connection.send("a");
+        lastHandler(1).onResult(new SendResult(new java.io.IOException("reset")));
+        verify(session).close(any(CloseReason.class));
+        assertFalse(connection.send("b"));
+    }
+}
@@ -0,0 +1,209 @@
+package team2.elearningapplication.service.live;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.service.quiz.QuizAnswerKey;
+
+import javax.servlet.http.HttpServlet;
+import javax.websocket.*;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the live quiz socket, run by hand: starts an embedded Tomcat with only the live
+ * quiz endpoint and a room on a generated quiz, connects the clients, then moves through the
+ * questions while every client answers each one after a random think time. Prints connect time,
+ * question fan-out latency, answers counted and leaderboard frames received.
+ * <pre>
+ * java ... LiveQuizLoadSimulator [clients=5000] [questions=5] [think-ms=2000]
+ * </pre>
+ * Each client is one socket on each side, raise the open files limit above twice the clients.
+ */
+public class LiveQuizLoadSimulator {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int questionCount = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int thinkMillis = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        LiveQuizRegistry registry = new LiveQuizRegistry(null, null, OBJECT_MAPPER, 10, 32, 20_000, 3_600_000);
+        Tomcat tomcat = startServer(registry);
+        int port = tomcat.getConnector().getLocalPort();
+        LiveQuizRoom room = registry.open(1, "host", questions(questionCount), answerKey(questionCount));
+
+        // leaderboard pushes as the scheduler would run them
+        ScheduledExecutorService pusher = Executors.newSingleThreadScheduledExecutor();
+        pusher.scheduleWithFixedDelay(registry::pushLeaderboards, 1, 1, TimeUnit.SECONDS);
+
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        ScheduledExecutorService thinkers = Executors.newScheduledThreadPool(4);
+        Stats stats = new Stats(clients);
+        List<Session> sessions = new ArrayList<>(clients);
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            URI uri = URI.create("ws://localhost:" + port + "/ws/live-quiz/" + room.getRoomCode() + "?username=student" + i);
+            sessions.add(container.connectToServer(new SimulatedClient(stats, thinkers, thinkMillis), ClientEndpointConfig.Builder.create().build(), uri));
+        }
+        long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+        System.out.printf("connected %d sockets in %d ms, server sees %d%n", clients, connectMillis, registry.getConnectionCount(room.getRoomCode()));
+
+        for (int q = 0; q < questionCount; q++) {
+            stats.startQuestion();
+            registry.next(room);
+            if (!stats.received.await(60, TimeUnit.SECONDS)) {
+                System.out.println("not every client got the question within 60 s");
+            }
+            long fanOutMillis = (stats.lastReceived.get() - stats.questionSent) / 1_000_000;
+            Thread.sleep(thinkMillis + 1_500);
+            System.out.printf("question %d: fan-out to %d clients in %d ms, %d answers counted%n",
+                    q + 1, clients, fanOutMillis, room.getCurrent().getAnswered());
+        }
+        registry.close(room);
+        Thread.sleep(1_000);
+        System.out.printf("leaderboard frames received %d (%.1f per client), end frames %d, leader %s%n",
+                stats.leaderboards.get(), stats.leaderboards.get() / (double) clients, stats.ends.get(),
+                room.leaderboard(1).isEmpty() ? "-" : room.leaderboard(1).get(0).getUsername());
+
+        pusher.shutdownNow();
+        thinkers.shutdownNow();
+        for (Session session : sessions) {
+            if (session.isOpen()) {
+                session.close();
+            }
+        }
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    private static Tomcat startServer(LiveQuizRegistry registry) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("live-quiz-simulator").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("maxConnections", "20000");
+        Context context = tomcat.addContext("", null);
+        context.addServletContainerInitializer(new WsSci(), null);
+        // the upgrade filter only runs on a mapped request
+        Tomcat.addServlet(context, "default", new HttpServlet() {
+        });
+        context.addServletMappingDecoded("/", "default");
+        tomcat.start();
+        ServerContainer serverContainer = (ServerContainer) context.getServletContext().getAttribute(ServerContainer.class.getName());
+        serverContainer.addEndpoint(ServerEndpointConfig.Builder.create(LiveQuizEndpoint.class, LiveQuizEndpoint.PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return (T) new LiveQuizEndpoint(registry);
+                    }
+                }).build());
+        return tomcat;
+    }
+
+    // question i has id i, options i*10+1 .. i*10+4, the first one correct
+    private static List<QuestionContent> questions(int count) {
+        List<QuestionContent> questions = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            List<QuestionContent.AnswerContent> answers = new ArrayList<>();
+            for (int option = 1; option <= 4; option++) {
+                answers.add(new QuestionContent.AnswerContent(id * 10 + option, "Option " + option, id));
+            }
+            questions.add(new QuestionContent(id, "Question " + id, EnumQuestionType.ONE_CHOICE, id, 1, answers));
+        }
+        return questions;
+    }
+
+    private static QuizAnswerKey answerKey(int count) {
+        List<Question> questions = new ArrayList<>();
+        List<Answer> answers = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            Question question = new Question();
+            question.setId(id);
+            question.setQuizID(1);
+            question.setQuestionType(EnumQuestionType.ONE_CHOICE);
+            questions.add(question);
+            for (int option = 1; option <= 4; option++) {
+                Answer answer = new Answer();
+                answer.setId(id * 10 + option);
+                answer.setQuestionId(id);
+                answer.setCorrect(option == 1);
+                answers.add(answer);
+            }
+        }
+        return QuizAnswerKey.build(1, questions, answers);
+    }
+
+    private static final class Stats {
+        private final int clients;
+        private final AtomicLong lastReceived = new AtomicLong();
+        private final AtomicInteger leaderboards = new AtomicInteger();
+        private final AtomicInteger ends = new AtomicInteger();
+        private volatile long questionSent;
+        private volatile CountDownLatch received;
+
+        private Stats(int clients) {
+            this.clients = clients;
+        }
+
+        private void startQuestion() {
+            received = new CountDownLatch(clients);
+            questionSent = System.nanoTime();
+        }
+    }
+
+    private static final class SimulatedClient extends Endpoint {
+        private final Stats stats;
+        private final ScheduledExecutorService thinkers;
+        private final int thinkMillis;
+
+        private SimulatedClient(Stats stats, ScheduledExecutorService thinkers, int thinkMillis) {
+            this.stats = stats;
+            this.thinkers = thinkers;
+            this.thinkMillis = thinkMillis;
+        }
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(new MessageHandler.Whole<String>() {
+                @Override
+                public void onMessage(String text) {
+                    try {
+                        JsonNode frame = OBJECT_MAPPER.readTree(text);
+                        switch (frame.get("type").asText()) {
+                            case LiveQuizRegistry.TYPE_QUESTION -> answerLater(session, frame.get("question"));
+                            case LiveQuizRegistry.TYPE_LEADERBOARD -> stats.leaderboards.incrementAndGet();
+                            case LiveQuizRegistry.TYPE_END -> stats.ends.incrementAndGet();
+                            default -> {
+                            }
+                        }
+                    } catch (Exception e) {
+                        System.out.println("bad frame: " + e.getMessage());
+                    }
+                }
+            });
+        }
+
+        private void answerLater(Session session, JsonNode question) {
+            stats.lastReceived.accumulateAndGet(System.nanoTime(), Math::max);
+            stats.received.countDown();
+            JsonNode options = question.get("answerList");
+            int answerId = options.get(ThreadLocalRandom.current().nextInt(options.size())).get("id").asInt();
+            String answer = "{\"questionId\":" + question.get("id").asInt() + ",\"answerIds\":[" + answerId + "]}";
+            thinkers.schedule(() -> session.getAsyncRemote().sendText(answer),
+                    ThreadLocalRandom.current().nextInt(Math.max(thinkMillis, 1)), TimeUnit.MILLISECONDS);
+        }
+    }
+}
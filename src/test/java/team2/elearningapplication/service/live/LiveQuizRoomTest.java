@@ -0,0 +1,172 @@
+package team2.elearningapplication.service.live;
+
+import org.junit.jupiter.api.Test;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.dto.response.user.live.LeaderboardEntry;
+import team2.elearningapplication.dto.response.user.live.OptionCount;
+import team2.elearningapplication.dto.response.user.question.QuestionContent;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.service.quiz.QuizAnswerKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveQuizRoomTest {
+    private static final long WINDOW = 10_000;
+
+    // question 10 (first on screen): 101 correct. question 20: 201 correct
+    private final List<QuestionContent> questions = List.of(
+            content(20, 2, 201, 202), content(10, 1, 101, 102, 103));
+    private final QuizAnswerKey answerKey = QuizAnswerKey.build(1,
+            List.of(question(10), question(20)),
+            List.of(answer(101, 10, true), answer(102, 10, false), answer(103, 10, false),
+                    answer(201, 20, true), answer(202, 20, false)));
+
+    private static QuestionContent content(int id, int ord, int... answerIds) {
+        List<QuestionContent.AnswerContent> answers = new ArrayList<>();
+        for (int answerId : answerIds) {
+            answers.add(new QuestionContent.AnswerContent(answerId, "option " + answerId, id));
+        }
+        return new QuestionContent(id, "question " + id, EnumQuestionType.ONE_CHOICE, ord, 1, answers);
+    }
+
+    private static Question question(int id) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(EnumQuestionType.ONE_CHOICE);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    private LiveQuizRoom room() {
+        return new LiveQuizRoom("123456", 1, "host", questions, answerKey, WINDOW, 0);
+    }
+
+    @Test
+    void questionsFollowTheirOrderAndTheFrameIsBuiltOnce() {
+        LiveQuizRoom room = room();
+        List<Integer> built = new ArrayList<>();
+
+        Function<LiveQuizRoom.Question, String> frameOf = question -> {
+            built.add(question.getContent().getId());
+            return "frame-" + question.getContent().getId();
+        };
+
+        LiveQuizRoom.Question first = room.advance(1_000, frameOf);
+        assertEquals(10, first.getContent().getId());
+        assertEquals("frame-10", first.getFrame());
+        assertEquals(1, room.getPosition());
+        assertEquals(20, room.advance(2_000, frameOf).getContent().getId());
+        assertNull(room.advance(3_000, frameOf));
+        assertEquals(List.of(10, 20), built);
+    }
+
+    @Test
+    void eachParticipantCountsOncePerQuestion() {
+        LiveQuizRoom room = room();
+        assertEquals(-1, room.answer("alice", 10, new int[]{101}, 0));
+        room.advance(1_000, question -> "frame");
+
+        assertEquals(LiveQuizRoom.BASE_POINTS + LiveQuizRoom.SPEED_POINTS, room.answer("alice", 10, new int[]{101}, 1_000));
+        assertEquals(-1, room.answer("alice", 10, new int[]{102}, 1_500));
+        assertEquals(0, room.answer("bob", 10, new int[]{102}, 1_500));
+        // an option of another question, or a question that is not open
+        assertEquals(-1, room.answer("carol", 10, new int[]{201}, 1_500));
+        assertEquals(-1, room.answer("carol", 20, new int[]{201}, 1_500));
+
+        assertEquals(2, room.getCurrent().getAnswered());
+        assertEquals(List.of(1L, 1L, 0L), room.getCurrent().optionCounts().stream().map(OptionCount::getCount).toList());
+
+        room.advance(2_000, question -> "frame");
+        // half the window gone, half the speed points
+        assertEquals(LiveQuizRoom.BASE_POINTS + LiveQuizRoom.SPEED_POINTS / 2, room.answer("alice", 20, new int[]{201}, 2_000 + WINDOW / 2));
+    }
+
+    @Test
+    void anOptionUnknownToTheAnswerKeyLeavesTheQuestionOpen() {
+        // 104 is shown with question 10 but was added after the answer key was built
+        LiveQuizRoom room = new LiveQuizRoom("123456", 1, "host",
+                List.of(content(10, 1, 101, 102, 104)), answerKey, WINDOW, 0);
+        room.advance(0, question -> "frame");
+
+        assertEquals(-1, room.answer("alice", 10, new int[]{104}, 0));
+        assertEquals(-1, room.answer("alice", 10, new int[]{101, 104}, 0));
+        assertEquals(0, room.getCurrent().getAnswered());
+        assertEquals(LiveQuizRoom.BASE_POINTS + LiveQuizRoom.SPEED_POINTS, room.answer("alice", 10, new int[]{101}, 0));
+        assertEquals(List.of(1L, 0L, 0L), room.getCurrent().optionCounts().stream().map(OptionCount::getCount).toList());
+    }
+
+    @Test
+    void anOptionPickedTwiceCountsOnce() {
+        LiveQuizRoom room = room();
+        room.advance(0, question -> "frame");
+
+        assertEquals(LiveQuizRoom.BASE_POINTS + LiveQuizRoom.SPEED_POINTS, room.answer("alice", 10, new int[]{101, 101}, 0));
+        // two different options on a one-choice question are still wrong
+        assertEquals(0, room.answer("bob", 10, new int[]{102, 101, 102}, 0));
+
+        assertEquals(2, room.getCurrent().getAnswered());
+        assertEquals(List.of(2L, 1L, 0L), room.getCurrent().optionCounts().stream().map(OptionCount::getCount).toList());
+    }
+
+    @Test
+    void concurrentAnswersAreAllCounted() throws Exception {
+        LiveQuizRoom room = room();
+        room.advance(0, question -> "frame");
+        int participants = 4_000;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < participants; i++) {
+                String username = "user" + i;
+                int answerId = 101 + i % 3;
+                futures.add(pool.submit(() -> {
+                    room.join(username);
+                    // every answer twice, only the first counts
+                    room.answer(username, 10, new int[]{answerId}, 0);
+                    room.answer(username, 10, new int[]{answerId}, 0);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(participants, room.getCurrent().getAnswered());
+        long total = room.getCurrent().optionCounts().stream().mapToLong(OptionCount::getCount).sum();
+        assertEquals(participants, total);
+        assertEquals(participants, room.getParticipantCount());
+    }
+
+    @Test
+    void leaderboardKeepsTheBestScores() {
+        LiveQuizRoom room = room();
+        room.advance(0, question -> "frame");
+        room.answer("slow", 10, new int[]{101}, WINDOW);
+        room.answer("fast", 10, new int[]{101}, 0);
+        room.answer("wrong", 10, new int[]{103}, 0);
+
+        List<LeaderboardEntry> top = room.leaderboard(2);
+        assertEquals(List.of("fast", "slow"), top.stream().map(LeaderboardEntry::getUsername).toList());
+        assertEquals(1, top.get(0).getRank());
+        assertEquals(LiveQuizRoom.BASE_POINTS, top.get(1).getScore());
+    }
+}
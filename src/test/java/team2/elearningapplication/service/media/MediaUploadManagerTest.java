@@ -0,0 +1,174 @@
+package team2.elearningapplication.service.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import team2.elearningapplication.Enum.EnumMediaTarget;
+import team2.elearningapplication.Enum.EnumUploadStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaUploadManagerTest {
+    private static final String BOUNDARY = "----media-upload-test";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void streamsTheFilePartIntoTheStore() throws Exception {
+        MediaUploadManager manager = new MediaUploadManager(new LocalMediaStore(directory.toString()), 2, 100, 1 << 20, 60000);
+        MediaUpload upload = manager.create("admin", EnumMediaTarget.LESSON_CONTENT, 7);
+        byte[] video = new byte[300_000];
+        for (int i = 0; i < video.length; i++) {
+            video[i] = (byte) i;
+        }
+        List<String> attached = new ArrayList<>();
+
+        assertTrue(manager.upload(upload, multipart("intro.mp4", video), attached::add));
+
+        assertEquals(EnumUploadStatus.COMPLETED, upload.getStatus());
+        assertEquals(video.length, upload.getBytesReceived());
+        assertEquals(List.of(upload.getUrl()), attached);
+        Path stored = Path.of(URI.create(upload.getUrl()));
+        assertTrue(stored.startsWith(directory.resolve("lesson_content")));
+        assertArrayEquals(video, Files.readAllBytes(stored));
+    }
+
+    @Test
+    void anUploadIsSentOnce() throws Exception {
+        MediaUploadManager manager = new MediaUploadManager(new LocalMediaStore(directory.toString()), 2, 100, 1 << 20, 60000);
+        MediaUpload upload = manager.create("admin", EnumMediaTarget.COURSE_THUMBNAIL, 1);
+        manager.upload(upload, multipart("cover.png", new byte[10]), url -> {
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> manager.upload(upload, multipart("cover.png", new byte[10]), url -> {
+                }));
+    }
+
+    @Test
+    void failuresAreRecordedOnTheUpload() throws Exception {
+        MediaUploadManager manager = new MediaUploadManager(new LocalMediaStore(directory.toString()), 2, 100, 100, 60000);
+
+        MediaUpload notMultipart = manager.create("admin", EnumMediaTarget.COURSE_THUMBNAIL, 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/media/upload");
+        request.setContentType("application/json");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(manager.upload(notMultipart, request, url -> fail("nothing was stored")));
+        assertEquals(EnumUploadStatus.FAILED, notMultipart.getStatus());
+
+        MediaUpload tooLarge = manager.create("admin", EnumMediaTarget.COURSE_THUMBNAIL, 1);
+        manager.upload(tooLarge, multipart("cover.png", new byte[1000]), url -> fail("nothing was stored"));
+        assertEquals(EnumUploadStatus.FAILED, tooLarge.getStatus());
+        assertNotNull(tooLarge.getError());
+
+        MediaUpload targetGone = manager.create("admin", EnumMediaTarget.COURSE_THUMBNAIL, 1);
+        manager.upload(targetGone, multipart("cover.png", new byte[10]), url -> {
+            throw new IllegalArgumentException("course 1 no longer exists");
+        });
+        assertEquals(EnumUploadStatus.FAILED, targetGone.getStatus());
+        assertNull(targetGone.getUrl());
+        // the file stored before the target was found gone is deleted again
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void uploadsPastTheSlotsAreRefused() throws Exception {
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MediaStore slowStore = new MediaStore() {
+            @Override
+            public StoredMedia store(InputStream content, String fileName, EnumMediaTarget target) throws IOException {
+                content.read(new byte[4]);
+                storing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                content.readAllBytes();
+                return new StoredMedia("memory:" + fileName, fileName);
+            }
+
+            @Override
+            public void delete(StoredMedia media) {
+            }
+        };
+        MediaUploadManager manager = new MediaUploadManager(slowStore, 1, 50, 1 << 20, 60000);
+        MediaUpload first = manager.create("admin", EnumMediaTarget.LESSON_CONTENT, 7);
+        MediaUpload second = manager.create("admin", EnumMediaTarget.LESSON_CONTENT, 8);
+
+        Thread running = new Thread(() -> {
+            try {
+                manager.upload(first, multipart("a.mp4", new byte[64]), url -> {
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        running.start();
+        assertTrue(storing.await(5, TimeUnit.SECONDS));
+        // progress is visible while the body is still streaming
+        assertEquals(EnumUploadStatus.UPLOADING, first.getStatus());
+        assertTrue(first.getBytesReceived() > 0);
+
+        assertFalse(manager.hasFreeSlot());
+        MockHttpServletRequest refused = multipart("b.mp4", new byte[64]);
+        assertFalse(manager.upload(second, refused, url -> {
+        }));
+        assertEquals(EnumUploadStatus.PENDING, second.getStatus());
+        // the body is read anyway, the connection stays usable
+        assertEquals(-1, refused.getInputStream().read());
+
+        release.countDown();
+        running.join(5000);
+        assertEquals(EnumUploadStatus.COMPLETED, first.getStatus());
+        assertTrue(manager.upload(second, multipart("b.mp4", new byte[64]), url -> {
+        }));
+        assertEquals("memory:b.mp4", second.getUrl());
+    }
+
+    @Test
+    void finishedUploadsExpire() throws Exception {
+        MediaUploadManager manager = new MediaUploadManager(new LocalMediaStore(directory.toString()), 2, 100, 1 << 20, 0);
+        MediaUpload upload = manager.create("admin", EnumMediaTarget.COURSE_THUMBNAIL, 1);
+        manager.upload(upload, multipart("cover.png", new byte[10]), url -> {
+        });
+        Thread.sleep(5);
+
+        manager.expire();
+        assertTrue(manager.find(upload.getId()).isEmpty());
+        assertEquals(0, manager.size());
+    }
+
+    private static MockHttpServletRequest multipart(String fileName, byte[] content) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"description\"\r\n\r\n"
+                + "lesson video\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/media/upload");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body.toByteArray());
+        return request;
+    }
+}
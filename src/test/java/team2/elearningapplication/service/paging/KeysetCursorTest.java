@@ -0,0 +1,36 @@
+package team2.elearningapplication.service.paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsValuesContainingTheSeparator() {
+        KeysetCursor cursor = new KeysetCursor("name", "asc", 42, "Java | Spring");
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void keepsNullAndEmptyValuesApart() {
+        assertNull(KeysetCursor.decode(new KeysetCursor("name", "desc", 1, null).encode()).lastValue());
+        assertEquals("", KeysetCursor.decode(new KeysetCursor("name", "desc", 1, "").encode()).lastValue());
+    }
+
+    @Test
+    void parsesSortValuesByAttributeType() {
+        LocalDateTime createdAt = LocalDateTime.of(2023, 10, 1, 8, 30);
+        assertEquals(createdAt, KeysetPager.parse(LocalDateTime.class, createdAt.toString()));
+        assertEquals(12.5, KeysetPager.parse(double.class, "12.5"));
+        assertEquals(3, KeysetPager.parse(int.class, "3"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.parse(Object.class, "x"));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("bm90LWEtY3Vyc29y"));
+    }
+}
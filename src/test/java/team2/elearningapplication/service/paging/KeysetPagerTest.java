@@ -0,0 +1,101 @@
+package team2.elearningapplication.service.paging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import team2.elearningapplication.dto.common.PageRequestDTO;
+import team2.elearningapplication.entity.Lesson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walks keyset pages over a real lesson table, with sort values shared by several rows.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(KeysetPager.class)
+class KeysetPagerTest {
+    private static final Set<String> KEYS = Set.of("id", "name", "rank");
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    KeysetPager keysetPager;
+
+    private int lesson(String name, Long rank, boolean deleted) {
+        Lesson lesson = new Lesson();
+        lesson.setName(name);
+        lesson.setRank(rank);
+        lesson.setDeleted(deleted);
+        return entityManager.persistAndGetId(lesson, Integer.class);
+    }
+
+    // every page in order, checking that only the last one says so
+    private List<Integer> walk(String sortBy, String sortDir, int pageSize) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 20; page++) {
+            PageRequestDTO request = new PageRequestDTO(0, pageSize, sortBy, sortDir);
+            request.setKeyset(true);
+            request.setCursor(cursor);
+            KeysetPage<Lesson> lessons = keysetPager.page(Lesson.class, "isDeleted", KEYS, request);
+            lessons.getContent().forEach(lesson -> ids.add(lesson.getId()));
+            cursor = lessons.getNextCursor();
+            if (lessons.isLast()) {
+                assertNull(cursor);
+                return ids;
+            }
+            assertEquals(pageSize, lessons.getContent().size());
+        }
+        throw new AssertionError("no last page");
+    }
+
+    @Test
+    void duplicateSortValuesAreSplitByIdAcrossPages() {
+        int b1 = lesson("b", 1L, false);
+        int a1 = lesson("a", 1L, false);
+        int b2 = lesson("b", 1L, false);
+        int a2 = lesson("a", 1L, false);
+        int c1 = lesson("c", 1L, false);
+        int b3 = lesson("b", 1L, false);
+        lesson("a", 1L, true);
+        entityManager.flush();
+
+        List<Integer> ascending = List.of(a1, a2, b1, b2, b3, c1);
+        assertEquals(ascending, walk("name", "asc", 2));
+        assertEquals(ascending, walk("name", "asc", 4));
+        assertEquals(ascending, walk("name", "asc", 6));
+        assertEquals(List.of(c1, b3, b2, b1, a2, a1), walk("name", "desc", 2));
+        assertEquals(List.of(c1, b3, b2, b1, a2, a1), walk("name", "desc", 5));
+        // every row has the same rank, the id alone orders them
+        assertEquals(List.of(b1, a1, b2, a2, c1, b3), walk("rank", "asc", 4));
+    }
+
+    @Test
+    void nullSortValuesComeFirstAscendingAndLastDescending() {
+        int ranked = lesson("x", 5L, false);
+        int unranked1 = lesson("y", null, false);
+        int low = lesson("z", 1L, false);
+        int unranked2 = lesson("w", null, false);
+        entityManager.flush();
+
+        assertEquals(List.of(unranked1, unranked2, low, ranked), walk("rank", "asc", 1));
+        assertEquals(List.of(ranked, low, unranked2, unranked1), walk("rank", "desc", 1));
+        assertEquals(List.of(ranked, low, unranked2, unranked1), walk("rank", "desc", 3));
+    }
+
+    @Test
+    void emptyTableIsOneLastPage() {
+        PageRequestDTO request = new PageRequestDTO(0, 10, "name", "asc");
+        request.setWithTotal(true);
+        KeysetPage<Lesson> lessons = keysetPager.page(Lesson.class, "isDeleted", KEYS, request);
+        assertTrue(lessons.getContent().isEmpty());
+        assertTrue(lessons.isLast());
+        assertEquals(0L, lessons.getTotalElements());
+    }
+}
@@ -0,0 +1,45 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedAnswersTest {
+
+    @Test
+    void roundTripsAnswersInOrder() {
+        List<PackedAnswers.AttemptAnswer> answers = List.of(
+                new PackedAnswers.AttemptAnswer(5, true),
+                new PackedAnswers.AttemptAnswer(Integer.MAX_VALUE, false),
+                new PackedAnswers.AttemptAnswer(0, false),
+                new PackedAnswers.AttemptAnswer(130_000, true));
+        assertEquals(answers, PackedAnswers.unpack(PackedAnswers.pack(answers)));
+    }
+
+    @Test
+    void packsGradedSubmission() {
+        QuizAnswerKey.GradeResult gradeResult = new QuizAnswerKey.GradeResult(1, 2, new boolean[]{true, false, true});
+        byte[] packed = PackedAnswers.pack(Arrays.asList(1201, null, 1203), gradeResult);
+        assertEquals(List.of(new PackedAnswers.AttemptAnswer(1201, true), new PackedAnswers.AttemptAnswer(1203, true)),
+                PackedAnswers.unpack(packed));
+        // format byte plus two bytes per answer id below 8192
+        assertEquals(5, packed.length);
+    }
+
+    @Test
+    void emptyAttemptIsOneByte() {
+        byte[] packed = PackedAnswers.pack(List.of());
+        assertEquals(1, packed.length);
+        assertTrue(PackedAnswers.unpack(packed).isEmpty());
+    }
+
+    @Test
+    void rejectsUnknownOrTruncatedBytes() {
+        assertThrows(IllegalArgumentException.class, () -> PackedAnswers.unpack(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> PackedAnswers.unpack(new byte[]{9, 1}));
+        assertThrows(IllegalArgumentException.class, () -> PackedAnswers.unpack(new byte[]{PackedAnswers.FORMAT, (byte) 0x80}));
+    }
+}
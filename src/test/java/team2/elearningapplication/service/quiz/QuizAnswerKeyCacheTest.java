@@ -0,0 +1,58 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.repository.IAnswerRepository;
+import team2.elearningapplication.repository.IQuestionRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizAnswerKeyCacheTest extends Mockito {
+    @Mock
+    IQuestionRepository questionRepository;
+    @Mock
+    IAnswerRepository answerRepository;
+
+    private QuizAnswerKeyCache quizAnswerKeyCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizAnswerKeyCache = new QuizAnswerKeyCache(questionRepository, answerRepository);
+        when(questionRepository.getQuestionByQuizID(1)).thenReturn(List.of(question(10)));
+    }
+
+    private static Question question(int id) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(EnumQuestionType.ONE_CHOICE);
+        return question;
+    }
+
+    @Test
+    void keyIsLoadedOnce() {
+        assertSame(quizAnswerKeyCache.get(1), quizAnswerKeyCache.get(1));
+        verify(questionRepository, times(1)).getQuestionByQuizID(1);
+    }
+
+    @Test
+    void keyLoadedAcrossAnEditIsNotKept() {
+        when(answerRepository.findAnswerByQuestionIdIn(any())).thenAnswer(invocation -> {
+            // a question is added while the answers are read
+            quizAnswerKeyCache.invalidateQuiz(1);
+            return List.of();
+        }).thenReturn(List.of());
+
+        QuizAnswerKey stale = quizAnswerKeyCache.get(1);
+        assertNotSame(stale, quizAnswerKeyCache.get(1));
+        verify(questionRepository, times(2)).getQuestionByQuizID(1);
+    }
+}
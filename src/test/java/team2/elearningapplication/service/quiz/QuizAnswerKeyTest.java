@@ -0,0 +1,93 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.Test;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizAnswerKeyTest {
+
+    private static Question question(int id, EnumQuestionType type) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(type);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    // question 10: one choice, 101 correct. question 20: multiple choice, 201 and 203 correct
+    private final QuizAnswerKey answerKey = QuizAnswerKey.build(1,
+            List.of(question(20, EnumQuestionType.MUILTPLE_CHOICE), question(10, EnumQuestionType.ONE_CHOICE)),
+            List.of(answer(101, 10, true), answer(102, 10, false),
+                    answer(201, 20, true), answer(202, 20, false), answer(203, 20, true),
+                    answer(999, 99, true)));
+
+    @Test
+    void gradesAllCorrect() {
+        QuizAnswerKey.GradeResult result = answerKey.grade(List.of(101, 203, 201));
+        assertEquals(2, result.getTotalCorrect());
+        assertEquals(0, result.getTotalIncorrect());
+        assertEquals(1.0, result.getMark());
+        assertTrue(result.isAnswerCorrect(0));
+    }
+
+    @Test
+    void multipleChoiceNeedsExactOptions() {
+        QuizAnswerKey.GradeResult partial = answerKey.grade(List.of(101, 201));
+        assertEquals(1, partial.getTotalCorrect());
+        assertEquals(1, partial.getTotalIncorrect());
+        assertTrue(partial.isAnswerCorrect(1));
+
+        QuizAnswerKey.GradeResult extra = answerKey.grade(List.of(201, 202, 203));
+        assertEquals(0, extra.getTotalCorrect());
+        assertFalse(extra.isAnswerCorrect(1));
+    }
+
+    @Test
+    void deletedQuestionsAndAnswersAreLeftOut() {
+        Question deletedQuestion = question(30, EnumQuestionType.ONE_CHOICE);
+        deletedQuestion.setDeleted(true);
+        Answer deletedCorrect = answer(203, 20, true);
+        deletedCorrect.setDeleted(true);
+        QuizAnswerKey key = QuizAnswerKey.build(1,
+                List.of(question(20, EnumQuestionType.MUILTPLE_CHOICE), question(10, EnumQuestionType.ONE_CHOICE), deletedQuestion),
+                List.of(answer(101, 10, true), answer(201, 20, true), answer(202, 20, false), deletedCorrect, answer(301, 30, true)));
+
+        assertEquals(2, key.getTotalQuestion());
+        assertFalse(key.containsQuestion(30));
+        assertEquals(-1, key.questionOfAnswer(203));
+        // the remaining correct option alone answers question 20
+        QuizAnswerKey.GradeResult result = key.grade(List.of(101, 201));
+        assertEquals(2, result.getTotalCorrect());
+        assertEquals(1.0, result.getMark());
+    }
+
+    @Test
+    void oneChoiceWithSeveralPicksIsWrong() {
+        QuizAnswerKey.GradeResult result = answerKey.grade(List.of(101, 102));
+        assertEquals(0, result.getTotalCorrect());
+        assertEquals(2, result.getTotalIncorrect());
+    }
+
+    @Test
+    void unknownAnswersAreWrong() {
+        QuizAnswerKey.GradeResult result = answerKey.grade(Arrays.asList(999, null, 5));
+        assertEquals(0, result.getTotalCorrect());
+        assertFalse(result.isAnswerCorrect(0));
+        assertFalse(answerKey.containsQuestion(99));
+        assertEquals(2, answerKey.getTotalQuestion());
+    }
+}
@@ -0,0 +1,143 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.HistoryQuiz;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.entity.QuizAttempt;
+import team2.elearningapplication.entity.User;
+import team2.elearningapplication.repository.IHistoryQuizRepository;
+import team2.elearningapplication.repository.IQuizAttemptRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizAttemptBackfillJobTest extends Mockito {
+    @Mock
+    IQuizAttemptRepository quizAttemptRepository;
+    @Mock
+    IHistoryQuizRepository historyQuizRepository;
+    @Mock
+    QuizAnswerKeyCache quizAnswerKeyCache;
+    @InjectMocks
+    QuizAttemptBackfillJob quizAttemptBackfillJob;
+    @InjectMocks
+    QuizAttemptReader quizAttemptReader;
+
+    private final User alice = new User().setId(1);
+    private final User bob = new User().setId(2);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(quizAttemptBackfillJob, "batchSize", 2);
+        ReflectionTestUtils.setField(quizAttemptBackfillJob, "deleteHistory", true);
+    }
+
+    private static QuizAttempt attempt(int id, User user, int sessionId) {
+        return new QuizAttempt().setId(id).setUser(user).setSessionId(sessionId);
+    }
+
+    private static HistoryQuiz history(User user, int sessionId, int answerId, boolean correct) {
+        return new HistoryQuiz().setUser(user).setSessionId(sessionId).setAnswerId(answerId).setCorrect(correct);
+    }
+
+    @Test
+    void packsHistoryRowsPerUserAndSession() {
+        QuizAttempt aliceAttempt = attempt(1, alice, 77);
+        QuizAttempt bobAttempt = attempt(2, bob, 77);
+        QuizAttempt emptyAttempt = attempt(3, alice, 88);
+        when(quizAttemptRepository.findUnpackedAfter(eq(0), any(Pageable.class))).thenReturn(List.of(aliceAttempt, bobAttempt));
+        when(quizAttemptRepository.findUnpackedAfter(eq(2), any(Pageable.class))).thenReturn(List.of(emptyAttempt));
+        when(quizAttemptRepository.findUnpackedAfter(eq(3), any(Pageable.class))).thenReturn(List.of());
+        when(historyQuizRepository.findBySessionIdIn(any())).thenAnswer(invocation ->
+                invocation.<java.util.Collection<Integer>>getArgument(0).contains(77)
+                        ? List.of(history(alice, 77, 10, true), history(bob, 77, 11, false), history(alice, 77, 12, false))
+                        : List.of());
+
+        assertEquals(3, quizAttemptBackfillJob.packHistory());
+        assertEquals(List.of(new PackedAnswers.AttemptAnswer(10, true), new PackedAnswers.AttemptAnswer(12, false)),
+                PackedAnswers.unpack(aliceAttempt.getAnswers()));
+        assertEquals(List.of(new PackedAnswers.AttemptAnswer(11, false)), PackedAnswers.unpack(bobAttempt.getAnswers()));
+        assertTrue(PackedAnswers.unpack(emptyAttempt.getAnswers()).isEmpty());
+        verify(historyQuizRepository).deleteByUserAndSessionId(alice, 77);
+        verify(historyQuizRepository).deleteByUserAndSessionId(bob, 77);
+    }
+
+    private static Question question(int id, EnumQuestionType type) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(5);
+        question.setQuestionType(type);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    @Test
+    void packedAttemptIsCountedPerQuestion() {
+        // question 20 needs both 201 and 202, question 30 is left unanswered
+        when(quizAnswerKeyCache.get(5)).thenReturn(QuizAnswerKey.build(5,
+                List.of(question(10, EnumQuestionType.ONE_CHOICE), question(20, EnumQuestionType.MUILTPLE_CHOICE),
+                        question(30, EnumQuestionType.ONE_CHOICE)),
+                List.of(answer(101, 10, true), answer(102, 10, false), answer(201, 20, true), answer(202, 20, true),
+                        answer(203, 20, false), answer(301, 30, true))));
+        // as the old answer-level insert left it: two correct answers, nothing incorrect
+        QuizAttempt attempt = attempt(1, alice, 77).setQuizId(5).setTotalCorrect(2).setTotalIncorrect(0);
+        when(quizAttemptRepository.findUnpackedAfter(eq(0), any(Pageable.class))).thenReturn(List.of(attempt));
+        when(quizAttemptRepository.findUnpackedAfter(eq(1), any(Pageable.class))).thenReturn(List.of());
+        when(historyQuizRepository.findBySessionIdIn(any())).thenReturn(List.of(history(alice, 77, 101, true), history(alice, 77, 201, true)));
+
+        assertEquals(1, quizAttemptBackfillJob.packHistory());
+        assertEquals(1, attempt.getTotalCorrect());
+        assertEquals(2, attempt.getTotalIncorrect());
+    }
+
+    @Test
+    void readerFallsBackToHistoryUntilPacked() {
+        when(quizAttemptRepository.findBySessionId(77)).thenReturn(List.of(attempt(1, alice, 77)));
+        when(historyQuizRepository.findBySessionIdIn(List.of(77))).thenReturn(List.of(history(alice, 77, 10, true)));
+        assertEquals(List.of(new PackedAnswers.AttemptAnswer(10, true)), quizAttemptReader.findAnswers(77));
+
+        QuizAttempt packed = attempt(1, alice, 77).setAnswers(PackedAnswers.pack(List.of(new PackedAnswers.AttemptAnswer(12, false))));
+        when(quizAttemptRepository.findBySessionId(77)).thenReturn(List.of(packed));
+        assertEquals(List.of(new PackedAnswers.AttemptAnswer(12, false)), quizAttemptReader.findAnswers(77));
+        verify(historyQuizRepository, times(1)).findBySessionIdIn(any());
+    }
+
+    @Test
+    void readerRejectsACursorItDidNotHandOut() {
+        QuizAttempt newest = attempt(2, alice, 78).setFinishedAt(LocalDateTime.of(2024, 5, 2, 10, 0));
+        QuizAttempt oldest = attempt(1, alice, 77).setFinishedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        when(quizAttemptRepository.findFirstPageByUser(eq(alice), any(Pageable.class))).thenReturn(List.of(newest, oldest));
+        String cursor = quizAttemptReader.findPage(alice, null, 1).nextCursor();
+        quizAttemptReader.findPage(alice, cursor, 1);
+        verify(quizAttemptRepository).findFirstPageByUser(eq(alice), any(Pageable.class));
+        verify(quizAttemptRepository).findPageByUserAfter(eq(alice), eq(newest.getFinishedAt()), eq(2), any(Pageable.class));
+
+        String notADate = Base64.getUrlEncoder().encodeToString("yesterday|2".getBytes(StandardCharsets.UTF_8));
+        String noId = Base64.getUrlEncoder().encodeToString("2024-05-02T10:00".getBytes(StandardCharsets.UTF_8));
+        for (String tampered : List.of("not base64!", notADate, noId, cursor + "x")) {
+            assertThrows(IllegalArgumentException.class, () -> quizAttemptReader.findPage(alice, tampered, 1), tampered);
+        }
+        verifyNoMoreInteractions(quizAttemptRepository);
+    }
+}
@@ -0,0 +1,85 @@
+package team2.elearningapplication.service.quiz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.dto.response.user.question.QuizContentRow;
+import team2.elearningapplication.repository.IQuestionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizContentCacheTest extends Mockito {
+    @Mock
+    IQuestionRepository questionRepository;
+
+    private QuizContentCache quizContentCache;
+
+    private static final List<QuizContentRow> ROWS = List.of(
+            new QuizContentRow(10, "Capital of France?", EnumQuestionType.ONE_CHOICE, 1, 101, "Paris"),
+            new QuizContentRow(10, "Capital of France?", EnumQuestionType.ONE_CHOICE, 1, 102, "Lyon"),
+            new QuizContentRow(20, "Pick the primes", EnumQuestionType.MUILTPLE_CHOICE, 2, 201, "2"),
+            new QuizContentRow(20, "Pick the primes", EnumQuestionType.MUILTPLE_CHOICE, 2, 202, "4"),
+            new QuizContentRow(30, "No options yet", EnumQuestionType.ONE_CHOICE, 3, null, null));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizContentCache = new QuizContentCache(questionRepository, new ObjectMapper());
+        when(questionRepository.findContentRowsByQuizId(1)).thenReturn(ROWS);
+    }
+
+    @Test
+    void groupsOptionsUnderTheirQuestion() {
+        QuizContent content = quizContentCache.get(1);
+        assertEquals(3, content.getQuestions().size());
+        assertEquals(List.of(201, 202), content.getQuestionByOrd(2).getAnswerList().stream().map(a -> a.getId()).toList());
+        assertTrue(content.getQuestionByOrd(3).getAnswerList().isEmpty());
+        assertNull(content.getQuestionByOrd(4));
+    }
+
+    @Test
+    void serializedResponseHidesCorrectOptions() throws Exception {
+        byte[] json = quizContentCache.get(1).getQuestionListJson();
+        JsonNode response = new ObjectMapper().readTree(json);
+        assertEquals(0, response.get("code").asInt());
+        JsonNode first = response.get("data").get("questionList").get(0);
+        assertEquals("Capital of France?", first.get("questionName").asText());
+        assertEquals(1, first.get("quizID").asInt());
+        assertEquals("Paris", first.get("answerList").get(0).get("answerContent").asText());
+        assertFalse(new String(json, StandardCharsets.UTF_8).toLowerCase().contains("correct"));
+    }
+
+    @Test
+    void loadsOncePerVersion() {
+        QuizContent first = quizContentCache.get(1);
+        assertSame(first, quizContentCache.get(1));
+        verify(questionRepository, times(1)).findContentRowsByQuizId(1);
+
+        quizContentCache.invalidateQuestion(20);
+        QuizContent second = quizContentCache.get(1);
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        verify(questionRepository, times(2)).findContentRowsByQuizId(1);
+    }
+
+    @Test
+    void loadRacingWithAnEditIsNotKept() {
+        when(questionRepository.findContentRowsByQuizId(1)).thenAnswer(invocation -> {
+            quizContentCache.invalidateQuiz(1);
+            return ROWS;
+        }).thenReturn(ROWS);
+
+        quizContentCache.get(1);
+        quizContentCache.get(1);
+        quizContentCache.get(1);
+        verify(questionRepository, times(2)).findContentRowsByQuizId(1);
+    }
+}
@@ -0,0 +1,186 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.Enum.ResponseCode;
+import team2.elearningapplication.dto.common.ResponseCommon;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.entity.QuizSessionSnapshot;
+import team2.elearningapplication.repository.IQuizSessionSnapshotRepository;
+import team2.elearningapplication.service.IQuizService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizDeadlineSchedulerTest extends Mockito {
+    @Mock
+    IQuizSessionSnapshotRepository snapshotRepository;
+    @Mock
+    QuizAnswerKeyCache quizAnswerKeyCache;
+    @Mock
+    IQuizService quizService;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private QuizSessionStore store;
+    private QuizDeadlineScheduler scheduler;
+
+    private final QuizAnswerKey answerKey = QuizAnswerKey.build(1, List.of(question(10)),
+            List.of(answer(101, 10, true), answer(102, 10, false)));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        store = new QuizSessionStore(snapshotRepository, quizAnswerKeyCache, 60_000, 4, false, now::get);
+        scheduler = new QuizDeadlineScheduler(store, quizService, 100, 5_000, 2, now::get);
+    }
+
+    private static Question question(int id) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(EnumQuestionType.ONE_CHOICE);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    @Test
+    void dueSessionIsClosedAndFinished() {
+        int sessionId = store.start(answerKey, "alice", 7, now.get() + 30_000);
+        scheduler.schedule(sessionId, now.get() + 30_000);
+
+        now.addAndGet(29_900);
+        assertEquals(List.of(), scheduler.advance());
+        now.addAndGet(100);
+        List<Integer> expired = scheduler.advance();
+        assertEquals(List.of(sessionId), expired);
+        assertThrows(IllegalStateException.class,
+                () -> store.update(sessionId, "alice", session -> session.submit(10, new int[]{101})));
+
+        when(quizService.finishExpiredSessions(any())).thenReturn(new ResponseCommon<>(ResponseCode.SUCCESS, 1));
+        scheduler.grade(expired);
+        verify(quizService).finishExpiredSessions(List.of(sessionId));
+    }
+
+    @Test
+    void cancelledDeadlineDoesNotFire() {
+        int sessionId = store.start(answerKey, "alice", 7, now.get() + 1_000);
+        scheduler.schedule(sessionId, now.get() + 1_000);
+        scheduler.cancel(sessionId);
+
+        now.addAndGet(2_000);
+        assertEquals(List.of(), scheduler.advance());
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void failedFinishIsRetriedThenGivenUp() {
+        int sessionId = store.start(answerKey, "alice", 7, now.get() + 1_000);
+        scheduler.schedule(sessionId, now.get() + 1_000);
+        when(quizService.finishExpiredSessions(any())).thenReturn(new ResponseCommon<>(ResponseCode.FAIL.getCode(), "down", null));
+
+        now.addAndGet(1_000);
+        scheduler.grade(scheduler.advance());
+        assertEquals(1, scheduler.size());
+
+        now.addAndGet(5_000);
+        scheduler.grade(scheduler.advance());
+        verify(quizService, times(2)).finishExpiredSessions(any());
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void dueSessionsAreGradedInOneBatch() {
+        int first = store.start(answerKey, "alice", 7, now.get() + 1_000);
+        int second = store.start(answerKey, "bob", 7, now.get() + 1_000);
+        scheduler.schedule(first, now.get() + 1_000);
+        scheduler.schedule(second, now.get() + 1_000);
+        when(quizService.finishExpiredSessions(any())).thenReturn(new ResponseCommon<>(ResponseCode.SUCCESS, 2));
+
+        now.addAndGet(1_000);
+        List<Integer> expired = scheduler.advance();
+        scheduler.grade(expired);
+        verify(quizService, times(1)).finishExpiredSessions(any());
+        assertEquals(2, expired.size());
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void failedBatchIsGradedOneByOne() {
+        int good = store.start(answerKey, "alice", 7, now.get() + 1_000);
+        int bad = store.start(answerKey, "bob", 7, now.get() + 1_000);
+        scheduler.schedule(good, now.get() + 1_000);
+        scheduler.schedule(bad, now.get() + 1_000);
+        when(quizService.finishExpiredSessions(any())).thenAnswer(invocation -> {
+            List<Integer> sessionIds = invocation.getArgument(0);
+            return sessionIds.contains(bad) ? new ResponseCommon<>(ResponseCode.FAIL.getCode(), "bad", null)
+                    : new ResponseCommon<>(ResponseCode.SUCCESS, sessionIds.size());
+        });
+
+        now.addAndGet(1_000);
+        scheduler.grade(scheduler.advance());
+        verify(quizService).finishExpiredSessions(List.of(good));
+        verify(quizService).finishExpiredSessions(List.of(bad));
+        // only the session that failed on its own is tried again
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void restoreSchedulesOpenTimedSessions() {
+        store.start(answerKey, "alice", 7, now.get() + 1_000);
+        store.start(answerKey, "bob");
+
+        scheduler.restore();
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void sessionRestoredAfterRestartIsGradedOnItsDeadline() {
+        QuizSessionStore before = new QuizSessionStore(snapshotRepository, quizAnswerKeyCache, 60_000, 4, true, now::get);
+        int sessionId = before.start(answerKey, "alice", 7, now.get() + 30_000);
+        before.update(sessionId, "alice", session -> session.submit(10, new int[]{101})).orElseThrow();
+        before.close();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QuizSessionSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+
+        // the node comes back with nothing but the snapshot rows
+        when(snapshotRepository.findAll()).thenReturn(saved.getValue());
+        when(quizAnswerKeyCache.get(1)).thenReturn(answerKey);
+        QuizSessionStore restarted = new QuizSessionStore(snapshotRepository, quizAnswerKeyCache, 60_000, 4, true, now::get);
+        QuizDeadlineScheduler restartedScheduler = new QuizDeadlineScheduler(restarted, quizService, 100, 5_000, 2, now::get);
+        restarted.restore();
+        restartedScheduler.restore();
+
+        List<QuizSession.Result> graded = new ArrayList<>();
+        when(quizService.finishExpiredSessions(any())).thenAnswer(invocation -> {
+            List<Integer> sessionIds = invocation.getArgument(0);
+            sessionIds.forEach(id -> restarted.updateAnyOwner(id, QuizSession::result).ifPresent(graded::add));
+            return new ResponseCommon<>(ResponseCode.SUCCESS, graded.size());
+        });
+        now.addAndGet(30_000);
+        List<Integer> expired = restartedScheduler.advance();
+        assertEquals(List.of(sessionId), expired);
+        restartedScheduler.grade(expired);
+
+        assertEquals(1, graded.size());
+        assertEquals(List.of(101), graded.get(0).answerIds());
+        assertEquals(1, graded.get(0).gradeResult().getTotalCorrect());
+        assertEquals(0, restartedScheduler.size());
+    }
+}
@@ -0,0 +1,89 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.dto.response.user.answer.AnswerCorrectDTO;
+import team2.elearningapplication.dto.response.user.answer.AnswerReviewRow;
+import team2.elearningapplication.dto.response.user.quiz.GetCorrectAnswerBySessionId;
+import team2.elearningapplication.dto.response.user.quiz.QuestionReviewDTO;
+import team2.elearningapplication.repository.IAnswerRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizReviewCacheTest extends Mockito {
+    @Mock
+    QuizAttemptReader quizAttemptReader;
+    @Mock
+    IAnswerRepository answerRepository;
+
+    private QuizReviewCache quizReviewCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        quizReviewCache = new QuizReviewCache(quizAttemptReader, answerRepository, 10);
+        // question 10: picked 102 (wrong), 101 is right. question 20: picked 201 (right)
+        when(quizAttemptReader.findAnswers(7)).thenReturn(List.of(
+                new PackedAnswers.AttemptAnswer(102, false), new PackedAnswers.AttemptAnswer(201, true)));
+        when(answerRepository.findReviewRowsByAnsweredIds(List.of(102, 201))).thenReturn(List.of(
+                new AnswerReviewRow(101, "Paris", true, false, 10, "Capital of France?"),
+                new AnswerReviewRow(102, "Lyon", false, false, 10, "Capital of France?"),
+                new AnswerReviewRow(201, "4", true, false, 20, "2 + 2?"),
+                new AnswerReviewRow(202, "5", false, false, 20, "2 + 2?")));
+    }
+
+    private static List<Integer> ids(List<AnswerCorrectDTO> answers) {
+        return answers.stream().map(AnswerCorrectDTO::getId).toList();
+    }
+
+    @Test
+    void wrongAnswersComeWithTheRightOption() {
+        GetCorrectAnswerBySessionId review = quizReviewCache.get(7);
+
+        assertEquals(List.of(201), ids(review.getAnswerList()));
+        QuestionReviewDTO first = review.getQuestionList().get(0);
+        assertEquals("Capital of France?", first.getQuestionName());
+        assertEquals(List.of(102), ids(first.getPickedAnswers()));
+        assertFalse(first.getPickedAnswers().get(0).isCorrect());
+        assertEquals(List.of(101), ids(first.getCorrectAnswers()));
+        assertEquals(List.of(201), ids(review.getQuestionList().get(1).getCorrectAnswers()));
+    }
+
+    @Test
+    void finishedReviewIsServedFromMemory() {
+        GetCorrectAnswerBySessionId first = quizReviewCache.get(7);
+        assertSame(first, quizReviewCache.get(7));
+        verify(quizAttemptReader, times(1)).findAnswers(7);
+        verify(answerRepository, times(1)).findReviewRowsByAnsweredIds(any());
+
+        quizReviewCache.invalidate(7);
+        quizReviewCache.get(7);
+        verify(quizAttemptReader, times(2)).findAnswers(7);
+    }
+
+    @Test
+    void reviewLoadedAcrossAnInvalidationIsNotKept() {
+        when(answerRepository.findReviewRowsByAnsweredIds(List.of(102, 201))).thenAnswer(invocation -> {
+            // the session is finished again while its first attempt is being read
+            quizReviewCache.invalidate(7);
+            return List.of();
+        }).thenReturn(List.of());
+
+        GetCorrectAnswerBySessionId stale = quizReviewCache.get(7);
+        assertNotSame(stale, quizReviewCache.get(7));
+        verify(quizAttemptReader, times(2)).findAnswers(7);
+    }
+
+    @Test
+    void unfinishedSessionIsNotCached() {
+        assertTrue(quizReviewCache.get(8).getQuestionList().isEmpty());
+        quizReviewCache.get(8);
+        verify(quizAttemptReader, times(2)).findAnswers(8);
+        verify(answerRepository, never()).findReviewRowsByAnsweredIds(any());
+    }
+}
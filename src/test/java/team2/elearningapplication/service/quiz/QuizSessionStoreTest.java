@@ -0,0 +1,251 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.entity.QuizSessionSnapshot;
+import team2.elearningapplication.repository.IQuizSessionSnapshotRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizSessionStoreTest extends Mockito {
+    private static final long TTL = 60_000;
+
+    @Mock
+    IQuizSessionSnapshotRepository snapshotRepository;
+    @Mock
+    QuizAnswerKeyCache quizAnswerKeyCache;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    // question 10: one choice, 101 correct. question 20: multiple choice, 201 and 203 correct
+    private final QuizAnswerKey answerKey = QuizAnswerKey.build(1,
+            List.of(question(10, EnumQuestionType.ONE_CHOICE), question(20, EnumQuestionType.MUILTPLE_CHOICE)),
+            List.of(answer(101, 10, true), answer(102, 10, false),
+                    answer(201, 20, true), answer(202, 20, false), answer(203, 20, true)));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(quizAnswerKeyCache.get(1)).thenReturn(answerKey);
+    }
+
+    private QuizSessionStore store(boolean snapshotEnabled) {
+        return new QuizSessionStore(snapshotRepository, quizAnswerKeyCache, TTL, 4, snapshotEnabled, now::get);
+    }
+
+    private static Question question(int id, EnumQuestionType type) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(type);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    private static void submit(QuizSessionStore store, int sessionId, int questionId, int... answerIds) {
+        store.update(sessionId, "alice", session -> session.submit(questionId, answerIds)).orElseThrow();
+    }
+
+    @Test
+    void gradesWhileAnsweringLikeAWholeSubmission() {
+        QuizSessionStore store = store(false);
+        int sessionId = store.start(answerKey, "alice");
+        submit(store, sessionId, 20, 201, 203);
+        submit(store, sessionId, 10, 102);
+
+        QuizSession.Result result = store.update(sessionId, "alice", QuizSession::result).orElseThrow();
+        QuizAnswerKey.GradeResult expected = answerKey.grade(List.of(102, 201, 203));
+        assertEquals(List.of(102, 201, 203), result.answerIds());
+        assertEquals(expected.getTotalCorrect(), result.gradeResult().getTotalCorrect());
+        assertEquals(1, result.gradeResult().getTotalIncorrect());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.isAnswerCorrect(i), result.gradeResult().isAnswerCorrect(i));
+        }
+    }
+
+    @Test
+    void resubmittingReplacesTheAnswer() {
+        QuizSessionStore store = store(false);
+        int sessionId = store.start(answerKey, "alice");
+        submit(store, sessionId, 10, 102);
+        submit(store, sessionId, 10, 101);
+        submit(store, sessionId, 20, 201);
+        submit(store, sessionId, 20);
+
+        QuizSession.Result result = store.update(sessionId, "alice", QuizSession::result).orElseThrow();
+        assertEquals(List.of(101), result.answerIds());
+        assertEquals(1, result.gradeResult().getTotalCorrect());
+        assertEquals(1, (int) store.update(sessionId, "alice", QuizSession::getAnsweredCount).orElseThrow());
+    }
+
+    @Test
+    void rejectsAnswersOfAnotherQuestion() {
+        QuizSessionStore store = store(false);
+        int sessionId = store.start(answerKey, "alice");
+        assertThrows(IllegalArgumentException.class, () -> submit(store, sessionId, 10, 201));
+        assertThrows(IllegalArgumentException.class, () -> submit(store, sessionId, 99, 101));
+        assertEquals(0, (int) store.update(sessionId, "alice", QuizSession::getAnsweredCount).orElseThrow());
+    }
+
+    @Test
+    void sessionOfAnotherUserIsNotFound() {
+        QuizSessionStore store = store(false);
+        int sessionId = store.start(answerKey, "alice");
+        assertTrue(store.update(sessionId, "bob", QuizSession::getQuizId).isEmpty());
+        // a call without a username is no owner either
+        assertTrue(store.update(sessionId, null, QuizSession::getQuizId).isEmpty());
+        assertTrue(store.removeOpen(sessionId, null).isEmpty());
+        assertEquals(1, store.updateAnyOwner(sessionId, QuizSession::getQuizId).orElseThrow());
+    }
+
+    @Test
+    void sessionWithoutOwnerIsNotStarted() {
+        QuizSessionStore store = store(false);
+        assertThrows(IllegalArgumentException.class, () -> store.start(answerKey, null));
+        assertThrows(IllegalArgumentException.class, () -> store.start(answerKey, " ", 7, now.get() + 1_000));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void idleSessionsExpire() {
+        QuizSessionStore store = store(false);
+        int idle = store.start(answerKey, "alice");
+        int active = store.start(answerKey, "alice");
+        now.addAndGet(TTL / 2);
+        submit(store, active, 10, 101);
+        now.addAndGet(TTL / 2 + 1);
+
+        assertTrue(store.update(idle, "alice", QuizSession::getQuizId).isEmpty());
+        store.evictExpired();
+        assertEquals(1, store.size());
+        now.addAndGet(TTL);
+        store.evictExpired();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void snapshotSurvivesRestart() {
+        QuizSessionStore store = store(true);
+        int sessionId = store.start(answerKey, "alice");
+        submit(store, sessionId, 20, 201, 203);
+        submit(store, sessionId, 10, 101);
+        store.snapshot();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QuizSessionSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+        assertEquals("10:101;20:201,203", saved.getValue().get(0).getAnswers());
+
+        // nothing changed since, reading the session writes nothing
+        store.update(sessionId, "alice", QuizSession::result);
+        store.snapshot();
+        verify(snapshotRepository, times(1)).saveAll(any());
+
+        when(snapshotRepository.findAll()).thenReturn(saved.getValue());
+        QuizSessionStore restarted = store(true);
+        restarted.restore();
+        verify(snapshotRepository).deleteFinished();
+        QuizSession.Result result = restarted.update(sessionId, "alice", QuizSession::result).orElseThrow();
+        assertEquals(2, result.gradeResult().getTotalCorrect());
+        assertEquals(List.of(101, 201, 203), result.answerIds());
+    }
+
+    @Test
+    void timedSessionOutlivesIdlenessAndRestartUntilClosed() {
+        QuizSessionStore store = store(true);
+        long deadline = now.get() + 3 * TTL;
+        int sessionId = store.start(answerKey, "alice", 7, deadline);
+        store.snapshot();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QuizSessionSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+
+        // down for longer than the deadline and the idle time together
+        now.addAndGet(5 * TTL);
+        when(snapshotRepository.findAll()).thenReturn(saved.getValue());
+        QuizSessionStore restarted = store(true);
+        restarted.restore();
+        restarted.evictExpired();
+        assertEquals(Map.of(sessionId, deadline), restarted.deadlines());
+
+        QuizSession session = restarted.updateAnyOwner(sessionId, current -> current).orElseThrow();
+        assertTrue(session.isClosed());
+        assertEquals(7, session.getCourseId());
+        assertTrue(restarted.deadlines().isEmpty());
+        now.addAndGet(TTL + 1);
+        restarted.evictExpired();
+        assertEquals(0, restarted.size());
+    }
+
+    @Test
+    void onlyAnOpenSessionCanBeStartedOver() {
+        QuizSessionStore store = store(false);
+        int open = store.start(answerKey, "alice", 7, now.get() + 1_000);
+        int due = store.start(answerKey, "alice", 7, now.get() + 500);
+        now.addAndGet(500);
+
+        assertEquals(open, store.removeOpen(open, "alice").orElseThrow().getSessionId());
+        assertTrue(store.update(open, "alice", QuizSession::getQuizId).isEmpty());
+        // past its deadline the session stays for the deadline scheduler to grade
+        assertThrows(IllegalStateException.class, () -> store.removeOpen(due, "alice"));
+        assertTrue(store.update(due, "alice", QuizSession::isClosed).orElseThrow());
+        assertTrue(store.removeOpen(due, "bob").isEmpty());
+    }
+
+    @Test
+    void finishedSessionSnapshotIsDeleted() {
+        QuizSessionStore store = store(true);
+        int sessionId = store.start(answerKey, "alice");
+        store.remove(sessionId);
+        store.snapshot();
+        verify(snapshotRepository).deleteAllByIdInBatch(List.of(sessionId));
+        verify(snapshotRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void concurrentAttemptsKeepTheirOwnAnswers() throws Exception {
+        QuizSessionStore store = store(false);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> correct = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                boolean right = i % 2 == 0;
+                correct.add(executor.submit(() -> {
+                    int sessionId = store.start(answerKey, "alice");
+                    submit(store, sessionId, 10, right ? 101 : 102);
+                    submit(store, sessionId, 20, 201, 203);
+                    return store.update(sessionId, "alice", QuizSession::getTotalCorrect).orElseThrow();
+                }));
+            }
+            for (int i = 0; i < correct.size(); i++) {
+                assertEquals(i % 2 == 0 ? 2 : 1, correct.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(200, store.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import team2.elearningapplication.Enum.EnumQuestionType;
+import team2.elearningapplication.dto.response.admin.dashboard.QuestionDifficulty;
+import team2.elearningapplication.dto.response.admin.dashboard.QuizStatsResponse;
+import team2.elearningapplication.entity.Answer;
+import team2.elearningapplication.entity.Question;
+import team2.elearningapplication.entity.QuestionStats;
+import team2.elearningapplication.entity.QuizScoreStats;
+import team2.elearningapplication.repository.IQuestionStatsRepository;
+import team2.elearningapplication.repository.IQuizScoreStatsRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizStatsCollectorTest extends Mockito {
+    @Mock
+    IQuestionStatsRepository questionStatsRepository;
+    @Mock
+    IQuizScoreStatsRepository quizScoreStatsRepository;
+    @InjectMocks
+    QuizStatsCollector quizStatsCollector;
+
+    // question 10: 101 correct. question 20: 201 correct
+    private QuizAnswerKey answerKey;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        answerKey = QuizAnswerKey.build(1,
+                List.of(question(10), question(20)),
+                List.of(answer(101, 10, true), answer(102, 10, false), answer(201, 20, true), answer(202, 20, false)));
+    }
+
+    private static Question question(int id) {
+        Question question = new Question();
+        question.setId(id);
+        question.setQuizID(1);
+        question.setQuestionType(EnumQuestionType.ONE_CHOICE);
+        return question;
+    }
+
+    private static Answer answer(int id, int questionId, boolean correct) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId(questionId);
+        answer.setCorrect(correct);
+        return answer;
+    }
+
+    @Test
+    void flushWritesPendingDeltasOnce() {
+        quizStatsCollector.record(1, answerKey.grade(List.of(101, 201)));
+        quizStatsCollector.record(1, answerKey.grade(List.of(101, 202)));
+        quizStatsCollector.record(1, answerKey.grade(List.of(102)));
+
+        quizStatsCollector.flush();
+
+        verify(questionStatsRepository).addCounts(10, 1, 2, 1);
+        verify(questionStatsRepository).addCounts(20, 1, 1, 2);
+        verify(quizScoreStatsRepository).addAttempts(1, 0, 1);
+        verify(quizScoreStatsRepository).addAttempts(1, 5, 1);
+        verify(quizScoreStatsRepository).addAttempts(1, 9, 1);
+
+        quizStatsCollector.flush();
+        verifyNoMoreInteractions(questionStatsRepository, quizScoreStatsRepository);
+    }
+
+    @Test
+    void failedFlushKeepsDeltas() {
+        quizStatsCollector.record(1, answerKey.grade(List.of(101, 201)));
+        doThrow(new RuntimeException("down")).doNothing().when(questionStatsRepository).addCounts(10, 1, 1, 0);
+
+        quizStatsCollector.flush();
+        quizStatsCollector.flush();
+
+        verify(questionStatsRepository, times(2)).addCounts(10, 1, 1, 0);
+        verify(questionStatsRepository, times(1)).addCounts(20, 1, 1, 0);
+    }
+
+    @Test
+    void statsMergeStoredRowsWithPending() {
+        when(questionStatsRepository.findByQuizId(1)).thenReturn(List.of(
+                new QuestionStats().setQuestionId(10).setQuizId(1).setHitCount(4).setMissCount(0)));
+        when(quizScoreStatsRepository.findByQuizId(1)).thenReturn(List.of(
+                new QuizScoreStats().setQuizId(1).setBucket(9).setAttemptCount(4)));
+        quizStatsCollector.record(1, answerKey.grade(List.of(102, 202)));
+
+        QuizStatsResponse stats = quizStatsCollector.getStats(1);
+
+        assertEquals(5, stats.getAttemptCount());
+        assertEquals(1, stats.getScoreDistribution().get(0).getAttemptCount());
+        assertEquals(4, stats.getScoreDistribution().get(9).getAttemptCount());
+        assertEquals(90, stats.getScoreDistribution().get(9).getFromPercent());
+        List<QuestionDifficulty> questions = stats.getQuestions();
+        // question 20 was only ever missed, so it comes first
+        assertEquals(20, questions.get(0).getQuestionId());
+        assertEquals(1.0, questions.get(0).getMissRate());
+        assertEquals(10, questions.get(1).getQuestionId());
+        assertEquals(4, questions.get(1).getHitCount());
+        assertEquals(0.2, questions.get(1).getMissRate(), 1e-9);
+    }
+
+    @Test
+    void fullMarkFallsInLastBucket() {
+        assertEquals(9, QuizStatsCollector.bucketOf(1.0));
+        assertEquals(9, QuizStatsCollector.bucketOf(0.95));
+        assertEquals(7, QuizStatsCollector.bucketOf(0.75));
+        assertEquals(0, QuizStatsCollector.bucketOf(0));
+    }
+}
@@ -0,0 +1,98 @@
+package team2.elearningapplication.service.quiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+
+    private static List<Integer> advance(TimingWheel wheel, long now) {
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(now, fired::add);
+        return fired;
+    }
+
+    @Test
+    void firesAtTheTickOfTheDeadlineNeverEarlier() {
+        TimingWheel wheel = new TimingWheel(TICK, 1_000);
+        wheel.schedule(1, 1_055);
+
+        assertEquals(List.of(), advance(wheel, 1_050));
+        assertEquals(List.of(1), advance(wheel, 1_060));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule(1, 100);
+        wheel.schedule(2, 100);
+
+        assertTrue(wheel.cancel(1));
+        assertFalse(wheel.cancel(1));
+        assertEquals(List.of(2), advance(wheel, 100));
+    }
+
+    @Test
+    void rescheduleReplacesTheDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule(1, 100);
+        wheel.schedule(1, 5_000);
+
+        assertEquals(List.of(), advance(wheel, 1_000));
+        assertEquals(List.of(1), advance(wheel, 5_000));
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        TimingWheel wheel = new TimingWheel(TICK, 10_000);
+        wheel.schedule(1, 500);
+
+        assertEquals(List.of(1), advance(wheel, 10_000));
+    }
+
+    @Test
+    void everyTimerFiresOnItsOwnTickAcrossAllLevels() {
+        long start = 123_456;
+        TimingWheel wheel = new TimingWheel(1, start);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 2_000; key++) {
+            // spread over all four levels and past the range of the top one
+            long offset = (long) Math.pow(2, random.nextDouble() * 26);
+            deadlines.put(key, start + offset);
+            wheel.schedule(key, start + offset);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        long lastDeadline = Collections.max(deadlines.values());
+        for (long now = start; now <= lastDeadline; now += 997) {
+            long at = now;
+            wheel.advance(now, key -> firedAt.put(key, at));
+        }
+        wheel.advance(lastDeadline, key -> firedAt.put(key, lastDeadline));
+
+        assertEquals(deadlines.size(), firedAt.size());
+        for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+            long deadline = entry.getValue();
+            long at = firedAt.get(entry.getKey());
+            assertTrue(at >= deadline, "timer " + entry.getKey() + " fired early");
+            assertTrue(at < deadline + 997 || at == lastDeadline, "timer " + entry.getKey() + " fired late");
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void callbackMayScheduleTheKeyAgain() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule(1, 100);
+
+        assertEquals(List.of(1), advance(wheel, 100));
+        wheel.schedule(1, 200);
+        assertTrue(wheel.contains(1));
+        assertEquals(List.of(1), advance(wheel, 200));
+    }
+}